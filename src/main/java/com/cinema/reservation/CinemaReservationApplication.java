@@ -4,6 +4,7 @@ import io.swagger.v3.oas.annotations.security.SecurityScheme;
 import io.swagger.v3.oas.annotations.enums.SecuritySchemeType;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 
 @SpringBootApplication
 @SecurityScheme(
@@ -13,6 +14,9 @@ import org.springframework.boot.autoconfigure.SpringBootApplication;
 )
 public class CinemaReservationApplication {
     public static void main(String[] args) {
-        SpringApplication.run(CinemaReservationApplication.class, args);
+        SpringApplication application = new SpringApplication(CinemaReservationApplication.class);
+        // Kroki startu dla StartupReport (najwolniejsze beany); bufor zwalniany po raporcie
+        application.setApplicationStartup(new BufferingApplicationStartup(4096));
+        application.run(args);
     }
 }
@@ -0,0 +1,151 @@
+package com.cinema.reservation.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import java.sql.Connection;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Keeps track of who currently holds a JDBC connection. Every borrow is tagged with the controller method
+ * serving the request ({@link #setCurrentEndpoint(String)}: "request" from {@link ConnectionEndpointFilter},
+ * narrowed by the MVC interceptor) or "background" for schedulers and booking workers. Hold times go to {@code cinema.db.connection.hold{endpoint}};
+ * connections held longer than the leak threshold are logged once (with the borrower's stack trace when
+ * capture-stack-traces is on - off by default, it costs a stack walk per borrow) and counted in
+ * {@code cinema.db.connection.leaks{endpoint}}.
+ */
+@Slf4j
+public class ConnectionBorrowTracker {
+
+    static final String BACKGROUND = "background";
+    static final String REQUEST = "request";
+
+    private static final ThreadLocal<String> CURRENT_ENDPOINT = new ThreadLocal<>();
+
+    private final Map<Connection, Borrow> borrowers = new ConcurrentHashMap<>();
+    private final Map<String, Timer> holdTimers = new ConcurrentHashMap<>();
+    private final MeterRegistry meterRegistry;
+    private final long leakThresholdNanos;
+    private final boolean captureStackTraces;
+
+    public ConnectionBorrowTracker(MeterRegistry meterRegistry, Duration leakThreshold, boolean captureStackTraces) {
+        this.meterRegistry = meterRegistry;
+        this.leakThresholdNanos = leakThreshold.toNanos();
+        this.captureStackTraces = captureStackTraces;
+    }
+
+    public static void setCurrentEndpoint(String endpoint) {
+        CURRENT_ENDPOINT.set(endpoint);
+    }
+
+    public static void clearCurrentEndpoint() {
+        CURRENT_ENDPOINT.remove();
+    }
+
+    static boolean isInRequest() {
+        return CURRENT_ENDPOINT.get() != null;
+    }
+
+    void borrowed(Connection connection) {
+        String endpoint = CURRENT_ENDPOINT.get();
+        Thread thread = Thread.currentThread();
+        StackTraceElement[] stackTrace = null;
+        if (captureStackTraces) {
+            // Bez ramek getStackTrace, trackera i TrackingDataSource - stos zaczyna się od kodu, który poprosił o połączenie
+            StackTraceElement[] full = thread.getStackTrace();
+            stackTrace = Arrays.copyOfRange(full, Math.min(4, full.length), full.length);
+        }
+        borrowers.put(connection, new Borrow(endpoint != null ? endpoint : BACKGROUND, thread.getName(),
+                System.nanoTime(), Instant.now(), stackTrace));
+    }
+
+    void returned(Connection connection) {
+        Borrow borrow = borrowers.remove(connection);
+        if (borrow != null) {
+            holdTimer(borrow.getEndpoint()).record(System.nanoTime() - borrow.getAcquiredNanos(), TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Current borrowers, longest-held first.
+     */
+    public List<Borrower> borrowers() {
+        long now = System.nanoTime();
+        return borrowers.values().stream()
+                .sorted(Comparator.comparingLong(Borrow::getAcquiredNanos))
+                .map(borrow -> new Borrower(borrow.getEndpoint(), borrow.getThread(), borrow.getAcquiredAt(),
+                        Duration.ofNanos(now - borrow.getAcquiredNanos()).toMillis(),
+                        borrow.getStackTrace() != null
+                                ? Arrays.stream(borrow.getStackTrace()).map(StackTraceElement::toString).toList()
+                                : List.of()))
+                .toList();
+    }
+
+    @Scheduled(fixedDelayString = "${cinema.datasource.tracking.leak-check-interval:PT5S}")
+    public void detectLeaks() {
+        if (leakThresholdNanos <= 0) {
+            return;
+        }
+        long now = System.nanoTime();
+        borrowers.values().forEach(borrow -> {
+            if (now - borrow.getAcquiredNanos() > leakThresholdNanos && borrow.markReported()) {
+                Counter.builder("cinema.db.connection.leaks")
+                        .tag("endpoint", borrow.getEndpoint())
+                        .register(meterRegistry)
+                        .increment();
+                Exception origin = new Exception("Connection borrowed here");
+                if (borrow.getStackTrace() != null) {
+                    origin.setStackTrace(borrow.getStackTrace());
+                }
+                log.warn("Connection held for {} ms by {} on thread {}, possible leak",
+                        Duration.ofNanos(now - borrow.getAcquiredNanos()).toMillis(), borrow.getEndpoint(), borrow.getThread(), origin);
+            }
+        });
+    }
+
+    private Timer holdTimer(String endpoint) {
+        return holdTimers.computeIfAbsent(endpoint, name -> Timer.builder("cinema.db.connection.hold")
+                .description("Time a JDBC connection stays borrowed, per controller method")
+                .tag("endpoint", name)
+                .publishPercentileHistogram()
+                .register(meterRegistry));
+    }
+
+    public record Borrower(String endpoint, String thread, Instant acquiredAt, long heldMillis, List<String> stackTrace) {
+    }
+
+    @Getter
+    @RequiredArgsConstructor
+    private static final class Borrow {
+
+        private final String endpoint;
+        private final String thread;
+        private final long acquiredNanos;
+        private final Instant acquiredAt;
+        private final StackTraceElement[] stackTrace;
+        @Getter(AccessLevel.NONE)
+        private volatile boolean reported;
+
+        // Ostrzeżenie o wycieku tylko raz na wypożyczenie
+        boolean markReported() {
+            if (reported) {
+                return false;
+            }
+            reported = true;
+            return true;
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.cinema.reservation.config;
+
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Owns the connection-tracking endpoint tag for the whole request. Runs first, so connections borrowed
+ * by filters before a handler is chosen (security, idempotency) are tagged {@link ConnectionBorrowTracker#REQUEST}
+ * instead of "background"; the MVC interceptor then narrows the tag to the controller method. The tag is
+ * always cleared here, so a pooled servlet thread never carries it into the next request.
+ */
+public class ConnectionEndpointFilter extends OncePerRequestFilter {
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        ConnectionBorrowTracker.setCurrentEndpoint(ConnectionBorrowTracker.REQUEST);
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            ConnectionBorrowTracker.clearCurrentEndpoint();
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.cinema.reservation.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import javax.sql.DataSource;
+import java.sql.SQLException;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@code GET /actuator/dbconnections}: pool occupancy and every connection currently borrowed, with the
+ * endpoint, thread and stack trace that took it. Meant for sizing the pool against what is really held
+ * during a booking spike.
+ */
+@Endpoint(id = "dbconnections")
+public class ConnectionPoolEndpoint {
+
+    private final ConnectionBorrowTracker tracker;
+    private final ObjectProvider<DataSource> dataSources;
+
+    public ConnectionPoolEndpoint(ConnectionBorrowTracker tracker, ObjectProvider<DataSource> dataSources) {
+        this.tracker = tracker;
+        this.dataSources = dataSources;
+    }
+
+    @ReadOperation
+    public ConnectionPoolReport connections() {
+        Map<String, PoolState> pools = new LinkedHashMap<>();
+        dataSources.orderedStream().forEach(dataSource -> {
+            HikariDataSource hikari = unwrapHikari(dataSource);
+            // Pula niezainicjalizowana nie ma jeszcze MXBean
+            if (hikari != null && hikari.getHikariPoolMXBean() != null) {
+                HikariPoolMXBean pool = hikari.getHikariPoolMXBean();
+                pools.putIfAbsent(hikari.getPoolName(), new PoolState(pool.getActiveConnections(),
+                        pool.getIdleConnections(), pool.getThreadsAwaitingConnection(), pool.getTotalConnections(),
+                        hikari.getMaximumPoolSize()));
+            }
+        });
+        return new ConnectionPoolReport(pools, tracker.borrowers());
+    }
+
+    private static HikariDataSource unwrapHikari(DataSource dataSource) {
+        try {
+            return dataSource.isWrapperFor(HikariDataSource.class) ? dataSource.unwrap(HikariDataSource.class) : null;
+        } catch (SQLException e) {
+            return null;
+        }
+    }
+
+    public record ConnectionPoolReport(Map<String, PoolState> pools, List<ConnectionBorrowTracker.Borrower> borrowers) {
+    }
+
+    public record PoolState(int active, int idle, int awaiting, int total, int maximum) {
+    }
+}
@@ -0,0 +1,64 @@
+package com.cinema.reservation.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Wraps the application's data source (the {@code dataSource} bean JPA, Flyway and JdbcTemplate use) in a
+ * {@link TrackingDataSource}, so every borrowed connection is attributed to the controller method that
+ * needed it. With read replicas the wrapped bean is the lazy routing proxy, so a hold starts when the
+ * transaction asks for a connection.
+ */
+@Configuration
+@ConditionalOnProperty(name = "cinema.datasource.tracking.enabled", havingValue = "true", matchIfMissing = true)
+public class ConnectionTrackingConfig {
+
+    static final String DATA_SOURCE_BEAN = "dataSource";
+
+    @Bean
+    public ConnectionBorrowTracker connectionBorrowTracker(
+            MeterRegistry meterRegistry,
+            @Value("${cinema.datasource.tracking.leak-threshold:PT10S}") Duration leakThreshold,
+            @Value("${cinema.datasource.tracking.capture-stack-traces:false}") boolean captureStackTraces) {
+        return new ConnectionBorrowTracker(meterRegistry, leakThreshold, captureStackTraces);
+    }
+
+    @Bean
+    public static BeanPostProcessor trackingDataSourcePostProcessor(ObjectProvider<ConnectionBorrowTracker> tracker) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (DATA_SOURCE_BEAN.equals(beanName) && bean instanceof DataSource dataSource
+                        && !(bean instanceof TrackingDataSource)) {
+                    return new TrackingDataSource(dataSource, tracker.getObject());
+                }
+                return bean;
+            }
+        };
+    }
+
+    // Przed wszystkimi innymi filtrami - połączenia brane przez filtry też są przypisane do żądania
+    @Bean
+    public FilterRegistrationBean<ConnectionEndpointFilter> connectionEndpointFilter() {
+        FilterRegistrationBean<ConnectionEndpointFilter> registration =
+                new FilterRegistrationBean<>(new ConnectionEndpointFilter());
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    @Bean
+    public ConnectionPoolEndpoint connectionPoolEndpoint(ConnectionBorrowTracker connectionBorrowTracker,
+                                                         ObjectProvider<DataSource> dataSources) {
+        return new ConnectionPoolEndpoint(connectionBorrowTracker, dataSources);
+    }
+}
@@ -0,0 +1,101 @@
+package com.cinema.reservation.config;
+
+import com.cinema.reservation.entity.HibernateCacheRegions;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import com.github.benmanes.caffeine.jcache.spi.CaffeineCachingProvider;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import javax.cache.Cache;
+import javax.cache.CacheManager;
+import javax.cache.Caching;
+import javax.cache.spi.CachingProvider;
+import java.net.URI;
+import java.time.Duration;
+import java.util.Map;
+import java.util.OptionalLong;
+import java.util.UUID;
+
+/**
+ * Second-level cache for the reference data (movies, cinemas, halls) read on almost every booking and
+ * schedule request, plus the query cache for catalog queries marked cacheable in the repositories.
+ * Regions live in a Caffeine-backed JCache manager built here, so each one is bounded by
+ * {@code cinema.cache.regions.<region>.max-entries} and {@code .time-to-live}. Hit/miss/put counts per
+ * region come from Hibernate statistics through Micrometer ({@code hibernate.second.level.cache.*}),
+ * current region sizes from {@code cinema.cache.region.size}.
+ */
+@Configuration
+@ConditionalOnProperty(name = "cinema.cache.second-level.enabled", havingValue = "true", matchIfMissing = true)
+public class HibernateCacheConfig {
+
+    static final String REGION_PROPERTY_PREFIX = "cinema.cache.regions.";
+
+    static final Map<String, Long> DEFAULT_MAX_ENTRIES = Map.of(
+            HibernateCacheRegions.MOVIES, 5_000L,
+            HibernateCacheRegions.CINEMAS, 500L,
+            HibernateCacheRegions.CINEMA_HALLS, 2_000L,
+            HibernateCacheRegions.CINEMA_HALLS_COLLECTION, 500L,
+            HibernateCacheRegions.QUERY_RESULTS, 1_000L);
+
+    static final Duration DEFAULT_TIME_TO_LIVE = Duration.ofHours(1);
+
+    @Bean(destroyMethod = "close")
+    public CacheManager hibernateCacheManager(Environment environment, MeterRegistry meterRegistry) {
+        CachingProvider provider = Caching.getCachingProvider(CaffeineCachingProvider.class.getName());
+        // Osobny manager na kontekst - testy trzymają kilka kontekstów naraz, każdy z własną bazą
+        CacheManager cacheManager = provider.getCacheManager(
+                URI.create("cinema-hibernate-" + UUID.randomUUID()), getClass().getClassLoader());
+
+        for (String region : HibernateCacheRegions.ALL) {
+            Cache<Object, Object> cache = cacheManager.createCache(region, regionConfiguration(region, environment));
+            Gauge.builder("cinema.cache.region.size",
+                            cache.unwrap(com.github.benmanes.caffeine.cache.Cache.class),
+                            com.github.benmanes.caffeine.cache.Cache::estimatedSize)
+                    .description("Entries currently held in a second-level cache region")
+                    .tag("region", region)
+                    .register(meterRegistry);
+        }
+        return cacheManager;
+    }
+
+    @Bean
+    public HibernatePropertiesCustomizer secondLevelCacheCustomizer(CacheManager hibernateCacheManager) {
+        return properties -> {
+            properties.put(AvailableSettings.USE_SECOND_LEVEL_CACHE, true);
+            properties.put(AvailableSettings.USE_QUERY_CACHE, true);
+            properties.put(AvailableSettings.CACHE_REGION_FACTORY, ConfigSettings.SIMPLE_FACTORY_NAME);
+            properties.put(ConfigSettings.CACHE_MANAGER, hibernateCacheManager);
+            // Region bez konfiguracji (np. nowa encja z @Cache) ma zatrzymać start, a nie rosnąć bez limitu
+            properties.put(ConfigSettings.MISSING_CACHE_STRATEGY, "fail");
+        };
+    }
+
+    static CaffeineConfiguration<Object, Object> regionConfiguration(String region, Environment environment) {
+        CaffeineConfiguration<Object, Object> configuration = new CaffeineConfiguration<>();
+        configuration.setStatisticsEnabled(true);
+        if (HibernateCacheRegions.UPDATE_TIMESTAMPS.equals(region)) {
+            // Znaczniki zmian tabel (po jednym na tabelę) nie mogą wypaść przed wynikami zapytań, które unieważniają
+            return configuration;
+        }
+
+        long maxEntries = environment.getProperty(REGION_PROPERTY_PREFIX + region + ".max-entries", Long.class,
+                DEFAULT_MAX_ENTRIES.getOrDefault(region, 1_000L));
+        configuration.setMaximumSize(OptionalLong.of(Math.max(1, maxEntries)));
+
+        // TTL chroni przed zmianami zrobionymi poza Hibernate (ręczny SQL) - zapisy przez JPA unieważniają wpisy od razu
+        String timeToLive = environment.getProperty(REGION_PROPERTY_PREFIX + region + ".time-to-live");
+        Duration ttl = timeToLive != null ? DurationStyle.detectAndParse(timeToLive) : DEFAULT_TIME_TO_LIVE;
+        if (!ttl.isZero() && !ttl.isNegative()) {
+            configuration.setExpireAfterWrite(OptionalLong.of(ttl.toNanos()));
+        }
+        return configuration;
+    }
+}
@@ -0,0 +1,19 @@
+package com.cinema.reservation.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.util.unit.DataSize;
+
+@Configuration
+public class HttpCacheConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "cinema.http-cache.precomputed-json.enabled", havingValue = "true", matchIfMissing = true)
+    public PrecomputedJsonCache precomputedJsonCache(MeterRegistry meterRegistry,
+                                                     @Value("${cinema.http-cache.precomputed-json.max-entry-size:8MB}") DataSize maxEntrySize) {
+        return new PrecomputedJsonCache(meterRegistry, maxEntrySize.toBytes());
+    }
+}
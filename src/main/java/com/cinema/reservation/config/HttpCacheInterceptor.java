@@ -0,0 +1,220 @@
+package com.cinema.reservation.config;
+
+import com.cinema.reservation.service.CatalogVersions;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.core.env.Environment;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.DefaultTransactionDefinition;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.ModelAndView;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.StringJoiner;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Conditional GET for endpoints annotated with {@link HttpCached}. Validators are computed from the
+ * shared {@link CatalogVersions} before the handler runs, so a request carrying a current If-None-Match
+ * or If-Modified-Since gets its 304 after a single small query. The versions are read in a read-only
+ * repeatable-read transaction that the handler then joins: tag and data come from the same connection
+ * (and replica) and the same snapshot, so a lagging replica can never pair old data with a new tag.
+ * The transaction ends as soon as the handler has returned: {@link HttpCachedBodyAdvice} serializes the
+ * body inside it and ends it before writing, {@link #postHandle} covers responses without a body, and
+ * {@link #afterCompletion} only handles a handler that threw.
+ * <p>
+ * For endpoints with precomputed JSON a plain GET is answered from {@link PrecomputedJsonCache} the
+ * same way; on a miss the tag is left in a request attribute for {@link HttpCachedBodyAdvice}, which
+ * stores what the handler returned - read in the very snapshot the tag describes.
+ */
+public class HttpCacheInterceptor implements HandlerInterceptor {
+
+    static final String POLICY_PROPERTY_PREFIX = "cinema.http-cache.policies.";
+    static final String ETAG_ATTRIBUTE = HttpCacheInterceptor.class.getName() + ".etag";
+    static final String ENDPOINT_ATTRIBUTE = HttpCacheInterceptor.class.getName() + ".endpoint";
+    static final String TRANSACTION_ATTRIBUTE = HttpCacheInterceptor.class.getName() + ".transaction";
+
+    private static final String JSON = "";
+
+    private final CatalogVersions catalogVersions;
+    private final PlatformTransactionManager transactionManager;
+    private final TransactionDefinition snapshot;
+    private final Environment environment;
+    private final long timeBucketMillis;
+    private final PrecomputedJsonCache jsonCache;
+    private final Map<String, String> cacheControlByPolicy = new ConcurrentHashMap<>();
+
+    public HttpCacheInterceptor(CatalogVersions catalogVersions, PlatformTransactionManager transactionManager,
+                                Environment environment, Duration timeBucket, PrecomputedJsonCache jsonCache) {
+        this.catalogVersions = catalogVersions;
+        this.transactionManager = transactionManager;
+        DefaultTransactionDefinition snapshot = new DefaultTransactionDefinition();
+        snapshot.setName(HttpCacheInterceptor.class.getSimpleName());
+        snapshot.setReadOnly(true);
+        snapshot.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+        this.snapshot = snapshot;
+        this.environment = environment;
+        this.timeBucketMillis = Math.max(1000, timeBucket.toMillis());
+        this.jsonCache = jsonCache;
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) throws IOException {
+        if (!(handler instanceof HandlerMethod method)
+                || !(HttpMethod.GET.matches(request.getMethod()) || HttpMethod.HEAD.matches(request.getMethod()))) {
+            return true;
+        }
+        HttpCached cached = method.getMethodAnnotation(HttpCached.class);
+        if (cached == null) {
+            return true;
+        }
+
+        // Wersje i dane z jednej migawki - handler dołącza do tej transakcji (readOnly: ta sama replika)
+        TransactionStatus transaction = transactionManager.getTransaction(snapshot);
+        request.setAttribute(TRANSACTION_ATTRIBUTE, transaction);
+        CatalogVersions.Versions versions;
+        try {
+            versions = catalogVersions.read();
+        } catch (RuntimeException e) {
+            finish(request, transactionManager);
+            throw e;
+        }
+        StringJoiner etag = new StringJoiner("-", "W/\"", "\"");
+        long lastModified = 0;
+        for (CatalogVersions.Aggregate aggregate : cached.value()) {
+            etag.add(Long.toString(versions.version(aggregate)));
+            lastModified = Math.max(lastModified, versions.lastModified(aggregate));
+        }
+        if (cached.timeDependent()) {
+            long bucket = System.currentTimeMillis() / timeBucketMillis;
+            etag.add(Long.toString(bucket, 36));
+            lastModified = Math.max(lastModified, bucket * timeBucketMillis);
+        }
+        // JSON, CBOR i Smile to różne reprezentacje - każda ma własny tag
+        String representation = representation(request);
+        if (representation != null && !representation.equals(JSON)) {
+            etag.add(representation);
+        }
+
+        response.setHeader(HttpHeaders.CACHE_CONTROL, cacheControl(cached.policy()));
+        response.addHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT);
+        if (new ServletWebRequest(request, response).checkNotModified(etag.toString(), lastModified)) {
+            finish(request, transactionManager);
+            return false;
+        }
+
+        if (jsonCache == null || !cached.precomputedJson() || !JSON.equals(representation)
+                || method.getMethodParameters().length > 0) {
+            return true;
+        }
+        String endpoint = method.getBeanType().getSimpleName() + "." + method.getMethod().getName();
+        byte[] json = jsonCache.get(endpoint, etag.toString());
+        if (json == null) {
+            request.setAttribute(ETAG_ATTRIBUTE, etag.toString());
+            request.setAttribute(ENDPOINT_ATTRIBUTE, endpoint);
+            return true;
+        }
+        finish(request, transactionManager);
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.setContentLength(json.length);
+        if (HttpMethod.GET.matches(request.getMethod())) {
+            response.getOutputStream().write(json);
+        }
+        return false;
+    }
+
+    // Zwykle już zamknięta przez HttpCachedBodyAdvice; tu odpowiedzi bez treści (np. 404)
+    @Override
+    public void postHandle(HttpServletRequest request, HttpServletResponse response, Object handler,
+                           ModelAndView modelAndView) {
+        finish(request, transactionManager);
+    }
+
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        finish(request, transactionManager);
+    }
+
+    // Transakcja tylko do odczytu - commit to samo zwolnienie połączenia; rollback, gdy handler ją oznaczył
+    static void finish(HttpServletRequest request, PlatformTransactionManager transactionManager) {
+        TransactionStatus transaction = (TransactionStatus) request.getAttribute(TRANSACTION_ATTRIBUTE);
+        request.removeAttribute(TRANSACTION_ATTRIBUTE);
+        if (transaction == null || transaction.isCompleted()) {
+            return;
+        }
+        if (transaction.isRollbackOnly()) {
+            transactionManager.rollback(transaction);
+        } else {
+            transactionManager.commit(transaction);
+        }
+    }
+
+    // Binarny format tylko, gdy klient woli go od JSON-a - ta sama kolejność, którą wybiera MVC;
+    // null, gdy nie da się ustalić (wtedy bez gotowego JSON-a)
+    private static String representation(HttpServletRequest request) {
+        String accept = request.getHeader(HttpHeaders.ACCEPT);
+        if (accept == null) {
+            return JSON;
+        }
+        List<MediaType> mediaTypes;
+        try {
+            mediaTypes = MediaType.parseMediaTypes(accept);
+        } catch (InvalidMediaTypeException e) {
+            return null;
+        }
+        MimeTypeUtils.sortBySpecificity(mediaTypes);
+        for (MediaType mediaType : mediaTypes) {
+            if (mediaType.isCompatibleWith(MediaType.APPLICATION_JSON)) {
+                return JSON;
+            }
+            if (mediaType.isCompatibleWith(MediaType.APPLICATION_CBOR)) {
+                return "cbor";
+            }
+            if (mediaType.isCompatibleWith(HttpCodecConfig.APPLICATION_SMILE)) {
+                return "smile";
+            }
+        }
+        return null;
+    }
+
+    String cacheControl(String policy) {
+        return cacheControlByPolicy.computeIfAbsent(policy, this::buildCacheControl);
+    }
+
+    private String buildCacheControl(String policy) {
+        String prefix = POLICY_PROPERTY_PREFIX + policy + ".";
+        Duration maxAge = duration(prefix + "max-age");
+        // max-age=0: cache może trzymać odpowiedź, ale przed każdym użyciem pyta o nią warunkowo
+        CacheControl cacheControl = maxAge == null || maxAge.isZero()
+                ? CacheControl.noCache() : CacheControl.maxAge(maxAge);
+        cacheControl.cachePublic();
+        Duration sharedMaxAge = duration(prefix + "s-max-age");
+        if (sharedMaxAge != null) {
+            cacheControl.sMaxAge(sharedMaxAge);
+        }
+        Duration staleWhileRevalidate = duration(prefix + "stale-while-revalidate");
+        if (staleWhileRevalidate != null) {
+            cacheControl.staleWhileRevalidate(staleWhileRevalidate);
+        }
+        return cacheControl.getHeaderValue();
+    }
+
+    private Duration duration(String property) {
+        String value = environment.getProperty(property);
+        return value == null || value.isBlank() ? null : DurationStyle.detectAndParse(value);
+    }
+}
@@ -0,0 +1,41 @@
+package com.cinema.reservation.config;
+
+import com.cinema.reservation.service.CatalogVersions;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Marks a public GET endpoint whose response depends only on the given catalog aggregates. The
+ * {@link HttpCacheInterceptor} answers it with ETag/Last-Modified built from their change counters
+ * (304 for a matching conditional request, without calling the handler) and the Cache-Control header
+ * of the named policy. The response must not carry data that changes on every booking (seat counts) -
+ * bookings do not bump the versions, so such data would be served stale.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface HttpCached {
+
+    CatalogVersions.Aggregate[] value();
+
+    /**
+     * Policy name under {@code cinema.http-cache.policies}.
+     */
+    String policy();
+
+    /**
+     * The result also depends on the current time (e.g. only upcoming screenings), so the validators
+     * change every {@code cinema.http-cache.time-bucket} even without writes.
+     */
+    boolean timeDependent() default false;
+
+    /**
+     * Keep the serialized JSON of the latest version and write it straight to the response while the
+     * tag stays the same. Only for endpoints without parameters - the cache has one entry per method.
+     */
+    boolean precomputedJson() default false;
+}
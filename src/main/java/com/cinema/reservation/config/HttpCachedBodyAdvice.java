@@ -0,0 +1,150 @@
+package com.cinema.reservation.config;
+
+import jakarta.servlet.http.HttpServletRequest;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpOutputMessage;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.GenericHttpMessageConverter;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.lang.reflect.Type;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Ends the snapshot transaction of {@link HttpCacheInterceptor} as soon as the handler has returned its
+ * body. The body is serialized here into memory with the converter MVC selected - still inside the
+ * snapshot, so lazy associations load from the data the tag describes - then the transaction ends and
+ * only the bytes are written. The pooled connection is released before the socket write, not after it.
+ * <p>
+ * Second half of {@link HttpCached#precomputedJson()} as well: when the interceptor had no JSON for the
+ * current tag, the same bytes are stored in {@link PrecomputedJsonCache}, but only if the snapshot was
+ * still healthy, so the stored JSON always shows exactly the data that tag describes.
+ */
+@ControllerAdvice
+public class HttpCachedBodyAdvice implements ResponseBodyAdvice<Object> {
+
+    private final ObjectProvider<PrecomputedJsonCache> jsonCache;
+    private final ObjectProvider<HttpMessageConverters> messageConverters;
+    private final ObjectProvider<PlatformTransactionManager> transactionManager;
+    private final Map<Class<?>, HttpMessageConverter<Object>> converterByType = new ConcurrentHashMap<>();
+
+    public HttpCachedBodyAdvice(ObjectProvider<PrecomputedJsonCache> jsonCache,
+                                ObjectProvider<HttpMessageConverters> messageConverters,
+                                ObjectProvider<PlatformTransactionManager> transactionManager) {
+        this.jsonCache = jsonCache;
+        this.messageConverters = messageConverters;
+        this.transactionManager = transactionManager;
+    }
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return returnType.hasMethodAnnotation(HttpCached.class);
+    }
+
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (body == null
+                || !(request instanceof ServletServerHttpRequest servletRequest)
+                || !(response instanceof ServletServerHttpResponse servletResponse)) {
+            return body;
+        }
+        HttpServletRequest httpRequest = servletRequest.getServletRequest();
+        PlatformTransactionManager transactions = transactionManager.getIfAvailable();
+        HttpMessageConverter<Object> converter = converter(selectedConverterType);
+        // Bez otwartej migawki albo konwertera zostaje zwykła ścieżka - transakcję zamknie postHandle
+        if (!(httpRequest.getAttribute(HttpCacheInterceptor.TRANSACTION_ATTRIBUTE) instanceof TransactionStatus snapshot)
+                || snapshot.isCompleted() || transactions == null || converter == null) {
+            return body;
+        }
+
+        BufferedOutputMessage buffered = new BufferedOutputMessage();
+        try {
+            if (converter instanceof GenericHttpMessageConverter<Object> generic) {
+                generic.write(body, bodyType(returnType), selectedContentType, buffered);
+            } else {
+                converter.write(body, selectedContentType, buffered);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        byte[] bytes = buffered.body.toByteArray();
+        boolean healthy = !snapshot.isRollbackOnly();
+        HttpCacheInterceptor.finish(httpRequest, transactions);
+
+        // Atrybuty ustawia interceptor tylko przy chybieniu dla JSON-a bez parametrów
+        String etag = (String) httpRequest.getAttribute(HttpCacheInterceptor.ETAG_ATTRIBUTE);
+        String endpoint = (String) httpRequest.getAttribute(HttpCacheInterceptor.ENDPOINT_ATTRIBUTE);
+        PrecomputedJsonCache cache = jsonCache.getIfAvailable();
+        if (healthy && etag != null && endpoint != null && cache != null
+                && MappingJackson2HttpMessageConverter.class.isAssignableFrom(selectedConverterType)
+                && servletResponse.getServletResponse().getStatus() == HttpStatus.OK.value()) {
+            cache.put(endpoint, etag, bytes);
+        }
+
+        try {
+            response.getHeaders().putAll(buffered.headers);
+            response.getHeaders().setContentLength(bytes.length);
+            response.getBody().write(bytes);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        // Treść już zapisana - konwerter nie ma nic do zrobienia
+        return null;
+    }
+
+    @SuppressWarnings("unchecked")
+    private HttpMessageConverter<Object> converter(Class<?> converterType) {
+        HttpMessageConverters converters = messageConverters.getIfAvailable();
+        if (converters == null) {
+            return null;
+        }
+        return converterByType.computeIfAbsent(converterType, type -> converters.getConverters().stream()
+                .filter(converter -> converter.getClass() == type)
+                .map(converter -> (HttpMessageConverter<Object>) converter)
+                .findFirst()
+                .orElse(null));
+    }
+
+    // Ten sam typ, który MVC podaje konwerterowi - dla ResponseEntity typ treści, nie samej encji HTTP
+    private static Type bodyType(MethodParameter returnType) {
+        if (HttpEntity.class.isAssignableFrom(returnType.getParameterType())) {
+            return returnType.nested().getNestedGenericParameterType();
+        }
+        return returnType.getGenericParameterType();
+    }
+
+    private static final class BufferedOutputMessage implements HttpOutputMessage {
+        private final HttpHeaders headers = new HttpHeaders();
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+
+        @Override
+        public HttpHeaders getHeaders() {
+            return headers;
+        }
+
+        @Override
+        public ByteArrayOutputStream getBody() {
+            return body;
+        }
+    }
+}
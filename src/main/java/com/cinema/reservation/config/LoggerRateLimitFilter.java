@@ -0,0 +1,119 @@
+package com.cinema.reservation.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.filter.Filter;
+import ch.qos.logback.core.spi.FilterReply;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Logback filter that lets through at most {@code eventsPerSecond} DEBUG/INFO events per logger and
+ * second; the rest is dropped before it reaches the async queue. WARN and ERROR are never limited.
+ * {@code overrides} sets other limits for logger prefixes, e.g.
+ * {@code com.cinema.reservation.service.ScreeningService=50,org.hibernate=0} (0 = no limit).
+ * Attached to the async appender in logback-spring.xml.
+ */
+public class LoggerRateLimitFilter extends Filter<ILoggingEvent> {
+
+    private static final AtomicLong SUPPRESSED = new AtomicLong();
+
+    private final Map<String, Window> windows = new ConcurrentHashMap<>();
+    private final Map<String, Integer> overrideLimits = new LinkedHashMap<>();
+    private int eventsPerSecond = 200;
+    private String overrides = "";
+
+    /**
+     * Events dropped by all instances since startup.
+     */
+    public static long suppressedCount() {
+        return SUPPRESSED.get();
+    }
+
+    public void setEventsPerSecond(int eventsPerSecond) {
+        this.eventsPerSecond = eventsPerSecond;
+    }
+
+    public void setOverrides(String overrides) {
+        this.overrides = overrides;
+    }
+
+    @Override
+    public void start() {
+        overrideLimits.clear();
+        for (String entry : overrides.split(",")) {
+            if (entry.isBlank()) {
+                continue;
+            }
+            int separator = entry.lastIndexOf('=');
+            if (separator <= 0) {
+                addError("Invalid rate limit override '" + entry.trim() + "', expected <logger>=<events per second>");
+                continue;
+            }
+            try {
+                overrideLimits.put(entry.substring(0, separator).trim(), Integer.parseInt(entry.substring(separator + 1).trim()));
+            } catch (NumberFormatException e) {
+                addError("Invalid rate limit override '" + entry.trim() + "', expected <logger>=<events per second>");
+            }
+        }
+        windows.clear();
+        super.start();
+    }
+
+    @Override
+    public FilterReply decide(ILoggingEvent event) {
+        if (!isStarted() || event.getLevel().isGreaterOrEqual(Level.WARN)) {
+            return FilterReply.NEUTRAL;
+        }
+        Window window = windows.computeIfAbsent(event.getLoggerName(), name -> new Window(limitFor(name)));
+        if (window.limit <= 0 || window.tryAcquire(event.getTimeStamp() / 1000)) {
+            return FilterReply.NEUTRAL;
+        }
+        SUPPRESSED.incrementAndGet();
+        return FilterReply.DENY;
+    }
+
+    // Najdłuższy pasujący prefiks z overrides, liczony raz na logger
+    private int limitFor(String loggerName) {
+        int limit = eventsPerSecond;
+        int matchedLength = -1;
+        for (Map.Entry<String, Integer> override : overrideLimits.entrySet()) {
+            String prefix = override.getKey();
+            boolean matches = loggerName.equals(prefix)
+                    || (loggerName.startsWith(prefix) && loggerName.charAt(prefix.length()) == '.');
+            if (matches && prefix.length() > matchedLength) {
+                limit = override.getValue();
+                matchedLength = prefix.length();
+            }
+        }
+        return limit;
+    }
+
+    private static final class Window {
+
+        private final int limit;
+        private final AtomicInteger count = new AtomicInteger();
+        private volatile long second = Long.MIN_VALUE;
+
+        Window(int limit) {
+            this.limit = limit;
+        }
+
+        boolean tryAcquire(long eventSecond) {
+            if (eventSecond > second) {
+                synchronized (this) {
+                    if (eventSecond > second) {
+                        count.set(0);
+                        second = eventSecond;
+                    }
+                }
+            }
+            // Zdarzenia z poprzedniej sekundy (spóźnione wątki) liczą się do bieżącego okna
+            return count.incrementAndGet() <= limit;
+        }
+    }
+}
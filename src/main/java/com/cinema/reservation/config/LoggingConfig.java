@@ -0,0 +1,28 @@
+package com.cinema.reservation.config;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+@Configuration
+public class LoggingConfig {
+
+    // Przed Spring Security - identyfikator jest też w logach z uwierzytelniania
+    @Bean
+    public FilterRegistrationBean<CorrelationIdFilter> correlationIdFilter() {
+        FilterRegistrationBean<CorrelationIdFilter> registration = new FilterRegistrationBean<>(new CorrelationIdFilter());
+        registration.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return registration;
+    }
+
+    @Bean
+    public MeterBinder logRateLimitMetrics() {
+        return registry -> FunctionCounter.builder("cinema.logging.suppressed", LoggerRateLimitFilter.class,
+                        type -> LoggerRateLimitFilter.suppressedCount())
+                .description("Log events dropped by the per-logger rate limit")
+                .register(registry);
+    }
+}
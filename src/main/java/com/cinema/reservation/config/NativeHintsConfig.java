@@ -0,0 +1,52 @@
+package com.cinema.reservation.config;
+
+import com.cinema.reservation.dto.BootstrapFixtures;
+import com.cinema.reservation.dto.ReservationEvent;
+import com.cinema.reservation.entity.AdminUser;
+import com.cinema.reservation.entity.RegularUser;
+import net.ttddyy.dsproxy.proxy.ProxyJdbcObject;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+import javax.sql.DataSource;
+import java.sql.CallableStatement;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+
+/**
+ * Reachability metadata for the native image that Spring AOT cannot infer by itself. Entities, repositories,
+ * controller payloads, Flyway migrations under {@code db/migration} and logback-spring.xml are covered by
+ * AOT processing; third-party libraries by the GraalVM metadata repository. Lombok needs nothing - it only
+ * runs in the compiler.
+ */
+@Configuration
+@ImportRuntimeHints(NativeHintsConfig.Hints.class)
+public class NativeHintsConfig {
+
+    static class Hints implements RuntimeHintsRegistrar {
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            // Kontrolery zwracają User - Jackson serializuje faktyczne podklasy z hierarchii SINGLE_TABLE
+            BindingReflectionHintsRegistrar bindings = new BindingReflectionHintsRegistrar();
+            bindings.registerReflectionHints(hints.reflection(), RegularUser.class, AdminUser.class,
+                    // Zdarzenia outboxa zapisywane jako JSON poza warstwą MVC
+                    ReservationEvent.class,
+                    // Plik fixtures czytany przez BootstrapDataService
+                    BootstrapFixtures.class);
+
+            // TrackingDataSource
+            hints.proxies().registerJdkProxy(Connection.class);
+            // datasource-proxy (SqlLoggingConfig) - JDK proxy każdego obiektu JDBC, ResultSet przy count-rows
+            for (Class<?> jdbcType : new Class<?>[]{DataSource.class, Connection.class, Statement.class,
+                    PreparedStatement.class, CallableStatement.class, ResultSet.class}) {
+                hints.proxies().registerJdkProxy(ProxyJdbcObject.class, jdbcType);
+            }
+        }
+    }
+}
@@ -0,0 +1,67 @@
+package com.cinema.reservation.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Ready-to-write UTF-8 JSON of hot catalog endpoints ({@link HttpCached#precomputedJson()}), one entry
+ * per endpoint tagged with the ETag it was built for. Tags come from the shared catalog versions read in
+ * the same snapshot as the data, so an entry is valid on every instance that sees that tag. A committed
+ * catalog change produces a new tag, so the entry stops matching at once and is replaced by the first
+ * request that serializes the new data.
+ */
+public class PrecomputedJsonCache {
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final long maxEntryBytes;
+    private final Counter hits;
+    private final Counter misses;
+
+    public PrecomputedJsonCache(MeterRegistry meterRegistry, long maxEntryBytes) {
+        this.maxEntryBytes = maxEntryBytes;
+        this.hits = Counter.builder("cinema.http.json-cache.requests").tag("result", "hit")
+                .description("Requests served from precomputed JSON").register(meterRegistry);
+        this.misses = Counter.builder("cinema.http.json-cache.requests").tag("result", "miss")
+                .description("Requests that had to serialize the response").register(meterRegistry);
+        Gauge.builder("cinema.http.json-cache.bytes", this, PrecomputedJsonCache::totalBytes)
+                .description("Size of the precomputed JSON held in memory")
+                .register(meterRegistry);
+    }
+
+    /**
+     * The JSON stored for the endpoint if it was built for this exact tag, otherwise null.
+     */
+    public byte[] get(String endpoint, String etag) {
+        Entry entry = entries.get(endpoint);
+        if (entry != null && entry.etag.equals(etag)) {
+            hits.increment();
+            return entry.json;
+        }
+        misses.increment();
+        return null;
+    }
+
+    public void put(String endpoint, String etag, byte[] json) {
+        if (json.length > maxEntryBytes) {
+            // Za duża odpowiedź - stary wpis i tak już nie pasuje do tagu
+            entries.remove(endpoint);
+            return;
+        }
+        entries.put(endpoint, new Entry(etag, json));
+    }
+
+    long totalBytes() {
+        long total = 0;
+        for (Entry entry : entries.values()) {
+            total += entry.json.length;
+        }
+        return total;
+    }
+
+    private record Entry(String etag, byte[] json) {
+    }
+}
@@ -0,0 +1,131 @@
+package com.cinema.reservation.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Read-only side of the datasource: round-robin over replicas whose replication lag is within
+ * {@code maxLag}, falling back to the primary when none is. Lag is probed on a schedule, never on the
+ * request path. Wired as the read-only target of a {@code LazyConnectionDataSourceProxy}, so only
+ * {@code @Transactional(readOnly = true)} work ever gets here.
+ */
+@Slf4j
+public class ReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    static final String PRIMARY = "primary";
+
+    // Na repliki nadążającej za primary (receive == replay) opóźnienie wynosi 0, nawet gdy nie ma nowych zapisów
+    static final String LAG_QUERY = "SELECT CASE "
+            + "WHEN NOT pg_is_in_recovery() THEN 0 "
+            + "WHEN pg_last_wal_receive_lsn() = pg_last_wal_replay_lsn() THEN 0 "
+            + "ELSE COALESCE(EXTRACT(EPOCH FROM now() - pg_last_xact_replay_timestamp()), 0) END";
+
+    private final Map<String, DataSource> replicas;
+    private final double maxLagSeconds;
+    private final ToDoubleFunction<DataSource> lagProbe;
+    private final Map<String, Double> lastLag = new ConcurrentHashMap<>();
+    private final AtomicInteger next = new AtomicInteger();
+
+    private volatile List<String> healthy = List.of();
+
+    public ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, Duration maxLag) {
+        this(primary, replicas, maxLag, ReplicaRoutingDataSource::measureLagSeconds);
+    }
+
+    ReplicaRoutingDataSource(DataSource primary, Map<String, DataSource> replicas, Duration maxLag,
+                             ToDoubleFunction<DataSource> lagProbe) {
+        this.replicas = new LinkedHashMap<>(replicas);
+        this.maxLagSeconds = maxLag.toMillis() / 1000.0;
+        this.lagProbe = lagProbe;
+
+        Map<Object, Object> targets = new LinkedHashMap<>(replicas);
+        targets.put(PRIMARY, primary);
+        setTargetDataSources(targets);
+        setDefaultTargetDataSource(primary);
+    }
+
+    @Override
+    public void afterPropertiesSet() {
+        super.afterPropertiesSet();
+        checkReplicas();
+    }
+
+    public void bindMetrics(MeterRegistry meterRegistry) {
+        replicas.keySet().forEach(name -> Gauge.builder("cinema.datasource.replica.lag", lastLag,
+                        lag -> lag.getOrDefault(name, Double.NaN))
+                .tag("replica", name)
+                .baseUnit("seconds")
+                .register(meterRegistry));
+        Gauge.builder("cinema.datasource.replica.healthy", this, routing -> routing.healthy.size())
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${cinema.datasource.replicas.check-interval:PT5S}")
+    public void checkReplicas() {
+        List<String> nowHealthy = new ArrayList<>(replicas.size());
+        replicas.forEach((name, dataSource) -> {
+            try {
+                double lag = lagProbe.applyAsDouble(dataSource);
+                lastLag.put(name, lag);
+                if (lag <= maxLagSeconds) {
+                    nowHealthy.add(name);
+                } else {
+                    log.warn("Replica {} lags {}s behind primary, routing reads elsewhere", name, lag);
+                }
+            } catch (RuntimeException e) {
+                lastLag.remove(name);
+                log.warn("Replica {} health check failed: {}", name, e.getMessage());
+            }
+        });
+
+        if (nowHealthy.isEmpty() && !replicas.isEmpty() && !healthy.isEmpty()) {
+            log.warn("No healthy read replica - read-only transactions fall back to the primary");
+        }
+        healthy = List.copyOf(nowHealthy);
+    }
+
+    public List<String> healthyReplicas() {
+        return healthy;
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        List<String> candidates = healthy;
+        if (candidates.isEmpty()) {
+            return PRIMARY;
+        }
+        return candidates.get(Math.floorMod(next.getAndIncrement(), candidates.size()));
+    }
+
+    // Wywoływane przez Springa przy zamykaniu kontekstu (wnioskowana metoda destroy)
+    public void close() {
+        replicas.values().forEach(dataSource -> {
+            if (dataSource instanceof AutoCloseable closeable) {
+                try {
+                    closeable.close();
+                } catch (Exception e) {
+                    log.warn("Failed to close replica pool: {}", e.getMessage());
+                }
+            }
+        });
+    }
+
+    static double measureLagSeconds(DataSource dataSource) {
+        Double lag = new JdbcTemplate(dataSource).queryForObject(LAG_QUERY, Double.class);
+        return lag != null ? lag : 0.0;
+    }
+}
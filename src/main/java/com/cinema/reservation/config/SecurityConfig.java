@@ -69,6 +69,7 @@ public class SecurityConfig {
                         .requestMatchers(HttpMethod.DELETE, "/api/cinemas/**").hasRole("ADMIN")
                         .requestMatchers("/api/reservations/**").hasAnyRole("USER", "ADMIN")
                         .requestMatchers("/api/users/**").authenticated()
+                        .requestMatchers("/actuator/metrics/**", "/actuator/dbconnections").hasRole("ADMIN")
                         .anyRequest().authenticated()
                 )
                 .httpBasic(httpBasic -> {}) // Nowa składnia Spring Security 6+
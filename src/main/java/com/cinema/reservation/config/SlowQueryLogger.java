@@ -0,0 +1,207 @@
+package com.cinema.reservation.config;
+
+import lombok.extern.slf4j.Slf4j;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.MethodExecutionContext;
+import net.ttddyy.dsproxy.listener.MethodExecutionListener;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import net.ttddyy.dsproxy.proxy.ParameterSetOperation;
+
+import java.sql.ResultSet;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * datasource-proxy listener that logs only statements slower than {@code slow-threshold} (WARN) plus an
+ * optional random sample of the rest (INFO), with bind parameters, the application method that issued
+ * the statement and the affected/returned row count. For queries the time runs until the result set is
+ * closed, so slow fetching of a large result counts too. Nothing is formatted for statements that are
+ * not logged.
+ */
+@Slf4j(topic = "com.cinema.reservation.sql")
+public class SlowQueryLogger implements QueryExecutionListener, MethodExecutionListener {
+
+    private static final String APP_PACKAGE = "com.cinema.reservation.";
+    private static final String SERVICE_PACKAGE = APP_PACKAGE + "service.";
+    private static final String CONFIG_PACKAGE = APP_PACKAGE + "config.";
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance();
+
+    // Otwarte result sety, na które czekamy z logiem do close(); wątek czyta swój result set sam
+    private static final int MAX_OPEN_RESULTS = 64;
+
+    private final ThreadLocal<Map<Object, OpenResult>> openResults = ThreadLocal.withInitial(IdentityHashMap::new);
+    private final long thresholdNanos;
+    private final double sampleRate;
+    private final int maxParameterLength;
+    private final Pattern redactedTables;
+
+    public SlowQueryLogger(Duration slowThreshold, double sampleRate, int maxParameterLength, List<String> redactedTables) {
+        this.thresholdNanos = slowThreshold.toNanos();
+        this.sampleRate = Math.max(0, Math.min(1, sampleRate));
+        this.maxParameterLength = Math.max(8, maxParameterLength);
+        this.redactedTables = redactedTables.isEmpty() ? null : Pattern.compile(
+                redactedTables.stream().map(String::trim).map(Pattern::quote).collect(Collectors.joining("|", "\\b(?:", ")\\b")),
+                Pattern.CASE_INSENSITIVE);
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        long elapsedNanos = TimeUnit.MILLISECONDS.toNanos(execInfo.getElapsedTime());
+        if (execInfo.isSuccess() && execInfo.getResult() instanceof ResultSet resultSet) {
+            Map<Object, OpenResult> open = openResults.get();
+            if (open.size() >= MAX_OPEN_RESULTS) {
+                // Result sety bez close() - logujemy z dotychczas policzonymi wierszami, żeby mapa nie rosła
+                open.values().forEach(this::complete);
+                open.clear();
+            }
+            open.put(resultSet, new OpenResult(queryInfoList, elapsedNanos, System.nanoTime()));
+            return;
+        }
+        if (isLogged(elapsedNanos)) {
+            log(queryInfoList, elapsedNanos, rowCount(execInfo.getResult()), elapsedNanos >= thresholdNanos);
+        }
+    }
+
+    @Override
+    public void beforeMethod(MethodExecutionContext executionContext) {
+    }
+
+    @Override
+    public void afterMethod(MethodExecutionContext executionContext) {
+        if (!(executionContext.getTarget() instanceof ResultSet)) {
+            return;
+        }
+        Map<Object, OpenResult> open = openResults.get();
+        if (open.isEmpty()) {
+            return;
+        }
+        String method = executionContext.getMethod().getName();
+        if ("next".equals(method)) {
+            OpenResult result = open.get(executionContext.getProxy());
+            if (result != null && Boolean.TRUE.equals(executionContext.getResult())) {
+                result.rows++;
+            }
+        } else if ("close".equals(method)) {
+            OpenResult result = open.remove(executionContext.getProxy());
+            if (result != null) {
+                complete(result);
+            }
+        }
+    }
+
+    private void complete(OpenResult result) {
+        long elapsedNanos = result.executeNanos + (System.nanoTime() - result.fetchStartNanos);
+        if (isLogged(elapsedNanos)) {
+            log(result.queries, elapsedNanos, result.rows, elapsedNanos >= thresholdNanos);
+        }
+    }
+
+    private boolean isLogged(long elapsedNanos) {
+        return (thresholdNanos > 0 && elapsedNanos >= thresholdNanos)
+                || (sampleRate > 0 && ThreadLocalRandom.current().nextDouble() < sampleRate);
+    }
+
+    private void log(List<QueryInfo> queries, long elapsedNanos, long rows, boolean slow) {
+        String caller = caller();
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+        for (QueryInfo query : queries) {
+            String parameters = parameters(query);
+            if (slow) {
+                log.warn("Slow SQL {} ms, rows={}, caller={}: {} {}", elapsedMillis, rows, caller, query.getQuery(), parameters);
+            } else {
+                log.info("Sampled SQL {} ms, rows={}, caller={}: {} {}", elapsedMillis, rows, caller, query.getQuery(), parameters);
+            }
+        }
+    }
+
+    String parameters(QueryInfo query) {
+        List<List<ParameterSetOperation>> parametersList = query.getParametersList();
+        if (parametersList.isEmpty()) {
+            return "[]";
+        }
+        if (redactedTables != null && redactedTables.matcher(query.getQuery()).find()) {
+            return "[redacted]";
+        }
+        // Przy batchu tylko pierwszy zestaw parametrów - reszta jako licznik
+        String first = parametersList.get(0).stream()
+                .sorted(Comparator.comparingInt(operation -> operation.getArgs()[0] instanceof Integer index ? index : Integer.MAX_VALUE))
+                .map(this::parameter)
+                .collect(Collectors.joining(", ", "[", "]"));
+        return parametersList.size() > 1 ? first + " (+" + (parametersList.size() - 1) + " more in batch)" : first;
+    }
+
+    private String parameter(ParameterSetOperation operation) {
+        Object[] args = operation.getArgs();
+        String value = ParameterSetOperation.isSetNullParameterOperation(operation) || args.length < 2
+                ? "NULL" : String.valueOf(args[1]);
+        if (value.length() > maxParameterLength) {
+            value = value.substring(0, maxParameterLength) + "...";
+        }
+        return args[0] + "=" + value;
+    }
+
+    // Pierwsza metoda serwisu na stosie, a gdy jej brak - pierwsza klasa aplikacji (poza proxy i konfiguracją)
+    static String caller() {
+        return STACK_WALKER.walk(frames -> {
+            String fallback = null;
+            for (StackWalker.StackFrame frame : (Iterable<StackWalker.StackFrame>) frames::iterator) {
+                String className = frame.getClassName();
+                if (!className.startsWith(APP_PACKAGE) || className.startsWith(CONFIG_PACKAGE) || className.contains("$$")) {
+                    continue;
+                }
+                String name = className.substring(className.lastIndexOf('.') + 1) + "." + frame.getMethodName();
+                if (className.startsWith(SERVICE_PACKAGE)) {
+                    return name;
+                }
+                if (fallback == null) {
+                    fallback = name;
+                }
+            }
+            return fallback != null ? fallback : "unknown";
+        });
+    }
+
+    private static long rowCount(Object result) {
+        if (result instanceof Integer count) {
+            return count;
+        }
+        if (result instanceof Long count) {
+            return count;
+        }
+        if (result instanceof int[] counts) {
+            return IntStream.of(counts).filter(count -> count > 0).asLongStream().sum();
+        }
+        if (result instanceof long[] counts) {
+            return Arrays.stream(counts).filter(count -> count > 0).sum();
+        }
+        return -1;
+    }
+
+    private static final class OpenResult {
+
+        private final List<QueryInfo> queries;
+        private final long executeNanos;
+        private final long fetchStartNanos;
+        private long rows;
+
+        OpenResult(List<QueryInfo> queries, long executeNanos, long fetchStartNanos) {
+            this.queries = queries;
+            this.executeNanos = executeNanos;
+            this.fetchStartNanos = fetchStartNanos;
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.cinema.reservation.config;
+
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Replaces spring.jpa.show-sql: the {@code dataSource} bean is wrapped in a datasource-proxy whose only
+ * listener is the {@link SlowQueryLogger}. The wrapper sits under the connection tracking one (it is
+ * applied first), so tracked stack traces start in application code, not in proxy frames.
+ */
+@Configuration
+@ConditionalOnProperty(name = "cinema.sql-log.enabled", havingValue = "true", matchIfMissing = true)
+public class SqlLoggingConfig {
+
+    @Bean
+    public SlowQueryLogger slowQueryLogger(
+            @Value("${cinema.sql-log.slow-threshold:200ms}") Duration slowThreshold,
+            @Value("${cinema.sql-log.sample-rate:0}") double sampleRate,
+            @Value("${cinema.sql-log.max-parameter-length:64}") int maxParameterLength,
+            @Value("${cinema.sql-log.redacted-tables:users}") List<String> redactedTables) {
+        return new SlowQueryLogger(slowThreshold, sampleRate, maxParameterLength, redactedTables);
+    }
+
+    @Bean
+    public static SqlLoggingDataSourcePostProcessor sqlLoggingDataSourcePostProcessor(
+            ObjectProvider<SlowQueryLogger> slowQueryLogger,
+            @Value("${cinema.sql-log.count-rows:true}") boolean countRows) {
+        return new SqlLoggingDataSourcePostProcessor(slowQueryLogger, countRows);
+    }
+
+    static class SqlLoggingDataSourcePostProcessor implements BeanPostProcessor, Ordered {
+
+        private final ObjectProvider<SlowQueryLogger> slowQueryLogger;
+        private final boolean countRows;
+
+        SqlLoggingDataSourcePostProcessor(ObjectProvider<SlowQueryLogger> slowQueryLogger, boolean countRows) {
+            this.slowQueryLogger = slowQueryLogger;
+            this.countRows = countRows;
+        }
+
+        @Override
+        public Object postProcessAfterInitialization(Object bean, String beanName) {
+            if (!ConnectionTrackingConfig.DATA_SOURCE_BEAN.equals(beanName) || !(bean instanceof DataSource dataSource)) {
+                return bean;
+            }
+            SlowQueryLogger listener = slowQueryLogger.getObject();
+            ProxyDataSourceBuilder builder = ProxyDataSourceBuilder.create(beanName, dataSource).listener(listener);
+            if (countRows) {
+                // Liczba zwróconych wierszy wymaga proxy na ResultSet - każde next() przechodzi przez listener
+                builder.proxyResultSet().methodListener(listener);
+            }
+            return builder.build();
+        }
+
+        @Override
+        public int getOrder() {
+            return Ordered.LOWEST_PRECEDENCE;
+        }
+    }
+}
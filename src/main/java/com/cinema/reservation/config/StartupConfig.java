@@ -0,0 +1,91 @@
+package com.cinema.reservation.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.ConfigurableListableBeanFactory;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.autoconfigure.flyway.FlywayMigrationStrategy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.core.env.Environment;
+
+import java.util.List;
+
+/**
+ * Startup time: with {@code cinema.startup.lazy-non-critical=true} beans nobody needs to take traffic -
+ * actuator endpoints (dbconnections, metrics, health...) and springdoc - are created on first use
+ * instead of during refresh. Unlike {@code spring.main.lazy-initialization} the rest of the context
+ * stays eager, so the first booking request does not pay for building services and repositories.
+ * {@code cinema.startup.skip-migrations} lets the CDS training run of an AOT build start without a
+ * database.
+ */
+@Configuration
+public class StartupConfig {
+
+    static final String LAZY_PROPERTY = "cinema.startup.lazy-non-critical";
+    static final String PACKAGES_PROPERTY = "cinema.startup.non-critical-packages";
+
+    // Environment zamiast @Value - post-processor fabryki powstaje przed rozwiązywaniem placeholderów
+    @Bean
+    public static NonCriticalLazyInitPostProcessor nonCriticalLazyInitPostProcessor(Environment environment) {
+        return new NonCriticalLazyInitPostProcessor(
+                environment.getProperty(LAZY_PROPERTY, Boolean.class, false),
+                List.of(environment.getProperty(PACKAGES_PROPERTY, String[].class, new String[]{"org.springdoc."})));
+    }
+
+    // Przy AOT spring.flyway.enabled jest rozstrzygnięte w czasie buildu - przebieg treningowy CDS
+    // (profil cds-training) pomija migrację tą flagą, sprawdzaną dopiero w czasie działania
+    @Bean
+    public FlywayMigrationStrategy flywayMigrationStrategy(
+            @Value("${cinema.startup.skip-migrations:false}") boolean skipMigrations) {
+        return flyway -> {
+            if (!skipMigrations) {
+                flyway.migrate();
+            }
+        };
+    }
+
+    @Slf4j
+    static class NonCriticalLazyInitPostProcessor implements BeanFactoryPostProcessor {
+
+        private final boolean enabled;
+        private final List<String> packages;
+
+        NonCriticalLazyInitPostProcessor(boolean enabled, List<String> packages) {
+            this.enabled = enabled;
+            this.packages = packages;
+        }
+
+        @Override
+        public void postProcessBeanFactory(ConfigurableListableBeanFactory beanFactory) {
+            if (!enabled) {
+                return;
+            }
+            int lazy = 0;
+            for (String beanName : beanFactory.getBeanDefinitionNames()) {
+                BeanDefinition definition = beanFactory.getBeanDefinition(beanName);
+                if (definition.isLazyInit() || definition.getRole() == BeanDefinition.ROLE_INFRASTRUCTURE
+                        || !definition.isSingleton()) {
+                    continue;
+                }
+                Class<?> type = beanFactory.getType(beanName, false);
+                if (type != null && isNonCritical(type)) {
+                    definition.setLazyInit(true);
+                    lazy++;
+                }
+            }
+            log.debug("{} non-critical beans marked lazy", lazy);
+        }
+
+        boolean isNonCritical(Class<?> type) {
+            if (AnnotatedElementUtils.hasAnnotation(type, Endpoint.class)) {
+                return true;
+            }
+            String name = type.getName();
+            return packages.stream().anyMatch(name::startsWith);
+        }
+    }
+}
@@ -0,0 +1,136 @@
+package com.cinema.reservation.config;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import io.micrometer.core.instrument.binder.BaseUnits;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.aot.AotDetector;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.boot.info.BuildProperties;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.env.Environment;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.support.ServletRequestHandledEvent;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.RuntimeMXBean;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Comparator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+/**
+ * One log line per start with the build, the startup features in use (AOT, CDS archive, lazy
+ * non-critical beans), JVM-start-to-ready time and the slowest bean instantiations recorded by
+ * {@link BufferingApplicationStartup}; plus the time from JVM start to the first handled request as
+ * the {@code cinema.startup.first-request} gauge. Comparing both across builds shows whether a
+ * change made scaling out slower. {@code cinema.process.resident-memory} (Linux) gives the RSS, the
+ * figure that matters when comparing the JVM and the native build.
+ */
+@Component
+@Slf4j
+public class StartupReport {
+
+    private static final Path PROC_STATUS = Path.of("/proc/self/status");
+
+    private final ObjectProvider<BuildProperties> buildProperties;
+    private final Environment environment;
+    private final int slowestBeans;
+    private final long jvmStartTime;
+    private final AtomicBoolean firstRequestSeen = new AtomicBoolean();
+    private volatile double firstRequestMillis = Double.NaN;
+
+    public StartupReport(ObjectProvider<BuildProperties> buildProperties,
+                         Environment environment,
+                         MeterRegistry meterRegistry,
+                         @Value("${cinema.startup.report.slowest-beans:10}") int slowestBeans) {
+        this.buildProperties = buildProperties;
+        this.environment = environment;
+        this.slowestBeans = slowestBeans;
+        this.jvmStartTime = ManagementFactory.getRuntimeMXBean().getStartTime();
+        TimeGauge.builder("cinema.startup.first-request", this, TimeUnit.MILLISECONDS, report -> report.firstRequestMillis)
+                .description("Time from JVM start until the first request was handled")
+                .register(meterRegistry);
+        Gauge.builder("cinema.process.resident-memory", StartupReport::residentMemoryBytes)
+                .description("Resident set size of the process")
+                .baseUnit(BaseUnits.BYTES)
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void report(ApplicationReadyEvent event) {
+        BuildProperties build = buildProperties.getIfAvailable();
+        double residentMemory = residentMemoryBytes();
+        var report = log.atInfo().setMessage("Startup report")
+                .addKeyValue("version", build != null ? build.getVersion() : "dev")
+                .addKeyValue("buildTime", build != null ? build.getTime() : null)
+                .addKeyValue("jvmStartToReadyMs", System.currentTimeMillis() - jvmStartTime)
+                .addKeyValue("residentMemoryMb", Double.isNaN(residentMemory) ? null : (long) (residentMemory / (1024 * 1024)))
+                .addKeyValue("springRunToReadyMs", event.getTimeTaken() != null ? event.getTimeTaken().toMillis() : null)
+                .addKeyValue("aot", AotDetector.useGeneratedArtifacts())
+                .addKeyValue("cds", usesCdsArchive())
+                .addKeyValue("lazyNonCritical", environment.getProperty(StartupConfig.LAZY_PROPERTY, Boolean.class, false));
+        // Timeline jest tylko przy starcie przez main() - testy i narzędzia go nie mają
+        if (event.getApplicationContext().getApplicationStartup() instanceof BufferingApplicationStartup startup) {
+            report = report.addKeyValue("slowestBeans", slowestBeans(startup.drainBufferedTimeline()));
+        }
+        report.log();
+    }
+
+    @EventListener(ServletRequestHandledEvent.class)
+    public void firstRequest(ServletRequestHandledEvent event) {
+        if (firstRequestSeen.compareAndSet(false, true)) {
+            firstRequestMillis = event.getTimestamp() - jvmStartTime;
+            log.atInfo().setMessage("First request handled")
+                    .addKeyValue("jvmStartToFirstRequestMs", (long) firstRequestMillis)
+                    .addKeyValue("url", event.getRequestUrl())
+                    .log();
+        }
+    }
+
+    String slowestBeans(StartupTimeline timeline) {
+        return timeline.getEvents().stream()
+                .filter(event -> "spring.beans.instantiate".equals(event.getStartupStep().getName()))
+                .sorted(Comparator.comparing(StartupTimeline.TimelineEvent::getDuration).reversed())
+                .limit(slowestBeans)
+                .map(event -> beanName(event.getStartupStep()) + "=" + event.getDuration().toMillis() + "ms")
+                .collect(Collectors.joining(", "));
+    }
+
+    private static String beanName(StartupStep step) {
+        for (StartupStep.Tag tag : step.getTags()) {
+            if ("beanName".equals(tag.getKey())) {
+                return tag.getValue();
+            }
+        }
+        return step.getName();
+    }
+
+    // VmRSS z /proc - poza Linuksem NaN
+    static double residentMemoryBytes() {
+        try {
+            for (String line : Files.readAllLines(PROC_STATUS)) {
+                if (line.startsWith("VmRSS:")) {
+                    return Long.parseLong(line.replaceAll("\\D", "")) * 1024.0;
+                }
+            }
+        } catch (IOException | RuntimeException e) {
+            // brak /proc albo inny format
+        }
+        return Double.NaN;
+    }
+
+    private static boolean usesCdsArchive() {
+        RuntimeMXBean runtime = ManagementFactory.getRuntimeMXBean();
+        return runtime.getInputArguments().stream().anyMatch(argument -> argument.startsWith("-XX:SharedArchiveFile"));
+    }
+}
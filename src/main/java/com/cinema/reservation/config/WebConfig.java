@@ -0,0 +1,70 @@
+package com.cinema.reservation.config;
+
+import com.cinema.reservation.service.CatalogVersions;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.time.Duration;
+
+@Configuration
+public class WebConfig implements WebMvcConfigurer {
+
+    private final ObjectProvider<CatalogVersions> catalogVersions;
+    private final ObjectProvider<PrecomputedJsonCache> precomputedJsonCache;
+    private final ObjectProvider<PlatformTransactionManager> transactionManager;
+    private final Environment environment;
+    private final boolean httpCacheEnabled;
+    private final Duration httpCacheTimeBucket;
+
+    public WebConfig(ObjectProvider<CatalogVersions> catalogVersions,
+                     ObjectProvider<PrecomputedJsonCache> precomputedJsonCache,
+                     ObjectProvider<PlatformTransactionManager> transactionManager,
+                     Environment environment,
+                     @Value("${cinema.http-cache.enabled:true}") boolean httpCacheEnabled,
+                     @Value("${cinema.http-cache.time-bucket:PT1M}") Duration httpCacheTimeBucket) {
+        this.catalogVersions = catalogVersions;
+        this.precomputedJsonCache = precomputedJsonCache;
+        this.transactionManager = transactionManager;
+        this.environment = environment;
+        this.httpCacheEnabled = httpCacheEnabled;
+        this.httpCacheTimeBucket = httpCacheTimeBucket;
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new ConnectionEndpointInterceptor());
+        // W testach warstwy web (@WebMvcTest) serwisów nie ma - wtedy bez walidatorów
+        CatalogVersions versions = catalogVersions.getIfAvailable();
+        PlatformTransactionManager transactions = transactionManager.getIfAvailable();
+        if (httpCacheEnabled && versions != null && transactions != null) {
+            registry.addInterceptor(new HttpCacheInterceptor(versions, transactions, environment,
+                    httpCacheTimeBucket, precomputedJsonCache.getIfAvailable()));
+        }
+    }
+
+    /**
+     * Narrows the tag set by {@link ConnectionEndpointFilter} to the controller method, e.g.
+     * "ReservationController.createReservation". Clearing is left to the filter; without it (tracking
+     * disabled) nothing is set.
+     */
+    static class ConnectionEndpointInterceptor implements HandlerInterceptor {
+
+        @Override
+        public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+            if (handler instanceof HandlerMethod method && ConnectionBorrowTracker.isInRequest()) {
+                ConnectionBorrowTracker.setCurrentEndpoint(
+                        method.getBeanType().getSimpleName() + "." + method.getMethod().getName());
+            }
+            return true;
+        }
+    }
+}
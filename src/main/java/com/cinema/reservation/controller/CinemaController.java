@@ -1,7 +1,9 @@
 package com.cinema.reservation.controller;
 
+import com.cinema.reservation.config.HttpCached;
 import com.cinema.reservation.entity.Cinema;
 import com.cinema.reservation.entity.CinemaHall;
+import com.cinema.reservation.service.CatalogVersions.Aggregate;
 import com.cinema.reservation.service.CinemaService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -23,6 +25,7 @@ public class CinemaController {
 
     private final CinemaService cinemaService;
 
+    @HttpCached(value = Aggregate.CINEMAS, policy = "cinemas", precomputedJson = true)
     @GetMapping
     @Operation(summary = "Get all cinemas", description = "Returns a list of all cinemas")
     public ResponseEntity<List<Cinema>> getAllCinemas() {
@@ -30,6 +33,7 @@ public class CinemaController {
         return ResponseEntity.ok(cinemas);
     }
 
+    @HttpCached(value = Aggregate.CINEMAS, policy = "cinemas")
     @GetMapping("/{id}")
     @Operation(summary = "Get cinema by ID", description = "Returns cinema details")
     public ResponseEntity<Cinema> getCinemaById(@PathVariable Long id) {
@@ -38,6 +42,7 @@ public class CinemaController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    @HttpCached(value = Aggregate.CINEMAS, policy = "cinemas")
     @GetMapping("/city/{city}")
     @Operation(summary = "Get cinemas by city", description = "Returns cinemas in specific city")
     public ResponseEntity<List<Cinema>> getCinemasByCity(@PathVariable String city) {
@@ -77,6 +82,7 @@ public class CinemaController {
         }
     }
 
+    @HttpCached(value = Aggregate.CINEMAS, policy = "cinemas")
     @GetMapping("/{cinemaId}/halls")
     @Operation(summary = "Get cinema halls", description = "Returns all halls for a cinema")
     public ResponseEntity<List<CinemaHall>> getCinemaHalls(@PathVariable Long cinemaId) {
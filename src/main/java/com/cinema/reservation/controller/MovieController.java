@@ -1,6 +1,9 @@
 package com.cinema.reservation.controller;
 
+import com.cinema.reservation.config.HttpCached;
+import com.cinema.reservation.dto.MovieSuggestion;
 import com.cinema.reservation.entity.Movie;
+import com.cinema.reservation.service.CatalogVersions.Aggregate;
 import com.cinema.reservation.service.MovieService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -22,6 +25,7 @@ public class MovieController {
 
     private final MovieService movieService;
 
+    @HttpCached(value = Aggregate.MOVIES, policy = "movies", precomputedJson = true)
     @GetMapping
     @Operation(summary = "Get all movies", description = "Returns a list of all movies")
     public ResponseEntity<List<Movie>> getAllMovies() {
@@ -29,6 +33,7 @@ public class MovieController {
         return ResponseEntity.ok(movies);
     }
 
+    @HttpCached(value = Aggregate.MOVIES, policy = "movies")
     @GetMapping("/{id}")
     @Operation(summary = "Get movie by ID", description = "Returns a single movie")
     public ResponseEntity<Movie> getMovieById(@PathVariable Long id) {
@@ -69,13 +74,40 @@ public class MovieController {
         }
     }
 
+    @HttpCached(value = Aggregate.MOVIES, policy = "movies")
     @GetMapping("/search")
-    @Operation(summary = "Search movies by title", description = "Search movies by title containing given text")
+    @Operation(summary = "Search movies by title", description = "Matches title words by prefix or with a typo, served from the in-memory index")
     public ResponseEntity<List<Movie>> searchMovies(@RequestParam String title) {
         List<Movie> movies = movieService.searchByTitle(title);
         return ResponseEntity.ok(movies);
     }
 
+    @HttpCached(value = Aggregate.MOVIES, policy = "movies")
+    @GetMapping("/search/full-text")
+    @Operation(summary = "Full-text movie search", description = "Ranked, typo-tolerant search over title, director and description")
+    public ResponseEntity<List<Movie>> fullTextSearch(@RequestParam String q,
+                                                      @RequestParam(defaultValue = "20") int limit) {
+        List<Movie> movies = movieService.search(q, limit);
+        return ResponseEntity.ok(movies);
+    }
+
+    @HttpCached(value = Aggregate.MOVIES, policy = "movies")
+    @GetMapping("/typeahead")
+    @Operation(summary = "Movie typeahead", description = "Returns lightweight suggestions for the search box, served from the in-memory index")
+    public ResponseEntity<List<MovieSuggestion>> typeahead(@RequestParam String q,
+                                                           @RequestParam(defaultValue = "8") int limit) {
+        List<MovieSuggestion> suggestions = movieService.typeahead(q, limit);
+        return ResponseEntity.ok(suggestions);
+    }
+
+    @GetMapping("/popular")
+    @Operation(summary = "Get popular movies", description = "Returns movies ranked by upcoming screenings and seats sold")
+    public ResponseEntity<List<Movie>> getPopularMovies(@RequestParam(defaultValue = "10") int limit) {
+        List<Movie> movies = movieService.findMostPopularMovies(limit);
+        return ResponseEntity.ok(movies);
+    }
+
+    @HttpCached(value = Aggregate.MOVIES, policy = "movies")
     @GetMapping("/genre/{genre}")
     @Operation(summary = "Get movies by genre", description = "Returns movies of specific genre")
     public ResponseEntity<List<Movie>> getMoviesByGenre(@PathVariable Movie.Genre genre) {
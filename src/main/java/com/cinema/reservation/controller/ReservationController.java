@@ -1,9 +1,13 @@
 package com.cinema.reservation.controller;
 
+import com.cinema.reservation.dto.ArchivedReservation;
 import com.cinema.reservation.dto.ReservationCreateRequest;
 import com.cinema.reservation.entity.Reservation;
+import com.cinema.reservation.service.ReservationArchiveService;
 import com.cinema.reservation.service.ReservationService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
@@ -22,10 +26,13 @@ import java.util.List;
 public class ReservationController {
 
     private final ReservationService reservationService;
+    private final ReservationArchiveService reservationArchiveService;
 
     @PreAuthorize("hasAuthority('ROLE_USER') || hasAuthority('ROLE_ADMIN')")
     @PostMapping
     @Operation(summary = "Create reservation", description = "Creates a new reservation")
+    @Parameter(name = "Idempotency-Key", in = ParameterIn.HEADER, required = false,
+            description = "Retries with the same key and body return the original response")
     public ResponseEntity<Reservation> createReservation(@RequestBody ReservationCreateRequest request) {
         Reservation reservation = reservationService.createReservation(request);
         return ResponseEntity.status(HttpStatus.CREATED).body(reservation);
@@ -47,6 +54,15 @@ public class ReservationController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    @GetMapping("/archive/confirmation/{code}")
+    @Operation(summary = "Get archived reservation by confirmation code",
+            description = "Returns a reservation for a past screening that was moved to the archive")
+    public ResponseEntity<ArchivedReservation> getArchivedReservationByCode(@PathVariable String code) {
+        return reservationArchiveService.findByConfirmationCode(code)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
     @GetMapping("/user/{userId}")
     @Operation(summary = "Get user reservations", description = "Returns all reservations for a user")
     public ResponseEntity<List<Reservation>> getUserReservations(@PathVariable Long userId) {
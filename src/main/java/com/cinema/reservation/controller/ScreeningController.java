@@ -1,12 +1,20 @@
 package com.cinema.reservation.controller;
 
+import com.cinema.reservation.config.HttpCached;
+import com.cinema.reservation.dto.ScreeningAvailability;
 import com.cinema.reservation.dto.ScreeningCreateRequest;
+import com.cinema.reservation.dto.ScreeningSearchCriteria;
+import com.cinema.reservation.dto.ScreeningSearchRow;
 import com.cinema.reservation.entity.Screening;
+import com.cinema.reservation.exception.InvalidScreeningDataException;
+import com.cinema.reservation.service.CatalogVersions.Aggregate;
 import com.cinema.reservation.service.ScreeningService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.web.PagedModel;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -23,6 +31,9 @@ public class ScreeningController {
 
     private final ScreeningService screeningService;
 
+    private static final int MAX_PAGE_SIZE = 100;
+
+    @HttpCached(value = Aggregate.SCREENINGS, policy = "screenings")
     @GetMapping
     @Operation(summary = "Get all screenings", description = "Returns all screenings")
     public ResponseEntity<List<Screening>> getAllScreenings() {
@@ -30,6 +41,7 @@ public class ScreeningController {
         return ResponseEntity.ok(screenings);
     }
 
+    @HttpCached(value = Aggregate.SCREENINGS, policy = "screenings")
     @GetMapping("/{id}")
     @Operation(summary = "Get screening by ID", description = "Returns screening details")
     public ResponseEntity<Screening> getScreeningById(@PathVariable Long id) {
@@ -38,6 +50,16 @@ public class ScreeningController {
                 .orElse(ResponseEntity.notFound().build());
     }
 
+    // Bez @HttpCached - liczba miejsc zmienia się z każdą rezerwacją, a wersja SCREENINGS tylko z harmonogramem
+    @GetMapping("/{id}/availability")
+    @Operation(summary = "Get screening availability", description = "Returns the current number of free seats")
+    public ResponseEntity<ScreeningAvailability> getScreeningAvailability(@PathVariable Long id) {
+        return screeningService.findAvailability(id)
+                .map(ResponseEntity::ok)
+                .orElse(ResponseEntity.notFound().build());
+    }
+
+    @HttpCached(value = Aggregate.SCREENINGS, policy = "screenings")
     @GetMapping("/movie/{movieId}")
     @Operation(summary = "Get screenings for movie", description = "Returns all screenings for a specific movie")
     public ResponseEntity<List<Screening>> getScreeningsByMovie(@PathVariable Long movieId) {
@@ -45,13 +67,15 @@ public class ScreeningController {
         return ResponseEntity.ok(screenings);
     }
 
+    @HttpCached(value = Aggregate.SCREENINGS, policy = "screenings", timeDependent = true, precomputedJson = true)
     @GetMapping("/upcoming")
     @Operation(summary = "Get upcoming screenings", description = "Returns all future screenings")
     public ResponseEntity<List<Screening>> getUpcomingScreenings() {
-        List<Screening> screenings = screeningService.findAvailableScreenings();
+        List<Screening> screenings = screeningService.findUpcomingScreenings();
         return ResponseEntity.ok(screenings);
     }
 
+    // Filtr po wolnych miejscach - wynik zmienia się z rezerwacjami, więc bez @HttpCached
     @GetMapping("/available")
     @Operation(summary = "Get screenings with available seats", description = "Returns screenings with minimum available seats")
     public ResponseEntity<List<Screening>> getAvailableScreenings(@RequestParam(defaultValue = "1") Integer minSeats) {
@@ -59,6 +83,20 @@ public class ScreeningController {
         return ResponseEntity.ok(screenings);
     }
 
+    // Wiersze niosą liczbę wolnych miejsc i filtr minSeats - jak /available, bez @HttpCached
+    @GetMapping("/search")
+    @Operation(summary = "Search screenings", description = "Filters upcoming screenings by city, date, genre, hall type, max price and min free seats")
+    public ResponseEntity<PagedModel<ScreeningSearchRow>> searchScreenings(ScreeningSearchCriteria criteria,
+                                                                          @RequestParam(defaultValue = "0") int page,
+                                                                          @RequestParam(defaultValue = "20") int size) {
+        try {
+            PageRequest pageRequest = PageRequest.of(Math.max(page, 0), Math.min(Math.max(size, 1), MAX_PAGE_SIZE));
+            return ResponseEntity.ok(new PagedModel<>(screeningService.search(criteria, pageRequest)));
+        } catch (InvalidScreeningDataException e) {
+            return ResponseEntity.badRequest().build();
+        }
+    }
+
     @PreAuthorize("hasRole('ADMIN')")
     @PostMapping
     @Operation(summary = "Create screening", description = "Creates a new screening")
@@ -0,0 +1,30 @@
+package com.cinema.reservation.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ArchivedReservation {
+    private Long id;
+    private String confirmationCode;
+    private Long userId;
+    private Long screeningId;
+    private String movieTitle;
+    private Long hallId;
+    private LocalDateTime screeningStart;
+    private LocalDateTime screeningEnd;
+    private BigDecimal totalPrice;
+    private String status;
+    private List<String> seats;
+    private LocalDateTime createdAt;
+    private LocalDateTime archivedAt;
+}
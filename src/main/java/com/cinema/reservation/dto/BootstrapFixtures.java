@@ -0,0 +1,71 @@
+package com.cinema.reservation.dto;
+
+import com.cinema.reservation.entity.CinemaHall;
+import com.cinema.reservation.entity.Movie;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Catalog fixture file read by the bootstrap-data loader (JSON). Halls are nested in their cinema;
+ * screenings point at a movie by title and at a hall by cinema and hall name, so the file needs no ids.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class BootstrapFixtures {
+    private List<CinemaFixture> cinemas = new ArrayList<>();
+    private List<MovieFixture> movies = new ArrayList<>();
+    private List<ScreeningFixture> screenings = new ArrayList<>();
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class CinemaFixture {
+        private String name;
+        private String address;
+        private String city;
+        private String phoneNumber;
+        private List<HallFixture> halls = new ArrayList<>();
+    }
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class HallFixture {
+        private String name;
+        private Integer rows;
+        private Integer seatsPerRow;
+        private CinemaHall.HallType hallType;
+    }
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class MovieFixture {
+        private String title;
+        private String description;
+        private Integer durationMinutes;
+        private Movie.Genre genre;
+        private String director;
+        private String posterUrl;
+        private Double rating;
+        private LocalDateTime releaseDate;
+    }
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    public static class ScreeningFixture {
+        private String movie;
+        private String cinema;
+        private String hall;
+        private LocalDateTime startTime;
+        private BigDecimal price;
+    }
+}
@@ -0,0 +1,18 @@
+package com.cinema.reservation.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class MovieSuggestion {
+    private Long id;
+    private String title;
+    private String director;
+    private Double rating;
+    private Double score;
+}
@@ -9,10 +9,17 @@ import java.util.List;
 
 @Data
 @Builder
-@AllArgsConstructor   // generuje publiczny konstruktor (userId, screeningId, seats)
+@AllArgsConstructor   // generuje publiczny konstruktor (userId, screeningId, seats, quantity)
 @NoArgsConstructor    // potrzebny np. dla Jacksona
 public class ReservationCreateRequest {
     private Long userId;
     private Long screeningId;
     private List<SeatRequest> seats;
+
+    // Tryb "najlepsze N miejsc obok siebie" - używany, gdy seats nie są podane
+    private Integer quantity;
+
+    public ReservationCreateRequest(Long userId, Long screeningId, List<SeatRequest> seats) {
+        this(userId, screeningId, seats, null);
+    }
 }
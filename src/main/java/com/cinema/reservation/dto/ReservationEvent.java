@@ -0,0 +1,30 @@
+package com.cinema.reservation.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor
+public class ReservationEvent {
+    // Id wiersza w outbox - subskrybenci deduplikują po nim (dostarczanie at-least-once)
+    private Long eventId;
+    private Type type;
+    private Long reservationId;
+    private Long userId;
+    private Long screeningId;
+    private String confirmationCode;
+    private Integer seatCount;
+    private BigDecimal totalPrice;
+    private LocalDateTime occurredAt;
+
+    public enum Type {
+        CREATED, CONFIRMED, CANCELLED
+    }
+}
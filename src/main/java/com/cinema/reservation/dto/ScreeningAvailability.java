@@ -0,0 +1,17 @@
+package com.cinema.reservation.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Live seat count of one screening. Served apart from the screening itself, which is HTTP-cached by
+ * schedule version and so never carries data that changes with every booking.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ScreeningAvailability {
+    private Long screeningId;
+    private Integer availableSeats;
+}
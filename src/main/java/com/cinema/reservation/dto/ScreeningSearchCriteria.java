@@ -0,0 +1,29 @@
+package com.cinema.reservation.dto;
+
+import com.cinema.reservation.entity.CinemaHall;
+import com.cinema.reservation.entity.Movie;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+@Data
+@Builder
+@AllArgsConstructor
+@NoArgsConstructor    // potrzebny do bindowania parametrów zapytania
+public class ScreeningSearchCriteria {
+    private String city;
+
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate date;
+
+    private Movie.Genre genre;
+    private CinemaHall.HallType hallType;
+    private Long movieId;
+    private BigDecimal maxPrice;
+    private Integer minSeats;
+}
@@ -0,0 +1,34 @@
+package com.cinema.reservation.dto;
+
+import com.cinema.reservation.entity.CinemaHall;
+import com.cinema.reservation.entity.Movie;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Flat, read-only screening row for search results - no entity graph, no lazy loading.
+ * Field order matches the constructor used by the criteria query projection.
+ */
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+public class ScreeningSearchRow {
+    private Long screeningId;
+    private Long movieId;
+    private String movieTitle;
+    private Movie.Genre genre;
+    private Long cinemaId;
+    private String cinemaName;
+    private String city;
+    private Long hallId;
+    private String hallName;
+    private CinemaHall.HallType hallType;
+    private LocalDateTime startTime;
+    private LocalDateTime endTime;
+    private BigDecimal price;
+    private Integer availableSeats;
+}
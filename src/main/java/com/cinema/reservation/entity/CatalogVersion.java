@@ -0,0 +1,43 @@
+package com.cinema.reservation.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * One stripe of a catalog change counter. Written and read with plain SQL by CatalogVersions; mapped
+ * so that the schema is validated and generated like every other table.
+ */
+@Entity
+@Table(name = "catalog_versions")
+@IdClass(CatalogVersion.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CatalogVersion {
+
+    @Id
+    @Column(length = 20)
+    private String aggregate;
+
+    @Id
+    private Integer stripe;
+
+    @Column(nullable = false)
+    private Long version;
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        private String aggregate;
+        private Integer stripe;
+    }
+}
@@ -0,0 +1,26 @@
+package com.cinema.reservation.entity;
+
+import org.hibernate.cache.spi.RegionFactory;
+
+import java.util.List;
+
+/**
+ * Second-level cache region names. Every region has to be created up front by
+ * {@link com.cinema.reservation.config.HibernateCacheConfig} - a missing one fails the startup.
+ */
+public final class HibernateCacheRegions {
+
+    public static final String MOVIES = "movies";
+    public static final String CINEMAS = "cinemas";
+    public static final String CINEMA_HALLS = "cinema-halls";
+    public static final String CINEMA_HALLS_COLLECTION = "cinema-halls-by-cinema";
+
+    public static final String QUERY_RESULTS = RegionFactory.DEFAULT_QUERY_RESULTS_REGION_UNQUALIFIED_NAME;
+    public static final String UPDATE_TIMESTAMPS = RegionFactory.DEFAULT_UPDATE_TIMESTAMPS_REGION_UNQUALIFIED_NAME;
+
+    public static final List<String> ALL = List.of(
+            MOVIES, CINEMAS, CINEMA_HALLS, CINEMA_HALLS_COLLECTION, QUERY_RESULTS, UPDATE_TIMESTAMPS);
+
+    private HibernateCacheRegions() {
+    }
+}
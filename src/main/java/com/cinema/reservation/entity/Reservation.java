@@ -43,14 +43,21 @@ public class Reservation {
     @Column(nullable = false)
     private ReservationStatus status;
 
-    @Column(name = "created_at")
+    // Klucz partycjonowania tabeli reservations - nie zmienia się po zapisie
+    @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    // Nadawany przez ReservationService / ReservationBatchWriter (ConfirmationCodeGenerator) przed zapisem
+    @Column(name = "confirmation_code", length = 50)
     private String confirmationCode;
 
+    // Blokada optymistyczna - równoległe potwierdzenie i anulowanie nie mogą obu się udać
+    @Version
+    private long version;
+
     @PrePersist
     protected void onCreate() {
         createdAt = LocalDateTime.now();
@@ -58,7 +65,6 @@ public class Reservation {
         if (status == null) {
             status = ReservationStatus.PENDING;
         }
-        confirmationCode = generateConfirmationCode();
     }
 
     @PreUpdate
@@ -66,10 +72,6 @@ public class Reservation {
         updatedAt = LocalDateTime.now();
     }
 
-    private String generateConfirmationCode() {
-        return "RES" + System.currentTimeMillis() + (int)(Math.random() * 1000);
-    }
-
     public enum ReservationStatus {
         PENDING, CONFIRMED, CANCELLED, EXPIRED
     }
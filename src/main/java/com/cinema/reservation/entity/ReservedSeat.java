@@ -7,9 +7,11 @@ import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
 
+import java.time.LocalDateTime;
+
 @Entity
 @Table(name = "reserved_seats", uniqueConstraints = {
-        @UniqueConstraint(columnNames = {"screening_id", "row_number", "seat_number"})
+        @UniqueConstraint(columnNames = {"screening_id", "row_number", "seat_number", "screening_start"})
 })
 @Data
 @NoArgsConstructor
@@ -36,8 +38,24 @@ public class ReservedSeat {
     @Column(name = "seat_number", nullable = false)
     private Integer seatNumber;
 
+    // Klucz partycjonowania tabeli - kopia screenings.start_time, po zmianie godziny seansu aktualizuje ją trigger
+    @Column(name = "screening_start", nullable = false, updatable = false)
+    @JsonIgnore
+    private LocalDateTime screeningStart;
+
+    @PrePersist
+    protected void onCreate() {
+        if (screeningStart == null && screening != null) {
+            screeningStart = screening.getStartTime();
+        }
+    }
+
     // Helper method to display seat (e.g., "A5")
     public String getSeatDisplay() {
+        return seatDisplay(rowNumber, seatNumber);
+    }
+
+    public static String seatDisplay(int rowNumber, int seatNumber) {
         char rowLetter = (char) ('A' + rowNumber - 1);
         return rowLetter + String.valueOf(seatNumber);
     }
@@ -42,11 +42,19 @@ public class Screening {
     @Column(nullable = false, precision = 10, scale = 2)
     private BigDecimal price;
 
+    // Zmienia się przy każdej rezerwacji - poza JSON-em seansu, który jest cache'owany wersją harmonogramu;
+    // aktualna liczba: GET /api/screenings/{id}/availability
+    @JsonIgnore
     private Integer availableSeats;
 
     @Column(name = "created_at")
     private LocalDateTime createdAt;
 
+    // Licznik wolnych miejsc zmieniają rezerwacje i anulowania - bez wersji jedna zmiana nadpisywała drugą
+    @Version
+    @JsonIgnore
+    private long version;
+
     @OneToMany(mappedBy = "screening", cascade = CascadeType.ALL)
     @JsonIgnore
     private List<Reservation> reservations;
@@ -0,0 +1,11 @@
+package com.cinema.reservation.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class ScreeningBusyException extends RuntimeException {
+    public ScreeningBusyException(String message) {
+        super(message);
+    }
+}
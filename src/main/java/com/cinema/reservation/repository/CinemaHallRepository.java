@@ -1,8 +1,11 @@
 package com.cinema.reservation.repository;
 
 import com.cinema.reservation.entity.CinemaHall;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -12,15 +15,20 @@ import java.util.List;
 public interface CinemaHallRepository extends JpaRepository<CinemaHall, Long> {
 
     // Single Responsibility - tylko operacje na CinemaHall
+    // Katalog zmienia się rzadko - wyniki w query cache, unieważniane przy każdym zapisie do tabeli
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<CinemaHall> findByCinemaId(Long cinemaId);
 
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<CinemaHall> findByHallType(CinemaHall.HallType hallType);
 
     // Business logic - sale o określonej pojemności
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT h FROM CinemaHall h WHERE h.totalSeats >= :minSeats ORDER BY h.totalSeats")
     List<CinemaHall> findHallsWithMinimumCapacity(@Param("minSeats") Integer minSeats);
 
     // Dependency Inversion - repository nie wie jak używa tego service
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT h FROM CinemaHall h WHERE h.cinema.id = :cinemaId AND h.hallType = :hallType")
     List<CinemaHall> findByCinemaIdAndHallType(@Param("cinemaId") Long cinemaId,
                                                @Param("hallType") CinemaHall.HallType hallType);
@@ -1,8 +1,11 @@
 package com.cinema.reservation.repository;
 
 import com.cinema.reservation.entity.Cinema;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -12,15 +15,19 @@ import java.util.List;
 public interface CinemaRepository extends JpaRepository<Cinema, Long> {
 
     // Single Responsibility - tylko operacje na Cinema
+    // Katalog zmienia się rzadko - wyniki w query cache, unieważniane przy każdym zapisie do tabeli
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Cinema> findByCity(String city);
 
     List<Cinema> findByNameContainingIgnoreCase(String name);
 
     // Business queries
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT c FROM Cinema c JOIN FETCH c.halls WHERE c.city = :city")
     List<Cinema> findCinemasWithHallsByCity(@Param("city") String city);
 
     // Performance optimization - tylko podstawowe info
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT c.id, c.name, c.city FROM Cinema c ORDER BY c.name")
     List<Object[]> findBasicCinemaInfo();
 }
\ No newline at end of file
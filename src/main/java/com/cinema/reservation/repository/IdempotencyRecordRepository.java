@@ -0,0 +1,36 @@
+package com.cinema.reservation.repository;
+
+import com.cinema.reservation.entity.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    /**
+     * Atomic claim: inserts an IN_PROGRESS row with a short lease, or takes over a row whose lease (IN_PROGRESS)
+     * or TTL (COMPLETED) has passed. Returns 1 when this caller owns the key, 0 when another request already
+     * holds it.
+     */
+    @Modifying
+    @Transactional
+    @Query(value = "INSERT INTO idempotency_keys (idempotency_key, fingerprint, status, created_at, expires_at) "
+            + "VALUES (:key, :fingerprint, 'IN_PROGRESS', :now, :expiresAt) "
+            + "ON CONFLICT (idempotency_key) DO UPDATE SET fingerprint = EXCLUDED.fingerprint, status = EXCLUDED.status, "
+            + "response_status = NULL, response_content_type = NULL, response_body = NULL, "
+            + "created_at = EXCLUDED.created_at, expires_at = EXCLUDED.expires_at "
+            + "WHERE idempotency_keys.expires_at < :now", nativeQuery = true)
+    int claim(@Param("key") String key, @Param("fingerprint") String fingerprint,
+              @Param("now") LocalDateTime now, @Param("expiresAt") LocalDateTime expiresAt);
+
+    @Modifying
+    @Transactional
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt < :now")
+    int deleteExpired(@Param("now") LocalDateTime now);
+}
@@ -1,10 +1,13 @@
 package com.cinema.reservation.repository;
 
 import com.cinema.reservation.entity.Movie;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -15,13 +18,12 @@ import java.util.List;
 public interface MovieRepository extends JpaRepository<Movie, Long> {
 
     // Single Responsibility - tylko operacje na Movie
+    // Katalog zmienia się rzadko - wyniki w query cache, unieważniane przy każdym zapisie do tabeli
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     List<Movie> findByGenre(Movie.Genre genre);
 
-    List<Movie> findByDirectorContainingIgnoreCase(String director);
-
-    List<Movie> findByTitleContainingIgnoreCase(String title);
-
     // Open/Closed Principle - łatwo dodać nowe query bez modyfikacji
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT m FROM Movie m WHERE m.rating >= :minRating ORDER BY m.rating DESC")
     List<Movie> findHighRatedMovies(@Param("minRating") Double minRating);
 
@@ -29,6 +31,7 @@ public interface MovieRepository extends JpaRepository<Movie, Long> {
     List<Movie> findRecentMovies(@Param("fromDate") LocalDateTime fromDate);
 
     // Pagination support - nie łamiemy Interface Segregation
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     Page<Movie> findByGenre(Movie.Genre genre, Pageable pageable);
 
     // Business logic encapsulation
@@ -36,6 +39,7 @@ public interface MovieRepository extends JpaRepository<Movie, Long> {
     List<Movie> findMostPopularMovies();
 
     // Performance optimization
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_CACHEABLE, value = "true"))
     @Query("SELECT m FROM Movie m WHERE m.durationMinutes BETWEEN :minDuration AND :maxDuration")
     List<Movie> findByDurationRange(@Param("minDuration") Integer minDuration,
                                     @Param("maxDuration") Integer maxDuration);
@@ -23,6 +23,10 @@ public interface ReservationRepository extends JpaRepository<Reservation, Long>
 
     Optional<Reservation> findByConfirmationCode(String confirmationCode);
 
+    // Sam identyfikator seansu - do wyboru blokady przed otwarciem transakcji anulowania
+    @Query("SELECT r.screening.id FROM Reservation r WHERE r.id = :id")
+    Optional<Long> findScreeningIdById(@Param("id") Long id);
+
     // Business logic queries
     List<Reservation> findByStatus(Reservation.ReservationStatus status);
 
@@ -34,11 +38,12 @@ public interface ReservationRepository extends JpaRepository<Reservation, Long>
     List<Reservation> findRecentReservations(@Param("fromDate") LocalDateTime fromDate);
 
     // Business analytics
-    // Przełączone na zapytanie natywne, żeby uniknąć błędów porównywania TIMESTAMP z DATE
+    // Przełączone na zapytanie natywne, żeby uniknąć błędów porównywania TIMESTAMP z DATE;
+    // zakres zamiast CAST(created_at AS date), żeby działał indeks (status, created_at)
     @Query(
             value = "SELECT COUNT(*) FROM reservations r " +
                     "WHERE r.status = 'CONFIRMED' " +
-                    "  AND CAST(r.created_at AS date) = CURRENT_DATE",
+                    "  AND r.created_at >= CURRENT_DATE AND r.created_at < CURRENT_DATE + 1",
             nativeQuery = true
     )
     long countTodayConfirmedReservations();
@@ -51,7 +56,8 @@ public interface ReservationRepository extends JpaRepository<Reservation, Long>
     List<Reservation> findExpiredPendingReservations(@Param("expiredBefore") LocalDateTime expiredBefore);
 
     @Modifying
-    @Query("UPDATE Reservation r SET r.status = 'EXPIRED' WHERE r.status = 'PENDING' AND r.createdAt < :expiredBefore")
+    @Query("UPDATE Reservation r SET r.status = 'EXPIRED', r.version = r.version + 1 " +
+            "WHERE r.status = 'PENDING' AND r.createdAt < :expiredBefore")
     int expirePendingReservations(@Param("expiredBefore") LocalDateTime expiredBefore);
 
     // User reservation history with screening details
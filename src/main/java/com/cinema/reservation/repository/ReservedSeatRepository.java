@@ -31,4 +31,8 @@ public interface ReservedSeatRepository extends JpaRepository<ReservedSeat, Long
     // Performance optimization - count bez pobierania obiektów
     @Query("SELECT COUNT(rs) FROM ReservedSeat rs WHERE rs.screening.id = :screeningId")
     long countReservedSeatsForScreening(@Param("screeningId") Long screeningId);
-}
\ No newline at end of file
+
+    // Siatka zajętości dla alokatora miejsc - same współrzędne, bez encji
+    @Query("SELECT rs.rowNumber, rs.seatNumber FROM ReservedSeat rs WHERE rs.screening.id = :screeningId")
+    List<Object[]> findSeatCoordinatesForScreening(@Param("screeningId") Long screeningId);
+}
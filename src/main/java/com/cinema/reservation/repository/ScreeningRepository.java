@@ -1,39 +1,50 @@
 package com.cinema.reservation.repository;
 
 import com.cinema.reservation.entity.Screening;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface ScreeningRepository extends JpaRepository<Screening, Long> {
+public interface ScreeningRepository extends JpaRepository<Screening, Long>, ScreeningSearchRepository {
 
     // Single Responsibility - tylko operacje na Screening
     List<Screening> findByMovieId(Long movieId);
 
     List<Screening> findByHallId(Long hallId);
 
-    // Business logic - dostępne seanse
-    @Query("SELECT s FROM Screening s WHERE s.startTime >= :fromTime AND s.availableSeats > 0 ORDER BY s.startTime")
-    List<Screening> findAvailableScreenings(@Param("fromTime") LocalDateTime fromTime);
+    // Nadchodzące seanse - sam harmonogram, bez filtra po miejscach, więc wynik zmienia się tylko z wersją SCREENINGS
+    @Query("SELECT s FROM Screening s WHERE s.startTime >= :fromTime ORDER BY s.startTime")
+    List<Screening> findUpcomingScreenings(@Param("fromTime") LocalDateTime fromTime);
 
-    // Konkretny dzień
-    @Query("SELECT s FROM Screening s WHERE DATE(s.startTime) = DATE(:date) ORDER BY s.startTime")
-    List<Screening> findByDate(@Param("date") LocalDateTime date);
+    @Query("SELECT s.availableSeats FROM Screening s WHERE s.id = :id")
+    Optional<Integer> findAvailableSeatsById(@Param("id") Long id);
+
+    // Konkretny dzień - zakres [początek dnia, następny dzień), bo DATE(start_time) nie korzysta z indeksu
+    default List<Screening> findByDate(LocalDateTime date) {
+        LocalDateTime dayStart = date.toLocalDate().atStartOfDay();
+        return findStartingBetween(dayStart, dayStart.plusDays(1));
+    }
+
+    @Query("SELECT s FROM Screening s WHERE s.startTime >= :from AND s.startTime < :to ORDER BY s.startTime")
+    List<Screening> findStartingBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
 
     // Seanse dla konkretnego filmu w przyszłości
     @Query("SELECT s FROM Screening s WHERE s.movie.id = :movieId AND s.startTime >= CURRENT_TIMESTAMP ORDER BY s.startTime")
     List<Screening> findUpcomingScreeningsForMovie(@Param("movieId") Long movieId);
 
     // Seanse w konkretnej sali w określonym czasie (collision detection)
+    // Przedziały domknięte nachodzą na siebie wtedy i tylko wtedy, gdy start <= :endTime i koniec >= :startTime
     @Query("SELECT s FROM Screening s WHERE s.hall.id = :hallId " +
-            "AND ((s.startTime BETWEEN :startTime AND :endTime) " +
-            "OR (s.endTime BETWEEN :startTime AND :endTime) " +
-            "OR (:startTime BETWEEN s.startTime AND s.endTime))")
+            "AND s.startTime <= :endTime AND s.endTime >= :startTime")
     List<Screening> findConflictingScreenings(@Param("hallId") Long hallId,
                                               @Param("startTime") LocalDateTime startTime,
                                               @Param("endTime") LocalDateTime endTime);
@@ -45,4 +56,27 @@ public interface ScreeningRepository extends JpaRepository<Screening, Long> {
     // Performance query - tylko podstawowe dane
     @Query("SELECT s.id, s.startTime, s.availableSeats, s.price FROM Screening s WHERE s.movie.id = :movieId")
     List<Object[]> findBasicScreeningInfoByMovie(@Param("movieId") Long movieId);
-}
\ No newline at end of file
+
+    // Popularity ranking - sprzedane miejsca per nadchodzący seans w jednym przebiegu; per seans, bo seans
+    // wypada z rankingu w chwili rozpoczęcia razem ze swoimi miejscami
+    @Query("SELECT s.id, s.movie.id, s.startTime, " +
+            "COUNT(CASE WHEN r.status = 'PENDING' OR r.status = 'CONFIRMED' THEN rs.id END) " +
+            "FROM Screening s " +
+            "LEFT JOIN ReservedSeat rs ON rs.screening = s " +
+            "LEFT JOIN rs.reservation r " +
+            "WHERE s.startTime >= :fromTime " +
+            "GROUP BY s.id, s.movie.id, s.startTime")
+    List<Object[]> aggregateUpcomingPopularity(@Param("fromTime") LocalDateTime fromTime);
+
+    // Blokada wiersza seansu na czas przydziału miejsc (SELECT ... FOR UPDATE)
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM Screening s WHERE s.id = :id")
+    Optional<Screening> findByIdForUpdate(@Param("id") Long id);
+
+    // Atomowe zmniejszenie licznika wolnych miejsc - jeden UPDATE na seans dla całej paczki rezerwacji;
+    // 0 zmienionych wierszy oznacza, że miejsc już nie wystarcza (licznik nigdy nie spada poniżej zera)
+    @Modifying
+    @Query("UPDATE Screening s SET s.availableSeats = s.availableSeats - :seats, s.version = s.version + 1 "
+            + "WHERE s.id = :id AND s.availableSeats >= :seats")
+    int decrementAvailableSeats(@Param("id") Long id, @Param("seats") int seats);
+}
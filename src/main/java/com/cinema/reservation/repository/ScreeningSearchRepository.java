@@ -0,0 +1,14 @@
+package com.cinema.reservation.repository;
+
+import com.cinema.reservation.dto.ScreeningSearchCriteria;
+import com.cinema.reservation.dto.ScreeningSearchRow;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+
+// Interface Segregation - wyszukiwanie wielokryterialne jako osobny fragment repozytorium
+public interface ScreeningSearchRepository {
+
+    Page<ScreeningSearchRow> search(ScreeningSearchCriteria criteria, LocalDateTime now, Pageable pageable);
+}
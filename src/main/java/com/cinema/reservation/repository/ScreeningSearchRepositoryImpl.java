@@ -0,0 +1,136 @@
+package com.cinema.reservation.repository;
+
+import com.cinema.reservation.dto.ScreeningSearchCriteria;
+import com.cinema.reservation.dto.ScreeningSearchRow;
+import com.cinema.reservation.entity.Cinema;
+import com.cinema.reservation.entity.CinemaHall;
+import com.cinema.reservation.entity.Movie;
+import com.cinema.reservation.entity.Screening;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.TypedQuery;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Criteria-based screening search. Selects a flat {@link ScreeningSearchRow} straight from the joined
+ * tables, so a page of results is one SELECT plus one COUNT, without hydrating entities.
+ * Start time filters are always ranges, so the (hall_id, start_time) / (movie_id, start_time) indexes apply.
+ */
+public class ScreeningSearchRepositoryImpl implements ScreeningSearchRepository {
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Override
+    public Page<ScreeningSearchRow> search(ScreeningSearchCriteria criteria, LocalDateTime now, Pageable pageable) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+
+        CriteriaQuery<ScreeningSearchRow> query = cb.createQuery(ScreeningSearchRow.class);
+        Root<Screening> screening = query.from(Screening.class);
+        Join<Screening, Movie> movie = screening.join("movie");
+        Join<Screening, CinemaHall> hall = screening.join("hall");
+        Join<CinemaHall, Cinema> cinema = hall.join("cinema");
+
+        query.select(cb.construct(ScreeningSearchRow.class,
+                        screening.get("id"),
+                        movie.get("id"),
+                        movie.get("title"),
+                        movie.get("genre"),
+                        cinema.get("id"),
+                        cinema.get("name"),
+                        cinema.get("city"),
+                        hall.get("id"),
+                        hall.get("name"),
+                        hall.get("hallType"),
+                        screening.get("startTime"),
+                        screening.get("endTime"),
+                        screening.get("price"),
+                        screening.get("availableSeats")))
+                .where(buildPredicates(cb, criteria, now, screening, movie, hall, cinema))
+                .orderBy(cb.asc(screening.get("startTime")), cb.asc(screening.get("id")));
+
+        TypedQuery<ScreeningSearchRow> typedQuery = entityManager.createQuery(query);
+        if (pageable.isPaged()) {
+            typedQuery.setFirstResult((int) pageable.getOffset());
+            typedQuery.setMaxResults(pageable.getPageSize());
+        }
+        List<ScreeningSearchRow> rows = typedQuery.getResultList();
+
+        // Pełna strona bez offsetu lub niepełna strona - liczność znana bez dodatkowego COUNT
+        if (pageable.isUnpaged() || (pageable.getOffset() == 0 && rows.size() < pageable.getPageSize())) {
+            return new PageImpl<>(rows, pageable, rows.size());
+        }
+
+        return new PageImpl<>(rows, pageable, count(cb, criteria, now));
+    }
+
+    private long count(CriteriaBuilder cb, ScreeningSearchCriteria criteria, LocalDateTime now) {
+        CriteriaQuery<Long> countQuery = cb.createQuery(Long.class);
+        Root<Screening> screening = countQuery.from(Screening.class);
+        Join<Screening, Movie> movie = screening.join("movie");
+        Join<Screening, CinemaHall> hall = screening.join("hall");
+        Join<CinemaHall, Cinema> cinema = hall.join("cinema");
+
+        countQuery.select(cb.count(screening))
+                .where(buildPredicates(cb, criteria, now, screening, movie, hall, cinema));
+
+        return entityManager.createQuery(countQuery).getSingleResult();
+    }
+
+    private Predicate[] buildPredicates(CriteriaBuilder cb,
+                                        ScreeningSearchCriteria criteria,
+                                        LocalDateTime now,
+                                        Root<Screening> screening,
+                                        Join<Screening, Movie> movie,
+                                        Join<Screening, CinemaHall> hall,
+                                        Join<CinemaHall, Cinema> cinema) {
+        List<Predicate> predicates = new ArrayList<>();
+
+        if (criteria.getDate() != null) {
+            LocalDateTime dayStart = criteria.getDate().atStartOfDay();
+            LocalDateTime from = dayStart.isBefore(now) ? now : dayStart;
+            predicates.add(cb.greaterThanOrEqualTo(screening.get("startTime"), from));
+            predicates.add(cb.lessThan(screening.get("startTime"), dayStart.plusDays(1)));
+        } else {
+            predicates.add(cb.greaterThanOrEqualTo(screening.get("startTime"), now));
+        }
+
+        if (criteria.getMovieId() != null) {
+            predicates.add(cb.equal(movie.get("id"), criteria.getMovieId()));
+        }
+
+        if (criteria.getGenre() != null) {
+            predicates.add(cb.equal(movie.get("genre"), criteria.getGenre()));
+        }
+
+        if (criteria.getHallType() != null) {
+            predicates.add(cb.equal(hall.get("hallType"), criteria.getHallType()));
+        }
+
+        if (criteria.getCity() != null && !criteria.getCity().isBlank()) {
+            predicates.add(cb.equal(cb.lower(cinema.get("city")), criteria.getCity().trim().toLowerCase(Locale.ROOT)));
+        }
+
+        if (criteria.getMaxPrice() != null) {
+            predicates.add(cb.lessThanOrEqualTo(screening.get("price"), criteria.getMaxPrice()));
+        }
+
+        if (criteria.getMinSeats() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(screening.get("availableSeats"), criteria.getMinSeats()));
+        }
+
+        return predicates.toArray(new Predicate[0]);
+    }
+}
@@ -0,0 +1,382 @@
+package com.cinema.reservation.service;
+
+import com.cinema.reservation.dto.ReservationCreateRequest;
+import com.cinema.reservation.dto.SeatRequest;
+import com.cinema.reservation.entity.Reservation;
+import com.cinema.reservation.exception.InvalidReservationDataException;
+import com.cinema.reservation.exception.ScreeningBusyException;
+import com.cinema.reservation.exception.ScreeningNotFoundException;
+import com.cinema.reservation.exception.SeatNotAvailableException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.lang.invoke.VarHandle;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Single-writer booking engine for on-sale peaks (cinema.booking.engine.mode=ring-buffer).
+ * Screenings are hashed onto shards; each shard has a lock-free ring buffer and exactly one writer thread
+ * that owns the in-memory seat maps of its screenings; an idle writer is parked until the next submit. The writer takes up to max-batch commands at a time,
+ * seats them without touching the database and persists the accepted ones in one transaction
+ * through {@link ReservationBatchWriter}. Callers block on a future until their booking is committed.
+ */
+@Component
+@Slf4j
+public class BookingEngine {
+
+    public static final String MODE_SYNCHRONOUS = "synchronous";
+    public static final String MODE_RING_BUFFER = "ring-buffer";
+
+    private final ReservationBatchWriter batchWriter;
+    private final SeatAllocator seatAllocator;
+    private final MeterRegistry meterRegistry;
+
+    private final boolean enabled;
+    private final int shardCount;
+    private final int ringSize;
+    private final int maxBatch;
+    private final int cachedScreeningsPerShard;
+    private final Duration submitTimeout;
+
+    private final Counter rejectedCounter;
+    private final DistributionSummary batchSizeSummary;
+
+    private Shard[] shards = new Shard[0];
+
+    public BookingEngine(ReservationBatchWriter batchWriter,
+                         SeatAllocator seatAllocator,
+                         MeterRegistry meterRegistry,
+                         @Value("${cinema.booking.engine.mode:synchronous}") String mode,
+                         @Value("${cinema.booking.engine.shards:4}") int shardCount,
+                         @Value("${cinema.booking.engine.ring-size:4096}") int ringSize,
+                         @Value("${cinema.booking.engine.max-batch:64}") int maxBatch,
+                         @Value("${cinema.booking.engine.cached-screenings-per-shard:512}") int cachedScreeningsPerShard,
+                         @Value("${cinema.booking.engine.submit-timeout:PT5S}") Duration submitTimeout) {
+        if (!MODE_SYNCHRONOUS.equals(mode) && !MODE_RING_BUFFER.equals(mode)) {
+            throw new IllegalArgumentException("Unknown cinema.booking.engine.mode: " + mode);
+        }
+        this.batchWriter = batchWriter;
+        this.seatAllocator = seatAllocator;
+        this.meterRegistry = meterRegistry;
+        this.enabled = MODE_RING_BUFFER.equals(mode);
+        this.shardCount = Math.max(1, shardCount);
+        this.ringSize = ringSize;
+        this.maxBatch = Math.max(1, maxBatch);
+        this.cachedScreeningsPerShard = Math.max(1, cachedScreeningsPerShard);
+        this.submitTimeout = submitTimeout;
+
+        this.rejectedCounter = Counter.builder("cinema.booking.engine.rejected")
+                .description("Bookings rejected because the shard ring buffer was full")
+                .register(meterRegistry);
+        this.batchSizeSummary = DistributionSummary.builder("cinema.booking.engine.batch.size")
+                .description("Bookings persisted per writer transaction")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        shards = new Shard[shardCount];
+        for (int i = 0; i < shardCount; i++) {
+            shards[i] = new Shard(i);
+            shards[i].thread.start();
+        }
+        Gauge.builder("cinema.booking.engine.queue.depth", this, BookingEngine::queueDepth)
+                .description("Commands waiting in all shard ring buffers")
+                .register(meterRegistry);
+        log.info("Booking engine started: {} shards, ring size {}, max batch {}", shardCount, ringSize, maxBatch);
+    }
+
+    @PreDestroy
+    public void stop() {
+        for (Shard shard : shards) {
+            shard.running = false;
+            LockSupport.unpark(shard.thread);
+        }
+        for (Shard shard : shards) {
+            try {
+                shard.thread.join(submitTimeout.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    /**
+     * Queues the (already validated) request on its screening's shard and waits for the commit.
+     * The submit timeout bounds only the wait in the queue: a booking the writer has already taken
+     * is always waited for, so the caller never gets a timeout for a reservation that was saved.
+     */
+    public Reservation submit(ReservationCreateRequest request) {
+        if (!enabled) {
+            throw new IllegalStateException("Booking engine is not enabled");
+        }
+
+        Command command = new Command(request);
+        Shard shard = shards[shardIndex(request.getScreeningId())];
+        if (!shard.offer(command)) {
+            rejectedCounter.increment();
+            throw new ScreeningBusyException("Booking queue for screening " + request.getScreeningId() + " is full, please retry");
+        }
+
+        try {
+            return command.result.get(submitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw failure(e.getCause());
+        } catch (TimeoutException e) {
+            if (command.cancel()) {
+                throw new ScreeningBusyException("Booking for screening " + request.getScreeningId()
+                        + " was not started in time and has been withdrawn, please retry");
+            }
+            // Writer już przejął komendę - czekamy na wynik zamiast zgłaszać błąd, który mógłby okazać się fałszywy
+            return awaitClaimed(command);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            if (command.cancel()) {
+                throw new ScreeningBusyException("Interrupted while waiting for booking");
+            }
+            return awaitClaimed(command);
+        }
+    }
+
+    private static Reservation awaitClaimed(Command command) {
+        try {
+            return command.result.join();
+        } catch (CompletionException e) {
+            throw failure(e.getCause());
+        }
+    }
+
+    private static RuntimeException failure(Throwable cause) {
+        return cause instanceof RuntimeException runtimeException ? runtimeException : new IllegalStateException(cause);
+    }
+
+    public int queueDepth() {
+        int depth = 0;
+        for (Shard shard : shards) {
+            depth += shard.ring.size();
+        }
+        return depth;
+    }
+
+    private int shardIndex(Long screeningId) {
+        long hash = screeningId * 0x9E3779B97F4A7C15L;
+        return Math.floorMod((int) (hash ^ (hash >>> 32)), shardCount);
+    }
+
+    /**
+     * A queued booking. Either the writer claims it (and then always completes the future) or the caller
+     * withdraws it after the submit timeout - never both, so a timeout reported to the caller means the
+     * booking was not and will not be saved.
+     */
+    private static final class Command {
+
+        private static final int QUEUED = 0;
+        private static final int CLAIMED = 1;
+        private static final int CANCELLED = 2;
+
+        private final ReservationCreateRequest request;
+        private final CompletableFuture<Reservation> result = new CompletableFuture<>();
+        private final AtomicInteger state = new AtomicInteger(QUEUED);
+
+        private Command(ReservationCreateRequest request) {
+            this.request = request;
+        }
+
+        boolean claim() {
+            return state.compareAndSet(QUEUED, CLAIMED);
+        }
+
+        boolean cancel() {
+            return state.compareAndSet(QUEUED, CANCELLED);
+        }
+    }
+
+    private final class Shard implements Runnable {
+
+        private final BookingRingBuffer<Command> ring = new BookingRingBuffer<>(ringSize);
+        private final Thread thread;
+        private volatile boolean running = true;
+        private volatile boolean parked;
+
+        // Stan miejsc należy wyłącznie do wątku shardu - bez synchronizacji
+        private final Map<Long, ReservationBatchWriter.SeatMap> seatMaps =
+                new LinkedHashMap<>(64, 0.75f, true) {
+                    @Override
+                    protected boolean removeEldestEntry(Map.Entry<Long, ReservationBatchWriter.SeatMap> eldest) {
+                        return size() > cachedScreeningsPerShard;
+                    }
+                };
+
+        private Shard(int index) {
+            this.thread = new Thread(this, "booking-shard-" + index);
+            this.thread.setDaemon(true);
+        }
+
+        boolean offer(Command command) {
+            if (!running || !ring.offer(command)) {
+                return false;
+            }
+            // Pełna bariera: zapis do bufora musi być widoczny, zanim sprawdzimy flagę (para z idle())
+            VarHandle.fullFence();
+            if (parked) {
+                LockSupport.unpark(thread);
+            }
+            return true;
+        }
+
+        @Override
+        public void run() {
+            List<Command> batch = new ArrayList<>(maxBatch);
+
+            while (running || !ring.isEmpty()) {
+                if (ring.drainTo(batch::add, maxBatch) == 0) {
+                    idle();
+                    continue;
+                }
+                try {
+                    process(batch);
+                } catch (RuntimeException e) {
+                    log.error("Booking shard {} failed to process a batch", thread.getName(), e);
+                    batch.forEach(command -> command.result.completeExceptionally(e));
+                    seatMaps.clear();
+                }
+                batch.clear();
+            }
+        }
+
+        /**
+         * Blocks the idle writer until {@link #offer} or {@link #stop()} unparks it, so an empty shard
+         * costs no CPU.
+         */
+        private void idle() {
+            parked = true;
+            VarHandle.fullFence();
+            // Ponowne sprawdzenie po ustawieniu flagi - producent mógł dodać komendę tuż przed nią;
+            // unpark przed park zostawia pozwolenie, więc pobudka nie ginie
+            if (ring.isEmpty() && running) {
+                LockSupport.park(this);
+            }
+            parked = false;
+        }
+
+        private void process(List<Command> batch) {
+            List<Command> accepted = new ArrayList<>(batch.size());
+            List<ReservationBatchWriter.Booking> bookings = new ArrayList<>(batch.size());
+
+            for (Command command : batch) {
+                if (!command.claim()) {
+                    // Wycofana przez klienta po przekroczeniu czasu - nie zajmujemy miejsc
+                    continue;
+                }
+                ReservationCreateRequest request = command.request;
+                try {
+                    ReservationBatchWriter.SeatMap seatMap = seatMap(request.getScreeningId());
+                    List<SeatRequest> seats = claimSeats(seatMap, request);
+                    accepted.add(command);
+                    bookings.add(new ReservationBatchWriter.Booking(request.getUserId(), request.getScreeningId(), seats));
+                } catch (RuntimeException e) {
+                    command.result.completeExceptionally(e);
+                }
+            }
+
+            if (bookings.isEmpty()) {
+                return;
+            }
+
+            batchSizeSummary.record(bookings.size());
+            List<ReservationBatchWriter.Outcome> outcomes = batchWriter.persist(bookings);
+
+            for (int i = 0; i < accepted.size(); i++) {
+                Command command = accepted.get(i);
+                ReservationBatchWriter.Outcome outcome = outcomes.get(i);
+                if (outcome.error() == null) {
+                    command.result.complete(outcome.reservation());
+                } else {
+                    // Odrzucony zapis - miejsca wracają do puli, a przy konflikcie mapa mogła być nieaktualna
+                    ReservationBatchWriter.Booking booking = bookings.get(i);
+                    ReservationBatchWriter.SeatMap seatMap = seatMaps.get(booking.screeningId());
+                    if (seatMap != null) {
+                        mark(seatMap, booking.seats(), false);
+                    }
+                    if (outcome.error() instanceof SeatNotAvailableException) {
+                        seatMaps.remove(booking.screeningId());
+                    }
+                    command.result.completeExceptionally(outcome.error());
+                }
+            }
+        }
+
+        private ReservationBatchWriter.SeatMap seatMap(Long screeningId) {
+            ReservationBatchWriter.SeatMap seatMap = seatMaps.get(screeningId);
+            if (seatMap == null) {
+                seatMap = batchWriter.loadSeatMap(screeningId)
+                        .orElseThrow(() -> new ScreeningNotFoundException("Screening not found with ID: " + screeningId));
+                seatMaps.put(screeningId, seatMap);
+            }
+            return seatMap;
+        }
+    }
+
+    private List<SeatRequest> claimSeats(ReservationBatchWriter.SeatMap seatMap, ReservationCreateRequest request) {
+        List<SeatRequest> seats;
+        if (request.getSeats() == null || request.getSeats().isEmpty()) {
+            seats = seatAllocator.findBestBlock(seatMap.rows(), seatMap.seatsPerRow(), seatMap.occupied(), request.getQuantity())
+                    .orElseThrow(() -> new SeatNotAvailableException(
+                            String.format("No block of %d adjacent seats is available", request.getQuantity())));
+        } else {
+            seats = request.getSeats();
+            boolean[] requested = new boolean[seatMap.occupied().length];
+            for (SeatRequest seat : seats) {
+                int index = seatIndex(seatMap, seat);
+                if (seatMap.occupied()[index] || requested[index]) {
+                    throw new SeatNotAvailableException(
+                            String.format("Seat %d-%d is already reserved", seat.getRowNumber(), seat.getSeatNumber()));
+                }
+                requested[index] = true;
+            }
+        }
+        mark(seatMap, seats, true);
+        return seats;
+    }
+
+    private static void mark(ReservationBatchWriter.SeatMap seatMap, List<SeatRequest> seats, boolean occupied) {
+        for (SeatRequest seat : seats) {
+            seatMap.occupied()[seatIndex(seatMap, seat)] = occupied;
+        }
+    }
+
+    private static int seatIndex(ReservationBatchWriter.SeatMap seatMap, SeatRequest seat) {
+        Integer row = seat.getRowNumber();
+        Integer number = seat.getSeatNumber();
+        if (row == null || number == null || row < 1 || row > seatMap.rows() || number < 1 || number > seatMap.seatsPerRow()) {
+            throw new InvalidReservationDataException(String.format("Seat %s-%s does not exist in this hall", row, number));
+        }
+        return (row - 1) * seatMap.seatsPerRow() + (number - 1);
+    }
+}
@@ -0,0 +1,515 @@
+package com.cinema.reservation.service;
+
+import com.cinema.reservation.dto.BootstrapFixtures;
+import com.cinema.reservation.dto.UserCreateRequest;
+import com.cinema.reservation.dto.UserType;
+import com.cinema.reservation.entity.Cinema;
+import com.cinema.reservation.entity.CinemaHall;
+import com.cinema.reservation.entity.Movie;
+import com.cinema.reservation.entity.Screening;
+import com.cinema.reservation.exception.InvalidCinemaDataException;
+import com.cinema.reservation.exception.InvalidCinemaHallDataException;
+import com.cinema.reservation.exception.InvalidMovieDataException;
+import com.cinema.reservation.exception.InvalidScreeningDataException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.ResourceLoader;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.StringJoiner;
+
+/**
+ * Seed data written after the application is ready, on its own background thread, so neither the
+ * database round trips nor BCrypt ever delay readiness. Default accounts: one query finds the emails
+ * that already exist and only the missing ones are hashed and inserted with a single
+ * {@code INSERT ... ON CONFLICT DO NOTHING}, so a warm restart costs one SELECT and no hashing.
+ * Catalog fixtures (cinemas with halls, movies, screenings) come from an optional JSON file and are
+ * written with JDBC batch inserts in one transaction, guarded by an upsert into bootstrap_fixtures -
+ * whichever instance inserts the row loads the file, every other start (or concurrent pod) skips it.
+ * The same transaction bumps the catalog versions, so {@link CatalogSync} drops the cached catalog and
+ * rebuilds the search index on every instance, not only on the one that loaded the file.
+ */
+@Service
+@Slf4j
+public class BootstrapDataService {
+
+    static final List<UserCreateRequest> DEFAULT_USERS = List.of(
+            UserCreateRequest.builder()
+                    .userType(UserType.ADMIN)
+                    .email("admin@cinema.com")
+                    .password("admin1234!")
+                    .firstName("System")
+                    .lastName("Administrator")
+                    .department("IT")
+                    .adminLevel("SUPER_ADMIN")
+                    .build(),
+            UserCreateRequest.builder()
+                    .userType(UserType.REGULAR)
+                    .email("user@cinema.com")
+                    .password("user1234!")
+                    .firstName("Test")
+                    .lastName("User")
+                    .phoneNumber("+48123456789")
+                    .build());
+
+    private static final String SELECT_EXISTING_EMAILS = "SELECT email FROM users WHERE email IN (:emails)";
+    private static final String INSERT_USERS = "INSERT INTO users "
+            + "(user_type, email, password, first_name, last_name, phone_number, department, admin_level, created_at, updated_at) "
+            + "VALUES ";
+    private static final String ON_EMAIL_CONFLICT = " ON CONFLICT (email) DO NOTHING";
+
+    private static final String CLAIM_FIXTURES = "INSERT INTO bootstrap_fixtures (name, checksum, loaded_at) "
+            + "VALUES (:name, :checksum, :loadedAt) ON CONFLICT (name) DO NOTHING";
+    private static final String SELECT_FIXTURES_CHECKSUM = "SELECT checksum FROM bootstrap_fixtures WHERE name = :name";
+
+    private static final String INSERT_CINEMA = "INSERT INTO cinemas (name, address, city, phone_number) VALUES (?, ?, ?, ?)";
+    private static final String INSERT_HALL = "INSERT INTO cinema_halls "
+            + "(name, total_seats, rows, seats_per_row, hall_type, cinema_id) VALUES (?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_MOVIE = "INSERT INTO movies "
+            + "(title, description, duration_minutes, genre, director, poster_url, rating, release_date, created_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_SCREENING = "INSERT INTO screenings "
+            + "(movie_id, hall_id, start_time, end_time, price, available_seats, created_at, version) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, 0)";
+
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final PasswordEncoder passwordEncoder;
+    private final ObjectMapper objectMapper;
+    private final ResourceLoader resourceLoader;
+    private final CatalogVersions catalogVersions;
+    private final CatalogSync catalogSync;
+    private final boolean enabled;
+    private final boolean defaultUsers;
+    private final String fixturesLocation;
+    private final int batchSize;
+
+    public BootstrapDataService(NamedParameterJdbcTemplate namedJdbcTemplate,
+                                JdbcTemplate jdbcTemplate,
+                                PlatformTransactionManager transactionManager,
+                                PasswordEncoder passwordEncoder,
+                                ObjectMapper objectMapper,
+                                ResourceLoader resourceLoader,
+                                CatalogVersions catalogVersions,
+                                CatalogSync catalogSync,
+                                @Value("${cinema.bootstrap.enabled:true}") boolean enabled,
+                                @Value("${cinema.bootstrap.default-users.enabled:true}") boolean defaultUsers,
+                                @Value("${cinema.bootstrap.fixtures.location:}") String fixturesLocation,
+                                @Value("${cinema.bootstrap.fixtures.batch-size:500}") int batchSize) {
+        this.namedJdbcTemplate = namedJdbcTemplate;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.passwordEncoder = passwordEncoder;
+        this.objectMapper = objectMapper;
+        this.resourceLoader = resourceLoader;
+        this.catalogVersions = catalogVersions;
+        this.catalogSync = catalogSync;
+        this.enabled = enabled;
+        this.defaultUsers = defaultUsers;
+        this.fixturesLocation = fixturesLocation;
+        this.batchSize = Math.max(1, batchSize);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        // Aplikacja jest już gotowa - dane dochodzą w tle, nie wstrzymując ruchu
+        Thread worker = new Thread(this::bootstrap, "bootstrap-data");
+        worker.setDaemon(true);
+        worker.start();
+    }
+
+    public void bootstrap() {
+        long started = System.nanoTime();
+        try {
+            int users = defaultUsers ? createDefaultUsers() : 0;
+            int screenings = fixturesLocation.isBlank() ? 0 : loadFixtures(resourceLoader.getResource(fixturesLocation));
+            log.atInfo().setMessage("Bootstrap data finished")
+                    .addKeyValue("usersCreated", users)
+                    .addKeyValue("screeningsLoaded", screenings)
+                    .addKeyValue("durationMs", (System.nanoTime() - started) / 1_000_000)
+                    .log();
+        } catch (Exception e) {
+            log.error("Error initializing data: ", e);
+        }
+    }
+
+    /**
+     * Inserts the default accounts that are missing; returns how many rows were inserted.
+     */
+    public int createDefaultUsers() {
+        List<String> emails = DEFAULT_USERS.stream().map(UserCreateRequest::getEmail).toList();
+        Set<String> existing = Set.copyOf(namedJdbcTemplate.queryForList(SELECT_EXISTING_EMAILS,
+                Map.of("emails", emails), String.class));
+        List<UserCreateRequest> missing = DEFAULT_USERS.stream()
+                .filter(user -> !existing.contains(user.getEmail()))
+                .toList();
+        if (missing.isEmpty()) {
+            return 0;
+        }
+
+        // BCrypt tylko dla brakujących kont; równoległy start drugiej instancji rozstrzyga ON CONFLICT
+        StringJoiner values = new StringJoiner(", ", INSERT_USERS, ON_EMAIL_CONFLICT);
+        MapSqlParameterSource params = new MapSqlParameterSource("now", Timestamp.valueOf(LocalDateTime.now()));
+        for (int i = 0; i < missing.size(); i++) {
+            UserCreateRequest user = missing.get(i);
+            values.add("(:type" + i + ", :email" + i + ", :password" + i + ", :firstName" + i + ", :lastName" + i
+                    + ", :phoneNumber" + i + ", :department" + i + ", :adminLevel" + i + ", :now, :now)");
+            params.addValue("type" + i, user.getUserType().name())
+                    .addValue("email" + i, user.getEmail())
+                    .addValue("password" + i, passwordEncoder.encode(user.getPassword()))
+                    .addValue("firstName" + i, user.getFirstName())
+                    .addValue("lastName" + i, user.getLastName())
+                    .addValue("phoneNumber" + i, user.getPhoneNumber(), Types.VARCHAR)
+                    .addValue("department" + i, user.getDepartment(), Types.VARCHAR)
+                    .addValue("adminLevel" + i, user.getAdminLevel(), Types.VARCHAR);
+        }
+        int inserted = namedJdbcTemplate.update(values.toString(), params);
+        if (inserted > 0) {
+            log.info("Created {} default user account(s)", inserted);
+        }
+        return inserted;
+    }
+
+    /**
+     * Loads the fixture file unless a file with the same name was loaded before; returns how many
+     * screenings were inserted (0 when skipped).
+     */
+    public int loadFixtures(Resource resource) {
+        byte[] content = read(resource);
+        String name = resource.getFilename() != null ? resource.getFilename() : resource.getDescription();
+        String checksum = sha256(content);
+        BootstrapFixtures fixtures;
+        try {
+            fixtures = objectMapper.readValue(content, BootstrapFixtures.class);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Invalid fixture file " + resource.getDescription(), e);
+        }
+        validate(fixtures, name);
+
+        Integer loaded = transactionTemplate.execute(status -> {
+            Map<String, Object> claim = Map.of("name", name, "checksum", checksum,
+                    "loadedAt", Timestamp.valueOf(LocalDateTime.now()));
+            // Wiersz znacznika i dane w jednej transakcji: błąd w pliku cofa też znacznik
+            if (namedJdbcTemplate.update(CLAIM_FIXTURES, claim) == 0) {
+                String loadedChecksum = namedJdbcTemplate.queryForObject(SELECT_FIXTURES_CHECKSUM,
+                        Map.of("name", name), String.class);
+                if (!checksum.equals(loadedChecksum)) {
+                    log.warn("Fixture file {} changed since it was loaded; rename it to load it again", name);
+                }
+                return null;
+            }
+            return insertFixtures(fixtures);
+        });
+
+        if (loaded == null) {
+            log.info("Fixture file {} already loaded, skipping", name);
+            return 0;
+        }
+        // Wersje podbite w tej samej transakcji - lokalnie od razu, inne instancje przy swoim najbliższym sync()
+        catalogSync.sync();
+        log.info("Fixture file {} loaded: {} cinemas, {} movies, {} screenings", name,
+                fixtures.getCinemas().size(), fixtures.getMovies().size(), loaded);
+        return loaded;
+    }
+
+    private int insertFixtures(BootstrapFixtures fixtures) {
+        LocalDateTime now = LocalDateTime.now();
+
+        List<BootstrapFixtures.CinemaFixture> cinemas = fixtures.getCinemas();
+        List<Long> cinemaIds = insertReturningIds(INSERT_CINEMA, cinemas, (ps, cinema) -> {
+            ps.setString(1, cinema.getName());
+            ps.setString(2, cinema.getAddress());
+            ps.setString(3, cinema.getCity());
+            ps.setString(4, cinema.getPhoneNumber());
+        });
+
+        List<HallRow> halls = new ArrayList<>();
+        for (int i = 0; i < cinemas.size(); i++) {
+            for (BootstrapFixtures.HallFixture hall : cinemas.get(i).getHalls()) {
+                halls.add(new HallRow(cinemas.get(i).getName(), cinemaIds.get(i), hall));
+            }
+        }
+        List<Long> hallIds = insertReturningIds(INSERT_HALL, halls, (ps, row) -> {
+            ps.setString(1, row.hall().getName());
+            ps.setInt(2, row.totalSeats());
+            ps.setInt(3, row.hall().getRows());
+            ps.setInt(4, row.hall().getSeatsPerRow());
+            ps.setString(5, row.hall().getHallType() == null ? null : row.hall().getHallType().name());
+            ps.setLong(6, row.cinemaId());
+        });
+
+        List<BootstrapFixtures.MovieFixture> movies = fixtures.getMovies();
+        List<Long> movieIds = insertReturningIds(INSERT_MOVIE, movies, (ps, movie) -> {
+            ps.setString(1, movie.getTitle());
+            ps.setString(2, movie.getDescription());
+            ps.setInt(3, movie.getDurationMinutes());
+            ps.setString(4, movie.getGenre() == null ? null : movie.getGenre().name());
+            ps.setString(5, movie.getDirector());
+            ps.setString(6, movie.getPosterUrl());
+            ps.setObject(7, movie.getRating(), Types.DECIMAL);
+            ps.setTimestamp(8, movie.getReleaseDate() == null ? null : Timestamp.valueOf(movie.getReleaseDate()));
+            ps.setTimestamp(9, Timestamp.valueOf(now));
+        });
+
+        // Seanse wskazują film i salę po nazwach - tu zamieniane na świeżo nadane id
+        Map<String, Integer> movieIndex = new HashMap<>();
+        for (int i = 0; i < movies.size(); i++) {
+            movieIndex.put(movies.get(i).getTitle(), i);
+        }
+        Map<String, Integer> hallIndex = new HashMap<>();
+        for (int i = 0; i < halls.size(); i++) {
+            hallIndex.put(hallKey(halls.get(i).cinemaName(), halls.get(i).hall().getName()), i);
+        }
+
+        List<BootstrapFixtures.ScreeningFixture> screenings = fixtures.getScreenings();
+        List<ScreeningRow> screeningRows = new ArrayList<>(screenings.size());
+        for (BootstrapFixtures.ScreeningFixture screening : screenings) {
+            int movie = movieIndex.get(screening.getMovie());
+            int hall = hallIndex.get(hallKey(screening.getCinema(), screening.getHall()));
+            LocalDateTime end = screening.getStartTime().plusMinutes(movies.get(movie).getDurationMinutes());
+            screeningRows.add(new ScreeningRow(movieIds.get(movie), hallIds.get(hall), screening.getStartTime(), end,
+                    screening.getPrice(), halls.get(hall).totalSeats()));
+        }
+        jdbcTemplate.batchUpdate(INSERT_SCREENING, screeningRows, batchSize, (ps, row) -> {
+            ps.setLong(1, row.movieId());
+            ps.setLong(2, row.hallId());
+            ps.setTimestamp(3, Timestamp.valueOf(row.startTime()));
+            ps.setTimestamp(4, Timestamp.valueOf(row.endTime()));
+            ps.setBigDecimal(5, row.price());
+            ps.setInt(6, row.availableSeats());
+            ps.setTimestamp(7, Timestamp.valueOf(now));
+        });
+
+        catalogVersions.bump(CatalogVersions.Aggregate.CINEMAS);
+        catalogVersions.bump(CatalogVersions.Aggregate.MOVIES);
+        catalogVersions.bump(CatalogVersions.Aggregate.SCREENINGS);
+        return screeningRows.size();
+    }
+
+    /**
+     * Checks the whole file before anything is written, with the same rules the services apply to
+     * single entities, plus what only a file can get wrong: duplicate names that make references
+     * ambiguous, references to missing movies or halls and overlapping screenings in one hall.
+     * All problems are reported together, each with its place in the file.
+     */
+    static void validate(BootstrapFixtures fixtures, String name) {
+        List<String> problems = new ArrayList<>();
+        if (fixtures.getCinemas() == null || fixtures.getMovies() == null || fixtures.getScreenings() == null) {
+            throw new IllegalArgumentException("Fixture file " + name + " is invalid: cinemas, movies and screenings "
+                    + "must be lists (leave a section out instead of setting it to null)");
+        }
+
+        Set<String> halls = new HashSet<>();
+        Set<String> cinemaNames = new HashSet<>();
+        List<BootstrapFixtures.CinemaFixture> cinemas = fixtures.getCinemas();
+        for (int i = 0; i < cinemas.size(); i++) {
+            BootstrapFixtures.CinemaFixture fixture = cinemas.get(i);
+            String where = "cinemas[" + i + "]";
+            if (fixture == null) {
+                problems.add(where + ": empty entry");
+                continue;
+            }
+            String cinemaWhere = where;
+            where += " '" + fixture.getName() + "'";
+            Cinema cinema = new Cinema();
+            cinema.setName(fixture.getName());
+            cinema.setAddress(fixture.getAddress());
+            check(problems, where, () -> CinemaService.validateCinemaData(cinema));
+            if (!cinemaNames.add(fixture.getName())) {
+                problems.add(where + ": duplicate cinema name");
+            }
+            List<BootstrapFixtures.HallFixture> cinemaHalls = fixture.getHalls() != null ? fixture.getHalls() : List.of();
+            for (int j = 0; j < cinemaHalls.size(); j++) {
+                BootstrapFixtures.HallFixture hallFixture = cinemaHalls.get(j);
+                String hallWhere = cinemaWhere + ".halls[" + j + "]";
+                if (hallFixture == null) {
+                    problems.add(hallWhere + ": empty entry");
+                    continue;
+                }
+                hallWhere += " '" + fixture.getName() + "/" + hallFixture.getName() + "'";
+                CinemaHall hall = new CinemaHall();
+                hall.setName(hallFixture.getName());
+                hall.setRows(hallFixture.getRows());
+                hall.setSeatsPerRow(hallFixture.getSeatsPerRow());
+                // Plik nie podaje total_seats - liczone jak przy zapisie, więc sprawdzamy rows i seatsPerRow
+                hall.setTotalSeats(hallFixture.getRows() != null && hallFixture.getSeatsPerRow() != null
+                        ? hallFixture.getRows() * hallFixture.getSeatsPerRow() : null);
+                check(problems, hallWhere, () -> CinemaService.validateCinemaHallData(hall));
+                if (!halls.add(hallKey(fixture.getName(), hallFixture.getName()))) {
+                    problems.add(hallWhere + ": duplicate hall name in this cinema");
+                }
+            }
+        }
+
+        Map<String, BootstrapFixtures.MovieFixture> movies = new HashMap<>();
+        for (int i = 0; i < fixtures.getMovies().size(); i++) {
+            BootstrapFixtures.MovieFixture fixture = fixtures.getMovies().get(i);
+            String where = "movies[" + i + "]";
+            if (fixture == null) {
+                problems.add(where + ": empty entry");
+                continue;
+            }
+            where += " '" + fixture.getTitle() + "'";
+            Movie movie = new Movie();
+            movie.setTitle(fixture.getTitle());
+            movie.setDurationMinutes(fixture.getDurationMinutes());
+            movie.setDirector(fixture.getDirector());
+            check(problems, where, () -> MovieService.validateMovieData(movie));
+            if (movies.putIfAbsent(fixture.getTitle(), fixture) != null) {
+                problems.add(where + ": duplicate movie title");
+            }
+        }
+
+        Map<String, List<TimedScreening>> screeningsByHall = new HashMap<>();
+        for (int i = 0; i < fixtures.getScreenings().size(); i++) {
+            BootstrapFixtures.ScreeningFixture fixture = fixtures.getScreenings().get(i);
+            String where = "screenings[" + i + "]";
+            if (fixture == null) {
+                problems.add(where + ": empty entry");
+                continue;
+            }
+            String hall = hallKey(fixture.getCinema(), fixture.getHall());
+            where += " ('" + fixture.getMovie() + "' in " + hall + " at " + fixture.getStartTime() + ")";
+            BootstrapFixtures.MovieFixture movie = movies.get(fixture.getMovie());
+            if (movie == null) {
+                problems.add(where + ": movie not in the file");
+            }
+            if (!halls.contains(hall)) {
+                problems.add(where + ": hall not in the file");
+            }
+            if (movie == null || movie.getDurationMinutes() == null || movie.getDurationMinutes() <= 0) {
+                // Bez długości filmu nie ma końca seansu; sam film jest już zgłoszony wyżej
+                continue;
+            }
+            Screening screening = new Screening();
+            screening.setStartTime(fixture.getStartTime());
+            screening.setEndTime(fixture.getStartTime() == null ? null
+                    : fixture.getStartTime().plusMinutes(movie.getDurationMinutes()));
+            screening.setPrice(fixture.getPrice());
+            check(problems, where, () -> ScreeningService.validateScreening(screening));
+            if (screening.getStartTime() != null) {
+                screeningsByHall.computeIfAbsent(hall, key -> new ArrayList<>())
+                        .add(new TimedScreening(where, screening.getStartTime(), screening.getEndTime()));
+            }
+        }
+
+        // Przedziały domknięte, jak w ScreeningRepository.findConflictingScreenings
+        screeningsByHall.values().forEach(inHall -> {
+            inHall.sort(Comparator.comparing(TimedScreening::start));
+            TimedScreening latest = null;
+            for (TimedScreening screening : inHall) {
+                if (latest != null && !screening.start().isAfter(latest.end())) {
+                    problems.add(screening.where() + ": overlaps " + latest.where() + " in the same hall");
+                }
+                if (latest == null || screening.end().isAfter(latest.end())) {
+                    latest = screening;
+                }
+            }
+        });
+
+        if (!problems.isEmpty()) {
+            throw new IllegalArgumentException("Fixture file " + name + " is invalid:\n  - " + String.join("\n  - ", problems));
+        }
+    }
+
+    private static void check(List<String> problems, String where, Runnable rule) {
+        try {
+            rule.run();
+        } catch (InvalidCinemaDataException | InvalidCinemaHallDataException | InvalidMovieDataException
+                 | InvalidScreeningDataException e) {
+            problems.add(where + ": " + e.getMessage());
+        }
+    }
+
+    private <T> List<Long> insertReturningIds(String sql, List<T> rows, ParameterizedPreparedStatementSetter<T> setter) {
+        List<Long> ids = new ArrayList<>(rows.size());
+        for (int from = 0; from < rows.size(); from += batchSize) {
+            List<T> chunk = rows.subList(from, Math.min(rows.size(), from + batchSize));
+            KeyHolder keyHolder = new GeneratedKeyHolder();
+            jdbcTemplate.batchUpdate(connection -> connection.prepareStatement(sql, new String[]{"id"}),
+                    new BatchPreparedStatementSetter() {
+                        @Override
+                        public void setValues(PreparedStatement ps, int i) throws SQLException {
+                            setter.setValues(ps, chunk.get(i));
+                        }
+
+                        @Override
+                        public int getBatchSize() {
+                            return chunk.size();
+                        }
+                    }, keyHolder);
+            keyHolder.getKeyList().forEach(keys -> ids.add(((Number) keys.values().iterator().next()).longValue()));
+        }
+        return ids;
+    }
+
+    private static String hallKey(String cinema, String hall) {
+        return cinema + "/" + hall;
+    }
+
+    private static byte[] read(Resource resource) {
+        try (InputStream in = resource.getInputStream()) {
+            return in.readAllBytes();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read fixture file " + resource.getDescription(), e);
+        }
+    }
+
+    private static String sha256(byte[] content) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(content));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private record HallRow(String cinemaName, Long cinemaId, BootstrapFixtures.HallFixture hall) {
+        int totalSeats() {
+            return hall.getRows() * hall.getSeatsPerRow();
+        }
+    }
+
+    private record TimedScreening(String where, LocalDateTime start, LocalDateTime end) {
+    }
+
+    private record ScreeningRow(long movieId, long hallId, LocalDateTime startTime, LocalDateTime endTime,
+                                BigDecimal price, int availableSeats) {
+    }
+}
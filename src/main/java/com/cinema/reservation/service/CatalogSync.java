@@ -0,0 +1,74 @@
+package com.cinema.reservation.service;
+
+import com.cinema.reservation.entity.Cinema;
+import com.cinema.reservation.entity.CinemaHall;
+import com.cinema.reservation.entity.Movie;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Keeps the per-instance derived catalog state - the movie search index and the second-level cache
+ * regions of movies, cinemas and halls with the query cache - in line with the shared
+ * {@link CatalogVersions}. Writes on other instances and plain-JDBC writes (fixture loads) only show up
+ * as a newer version, which the next poll applies by evicting the regions of the changed aggregate and
+ * rebuilding the index from the database. Writes through Hibernate on this instance are already applied
+ * after their own commit; their version bump costs one extra eviction, which catalog write rates allow.
+ */
+@Component
+@Slf4j
+public class CatalogSync {
+
+    private static final String CINEMA_HALLS_ROLE = Cinema.class.getName() + ".halls";
+
+    private final CatalogVersions catalogVersions;
+    private final MovieService movieService;
+    private final EntityManagerFactory entityManagerFactory;
+
+    private volatile long appliedMoviesVersion = -1;
+    private volatile long appliedCinemasVersion = -1;
+
+    public CatalogSync(CatalogVersions catalogVersions, MovieService movieService,
+                       EntityManagerFactory entityManagerFactory) {
+        this.catalogVersions = catalogVersions;
+        this.movieService = movieService;
+        this.entityManagerFactory = entityManagerFactory;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${cinema.catalog.sync-interval:PT5S}",
+            initialDelayString = "${cinema.catalog.sync-interval:PT5S}")
+    public synchronized void sync() {
+        // Wersje czytane przed czyszczeniem - to, co trafi do cache później, jest co najmniej tak świeże
+        CatalogVersions.Versions versions = catalogVersions.read();
+        long moviesVersion = versions.version(CatalogVersions.Aggregate.MOVIES);
+        long cinemasVersion = versions.version(CatalogVersions.Aggregate.CINEMAS);
+        if (moviesVersion == appliedMoviesVersion && cinemasVersion == appliedCinemasVersion) {
+            return;
+        }
+
+        Cache cache = entityManagerFactory.unwrap(SessionFactory.class).getCache();
+        if (moviesVersion != appliedMoviesVersion) {
+            cache.evictEntityData(Movie.class);
+        }
+        if (cinemasVersion != appliedCinemasVersion) {
+            cache.evictEntityData(Cinema.class);
+            cache.evictEntityData(CinemaHall.class);
+            cache.evictCollectionData(CINEMA_HALLS_ROLE);
+        }
+        // Znaczniki czasu query cache są lokalne - zapytania o zmienione tabele trzeba wyrzucić jawnie
+        cache.evictQueryRegions();
+
+        if (moviesVersion != appliedMoviesVersion) {
+            movieService.rebuildSearchIndex();
+        }
+        log.debug("Catalog synced to versions movies={}, cinemas={}", moviesVersion, cinemasVersion);
+        appliedMoviesVersion = moviesVersion;
+        appliedCinemasVersion = cinemasVersion;
+    }
+}
@@ -0,0 +1,141 @@
+package com.cinema.reservation.service;
+
+import jakarta.persistence.EntityManager;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.orm.jpa.EntityManagerHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.EnumSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Change counters for the public catalog, one per aggregate, used to build HTTP validators (ETag,
+ * Last-Modified). They live in the catalog_versions table, so every instance sees the same committed
+ * values and they survive restarts. Mutators call {@link #bump}; inside a transaction the counter row is
+ * updated in that same transaction, just before commit, so the new version becomes visible exactly when
+ * the data does. Readers call {@link #read()} in the transaction that reads the data, first - then the
+ * data is never older than the version it is tagged with.
+ * <p>
+ * Each aggregate is spread over {@link #STRIPES} rows (the version is their sum), so concurrent writers
+ * rarely wait for each other's counter row. {@link Aggregate#SCREENINGS} versions the schedule only -
+ * bookings change seat counts, which the cached representations leave out, and do not bump it.
+ */
+@Component
+public class CatalogVersions {
+
+    public enum Aggregate {
+        MOVIES, CINEMAS, SCREENINGS
+    }
+
+    static final int STRIPES = 16;
+
+    private static final String BUMP = "INSERT INTO catalog_versions (aggregate, stripe, version, updated_at) "
+            + "VALUES (?, ?, 1, ?) ON CONFLICT (aggregate, stripe) "
+            + "DO UPDATE SET version = catalog_versions.version + 1, updated_at = EXCLUDED.updated_at";
+    private static final String SELECT_VERSIONS = "SELECT aggregate, SUM(version) AS version, "
+            + "MAX(updated_at) AS updated_at FROM catalog_versions GROUP BY aggregate";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public CatalogVersions(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    public void bump(Aggregate aggregate) {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            write(EnumSet.of(aggregate));
+            return;
+        }
+        // Jedna synchronizacja na transakcję - kilka zmian tego samego agregatu to jeden UPDATE
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof PendingBumps pending && pending.owner == this) {
+                pending.aggregates.add(aggregate);
+                return;
+            }
+        }
+        PendingBumps pending = new PendingBumps(this);
+        pending.aggregates.add(aggregate);
+        TransactionSynchronizationManager.registerSynchronization(pending);
+    }
+
+    /**
+     * Committed versions as seen by the current transaction (or by a single statement without one).
+     */
+    public Versions read() {
+        Map<Aggregate, Long> versions = new EnumMap<>(Aggregate.class);
+        Map<Aggregate, Long> lastModified = new EnumMap<>(Aggregate.class);
+        jdbcTemplate.query(SELECT_VERSIONS, rs -> {
+            Aggregate aggregate = aggregate(rs.getString("aggregate"));
+            if (aggregate != null) {
+                versions.put(aggregate, rs.getLong("version"));
+                Timestamp updatedAt = rs.getTimestamp("updated_at");
+                lastModified.put(aggregate, updatedAt == null ? 0 : updatedAt.getTime());
+            }
+        });
+        return new Versions(Collections.unmodifiableMap(versions), Collections.unmodifiableMap(lastModified));
+    }
+
+    private void write(Set<Aggregate> aggregates) {
+        // Stałe pasmo w obrębie transakcji i stała kolejność agregatów - blokady wierszy bez zakleszczeń
+        int stripe = ThreadLocalRandom.current().nextInt(STRIPES);
+        Timestamp now = new Timestamp(System.currentTimeMillis());
+        for (Aggregate aggregate : aggregates) {
+            jdbcTemplate.update(BUMP, aggregate.name(), stripe, now);
+        }
+    }
+
+    private static Aggregate aggregate(String name) {
+        for (Aggregate aggregate : Aggregate.values()) {
+            if (aggregate.name().equals(name)) {
+                return aggregate;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Versions read at one point in time; an aggregate that was never changed has version 0 and no
+     * modification time (0).
+     */
+    public record Versions(Map<Aggregate, Long> versions, Map<Aggregate, Long> lastModified) {
+
+        public long version(Aggregate aggregate) {
+            return versions.getOrDefault(aggregate, 0L);
+        }
+
+        public long lastModified(Aggregate aggregate) {
+            return lastModified.getOrDefault(aggregate, 0L);
+        }
+    }
+
+    private static final class PendingBumps implements TransactionSynchronization {
+
+        private final CatalogVersions owner;
+        private final Set<Aggregate> aggregates = EnumSet.noneOf(Aggregate.class);
+
+        private PendingBumps(CatalogVersions owner) {
+            this.owner = owner;
+        }
+
+        @Override
+        public void beforeCommit(boolean readOnly) {
+            // Najpierw flush JPA: po UPDATE licznika transakcja nie bierze już żadnych innych blokad
+            for (Object resource : TransactionSynchronizationManager.getResourceMap().values()) {
+                if (resource instanceof EntityManagerHolder holder) {
+                    EntityManager entityManager = holder.getEntityManager();
+                    if (entityManager.isJoinedToTransaction()) {
+                        entityManager.flush();
+                    }
+                }
+            }
+            owner.write(aggregates);
+        }
+    }
+}
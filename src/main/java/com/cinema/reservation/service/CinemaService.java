@@ -25,6 +25,7 @@ public class CinemaService {
     // Dependency Inversion
     private final CinemaRepository cinemaRepository;
     private final CinemaHallRepository cinemaHallRepository;
+    private final CatalogVersions catalogVersions;
 
     // Single Responsibility - zarządzanie kinami i salami
 
@@ -33,27 +34,33 @@ public class CinemaService {
 
         validateCinemaData(cinema);
         Cinema savedCinema = cinemaRepository.save(cinema);
+        catalogVersions.bump(CatalogVersions.Aggregate.CINEMAS);
 
         log.info("Cinema created with ID: {}", savedCinema.getId());
         return savedCinema;
     }
 
+    @Transactional(readOnly = true)
     public Optional<Cinema> findById(Long id) {
         return cinemaRepository.findById(id);
     }
 
+    @Transactional(readOnly = true)
     public List<Cinema> findAll() {
         return cinemaRepository.findAll();
     }
 
+    @Transactional(readOnly = true)
     public List<Cinema> findByCity(String city) {
         return cinemaRepository.findByCity(city);
     }
 
+    @Transactional(readOnly = true)
     public List<Cinema> searchByName(String name) {
         return cinemaRepository.findByNameContainingIgnoreCase(name);
     }
 
+    @Transactional(readOnly = true)
     public List<Cinema> findCinemasWithHallsByCity(String city) {
         return cinemaRepository.findCinemasWithHallsByCity(city);
     }
@@ -67,7 +74,9 @@ public class CinemaService {
         existingCinema.setCity(cinemaUpdates.getCity());
         existingCinema.setPhoneNumber(cinemaUpdates.getPhoneNumber());
 
-        return cinemaRepository.save(existingCinema);
+        Cinema savedCinema = cinemaRepository.save(existingCinema);
+        catalogVersions.bump(CatalogVersions.Aggregate.CINEMAS);
+        return savedCinema;
     }
 
     public void deleteCinema(Long id) {
@@ -76,6 +85,7 @@ public class CinemaService {
         }
 
         cinemaRepository.deleteById(id);
+        catalogVersions.bump(CatalogVersions.Aggregate.CINEMAS);
         log.info("Cinema deleted with ID: {}", id);
     }
 
@@ -86,27 +96,34 @@ public class CinemaService {
 
         validateCinemaHallData(hall);
         CinemaHall savedHall = cinemaHallRepository.save(hall);
+        // Sale są częścią odpowiedzi o kinach
+        catalogVersions.bump(CatalogVersions.Aggregate.CINEMAS);
 
         log.info("Cinema hall created with ID: {}", savedHall.getId());
         return savedHall;
     }
 
+    @Transactional(readOnly = true)
     public Optional<CinemaHall> findHallById(Long id) {
         return cinemaHallRepository.findById(id);
     }
 
+    @Transactional(readOnly = true)
     public List<CinemaHall> findHallsByCinemaId(Long cinemaId) {
         return cinemaHallRepository.findByCinemaId(cinemaId);
     }
 
+    @Transactional(readOnly = true)
     public List<CinemaHall> findHallsByType(CinemaHall.HallType hallType) {
         return cinemaHallRepository.findByHallType(hallType);
     }
 
+    @Transactional(readOnly = true)
     public List<CinemaHall> findHallsWithMinimumCapacity(Integer minSeats) {
         return cinemaHallRepository.findHallsWithMinimumCapacity(minSeats);
     }
 
+    @Transactional(readOnly = true)
     public List<CinemaHall> findHallsByCinemaAndType(Long cinemaId, CinemaHall.HallType hallType) {
         return cinemaHallRepository.findByCinemaIdAndHallType(cinemaId, hallType);
     }
@@ -121,7 +138,9 @@ public class CinemaService {
         existingHall.setSeatsPerRow(hallUpdates.getSeatsPerRow());
         existingHall.setHallType(hallUpdates.getHallType());
 
-        return cinemaHallRepository.save(existingHall);
+        CinemaHall savedHall = cinemaHallRepository.save(existingHall);
+        catalogVersions.bump(CatalogVersions.Aggregate.CINEMAS);
+        return savedHall;
     }
 
     public void deleteCinemaHall(Long id) {
@@ -130,11 +149,12 @@ public class CinemaService {
         }
 
         cinemaHallRepository.deleteById(id);
+        catalogVersions.bump(CatalogVersions.Aggregate.CINEMAS);
         log.info("Cinema hall deleted with ID: {}", id);
     }
 
     // Business validation
-    private void validateCinemaData(Cinema cinema) {
+    static void validateCinemaData(Cinema cinema) {
         if (cinema.getName() == null || cinema.getName().trim().isEmpty()) {
             throw new InvalidCinemaDataException("Cinema name cannot be empty");
         }
@@ -144,7 +164,7 @@ public class CinemaService {
         }
     }
 
-    private void validateCinemaHallData(CinemaHall hall) {
+    static void validateCinemaHallData(CinemaHall hall) {
         if (hall.getName() == null || hall.getName().trim().isEmpty()) {
             throw new InvalidCinemaHallDataException("Hall name cannot be empty");
         }
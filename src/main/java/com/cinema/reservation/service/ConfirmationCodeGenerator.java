@@ -0,0 +1,165 @@
+package com.cinema.reservation.service;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generates reservation confirmation codes without locks or database round trips.
+ * <p>
+ * A 64-bit id (42 bits milliseconds since 2024-01-01, 10 bits node id, 12 bits sequence) is unique per node.
+ * The id is then scrambled by a keyed Feistel permutation - a bijection, so codes stay unique, but consecutive
+ * codes no longer look alike. Output: 13 Crockford base32 symbols plus one mod-37 check symbol.
+ * <p>
+ * The guarantee holds only across instances with distinct node ids and one shared secret, so both are required
+ * configuration and startup fails without them.
+ */
+@Component
+public class ConfirmationCodeGenerator {
+
+    public static final int CODE_LENGTH = 14;
+
+    private static final long EPOCH_MILLIS = Instant.parse("2024-01-01T00:00:00Z").toEpochMilli();
+    private static final int NODE_BITS = 10;
+    private static final int SEQUENCE_BITS = 12;
+    private static final long MAX_NODE_ID = (1L << NODE_BITS) - 1;
+    private static final long SEQUENCE_MASK = (1L << SEQUENCE_BITS) - 1;
+    private static final int FEISTEL_ROUNDS = 4;
+
+    private static final String SYMBOLS = "0123456789ABCDEFGHJKMNPQRSTVWXYZ";
+    private static final String CHECK_SYMBOLS = SYMBOLS + "*~$=U";
+
+    private final long nodeId;
+    private final int[] roundKeys;
+    // Stan: (milisekundy od EPOCH << SEQUENCE_BITS) | sekwencja - aktualizowany przez CAS
+    private final AtomicLong state = new AtomicLong();
+
+    public ConfirmationCodeGenerator(@Value("${cinema.confirmation-code.node-id:-1}") long nodeId,
+                                     @Value("${cinema.confirmation-code.secret:}") String secret) {
+        // Losowy node id mógłby się powtórzyć, a różne sekrety to różne permutacje - kody przestałyby być unikalne
+        if (nodeId < 0 || nodeId > MAX_NODE_ID) {
+            throw new IllegalArgumentException("cinema.confirmation-code.node-id must be set to a value between 0 and "
+                    + MAX_NODE_ID + " that no other running instance uses");
+        }
+        if (secret == null || secret.isBlank()) {
+            throw new IllegalArgumentException(
+                    "cinema.confirmation-code.secret must be set, to the same value on every instance");
+        }
+        this.nodeId = nodeId;
+        this.roundKeys = deriveRoundKeys(secret);
+    }
+
+    public String next() {
+        long current;
+        long next;
+        do {
+            current = state.get();
+            long now = System.currentTimeMillis() - EPOCH_MILLIS;
+            // Przepełnienie sekwencji "pożycza" kolejną milisekundę - id pozostają rosnące
+            next = (now << SEQUENCE_BITS) > current ? now << SEQUENCE_BITS : current + 1;
+        } while (!state.compareAndSet(current, next));
+
+        long id = ((next >>> SEQUENCE_BITS) << (NODE_BITS + SEQUENCE_BITS))
+                | (nodeId << SEQUENCE_BITS)
+                | (next & SEQUENCE_MASK);
+
+        return encode(permute(id));
+    }
+
+    /**
+     * Checks length, alphabet and check symbol - lets callers reject mistyped or guessed codes without a query.
+     */
+    public static boolean isWellFormed(String code) {
+        if (code == null || code.length() != CODE_LENGTH) {
+            return false;
+        }
+
+        long value = 0;
+        for (int i = 0; i < CODE_LENGTH - 1; i++) {
+            int symbol = decodeSymbol(code.charAt(i));
+            if (symbol < 0) {
+                return false;
+            }
+            if (i == 0 && symbol > 15) {
+                return false;
+            }
+            value = (value << 5) | symbol;
+        }
+
+        char check = Character.toUpperCase(code.charAt(CODE_LENGTH - 1));
+        return CHECK_SYMBOLS.charAt((int) Long.remainderUnsigned(value, CHECK_SYMBOLS.length())) == check;
+    }
+
+    public static String normalize(String code) {
+        return code == null ? null : code.trim().toUpperCase(Locale.ROOT)
+                .replace('O', '0')
+                .replace('I', '1')
+                .replace('L', '1');
+    }
+
+    static String encode(long value) {
+        char[] chars = new char[CODE_LENGTH];
+        long remaining = value;
+        for (int i = CODE_LENGTH - 2; i >= 0; i--) {
+            chars[i] = SYMBOLS.charAt((int) (remaining & 31));
+            remaining >>>= 5;
+        }
+        chars[CODE_LENGTH - 1] = CHECK_SYMBOLS.charAt((int) Long.remainderUnsigned(value, CHECK_SYMBOLS.length()));
+        return new String(chars);
+    }
+
+    private long permute(long value) {
+        int left = (int) (value >>> 32);
+        int right = (int) value;
+        for (int round = 0; round < FEISTEL_ROUNDS; round++) {
+            int mixed = left ^ mix(right ^ roundKeys[round]);
+            left = right;
+            right = mixed;
+        }
+        return ((long) left << 32) | (right & 0xFFFFFFFFL);
+    }
+
+    // Finalizer z MurmurHash3 - dobra dyfuzja bitów przy kilku instrukcjach
+    private static int mix(int value) {
+        int h = value;
+        h ^= h >>> 16;
+        h *= 0x85ebca6b;
+        h ^= h >>> 13;
+        h *= 0xc2b2ae35;
+        h ^= h >>> 16;
+        return h;
+    }
+
+    private static int decodeSymbol(char c) {
+        char upper = Character.toUpperCase(c);
+        if (upper == 'O') {
+            return 0;
+        }
+        if (upper == 'I' || upper == 'L') {
+            return 1;
+        }
+        return SYMBOLS.indexOf(upper);
+    }
+
+    private static int[] deriveRoundKeys(String secret) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(secret.getBytes(StandardCharsets.UTF_8));
+            ByteBuffer buffer = ByteBuffer.wrap(digest);
+            int[] keys = new int[FEISTEL_ROUNDS];
+            for (int i = 0; i < FEISTEL_ROUNDS; i++) {
+                keys[i] = buffer.getInt();
+            }
+            return keys;
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+}
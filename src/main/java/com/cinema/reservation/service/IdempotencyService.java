@@ -0,0 +1,225 @@
+package com.cinema.reservation.service;
+
+import com.cinema.reservation.entity.IdempotencyRecord;
+import com.cinema.reservation.repository.IdempotencyRecordRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HexFormat;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Stores request fingerprints and responses for {@code Idempotency-Key} requests.
+ * Local store: bounded LRU map with TTL. Shared store (optional, for multi-node deployments):
+ * the {@code idempotency_keys} table, claimed with a single {@code INSERT ... ON CONFLICT} so exactly one node
+ * wins a key. Keys are stored as a SHA-256 of the user-scoped key ({@link #scopedKey}), so their length never
+ * depends on the client.
+ * <p>
+ * A claimed key only gets a short lease ({@code cinema.idempotency.in-progress-lease}); the full TTL starts
+ * when the response is stored. A node that dies mid-request therefore blocks its key for the lease, not
+ * for a day. Local IN_PROGRESS entries belong to requests still running in this JVM, so they never
+ * expire or get evicted - the request itself completes or releases them.
+ */
+@Service
+@Slf4j
+public class IdempotencyService {
+
+    private final IdempotencyRecordRepository idempotencyRecordRepository;
+    private final Duration ttl;
+    private final Duration inProgressLease;
+    private final boolean sharedStore;
+    private final Map<String, IdempotencyRecord> localStore;
+
+    public IdempotencyService(IdempotencyRecordRepository idempotencyRecordRepository,
+                              @Value("${cinema.idempotency.ttl:PT24H}") Duration ttl,
+                              @Value("${cinema.idempotency.in-progress-lease:PT1M}") Duration inProgressLease,
+                              @Value("${cinema.idempotency.max-entries:10000}") int maxEntries,
+                              @Value("${cinema.idempotency.shared-store:false}") boolean sharedStore) {
+        this.idempotencyRecordRepository = idempotencyRecordRepository;
+        this.ttl = ttl;
+        this.inProgressLease = inProgressLease;
+        this.sharedStore = sharedStore;
+        this.localStore = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, IdempotencyRecord> eldest) {
+                if (size() <= maxEntries) {
+                    return false;
+                }
+                // Wypychamy najstarszy zakończony wpis - trwające żądanie bez wpisu dałoby się wykonać drugi raz
+                Iterator<IdempotencyRecord> records = values().iterator();
+                while (records.hasNext()) {
+                    if (records.next().getStatus() == IdempotencyRecord.Status.COMPLETED) {
+                        records.remove();
+                        return false;
+                    }
+                }
+                return false;
+            }
+        };
+    }
+
+    public Claim claim(String key, String fingerprint) {
+        LocalDateTime now = LocalDateTime.now();
+        IdempotencyRecord claimed = new IdempotencyRecord(key, fingerprint, IdempotencyRecord.Status.IN_PROGRESS,
+                null, null, null, now, now.plus(inProgressLease));
+
+        IdempotencyRecord existing;
+        synchronized (localStore) {
+            existing = localStore.get(key);
+            if (existing != null && isExpired(existing, now)) {
+                localStore.remove(key);
+                existing = null;
+            }
+            if (existing == null) {
+                localStore.put(key, claimed);
+            }
+        }
+
+        if (existing != null) {
+            return evaluate(existing, fingerprint);
+        }
+
+        if (!sharedStore) {
+            return Claim.claimed();
+        }
+
+        try {
+            // Jedno polecenie INSERT ... ON CONFLICT - dwa węzły z tym samym kluczem nie mogą oba go zająć
+            if (idempotencyRecordRepository.claim(key, fingerprint, now, now.plus(inProgressLease)) == 1) {
+                return Claim.claimed();
+            }
+
+            // Inny węzeł obsłużył (lub właśnie obsługuje) to żądanie
+            Optional<IdempotencyRecord> stored = idempotencyRecordRepository.findById(key);
+            if (stored.isEmpty()) {
+                // Zwolniony w międzyczasie - klient może ponowić
+                removeLocal(key);
+                return new Claim(Outcome.IN_PROGRESS, null);
+            }
+            IdempotencyRecord record = stored.get();
+            synchronized (localStore) {
+                if (record.getStatus() == IdempotencyRecord.Status.COMPLETED) {
+                    localStore.put(key, record);
+                } else {
+                    localStore.remove(key);
+                }
+            }
+            return evaluate(record, fingerprint);
+        } catch (RuntimeException e) {
+            removeLocal(key);
+            throw e;
+        }
+    }
+
+    public void complete(String key, String fingerprint, int responseStatus, String contentType, byte[] body) {
+        LocalDateTime now = LocalDateTime.now();
+        IdempotencyRecord completed = new IdempotencyRecord(key, fingerprint, IdempotencyRecord.Status.COMPLETED,
+                responseStatus, contentType, body, now, now.plus(ttl));
+
+        synchronized (localStore) {
+            localStore.put(key, completed);
+        }
+
+        if (sharedStore) {
+            idempotencyRecordRepository.save(completed);
+        }
+    }
+
+    public void release(String key) {
+        removeLocal(key);
+
+        if (sharedStore) {
+            try {
+                idempotencyRecordRepository.deleteById(key);
+            } catch (DataAccessException e) {
+                log.warn("Could not release idempotency key {}", key, e);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${cinema.idempotency.cleanup-interval:PT10M}")
+    public void purgeExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        synchronized (localStore) {
+            localStore.values().removeIf(record -> isExpired(record, now));
+        }
+
+        if (sharedStore) {
+            int deleted = idempotencyRecordRepository.deleteExpired(now);
+            log.debug("Purged {} expired idempotency keys", deleted);
+        }
+    }
+
+    /**
+     * Storage key for a client key of the given user: fixed-length hex, whatever the principal and key length.
+     */
+    public String scopedKey(String principal, String key) {
+        MessageDigest digest = sha256();
+        digest.update(principal.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) ':');
+        digest.update(key.getBytes(StandardCharsets.UTF_8));
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    public String fingerprint(String method, String path, byte[] body) {
+        MessageDigest digest = sha256();
+        digest.update(method.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) ' ');
+        digest.update(path.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) '\n');
+        digest.update(body);
+        return HexFormat.of().formatHex(digest.digest());
+    }
+
+    private static MessageDigest sha256() {
+        try {
+            return MessageDigest.getInstance("SHA-256");
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+
+    private Claim evaluate(IdempotencyRecord record, String fingerprint) {
+        if (!record.getFingerprint().equals(fingerprint)) {
+            return new Claim(Outcome.FINGERPRINT_MISMATCH, record);
+        }
+
+        if (record.getStatus() == IdempotencyRecord.Status.COMPLETED) {
+            return new Claim(Outcome.REPLAY, record);
+        }
+
+        return new Claim(Outcome.IN_PROGRESS, record);
+    }
+
+    private static boolean isExpired(IdempotencyRecord record, LocalDateTime now) {
+        return record.getStatus() == IdempotencyRecord.Status.COMPLETED && record.getExpiresAt().isBefore(now);
+    }
+
+    private void removeLocal(String key) {
+        synchronized (localStore) {
+            localStore.remove(key);
+        }
+    }
+
+    public enum Outcome {
+        CLAIMED, REPLAY, IN_PROGRESS, FINGERPRINT_MISMATCH
+    }
+
+    public record Claim(Outcome outcome, IdempotencyRecord record) {
+
+        static Claim claimed() {
+            return new Claim(Outcome.CLAIMED, null);
+        }
+    }
+}
@@ -0,0 +1,202 @@
+package com.cinema.reservation.service;
+
+import com.cinema.reservation.entity.Screening;
+import com.cinema.reservation.repository.ScreeningRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.Consumer;
+
+/**
+ * Materialized "popular now" ranking. Scores are rebuilt from the database on a schedule and
+ * adjusted incrementally after every committed booking/cancellation and schedule change on this instance,
+ * so reading the top list is O(K). Bookings made on other instances reach the ranking with the next
+ * scheduled rebuild. Score = seats sold for upcoming screenings + screeningWeight * number of upcoming
+ * screenings; a screening stops counting once it starts.
+ * <p>
+ * Changes that arrive while a rebuild reads the aggregate are journaled and replayed onto the rebuilt
+ * state before it replaces the current one, so they are neither lost nor applied twice by the swap.
+ * Only a change committed before the read but applied after the rebuild began (the moment between a
+ * commit and its after-commit callback) is counted twice, until the next rebuild.
+ */
+@Component
+@Slf4j
+public class MoviePopularityRanking {
+
+    private final ScreeningRepository screeningRepository;
+    private final int topSize;
+    private final long screeningWeight;
+
+    // Pod blokadą this; screeningId -> wynik seansu
+    private Map<Long, ScreeningScore> screenings = new HashMap<>();
+    private List<Consumer<Map<Long, ScreeningScore>>> journal;
+    private volatile boolean dirty;
+    private volatile List<Long> topMovieIds = List.of();
+    private volatile LocalDateTime nextStart;
+
+    public MoviePopularityRanking(ScreeningRepository screeningRepository,
+                                  @Value("${cinema.popularity.top-size:20}") int topSize,
+                                  @Value("${cinema.popularity.screening-weight:10}") long screeningWeight) {
+        this.screeningRepository = screeningRepository;
+        this.topSize = topSize;
+        this.screeningWeight = screeningWeight;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${cinema.popularity.refresh-interval:PT5M}",
+            initialDelayString = "${cinema.popularity.refresh-interval:PT5M}")
+    public void refresh() {
+        synchronized (this) {
+            if (journal != null) {
+                return;
+            }
+            journal = new ArrayList<>();
+        }
+
+        Map<Long, ScreeningScore> rebuilt = new HashMap<>();
+        try {
+            for (Object[] row : screeningRepository.aggregateUpcomingPopularity(LocalDateTime.now())) {
+                rebuilt.put((Long) row[0], new ScreeningScore((Long) row[1], (LocalDateTime) row[2],
+                        ((Number) row[3]).longValue()));
+            }
+        } catch (RuntimeException e) {
+            synchronized (this) {
+                journal = null;
+            }
+            throw e;
+        }
+
+        synchronized (this) {
+            // Zmiany zatwierdzone w trakcie odczytu agregatu - bez nich podmiana by je zgubiła
+            journal.forEach(change -> change.accept(rebuilt));
+            journal = null;
+            screenings = rebuilt;
+            recomputeTop();
+        }
+
+        log.info("Popularity ranking refreshed for {} upcoming screenings", rebuilt.size());
+    }
+
+    /**
+     * Applied after the caller's transaction commits; a rolled-back booking never moves the ranking.
+     */
+    public void recordSeatsSold(Screening screening, int seats) {
+        if (screening == null || screening.getId() == null || seats == 0) {
+            return;
+        }
+        Long screeningId = screening.getId();
+        Long movieId = screening.getMovie().getId();
+        LocalDateTime startTime = screening.getStartTime();
+        AfterCommit.run(() -> apply(scores -> scores.computeIfAbsent(screeningId,
+                id -> new ScreeningScore(movieId, startTime, 0)).seatsSold += seats));
+    }
+
+    /**
+     * A new or rescheduled screening; applied after the caller's transaction commits, like
+     * {@link #recordSeatsSold}.
+     */
+    public void recordScreening(Screening screening) {
+        if (screening == null || screening.getId() == null) {
+            return;
+        }
+        Long screeningId = screening.getId();
+        Long movieId = screening.getMovie().getId();
+        LocalDateTime startTime = screening.getStartTime();
+        AfterCommit.run(() -> apply(scores -> scores.merge(screeningId, new ScreeningScore(movieId, startTime, 0),
+                (current, updated) -> new ScreeningScore(movieId, startTime, current.seatsSold))));
+    }
+
+    /**
+     * A deleted screening; applied after the caller's transaction commits, like {@link #recordSeatsSold}.
+     */
+    public void recordScreeningRemoved(Long screeningId) {
+        if (screeningId == null) {
+            return;
+        }
+        AfterCommit.run(() -> apply(scores -> scores.remove(screeningId)));
+    }
+
+    public List<Long> topMovieIds(int limit) {
+        // Seans, który właśnie się zaczął, wypada z rankingu bez czekania na przebudowę
+        LocalDateTime next = nextStart;
+        if (dirty || (next != null && next.isBefore(LocalDateTime.now()))) {
+            synchronized (this) {
+                recomputeTop();
+            }
+        }
+        List<Long> top = topMovieIds;
+        return limit >= top.size() ? top : top.subList(0, Math.max(limit, 0));
+    }
+
+    public int getTopSize() {
+        return topSize;
+    }
+
+    private synchronized void apply(Consumer<Map<Long, ScreeningScore>> change) {
+        change.accept(screenings);
+        if (journal != null) {
+            journal.add(change);
+        }
+        dirty = true;
+    }
+
+    // Min-heap o rozmiarze K - O(N log K) zamiast sortowania wszystkich filmów
+    private void recomputeTop() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime earliestStart = null;
+        Map<Long, Long> movieScores = new HashMap<>();
+        for (Iterator<ScreeningScore> it = screenings.values().iterator(); it.hasNext(); ) {
+            ScreeningScore score = it.next();
+            if (score.startTime != null && score.startTime.isBefore(now)) {
+                it.remove();
+                continue;
+            }
+            if (score.startTime != null && (earliestStart == null || score.startTime.isBefore(earliestStart))) {
+                earliestStart = score.startTime;
+            }
+            movieScores.merge(score.movieId, screeningWeight + Math.max(score.seatsSold, 0), Long::sum);
+        }
+
+        Comparator<Map.Entry<Long, Long>> byScore = Map.Entry.<Long, Long>comparingByValue()
+                .thenComparing(Map.Entry.comparingByKey(Comparator.reverseOrder()));
+        PriorityQueue<Map.Entry<Long, Long>> heap = new PriorityQueue<>(topSize + 1, byScore);
+        for (Map.Entry<Long, Long> entry : movieScores.entrySet()) {
+            heap.offer(entry);
+            if (heap.size() > topSize) {
+                heap.poll();
+            }
+        }
+
+        List<Long> top = new ArrayList<>(heap.size());
+        while (!heap.isEmpty()) {
+            top.add(heap.poll().getKey());
+        }
+        topMovieIds = List.copyOf(top.reversed());
+        nextStart = earliestStart;
+        dirty = false;
+    }
+
+    private static final class ScreeningScore {
+        private final Long movieId;
+        private final LocalDateTime startTime;
+        private long seatsSold;
+
+        private ScreeningScore(Long movieId, LocalDateTime startTime, long seatsSold) {
+            this.movieId = movieId;
+            this.startTime = startTime;
+            this.seatsSold = seatsSold;
+        }
+    }
+}
@@ -0,0 +1,271 @@
+package com.cinema.reservation.service;
+
+import com.cinema.reservation.dto.MovieSuggestion;
+import com.cinema.reservation.entity.Movie;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over movie title, director and description.
+ * Replaces the {@code LIKE '%...%'} scans for the search box: lookups never touch the database.
+ * Writers (rebuild / index / remove) are serialized, readers work lock-free on concurrent maps.
+ * A rebuild fills a fresh pair of maps and publishes it with one volatile write, so a search running
+ * meanwhile sees either the whole old index or the whole new one, never a half-cleared one.
+ */
+@Component
+@Slf4j
+public class MovieSearchIndex {
+
+    static final int TITLE = 1;
+    static final int DIRECTOR = 2;
+    static final int DESCRIPTION = 4;
+    private static final int ALL_FIELDS = TITLE | DIRECTOR | DESCRIPTION;
+
+    private static final double EXACT_MATCH = 1.0;
+    private static final double PREFIX_MATCH = 0.6;
+    private static final double FUZZY_MATCH = 0.35;
+
+    private static final int MIN_FUZZY_LENGTH = 4;
+    private static final int LONG_TERM_LENGTH = 8;
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{Alnum}]+");
+
+    private volatile Snapshot snapshot = new Snapshot();
+
+    public synchronized void rebuild(Collection<Movie> movies) {
+        Snapshot rebuilt = new Snapshot();
+        movies.forEach(rebuilt::addDocument);
+        snapshot = rebuilt;
+        log.info("Movie search index rebuilt: {} movies, {} terms", rebuilt.documents.size(), rebuilt.postings.size());
+    }
+
+    public synchronized void index(Movie movie) {
+        if (movie == null || movie.getId() == null) {
+            return;
+        }
+        snapshot.removeDocument(movie.getId());
+        snapshot.addDocument(movie);
+    }
+
+    public synchronized void remove(Long movieId) {
+        snapshot.removeDocument(movieId);
+    }
+
+    public int size() {
+        return snapshot.documents.size();
+    }
+
+    /**
+     * Ranked search - every query token has to match (exact, prefix or, as a fallback, with a typo).
+     * Title hits weigh more than director hits, which weigh more than description hits.
+     */
+    public List<MovieSuggestion> search(String query, int limit) {
+        return search(query, limit, ALL_FIELDS);
+    }
+
+    /**
+     * Same ranked search restricted to the given fields (a bitmask of {@link #TITLE}, {@link #DIRECTOR},
+     * {@link #DESCRIPTION}) - every query token has to match in one of them.
+     */
+    List<MovieSuggestion> search(String query, int limit, int fields) {
+        List<String> tokens = new ArrayList<>(new LinkedHashSet<>(tokenize(query)));
+        if (tokens.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+
+        // Jedno odczytanie pola - całe wyszukiwanie idzie po tej samej wersji indeksu
+        Snapshot current = snapshot;
+        Map<Long, Double> scores = null;
+        for (String token : tokens) {
+            Map<Long, Double> tokenScores = matchToken(current, token, fields);
+            if (scores == null) {
+                scores = tokenScores;
+            } else {
+                scores.keySet().retainAll(tokenScores.keySet());
+                scores.replaceAll((id, score) -> score + tokenScores.get(id));
+            }
+            if (scores.isEmpty()) {
+                return List.of();
+            }
+        }
+
+        List<MovieSuggestion> results = new ArrayList<>(scores.size());
+        scores.forEach((id, score) -> {
+            IndexedMovie document = current.documents.get(id);
+            if (document != null) {
+                results.add(MovieSuggestion.builder()
+                        .id(id)
+                        .title(document.title())
+                        .director(document.director())
+                        .rating(document.rating())
+                        .score(score)
+                        .build());
+            }
+        });
+
+        results.sort(Comparator.comparing(MovieSuggestion::getScore, Comparator.reverseOrder())
+                .thenComparing(MovieSuggestion::getRating, Comparator.nullsLast(Comparator.reverseOrder()))
+                .thenComparing(MovieSuggestion::getTitle, Comparator.nullsLast(Comparator.naturalOrder())));
+
+        return results.size() > limit ? List.copyOf(results.subList(0, limit)) : results;
+    }
+
+    private Map<Long, Double> matchToken(Snapshot current, String token, int fields) {
+        Map<Long, Double> scores = new HashMap<>();
+
+        for (Map.Entry<String, Map<Long, Integer>> entry
+                : current.postings.subMap(token, true, token + Character.MAX_VALUE, true).entrySet()) {
+            double match = entry.getKey().length() == token.length() ? EXACT_MATCH : PREFIX_MATCH;
+            accumulate(scores, entry.getValue(), match, fields);
+        }
+
+        if (scores.isEmpty() && token.length() >= MIN_FUZZY_LENGTH) {
+            int maxEdits = token.length() >= LONG_TERM_LENGTH ? 2 : 1;
+            for (Map.Entry<String, Map<Long, Integer>> entry : current.postings.entrySet()) {
+                String term = entry.getKey();
+                // Porównujemy z prefiksem terminu, żeby literówka w trakcie pisania też trafiała
+                String candidate = term.length() > token.length() ? term.substring(0, token.length()) : term;
+                if (token.length() - candidate.length() <= maxEdits
+                        && withinEditDistance(token, candidate, maxEdits)) {
+                    accumulate(scores, entry.getValue(), FUZZY_MATCH, fields);
+                }
+            }
+        }
+
+        return scores;
+    }
+
+    private void accumulate(Map<Long, Double> scores, Map<Long, Integer> posting, double match, int fields) {
+        posting.forEach((id, termFields) -> {
+            int matched = termFields & fields;
+            if (matched != 0) {
+                scores.merge(id, match * fieldWeight(matched), Math::max);
+            }
+        });
+    }
+
+    private double fieldWeight(int fields) {
+        if ((fields & TITLE) != 0) {
+            return 3.0;
+        }
+        if ((fields & DIRECTOR) != 0) {
+            return 2.0;
+        }
+        return 1.0;
+    }
+
+    private static void collectTerms(Map<String, Integer> terms, String text, int field) {
+        for (String term : tokenize(text)) {
+            terms.merge(term, field, (a, b) -> a | b);
+        }
+    }
+
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String normalized = DIACRITICS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .replace('ł', 'l')
+                .replace('Ł', 'L')
+                .toLowerCase(Locale.ROOT);
+
+        List<String> tokens = new ArrayList<>();
+        for (String token : SEPARATORS.split(normalized)) {
+            if (!token.isEmpty()) {
+                tokens.add(token);
+            }
+        }
+        return tokens;
+    }
+
+    /**
+     * Bounded Damerau-Levenshtein (optimal string alignment) - stops as soon as a row exceeds maxEdits.
+     */
+    static boolean withinEditDistance(String a, String b, int maxEdits) {
+        if (Math.abs(a.length() - b.length()) > maxEdits) {
+            return false;
+        }
+
+        int[] previousPrevious = new int[b.length() + 1];
+        int[] previous = new int[b.length() + 1];
+        int[] current = new int[b.length() + 1];
+        for (int j = 0; j <= b.length(); j++) {
+            previous[j] = j;
+        }
+
+        for (int i = 1; i <= a.length(); i++) {
+            current[0] = i;
+            int rowMin = current[0];
+            for (int j = 1; j <= b.length(); j++) {
+                int cost = a.charAt(i - 1) == b.charAt(j - 1) ? 0 : 1;
+                int value = Math.min(Math.min(previous[j] + 1, current[j - 1] + 1), previous[j - 1] + cost);
+                if (i > 1 && j > 1 && a.charAt(i - 1) == b.charAt(j - 2) && a.charAt(i - 2) == b.charAt(j - 1)) {
+                    value = Math.min(value, previousPrevious[j - 2] + 1);
+                }
+                current[j] = value;
+                rowMin = Math.min(rowMin, value);
+            }
+            if (rowMin > maxEdits) {
+                return false;
+            }
+            int[] recycled = previousPrevious;
+            previousPrevious = previous;
+            previous = current;
+            current = recycled;
+        }
+
+        return previous[b.length()] <= maxEdits;
+    }
+
+    private record IndexedMovie(String title, String director, Double rating, Set<String> terms) {
+    }
+
+    private static final class Snapshot {
+        // term -> (movieId -> bitmask of fields containing the term)
+        final ConcurrentSkipListMap<String, Map<Long, Integer>> postings = new ConcurrentSkipListMap<>();
+        final Map<Long, IndexedMovie> documents = new ConcurrentHashMap<>();
+
+        void addDocument(Movie movie) {
+            Map<String, Integer> terms = new HashMap<>();
+            collectTerms(terms, movie.getTitle(), TITLE);
+            collectTerms(terms, movie.getDirector(), DIRECTOR);
+            collectTerms(terms, movie.getDescription(), DESCRIPTION);
+
+            terms.forEach((term, fields) ->
+                    postings.computeIfAbsent(term, t -> new ConcurrentHashMap<>()).put(movie.getId(), fields));
+            documents.put(movie.getId(), new IndexedMovie(movie.getTitle(), movie.getDirector(),
+                    movie.getRating(), Set.copyOf(terms.keySet())));
+        }
+
+        void removeDocument(Long movieId) {
+            IndexedMovie previous = documents.remove(movieId);
+            if (previous == null) {
+                return;
+            }
+            for (String term : previous.terms()) {
+                Map<Long, Integer> posting = postings.get(term);
+                if (posting != null) {
+                    posting.remove(movieId);
+                    if (posting.isEmpty()) {
+                        postings.remove(term, posting);
+                    }
+                }
+            }
+        }
+    }
+}
@@ -1,5 +1,6 @@
 package com.cinema.reservation.service;
 
+import com.cinema.reservation.dto.MovieSuggestion;
 import com.cinema.reservation.entity.Movie;
 import com.cinema.reservation.exception.InvalidMovieDataException;
 import com.cinema.reservation.exception.MovieNotFoundException;
@@ -13,7 +14,11 @@ import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -23,6 +28,11 @@ public class MovieService {
 
     // Dependency Inversion - zależy od interface
     private final MovieRepository movieRepository;
+    private final MovieSearchIndex movieSearchIndex;
+    private final MoviePopularityRanking moviePopularityRanking;
+    private final CatalogVersions catalogVersions;
+
+    private static final int MAX_SEARCH_RESULTS = 100;
 
     // Single Responsibility - tylko operacje na filmach
 
@@ -31,48 +41,89 @@ public class MovieService {
 
         validateMovieData(movie);
         Movie savedMovie = movieRepository.save(movie);
+        AfterCommit.run(() -> movieSearchIndex.index(savedMovie));
+        catalogVersions.bump(CatalogVersions.Aggregate.MOVIES);
 
         log.info("Movie created with ID: {}", savedMovie.getId());
         return savedMovie;
     }
 
+    @Transactional(readOnly = true)
     public Optional<Movie> findById(Long id) {
         return movieRepository.findById(id);
     }
 
+    @Transactional(readOnly = true)
     public List<Movie> findAll() {
         return movieRepository.findAll();
     }
 
+    @Transactional(readOnly = true)
     public List<Movie> findByGenre(Movie.Genre genre) {
         return movieRepository.findByGenre(genre);
     }
 
+    @Transactional(readOnly = true)
     public Page<Movie> findByGenre(Movie.Genre genre, Pageable pageable) {
         return movieRepository.findByGenre(genre, pageable);
     }
 
+    // Też z indeksu, tylko po jednym polu - LIKE '%...%' nie użyje żadnego indeksu i skanuje całą tabelę
+    @Transactional(readOnly = true)
     public List<Movie> searchByTitle(String title) {
-        return movieRepository.findByTitleContainingIgnoreCase(title);
+        return searchIn(title, MovieSearchIndex.TITLE);
     }
 
+    @Transactional(readOnly = true)
     public List<Movie> searchByDirector(String director) {
-        return movieRepository.findByDirectorContainingIgnoreCase(director);
+        return searchIn(director, MovieSearchIndex.DIRECTOR);
+    }
+
+    // Full-text search z indeksu w pamięci - bez LIKE '%...%' na tabeli movies
+    @Transactional(readOnly = true)
+    public List<Movie> search(String query, int limit) {
+        List<MovieSuggestion> hits = movieSearchIndex.search(query, Math.min(limit, MAX_SEARCH_RESULTS));
+        return findAllInOrder(hits.stream().map(MovieSuggestion::getId).toList());
+    }
+
+    private List<Movie> searchIn(String query, int fields) {
+        List<MovieSuggestion> hits = movieSearchIndex.search(query, MAX_SEARCH_RESULTS, fields);
+        return findAllInOrder(hits.stream().map(MovieSuggestion::getId).toList());
+    }
+
+    public List<MovieSuggestion> typeahead(String query, int limit) {
+        return movieSearchIndex.search(query, Math.min(limit, MAX_SEARCH_RESULTS));
+    }
+
+    // Indeks jest lokalny dla instancji - zmiany z innych instancji dociąga CatalogSync
+    @Transactional(readOnly = true)
+    public void rebuildSearchIndex() {
+        movieSearchIndex.rebuild(movieRepository.findAll());
     }
 
+    @Transactional(readOnly = true)
     public List<Movie> findHighRatedMovies(Double minRating) {
         return movieRepository.findHighRatedMovies(minRating);
     }
 
+    @Transactional(readOnly = true)
     public List<Movie> findRecentMovies() {
         LocalDateTime threeMonthsAgo = LocalDateTime.now().minusMonths(3);
         return movieRepository.findRecentMovies(threeMonthsAgo);
     }
 
+    @Transactional(readOnly = true)
     public List<Movie> findMostPopularMovies() {
-        return movieRepository.findMostPopularMovies();
+        return findMostPopularMovies(moviePopularityRanking.getTopSize());
     }
 
+    // Odczyt z materializowanego rankingu - O(K) zamiast GROUP BY po wszystkich seansach
+    @Transactional(readOnly = true)
+    public List<Movie> findMostPopularMovies(int limit) {
+        return findAllInOrder(moviePopularityRanking.topMovieIds(limit));
+    }
+
+    @Transactional(readOnly = true)
     public List<Movie> findByDurationRange(Integer minDuration, Integer maxDuration) {
         return movieRepository.findByDurationRange(minDuration, maxDuration);
     }
@@ -91,7 +142,10 @@ public class MovieService {
         existingMovie.setRating(movieUpdates.getRating());
         existingMovie.setReleaseDate(movieUpdates.getReleaseDate());
 
-        return movieRepository.save(existingMovie);
+        Movie savedMovie = movieRepository.save(existingMovie);
+        AfterCommit.run(() -> movieSearchIndex.index(savedMovie));
+        catalogVersions.bump(CatalogVersions.Aggregate.MOVIES);
+        return savedMovie;
     }
 
     public void deleteMovie(Long id) {
@@ -100,11 +154,27 @@ public class MovieService {
         }
 
         movieRepository.deleteById(id);
+        AfterCommit.run(() -> movieSearchIndex.remove(id));
+        catalogVersions.bump(CatalogVersions.Aggregate.MOVIES);
         log.info("Movie deleted with ID: {}", id);
     }
 
+    private List<Movie> findAllInOrder(List<Long> ids) {
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+
+        Map<Long, Movie> moviesById = movieRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Movie::getId, Function.identity()));
+
+        return ids.stream()
+                .map(moviesById::get)
+                .filter(Objects::nonNull)
+                .toList();
+    }
+
     // Business logic validation
-    private void validateMovieData(Movie movie) {
+    static void validateMovieData(Movie movie) {
         if (movie.getTitle() == null || movie.getTitle().trim().isEmpty()) {
             throw new InvalidMovieDataException("Movie title cannot be empty");
         }
@@ -0,0 +1,111 @@
+package com.cinema.reservation.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.OptimisticLockException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Supplier;
+
+/**
+ * Re-runs a transactional action that lost an optimistic-lock race. Backoff is exponential with full jitter,
+ * and retries are capped twice: per call (max-attempts) and globally by a token-bucket retry budget, so
+ * a hot row cannot turn every request into several. Metrics tell contention (conflicts that recover)
+ * apart from bugs (conflicts that keep failing):
+ * cinema.optimistic.conflicts{operation, outcome=recovered|exhausted|budget_exhausted}
+ * and cinema.optimistic.retries{operation}.
+ */
+@Component
+@Slf4j
+public class OptimisticLockRetry {
+
+    private final MeterRegistry meterRegistry;
+    private final int maxAttempts;
+    private final long initialBackoffNanos;
+    private final long maxBackoffNanos;
+    private final double budgetRatio;
+    private final double budgetCapacity;
+
+    private double budgetTokens;
+
+    public OptimisticLockRetry(MeterRegistry meterRegistry,
+                               @Value("${cinema.retry.optimistic.max-attempts:4}") int maxAttempts,
+                               @Value("${cinema.retry.optimistic.initial-backoff:10ms}") Duration initialBackoff,
+                               @Value("${cinema.retry.optimistic.max-backoff:200ms}") Duration maxBackoff,
+                               @Value("${cinema.retry.optimistic.budget-ratio:0.2}") double budgetRatio,
+                               @Value("${cinema.retry.optimistic.budget-capacity:20}") int budgetCapacity) {
+        this.meterRegistry = meterRegistry;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoffNanos = initialBackoff.toNanos();
+        this.maxBackoffNanos = maxBackoff.toNanos();
+        this.budgetRatio = budgetRatio;
+        this.budgetCapacity = Math.max(1, budgetCapacity);
+        this.budgetTokens = this.budgetCapacity;
+    }
+
+    /**
+     * Runs the action (which must open and commit its own transaction) and retries it on optimistic-lock
+     * conflicts. Inside an outer transaction there is nothing to retry - the caller's transaction is already
+     * marked rollback-only - so the action runs once.
+     */
+    public <T> T execute(String operation, Supplier<T> action) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return action.get();
+        }
+
+        deposit();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                T result = action.get();
+                if (attempt > 1) {
+                    conflict(operation, "recovered");
+                }
+                return result;
+            } catch (OptimisticLockingFailureException | OptimisticLockException e) {
+                if (attempt >= maxAttempts) {
+                    conflict(operation, "exhausted");
+                    log.warn("Optimistic lock conflict on {} persisted after {} attempts", operation, attempt);
+                    throw e;
+                }
+                if (!withdraw()) {
+                    conflict(operation, "budget_exhausted");
+                    throw e;
+                }
+                meterRegistry.counter("cinema.optimistic.retries", "operation", operation).increment();
+                backoff(attempt);
+            }
+        }
+    }
+
+    private void backoff(int attempt) {
+        long ceiling = Math.min(maxBackoffNanos, initialBackoffNanos << Math.min(attempt - 1, 20));
+        long sleepNanos = ThreadLocalRandom.current().nextLong(ceiling + 1);
+        try {
+            Thread.sleep(Duration.ofNanos(sleepNanos));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted during optimistic lock retry backoff", e);
+        }
+    }
+
+    private synchronized void deposit() {
+        budgetTokens = Math.min(budgetCapacity, budgetTokens + budgetRatio);
+    }
+
+    private synchronized boolean withdraw() {
+        if (budgetTokens < 1) {
+            return false;
+        }
+        budgetTokens -= 1;
+        return true;
+    }
+
+    private void conflict(String operation, String outcome) {
+        meterRegistry.counter("cinema.optimistic.conflicts", "operation", operation, "outcome", outcome).increment();
+    }
+}
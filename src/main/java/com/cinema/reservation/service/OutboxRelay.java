@@ -0,0 +1,165 @@
+package com.cinema.reservation.service;
+
+import com.cinema.reservation.dto.ReservationEvent;
+import com.cinema.reservation.entity.OutboxEvent;
+import com.cinema.reservation.repository.OutboxEventRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Polls the outbox and hands unpublished events to every {@link ReservationEventSubscriber} in batches.
+ * Events are marked published only after all subscribers accepted them (at-least-once); rows are claimed
+ * with SKIP LOCKED, so several application instances can relay concurrently.
+ * <p>
+ * When a batch is rejected it is split in halves until the failing events are isolated, so one poison event
+ * does not hold back its neighbours - the accepted parts may therefore reach a subscriber twice. Later events
+ * of the same reservation wait behind a failed one to keep their order. An event that failed
+ * {@code cinema.outbox.max-attempts} times, or whose payload cannot be read, becomes a dead letter
+ * (failed_at set): it is kept for analysis and never relayed again.
+ */
+@Component
+@Slf4j
+public class OutboxRelay {
+
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final OutboxService outboxService;
+    private final List<ReservationEventSubscriber> subscribers;
+    private final TransactionTemplate transactionTemplate;
+    private final boolean enabled;
+    private final int batchSize;
+    private final int maxAttempts;
+    private final Duration retention;
+
+    public OutboxRelay(OutboxEventRepository outboxEventRepository,
+                       OutboxService outboxService,
+                       List<ReservationEventSubscriber> subscribers,
+                       PlatformTransactionManager transactionManager,
+                       @Value("${cinema.outbox.relay.enabled:true}") boolean enabled,
+                       @Value("${cinema.outbox.batch-size:100}") int batchSize,
+                       @Value("${cinema.outbox.max-attempts:10}") int maxAttempts,
+                       @Value("${cinema.outbox.retention:P7D}") Duration retention) {
+        this.outboxEventRepository = outboxEventRepository;
+        this.outboxService = outboxService;
+        this.subscribers = subscribers;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.enabled = enabled;
+        this.batchSize = Math.max(1, batchSize);
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.retention = retention;
+    }
+
+    @Scheduled(fixedDelayString = "${cinema.outbox.poll-interval:PT0.5S}")
+    public void relay() {
+        if (!enabled) {
+            return;
+        }
+        // Pełna paczka oznacza zaległości - opróżniamy je bez czekania na kolejny tick
+        while (relayBatch() == batchSize) {
+            log.debug("Outbox backlog, relaying next batch");
+        }
+    }
+
+    /**
+     * Relays one batch; returns how many events were published (0 also when delivery failed).
+     */
+    public int relayBatch() {
+        Integer published = transactionTemplate.execute(status -> {
+            List<OutboxEvent> rows = outboxEventRepository.findUnpublishedForUpdate(PageRequest.of(0, batchSize));
+            if (rows.isEmpty()) {
+                return 0;
+            }
+
+            LocalDateTime now = LocalDateTime.now();
+            Map<Long, OutboxEvent> rowsById = new HashMap<>();
+            List<ReservationEvent> events = new ArrayList<>(rows.size());
+            for (OutboxEvent row : rows) {
+                try {
+                    ReservationEvent event = outboxService.deserialize(row.getPayload());
+                    event.setEventId(row.getId());
+                    events.add(event);
+                    rowsById.put(row.getId(), row);
+                } catch (IllegalStateException e) {
+                    // Uszkodzony wiersz nigdy się nie odczyta - od razu do martwych, bez znacznika publikacji
+                    log.error("Malformed outbox event {} moved to dead letters", row.getId(), e);
+                    deadLetter(row, now, "Malformed payload: " + e.getMessage());
+                }
+            }
+            return deliver(events, rowsById, new HashSet<>(), now);
+        });
+        return published != null ? published : 0;
+    }
+
+    // Odrzucona paczka dzielona na połowy aż do pojedynczych zdarzeń - trujące nie blokuje sąsiadów
+    private int deliver(List<ReservationEvent> events, Map<Long, OutboxEvent> rows, Set<Long> blockedReservations,
+                        LocalDateTime now) {
+        // Kolejne zdarzenia rezerwacji czekają za jej nieudanym zdarzeniem - kolejność w obrębie rezerwacji
+        List<ReservationEvent> deliverable = events.stream()
+                .filter(event -> !blockedReservations.contains(rows.get(event.getEventId()).getAggregateId()))
+                .toList();
+        if (deliverable.isEmpty()) {
+            return 0;
+        }
+        try {
+            for (ReservationEventSubscriber subscriber : subscribers) {
+                subscriber.onEvents(deliverable);
+            }
+        } catch (RuntimeException e) {
+            if (deliverable.size() == 1) {
+                OutboxEvent row = rows.get(deliverable.get(0).getEventId());
+                blockedReservations.add(row.getAggregateId());
+                failed(row, e, now);
+                return 0;
+            }
+            int half = deliverable.size() / 2;
+            return deliver(deliverable.subList(0, half), rows, blockedReservations, now)
+                    + deliver(deliverable.subList(half, deliverable.size()), rows, blockedReservations, now);
+        }
+
+        for (ReservationEvent event : deliverable) {
+            OutboxEvent row = rows.get(event.getEventId());
+            row.setAttempts(row.getAttempts() + 1);
+            row.setPublishedAt(now);
+        }
+        return deliverable.size();
+    }
+
+    private void failed(OutboxEvent row, RuntimeException e, LocalDateTime now) {
+        row.setAttempts(row.getAttempts() + 1);
+        if (row.getAttempts() < maxAttempts) {
+            log.warn("Delivery of outbox event {} failed (attempt {} of {}), will retry: {}",
+                    row.getId(), row.getAttempts(), maxAttempts, e.getMessage());
+            return;
+        }
+        log.error("Outbox event {} failed {} times, moved to dead letters", row.getId(), row.getAttempts(), e);
+        deadLetter(row, now, e.toString());
+    }
+
+    private static void deadLetter(OutboxEvent row, LocalDateTime now, String error) {
+        row.setFailedAt(now);
+        row.setLastError(error.length() > MAX_ERROR_LENGTH ? error.substring(0, MAX_ERROR_LENGTH) : error);
+    }
+
+    @Scheduled(fixedDelayString = "${cinema.outbox.cleanup-interval:PT1H}")
+    public void purgePublished() {
+        int removed = outboxEventRepository.deletePublishedBefore(LocalDateTime.now().minus(retention));
+        if (removed > 0) {
+            log.info("Removed {} published outbox events", removed);
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package com.cinema.reservation.service;
+
+import com.cinema.reservation.dto.ReservationEvent;
+import com.cinema.reservation.entity.Reservation;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Writes reservation events to the outbox table. MANDATORY propagation: an event exists only if the
+ * state change it describes commits. Delivery to subscribers happens later, in {@link OutboxRelay}.
+ */
+@Service
+@RequiredArgsConstructor
+public class OutboxService {
+
+    private static final String INSERT_EVENT = "INSERT INTO outbox_events "
+            + "(aggregate_id, event_type, payload, created_at, attempts) VALUES (?, ?, ?, ?, 0)";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(ReservationEvent.Type type, Reservation reservation) {
+        recordAll(type, List.of(reservation));
+    }
+
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void recordAll(ReservationEvent.Type type, List<Reservation> reservations) {
+        if (reservations.isEmpty()) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        List<Object[]> rows = reservations.stream()
+                .map(reservation -> new Object[]{
+                        reservation.getId(), type.name(), serialize(toEvent(type, reservation, now)), Timestamp.valueOf(now)})
+                .toList();
+        jdbcTemplate.batchUpdate(INSERT_EVENT, rows);
+    }
+
+    public ReservationEvent deserialize(String payload) {
+        try {
+            return objectMapper.readValue(payload, ReservationEvent.class);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Malformed outbox payload", e);
+        }
+    }
+
+    static ReservationEvent toEvent(ReservationEvent.Type type, Reservation reservation, LocalDateTime occurredAt) {
+        return ReservationEvent.builder()
+                .type(type)
+                .reservationId(reservation.getId())
+                .userId(reservation.getUser() != null ? reservation.getUser().getId() : null)
+                .screeningId(reservation.getScreening() != null ? reservation.getScreening().getId() : null)
+                .confirmationCode(reservation.getConfirmationCode())
+                .seatCount(reservation.getReservedSeats() != null ? reservation.getReservedSeats().size() : 0)
+                .totalPrice(reservation.getTotalPrice())
+                .occurredAt(occurredAt)
+                .build();
+    }
+
+    private String serialize(ReservationEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize reservation event", e);
+        }
+    }
+}
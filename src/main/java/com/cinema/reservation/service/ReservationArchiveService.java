@@ -0,0 +1,205 @@
+package com.cinema.reservation.service;
+
+import com.cinema.reservation.dto.ArchivedReservation;
+import com.cinema.reservation.entity.ReservedSeat;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.support.DataAccessUtils;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * Moves screenings that ended more than {@code screening-age} ago, together with their reservations and
+ * reserved seats, from the hot tables into the "archive" schema. Each batch is one transaction: copy, then
+ * delete, so a screening is always in exactly one place. Archived reservations stay reachable by
+ * confirmation code through {@link #findByConfirmationCode(String)}.
+ */
+@Service
+@Slf4j
+public class ReservationArchiveService {
+
+    private static final String SELECT_FINISHED_SCREENINGS = "SELECT id FROM screenings WHERE end_time < :cutoff "
+            + "ORDER BY end_time LIMIT :limit FOR UPDATE SKIP LOCKED";
+
+    private static final String ARCHIVE_SCREENINGS = "INSERT INTO archive.screenings "
+            + "(id, movie_id, hall_id, start_time, end_time, price, available_seats, created_at, archived_at) "
+            + "SELECT id, movie_id, hall_id, start_time, end_time, price, available_seats, created_at, :now "
+            + "FROM screenings WHERE id IN (:ids)";
+    private static final String ARCHIVE_RESERVATIONS = "INSERT INTO archive.reservations "
+            + "(id, user_id, screening_id, total_price, status, created_at, updated_at, confirmation_code, archived_at) "
+            + "SELECT id, user_id, screening_id, total_price, status, created_at, updated_at, confirmation_code, :now "
+            + "FROM reservations WHERE screening_id IN (:ids)";
+    private static final String ARCHIVE_RESERVED_SEATS = "INSERT INTO archive.reserved_seats "
+            + "(id, reservation_id, screening_id, row_number, seat_number, screening_start) "
+            + "SELECT id, reservation_id, screening_id, row_number, seat_number, screening_start "
+            + "FROM reserved_seats WHERE screening_id IN (:ids)";
+
+    // Kolejność usuwania: od liści, żeby trigger kaskadowy na reservations nie miał już czego szukać.
+    // Kody zarchiwizowanych rezerwacji wychodzą z reservation_codes - w archiwum pilnuje ich unikalny indeks (V14)
+    private static final List<String> DELETE_HOT_ROWS = List.of(
+            "DELETE FROM reservation_codes WHERE confirmation_code IN "
+                    + "(SELECT confirmation_code FROM reservations WHERE screening_id IN (:ids))",
+            "DELETE FROM reserved_seats WHERE screening_id IN (:ids)",
+            "DELETE FROM reservations WHERE screening_id IN (:ids)",
+            "DELETE FROM screenings WHERE id IN (:ids)");
+
+    private static final String FIND_BY_CODE = "SELECT r.id, r.confirmation_code, r.user_id, r.screening_id, "
+            + "r.total_price, r.status, r.created_at, r.archived_at, s.hall_id, s.start_time, s.end_time, m.title "
+            + "FROM archive.reservations r "
+            + "LEFT JOIN archive.screenings s ON s.id = r.screening_id "
+            + "LEFT JOIN movies m ON m.id = s.movie_id "
+            + "WHERE r.confirmation_code = :code";
+    // information_schema zamiast to_regclass - działa też na H2, gdzie schematu archive po prostu nie ma
+    private static final String ARCHIVE_TABLE_EXISTS = "SELECT COUNT(*) FROM information_schema.tables "
+            + "WHERE LOWER(table_schema) = 'archive' AND LOWER(table_name) = 'reservations'";
+    private static final String FIND_SEATS = "SELECT row_number, seat_number FROM archive.reserved_seats "
+            + "WHERE reservation_id = :id ORDER BY row_number, seat_number";
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final CatalogVersions catalogVersions;
+    private final boolean enabled;
+    private final Duration screeningAge;
+    private final int batchSize;
+
+    private final Duration availabilityRecheck;
+
+    private volatile boolean archiveAvailable;
+    private volatile long nextAvailabilityCheck;
+
+    public ReservationArchiveService(NamedParameterJdbcTemplate jdbcTemplate,
+                                     PlatformTransactionManager transactionManager,
+                                     MeterRegistry meterRegistry,
+                                     CatalogVersions catalogVersions,
+                                     @Value("${cinema.archive.enabled:true}") boolean enabled,
+                                     @Value("${cinema.archive.screening-age:P90D}") Duration screeningAge,
+                                     @Value("${cinema.archive.batch-size:200}") int batchSize,
+                                     @Value("${cinema.archive.availability-recheck:PT5M}") Duration availabilityRecheck) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.catalogVersions = catalogVersions;
+        this.enabled = enabled;
+        this.screeningAge = screeningAge;
+        this.batchSize = Math.max(1, batchSize);
+        this.availabilityRecheck = availabilityRecheck;
+        this.nextAvailabilityCheck = System.nanoTime();
+    }
+
+    @Scheduled(fixedDelayString = "${cinema.archive.interval:PT1H}", initialDelayString = "${cinema.archive.interval:PT1H}")
+    public void archive() {
+        if (!enabled || !isArchiveAvailable()) {
+            return;
+        }
+        int total = 0;
+        int archived;
+        // Pełna paczka oznacza zaległości - kolejne paczki w osobnych, krótkich transakcjach
+        do {
+            archived = archiveBatch();
+            total += archived;
+        } while (archived == batchSize);
+
+        if (total > 0) {
+            log.info("Archived {} finished screenings with their reservations", total);
+        }
+    }
+
+    /**
+     * Archives one batch of finished screenings; returns how many screenings were moved.
+     */
+    public int archiveBatch() {
+        Integer archived = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<Long> ids = jdbcTemplate.queryForList(SELECT_FINISHED_SCREENINGS,
+                    Map.of("cutoff", Timestamp.valueOf(now.minus(screeningAge)), "limit", batchSize), Long.class);
+            if (ids.isEmpty()) {
+                return 0;
+            }
+
+            Map<String, Object> params = Map.of("ids", ids, "now", Timestamp.valueOf(now));
+            jdbcTemplate.update(ARCHIVE_SCREENINGS, params);
+            int reservations = jdbcTemplate.update(ARCHIVE_RESERVATIONS, params);
+            int seats = jdbcTemplate.update(ARCHIVE_RESERVED_SEATS, params);
+            DELETE_HOT_ROWS.forEach(sql -> jdbcTemplate.update(sql, params));
+            catalogVersions.bump(CatalogVersions.Aggregate.SCREENINGS);
+
+            meterRegistry.counter("cinema.archive.rows", "table", "screenings").increment(ids.size());
+            meterRegistry.counter("cinema.archive.rows", "table", "reservations").increment(reservations);
+            meterRegistry.counter("cinema.archive.rows", "table", "reserved_seats").increment(seats);
+            log.debug("Archived {} screenings, {} reservations, {} seats", ids.size(), reservations, seats);
+            return ids.size();
+        });
+        return archived != null ? archived : 0;
+    }
+
+    public Optional<ArchivedReservation> findByConfirmationCode(String confirmationCode) {
+        if (!isArchiveAvailable()) {
+            return Optional.empty();
+        }
+        String normalized = ConfirmationCodeGenerator.normalize(confirmationCode);
+        String code = ConfirmationCodeGenerator.isWellFormed(normalized) ? normalized : confirmationCode;
+
+        List<ArchivedReservation> found = jdbcTemplate.query(FIND_BY_CODE, Map.of("code", code), (rs, rowNum) ->
+                ArchivedReservation.builder()
+                        .id(rs.getLong("id"))
+                        .confirmationCode(rs.getString("confirmation_code"))
+                        .userId(rs.getLong("user_id"))
+                        .screeningId(rs.getLong("screening_id"))
+                        .movieTitle(rs.getString("title"))
+                        .hallId(rs.getObject("hall_id", Long.class))
+                        .screeningStart(toLocalDateTime(rs.getTimestamp("start_time")))
+                        .screeningEnd(toLocalDateTime(rs.getTimestamp("end_time")))
+                        .totalPrice(rs.getBigDecimal("total_price"))
+                        .status(rs.getString("status"))
+                        .createdAt(toLocalDateTime(rs.getTimestamp("created_at")))
+                        .archivedAt(toLocalDateTime(rs.getTimestamp("archived_at")))
+                        .build());
+        // Unikalny indeks na kodzie (V14) - więcej niż jeden wiersz to błąd danych, a nie wybór dowolnego
+        ArchivedReservation reservation = DataAccessUtils.singleResult(found);
+        if (reservation == null) {
+            return Optional.empty();
+        }
+        reservation.setSeats(jdbcTemplate.query(FIND_SEATS, Map.of("id", reservation.getId()),
+                (rs, rowNum) -> ReservedSeat.seatDisplay(rs.getInt("row_number"), rs.getInt("seat_number"))));
+        return Optional.of(reservation);
+    }
+
+    /**
+     * Whether the archive schema exists. A positive answer is final; a negative one is re-checked after
+     * {@code availability-recheck}, so a late migration is picked up without a restart. Database errors
+     * are not taken for a missing schema - they propagate and nothing is cached.
+     */
+    boolean isArchiveAvailable() {
+        if (archiveAvailable) {
+            return true;
+        }
+        long now = System.nanoTime();
+        if (now - nextAvailabilityCheck < 0) {
+            return false;
+        }
+        Integer tables = jdbcTemplate.queryForObject(ARCHIVE_TABLE_EXISTS, Map.of(), Integer.class);
+        if (tables != null && tables > 0) {
+            archiveAvailable = true;
+            return true;
+        }
+        log.info("Archive tables not found, reservation archiving paused; checking again in {}", availabilityRecheck);
+        nextAvailabilityCheck = now + availabilityRecheck.toNanos();
+        return false;
+    }
+
+    private static LocalDateTime toLocalDateTime(Timestamp timestamp) {
+        return timestamp != null ? timestamp.toLocalDateTime() : null;
+    }
+}
@@ -0,0 +1,325 @@
+package com.cinema.reservation.service;
+
+import com.cinema.reservation.dto.ReservationEvent;
+import com.cinema.reservation.dto.SeatRequest;
+import com.cinema.reservation.entity.CinemaHall;
+import com.cinema.reservation.entity.Reservation;
+import com.cinema.reservation.entity.ReservedSeat;
+import com.cinema.reservation.entity.Screening;
+import com.cinema.reservation.entity.User;
+import com.cinema.reservation.exception.InvalidReservationDataException;
+import com.cinema.reservation.exception.ScreeningNotFoundException;
+import com.cinema.reservation.exception.SeatNotAvailableException;
+import com.cinema.reservation.exception.UserNotFoundException;
+import com.cinema.reservation.repository.ReservedSeatRepository;
+import com.cinema.reservation.repository.ScreeningRepository;
+import com.cinema.reservation.repository.UserRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.support.GeneratedKeyHolder;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Persists already-seated bookings in one transaction per batch, with JDBC batch inserts for
+ * reservations and their seats. The seat choice is made upstream (booking engine or group commit) -
+ * this class only writes it. If the batch transaction fails, every booking is retried in its own
+ * transaction so one conflicting seat does not fail its neighbours.
+ */
+@Component
+@Slf4j
+public class ReservationBatchWriter {
+
+    private static final String INSERT_RESERVATION = "INSERT INTO reservations "
+            + "(user_id, screening_id, total_price, status, created_at, updated_at, confirmation_code, version) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, 0)";
+    private static final String INSERT_RESERVED_SEAT = "INSERT INTO reserved_seats "
+            + "(reservation_id, screening_id, row_number, seat_number, screening_start) VALUES (?, ?, ?, ?, ?)";
+
+    private final ReservedSeatRepository reservedSeatRepository;
+    private final ScreeningRepository screeningRepository;
+    private final UserRepository userRepository;
+    private final ConfirmationCodeGenerator confirmationCodeGenerator;
+    private final MoviePopularityRanking moviePopularityRanking;
+    private final OutboxService outboxService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    public ReservationBatchWriter(ReservedSeatRepository reservedSeatRepository,
+                                  ScreeningRepository screeningRepository,
+                                  UserRepository userRepository,
+                                  ConfirmationCodeGenerator confirmationCodeGenerator,
+                                  MoviePopularityRanking moviePopularityRanking,
+                                  OutboxService outboxService,
+                                  JdbcTemplate jdbcTemplate,
+                                  PlatformTransactionManager transactionManager) {
+        this.reservedSeatRepository = reservedSeatRepository;
+        this.screeningRepository = screeningRepository;
+        this.userRepository = userRepository;
+        this.confirmationCodeGenerator = confirmationCodeGenerator;
+        this.moviePopularityRanking = moviePopularityRanking;
+        this.outboxService = outboxService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    /**
+     * Current seat layout and occupancy of a screening, or empty when the screening does not exist.
+     * <p>
+     * Deliberately a read-write transaction although it only reads: {@code readOnly = true} would route it to
+     * a replica, and the map seeds the booking writer's in-memory occupancy, which has to include every seat
+     * committed so far, including this instance's own latest bookings. The writer loads it once per screening
+     * and again only after a seat conflict, so the primary sees at most a few of these reads.
+     */
+    public Optional<SeatMap> loadSeatMap(Long screeningId) {
+        // Mapa miejsc musi pochodzić z primary - opóźniona replika oddałaby już zajęte miejsca
+        return transactionTemplate.execute(status -> screeningRepository.findById(screeningId).map(screening -> {
+            CinemaHall hall = screening.getHall();
+            if (hall == null || hall.getRows() == null || hall.getSeatsPerRow() == null) {
+                throw new InvalidReservationDataException("Screening hall has no seat layout");
+            }
+            boolean[] occupied = SeatAllocator.occupancyGrid(hall.getRows(), hall.getSeatsPerRow(),
+                    reservedSeatRepository.findSeatCoordinatesForScreening(screeningId));
+            return new SeatMap(hall.getRows(), hall.getSeatsPerRow(), occupied);
+        }));
+    }
+
+    /**
+     * Writes the bookings and returns one outcome per booking, in the same order.
+     */
+    public List<Outcome> persist(List<Booking> bookings) {
+        if (bookings.isEmpty()) {
+            return List.of();
+        }
+
+        List<Outcome> outcomes;
+        try {
+            outcomes = transactionTemplate.execute(status -> writeAll(bookings));
+        } catch (RuntimeException batchFailure) {
+            if (bookings.size() == 1) {
+                return List.of(Outcome.failed(translate(batchFailure)));
+            }
+            log.warn("Batch of {} reservations rolled back ({}), retrying one by one",
+                    bookings.size(), batchFailure.getMessage());
+            outcomes = bookings.stream().map(this::persistAlone).toList();
+        }
+
+        recordPopularity(outcomes);
+        return outcomes;
+    }
+
+    private Outcome persistAlone(Booking booking) {
+        try {
+            return transactionTemplate.execute(status -> writeAll(List.of(booking))).get(0);
+        } catch (RuntimeException e) {
+            return Outcome.failed(translate(e));
+        }
+    }
+
+    private List<Outcome> writeAll(List<Booking> bookings) {
+        Map<Long, User> users = userRepository.findAllById(distinct(bookings, Booking::userId)).stream()
+                .collect(Collectors.toMap(User::getId, Function.identity()));
+        Map<Long, Screening> screenings = screeningRepository.findAllById(distinct(bookings, Booking::screeningId)).stream()
+                .collect(Collectors.toMap(Screening::getId, Function.identity()));
+
+        Outcome[] outcomes = new Outcome[bookings.size()];
+        List<Reservation> reservations = new ArrayList<>(bookings.size());
+        Set<String> claimedSeats = new HashSet<>();
+        Map<Long, Integer> seatsPerScreening = new LinkedHashMap<>();
+        Map<Long, Integer> seatsLeft = new HashMap<>();
+        LocalDateTime now = LocalDateTime.now();
+
+        for (int i = 0; i < bookings.size(); i++) {
+            Booking booking = bookings.get(i);
+            User user = users.get(booking.userId());
+            Screening screening = screenings.get(booking.screeningId());
+
+            if (user == null) {
+                outcomes[i] = Outcome.failed(new UserNotFoundException("User not found with ID: " + booking.userId()));
+                continue;
+            }
+            if (screening == null) {
+                outcomes[i] = Outcome.failed(new ScreeningNotFoundException(
+                        "Screening not found with ID: " + booking.screeningId()));
+                continue;
+            }
+            // Licznik z odczytu seansu pomniejszany o wcześniejsze rezerwacje z paczki
+            int left = seatsLeft.computeIfAbsent(screening.getId(),
+                    id -> screening.getAvailableSeats() != null ? screening.getAvailableSeats() : 0);
+            if (booking.seats().size() > left) {
+                outcomes[i] = Outcome.failed(new SeatNotAvailableException(
+                        "Not enough seats left for screening " + screening.getId()));
+                continue;
+            }
+            // Dwie rezerwacje z tej samej paczki na to samo miejsce - wygrywa pierwsza
+            Optional<SeatRequest> conflict = firstConflict(claimedSeats, booking);
+            if (conflict.isPresent()) {
+                outcomes[i] = Outcome.failed(new SeatNotAvailableException(String.format(
+                        "Seat %d-%d is already reserved", conflict.get().getRowNumber(), conflict.get().getSeatNumber())));
+                continue;
+            }
+
+            Reservation reservation = ReservationService.pendingReservation(user, screening,
+                    booking.seats().size(), confirmationCodeGenerator.next());
+            reservation.setCreatedAt(now);
+            reservation.setUpdatedAt(now);
+            reservation.setReservedSeats(ReservationService.reservedSeats(reservation, booking.seats()));
+            reservations.add(reservation);
+
+            seatsPerScreening.merge(booking.screeningId(), booking.seats().size(), Integer::sum);
+            seatsLeft.put(screening.getId(), left - booking.seats().size());
+            outcomes[i] = Outcome.succeeded(reservation);
+        }
+
+        // Licznik zmniejszany tylko, gdy wystarcza miejsc; 0 wierszy - seans wyprzedany w międzyczasie
+        // (odczyt sprzed blokady, równoległy zapis) - jego rezerwacje z paczki odpadają
+        Set<Long> soldOut = new HashSet<>();
+        seatsPerScreening.forEach((screeningId, seats) -> {
+            if (screeningRepository.decrementAvailableSeats(screeningId, seats) == 0) {
+                soldOut.add(screeningId);
+            }
+        });
+        if (!soldOut.isEmpty()) {
+            for (int i = 0; i < outcomes.length; i++) {
+                Reservation reservation = outcomes[i].reservation();
+                if (reservation != null && soldOut.contains(reservation.getScreening().getId())) {
+                    outcomes[i] = Outcome.failed(new SeatNotAvailableException(
+                            "Not enough seats left for screening " + reservation.getScreening().getId()));
+                }
+            }
+            reservations.removeIf(reservation -> soldOut.contains(reservation.getScreening().getId()));
+        }
+
+        if (!reservations.isEmpty()) {
+            insertReservations(reservations);
+            insertReservedSeats(reservations.stream().flatMap(r -> r.getReservedSeats().stream()).toList());
+            outboxService.recordAll(ReservationEvent.Type.CREATED, reservations);
+        }
+        return Arrays.asList(outcomes);
+    }
+
+    private Optional<SeatRequest> firstConflict(Set<String> claimedSeats, Booking booking) {
+        List<String> keys = booking.seats().stream()
+                .map(seat -> booking.screeningId() + ":" + seat.getRowNumber() + ":" + seat.getSeatNumber())
+                .toList();
+        for (int i = 0; i < keys.size(); i++) {
+            if (claimedSeats.contains(keys.get(i))) {
+                return Optional.of(booking.seats().get(i));
+            }
+        }
+        claimedSeats.addAll(keys);
+        return Optional.empty();
+    }
+
+    // Identyfikatory IDENTITY wyłączają batching w Hibernate - wstawiamy przez JDBC i odczytujemy wygenerowane klucze
+    private void insertReservations(List<Reservation> reservations) {
+        List<Long> ids = batchInsert(INSERT_RESERVATION, reservations.size(), (ps, i) -> {
+            Reservation reservation = reservations.get(i);
+            ps.setLong(1, reservation.getUser().getId());
+            ps.setLong(2, reservation.getScreening().getId());
+            ps.setBigDecimal(3, reservation.getTotalPrice());
+            ps.setString(4, reservation.getStatus().name());
+            ps.setTimestamp(5, Timestamp.valueOf(reservation.getCreatedAt()));
+            ps.setTimestamp(6, Timestamp.valueOf(reservation.getUpdatedAt()));
+            ps.setString(7, reservation.getConfirmationCode());
+        });
+        for (int i = 0; i < reservations.size(); i++) {
+            reservations.get(i).setId(ids.get(i));
+        }
+    }
+
+    private void insertReservedSeats(List<ReservedSeat> seats) {
+        List<Long> ids = batchInsert(INSERT_RESERVED_SEAT, seats.size(), (ps, i) -> {
+            ReservedSeat seat = seats.get(i);
+            ps.setLong(1, seat.getReservation().getId());
+            ps.setLong(2, seat.getScreening().getId());
+            ps.setInt(3, seat.getRowNumber());
+            ps.setInt(4, seat.getSeatNumber());
+            ps.setTimestamp(5, Timestamp.valueOf(seat.getScreeningStart()));
+        });
+        for (int i = 0; i < seats.size(); i++) {
+            seats.get(i).setId(ids.get(i));
+        }
+    }
+
+    private List<Long> batchInsert(String sql, int size, ParameterizedPreparedStatementSetter<Integer> setter) {
+        KeyHolder keyHolder = new GeneratedKeyHolder();
+        jdbcTemplate.batchUpdate(connection -> connection.prepareStatement(sql, new String[]{"id"}),
+                new BatchPreparedStatementSetter() {
+                    @Override
+                    public void setValues(PreparedStatement ps, int i) throws SQLException {
+                        setter.setValues(ps, i);
+                    }
+
+                    @Override
+                    public int getBatchSize() {
+                        return size;
+                    }
+                }, keyHolder);
+
+        return keyHolder.getKeyList().stream()
+                .map(keys -> ((Number) keys.values().iterator().next()).longValue())
+                .toList();
+    }
+
+    private static Set<Long> distinct(List<Booking> bookings, Function<Booking, Long> key) {
+        return bookings.stream().map(key).collect(Collectors.toSet());
+    }
+
+    private void recordPopularity(List<Outcome> outcomes) {
+        for (Outcome outcome : outcomes) {
+            if (outcome.reservation() != null) {
+                Reservation reservation = outcome.reservation();
+                moviePopularityRanking.recordSeatsSold(reservation.getScreening(), reservation.getReservedSeats().size());
+            }
+        }
+    }
+
+    private RuntimeException translate(RuntimeException e) {
+        if (e instanceof DataIntegrityViolationException) {
+            return new SeatNotAvailableException("One of the selected seats has just been reserved");
+        }
+        return e;
+    }
+
+    public record Booking(Long userId, Long screeningId, List<SeatRequest> seats) {
+    }
+
+    public record Outcome(Reservation reservation, RuntimeException error) {
+
+        static Outcome succeeded(Reservation reservation) {
+            return new Outcome(reservation, null);
+        }
+
+        static Outcome failed(RuntimeException error) {
+            return new Outcome(null, error);
+        }
+    }
+
+    /**
+     * Row-major occupancy grid of one screening, as used by {@link SeatAllocator}.
+     */
+    public record SeatMap(int rows, int seatsPerRow, boolean[] occupied) {
+    }
+}
@@ -0,0 +1,53 @@
+package com.cinema.reservation.service;
+
+import com.cinema.reservation.dto.ReservationEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Analytics subscriber - counts relayed reservation events per type.
+ * <p>
+ * Delivery is at-least-once: a batch split after a failure, or one whose commit failed, comes back with
+ * events already counted. Event ids (the outbox row id) counted recently are remembered, so such a
+ * redelivery on this instance is not counted twice. A redelivery that lands on another instance, or
+ * after {@link #DEDUPLICATION_WINDOW} newer events, still is - the counters are an upper bound.
+ */
+@Component
+@RequiredArgsConstructor
+public class ReservationEventMetrics implements ReservationEventSubscriber {
+
+    static final int DEDUPLICATION_WINDOW = 10_000;
+
+    private final MeterRegistry meterRegistry;
+
+    // Ostatnio policzone id zdarzeń, najstarsze wypadają
+    private final Map<Long, Boolean> counted = new LinkedHashMap<>() {
+        @Override
+        protected boolean removeEldestEntry(Map.Entry<Long, Boolean> eldest) {
+            return size() > DEDUPLICATION_WINDOW;
+        }
+    };
+
+    @Override
+    public void onEvents(List<ReservationEvent> events) {
+        for (ReservationEvent event : events) {
+            if (firstDelivery(event)) {
+                meterRegistry.counter("cinema.reservation.events", "type", event.getType().name()).increment();
+            }
+        }
+    }
+
+    private boolean firstDelivery(ReservationEvent event) {
+        if (event.getEventId() == null) {
+            return true;
+        }
+        synchronized (counted) {
+            return counted.put(event.getEventId(), Boolean.TRUE) == null;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package com.cinema.reservation.service;
+
+import com.cinema.reservation.dto.ReservationEvent;
+
+import java.util.List;
+
+/**
+ * In-process consumer of reservation events relayed from the outbox. Delivery is at-least-once and in
+ * batches: a failed batch is redelivered to every subscriber, so handlers must be idempotent
+ * (deduplicate on {@link ReservationEvent#getEventId()}).
+ */
+public interface ReservationEventSubscriber {
+
+    void onEvents(List<ReservationEvent> events);
+}
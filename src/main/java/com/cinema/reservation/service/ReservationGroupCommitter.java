@@ -0,0 +1,203 @@
+package com.cinema.reservation.service;
+
+import com.cinema.reservation.entity.Reservation;
+import com.cinema.reservation.exception.ScreeningBusyException;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Group commit for the synchronous booking path (cinema.booking.group-commit.enabled=true).
+ * Bookings arriving within {@code window} of each other - up to {@code max-batch} of them - are written
+ * by one flusher thread in a single transaction with JDBC batch inserts. Each caller waits only for its own
+ * outcome: a seat conflict fails that booking, not the whole group.
+ */
+@Component
+@Slf4j
+public class ReservationGroupCommitter {
+
+    private static final long IDLE_POLL_MILLIS = 100;
+
+    private final ReservationBatchWriter batchWriter;
+    private final boolean enabled;
+    private final int maxBatch;
+    private final Duration window;
+    private final Duration submitTimeout;
+    private final BlockingQueue<Pending> queue;
+    private final DistributionSummary batchSizeSummary;
+
+    private Thread flusher;
+    private volatile boolean running;
+
+    public ReservationGroupCommitter(ReservationBatchWriter batchWriter,
+                                     MeterRegistry meterRegistry,
+                                     @Value("${cinema.booking.group-commit.enabled:false}") boolean enabled,
+                                     @Value("${cinema.booking.group-commit.max-batch:64}") int maxBatch,
+                                     @Value("${cinema.booking.group-commit.window:2ms}") Duration window,
+                                     @Value("${cinema.booking.group-commit.queue-capacity:4096}") int queueCapacity,
+                                     @Value("${cinema.booking.group-commit.submit-timeout:PT5S}") Duration submitTimeout) {
+        this.batchWriter = batchWriter;
+        this.enabled = enabled;
+        this.maxBatch = Math.max(1, maxBatch);
+        this.window = window;
+        this.submitTimeout = submitTimeout;
+        this.queue = new ArrayBlockingQueue<>(Math.max(1, queueCapacity));
+        this.batchSizeSummary = DistributionSummary.builder("cinema.booking.group-commit.batch.size")
+                .description("Reservations written per group-commit transaction")
+                .register(meterRegistry);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        flusher = new Thread(this::run, "reservation-group-commit");
+        flusher.setDaemon(true);
+        flusher.start();
+        log.info("Reservation group commit started: window {}, max batch {}", window, maxBatch);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (flusher != null) {
+            try {
+                flusher.join(submitTimeout.toMillis());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Queues an already-seated booking for the next group and waits for its commit. The submit timeout
+     * bounds only the wait in the queue; once the flusher has taken the booking its outcome is awaited.
+     */
+    public Reservation submit(ReservationBatchWriter.Booking booking) {
+        if (!running) {
+            throw new IllegalStateException("Reservation group commit is not running");
+        }
+
+        Pending pending = new Pending(booking, new CompletableFuture<>());
+        if (!queue.offer(pending)) {
+            throw new ScreeningBusyException("Too many bookings in flight, please retry");
+        }
+
+        try {
+            return pending.result.get(submitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (ExecutionException e) {
+            throw failure(e.getCause());
+        } catch (TimeoutException e) {
+            // remove() i pobranie przez flusher idą pod tą samą blokadą kolejki - wygrywa dokładnie jedno
+            if (queue.remove(pending)) {
+                throw new ScreeningBusyException("Booking for screening " + booking.screeningId()
+                        + " was not started in time and has been withdrawn, please retry");
+            }
+            return awaitTaken(pending);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            if (queue.remove(pending)) {
+                throw new ScreeningBusyException("Interrupted while waiting for booking");
+            }
+            return awaitTaken(pending);
+        }
+    }
+
+    private static Reservation awaitTaken(Pending pending) {
+        try {
+            return pending.result.join();
+        } catch (CompletionException e) {
+            throw failure(e.getCause());
+        }
+    }
+
+    private static RuntimeException failure(Throwable cause) {
+        return cause instanceof RuntimeException runtimeException ? runtimeException : new IllegalStateException(cause);
+    }
+
+    private void run() {
+        List<Pending> group = new ArrayList<>(maxBatch);
+        while (running || !queue.isEmpty()) {
+            try {
+                collect(group);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                group.forEach(pending -> pending.result.completeExceptionally(
+                        new ScreeningBusyException("Booking interrupted, please retry")));
+                return;
+            }
+            if (!group.isEmpty()) {
+                flush(group);
+                group.clear();
+            }
+        }
+    }
+
+    private void collect(List<Pending> group) throws InterruptedException {
+        Pending first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return;
+        }
+        group.add(first);
+
+        // Okno liczone od pierwszej rezerwacji - pojedyncze żądanie czeka co najwyżej window
+        long deadline = System.nanoTime() + window.toNanos();
+        while (group.size() < maxBatch) {
+            if (queue.drainTo(group, maxBatch - group.size()) > 0) {
+                continue;
+            }
+            long remaining = deadline - System.nanoTime();
+            if (remaining <= 0) {
+                break;
+            }
+            Pending next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                break;
+            }
+            group.add(next);
+        }
+    }
+
+    private void flush(List<Pending> group) {
+        batchSizeSummary.record(group.size());
+        try {
+            List<ReservationBatchWriter.Outcome> outcomes =
+                    batchWriter.persist(group.stream().map(Pending::booking).toList());
+            for (int i = 0; i < group.size(); i++) {
+                ReservationBatchWriter.Outcome outcome = outcomes.get(i);
+                if (outcome.error() == null) {
+                    group.get(i).result.complete(outcome.reservation());
+                } else {
+                    group.get(i).result.completeExceptionally(outcome.error());
+                }
+            }
+        } catch (RuntimeException e) {
+            log.error("Group commit of {} reservations failed", group.size(), e);
+            group.forEach(pending -> pending.result.completeExceptionally(e));
+        }
+    }
+
+    private record Pending(ReservationBatchWriter.Booking booking, CompletableFuture<Reservation> result) {
+    }
+}
@@ -0,0 +1,210 @@
+package com.cinema.reservation.service;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps the monthly partitions of reservations (by created_at) and reserved_seats (by screening start) rolling:
+ * pre-creates the next months so inserts never land in the DEFAULT partition, and detaches partitions older
+ * than the retention window into the "archive" schema. Tables that are not partitioned (H2, schemas built
+ * by Hibernate in tests) are skipped.
+ * <p>
+ * Detaching a reservations partition also retires its confirmation codes from reservation_codes, the
+ * unpartitioned table that enforces code uniqueness for live reservations; without it that table would
+ * grow forever. Codes that old cannot come back: the generator's codes are unique per node and time.
+ * <p>
+ * DDL cannot take bind parameters, so every identifier in it is built here: table and key from
+ * {@link #PARTITION_KEYS}, partition names only from a {@link YearMonth}, range bounds from dates. Names read
+ * back from the catalog are never spliced into SQL - they are parsed to a month and the name is regenerated.
+ */
+@Component
+@Slf4j
+public class ReservationPartitionMaintenance {
+
+    // tabela -> kolumna klucza partycjonowania
+    static final Map<String, String> PARTITION_KEYS = new LinkedHashMap<>();
+
+    static {
+        PARTITION_KEYS.put("reservations", "created_at");
+        PARTITION_KEYS.put("reserved_seats", "screening_start");
+    }
+
+    static final String ARCHIVE_SCHEMA = "archive";
+
+    // Kody rezerwacji z danej partycji - tylko dla tabeli reservations, patrz V12
+    private static final String CODES_TABLE = "reservation_codes";
+
+    private static final DateTimeFormatter SUFFIX = DateTimeFormatter.ofPattern("yyyy_MM");
+    private static final Pattern MONTHLY_PARTITION = Pattern.compile("_p(\\d{4})_(\\d{2})$");
+    private static final Pattern IDENTIFIER = Pattern.compile("[a-z_][a-z0-9_]*");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MeterRegistry meterRegistry;
+    private final boolean enabled;
+    private final int monthsAhead;
+    private final int retentionMonths;
+
+    public ReservationPartitionMaintenance(JdbcTemplate jdbcTemplate,
+                                           PlatformTransactionManager transactionManager,
+                                           MeterRegistry meterRegistry,
+                                           @Value("${cinema.partitions.maintenance.enabled:true}") boolean enabled,
+                                           @Value("${cinema.partitions.months-ahead:3}") int monthsAhead,
+                                           @Value("${cinema.partitions.retention-months:24}") int retentionMonths) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.meterRegistry = meterRegistry;
+        this.enabled = enabled;
+        this.monthsAhead = Math.max(1, monthsAhead);
+        this.retentionMonths = retentionMonths;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${cinema.partitions.maintenance.interval:PT6H}",
+            initialDelayString = "${cinema.partitions.maintenance.interval:PT6H}")
+    public void maintain() {
+        if (enabled) {
+            maintain(YearMonth.now());
+        }
+    }
+
+    void maintain(YearMonth currentMonth) {
+        PARTITION_KEYS.forEach((table, key) -> {
+            if (!isPartitioned(table)) {
+                log.debug("Table {} is not partitioned, skipping partition maintenance", table);
+                return;
+            }
+            try {
+                for (int i = 0; i <= monthsAhead; i++) {
+                    ensurePartition(table, key, currentMonth.plusMonths(i));
+                }
+                if (retentionMonths > 0) {
+                    detachOlderThan(table, currentMonth.minusMonths(retentionMonths));
+                }
+            } catch (DataAccessException e) {
+                log.error("Partition maintenance of {} failed: {}", table, e.getMessage());
+            }
+        });
+    }
+
+    private boolean isPartitioned(String table) {
+        try {
+            Boolean partitioned = jdbcTemplate.queryForObject(
+                    "SELECT EXISTS (SELECT 1 FROM pg_partitioned_table p JOIN pg_class c ON c.oid = p.partrelid "
+                            + "WHERE c.relname = ? AND pg_table_is_visible(c.oid))", Boolean.class, table);
+            return Boolean.TRUE.equals(partitioned);
+        } catch (DataAccessException e) {
+            // Nie-PostgreSQL (np. H2 w testach) - nie ma czego utrzymywać
+            return false;
+        }
+    }
+
+    private void ensurePartition(String table, String key, YearMonth month) {
+        identifier(key);
+        String partition = partitionName(table, month);
+        Boolean exists = jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class, partition);
+        if (Boolean.TRUE.equals(exists)) {
+            return;
+        }
+
+        String from = month.atDay(1).toString();
+        String to = month.plusMonths(1).atDay(1).toString();
+        String createPartition = "CREATE TABLE " + partition + " PARTITION OF " + table
+                + " FOR VALUES FROM ('" + from + "') TO ('" + to + "')";
+        String defaultPartition = identifier(table + "_default");
+        String range = key + " >= '" + from + "' AND " + key + " < '" + to + "'";
+
+        Boolean defaultHasRows = jdbcTemplate.queryForObject(
+                "SELECT EXISTS (SELECT 1 FROM " + defaultPartition + " WHERE " + range + ")", Boolean.class);
+        if (Boolean.TRUE.equals(defaultHasRows)) {
+            // Postgres odmawia utworzenia partycji, gdy DEFAULT ma już wiersze z jej zakresu - przenosimy je
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.execute("ALTER TABLE " + table + " DETACH PARTITION " + defaultPartition);
+                jdbcTemplate.execute(createPartition);
+                // Ponowny INSERT odpala trigger wydający kod - bez zwolnienia kodu skończyłby się duplikatem klucza
+                retireCodes(table, defaultPartition + " WHERE " + range);
+                jdbcTemplate.execute("INSERT INTO " + table + " SELECT * FROM " + defaultPartition + " WHERE " + range);
+                jdbcTemplate.execute("DELETE FROM " + defaultPartition + " WHERE " + range);
+                jdbcTemplate.execute("ALTER TABLE " + table + " ATTACH PARTITION " + defaultPartition + " DEFAULT");
+            });
+            log.warn("Created partition {} and moved its rows out of {}", partition, defaultPartition);
+        } else {
+            jdbcTemplate.execute(createPartition);
+            log.info("Created partition {}", partition);
+        }
+        meterRegistry.counter("cinema.partitions.created", "table", table).increment();
+    }
+
+    private void detachOlderThan(String table, YearMonth oldestRetained) {
+        List<String> partitions = jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i "
+                        + "JOIN pg_class c ON c.oid = i.inhrelid "
+                        + "JOIN pg_class p ON p.oid = i.inhparent "
+                        + "WHERE p.relname = ? AND pg_table_is_visible(p.oid) ORDER BY c.relname", String.class, table);
+
+        for (String child : partitions) {
+            YearMonth month = partitionMonth(table, child);
+            if (month == null || !month.isBefore(oldestRetained)) {
+                continue;
+            }
+            // Nazwa z katalogu służy tylko do odczytania miesiąca - do DDL trafia nazwa wygenerowana z niego
+            String partition = partitionName(table, month);
+            transactionTemplate.executeWithoutResult(status -> {
+                retireCodes(table, partition);
+                jdbcTemplate.execute("ALTER TABLE " + table + " DETACH PARTITION " + partition);
+                jdbcTemplate.execute("ALTER TABLE " + partition + " SET SCHEMA " + ARCHIVE_SCHEMA);
+            });
+            meterRegistry.counter("cinema.partitions.detached", "table", table).increment();
+            log.info("Detached partition {} into schema {}", partition, ARCHIVE_SCHEMA);
+        }
+    }
+
+    private void retireCodes(String table, String rows) {
+        if (table.equals("reservations")) {
+            jdbcTemplate.execute("DELETE FROM " + CODES_TABLE + " WHERE confirmation_code IN "
+                    + "(SELECT confirmation_code FROM " + rows + ")");
+        }
+    }
+
+    static String partitionName(String table, YearMonth month) {
+        if (!PARTITION_KEYS.containsKey(table)) {
+            throw new IllegalArgumentException("Not a partitioned table: " + table);
+        }
+        return identifier(table + "_p" + month.format(SUFFIX));
+    }
+
+    static String identifier(String name) {
+        if (!IDENTIFIER.matcher(name).matches()) {
+            throw new IllegalArgumentException("Not a plain SQL identifier: " + name);
+        }
+        return name;
+    }
+
+    static YearMonth partitionMonth(String table, String partition) {
+        if (!partition.startsWith(table + "_p")) {
+            return null;
+        }
+        Matcher matcher = MONTHLY_PARTITION.matcher(partition);
+        if (!matcher.find() || matcher.start() != table.length()) {
+            return null;
+        }
+        return YearMonth.of(Integer.parseInt(matcher.group(1)), Integer.parseInt(matcher.group(2)));
+    }
+}
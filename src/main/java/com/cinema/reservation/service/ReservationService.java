@@ -1,8 +1,10 @@
 package com.cinema.reservation.service;
 
 import com.cinema.reservation.dto.ReservationCreateRequest;
+import com.cinema.reservation.dto.ReservationEvent;
 import com.cinema.reservation.dto.ReservationStatistics;
 import com.cinema.reservation.dto.SeatRequest;
+import com.cinema.reservation.entity.CinemaHall;
 import com.cinema.reservation.entity.Reservation;
 import com.cinema.reservation.entity.ReservedSeat;
 import com.cinema.reservation.entity.Screening;
@@ -21,7 +23,9 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -38,40 +42,101 @@ public class ReservationService {
     private final ReservedSeatRepository reservedSeatRepository;
     private final ScreeningService screeningService;
     private final UserService userService;
-
-    @Transactional
+    private final MoviePopularityRanking moviePopularityRanking;
+    private final ConfirmationCodeGenerator confirmationCodeGenerator;
+    private final SeatAllocator seatAllocator;
+    private final ScreeningLockManager screeningLockManager;
+    private final BookingEngine bookingEngine;
+    private final ReservationGroupCommitter reservationGroupCommitter;
+    private final TransactionTemplate transactionTemplate;
+    private final OutboxService outboxService;
+    private final OptimisticLockRetry optimisticLockRetry;
+
+    private static final int MAX_SEATS_PER_RESERVATION = 10;
+    private static final int MAX_GROUP_SEATS = 20;
+
+    // SUPPORTS: w trybie ring-buffer wywołujący nie może trzymać połączenia z puli, czekając na wątek zapisujący
+    @Transactional(propagation = Propagation.SUPPORTS)
     public Reservation createReservation(ReservationCreateRequest request) {
-        log.info("Creating reservation for user {} and screening {}",
-                request.getUserId(), request.getScreeningId());
+        log.atDebug().setMessage("Creating reservation")
+                .addKeyValue("userId", request.getUserId())
+                .addKeyValue("screeningId", request.getScreeningId())
+                .log();
 
         validateReservationRequest(request);
 
-        User user = getUserOrThrow(request.getUserId());
-        Screening screening = getScreeningOrThrow(request.getScreeningId());
+        if (bookingEngine.isEnabled()) {
+            return bookingEngine.submit(request);
+        }
 
-        validateSeatAvailability(request.getScreeningId(), request.getSeats());
+        // Best-available wymaga blokady seansu przy wyborze bloku - zostaje na ścieżce z pojedynczą transakcją
+        if (reservationGroupCommitter.isEnabled() && !isBestAvailableRequest(request)) {
+            ReservationBatchWriter.Booking booking = transactionTemplate.execute(status -> prepareBooking(request));
+            return reservationGroupCommitter.submit(booking);
+        }
+
+        // Najpierw blokada w pamięci, dopiero potem transakcja - czekający nie trzyma połączenia z puli
+        return optimisticLockRetry.execute("create", () -> {
+            try (ScreeningLockManager.Releasable ignored = screeningLockManager.lock(request.getScreeningId())) {
+                return transactionTemplate.execute(status -> createReservationLocked(request));
+            }
+        });
+    }
+
+    private Reservation createReservationLocked(ReservationCreateRequest request) {
+        User user = getUserOrThrow(request.getUserId());
+        Screening screening;
+        List<SeatRequest> seats;
+
+        if (isBestAvailableRequest(request)) {
+            // Blokada wiersza seansu - wybrany blok nie może zostać zajęty między odczytem siatki a zapisem
+            screening = screeningService.findByIdForUpdate(request.getScreeningId())
+                    .orElseThrow(() -> new ScreeningNotFoundException("Screening not found with ID: " + request.getScreeningId()));
+            seats = allocateBestAvailableSeats(screening, request.getQuantity());
+        } else {
+            screening = getScreeningOrThrow(request.getScreeningId());
+            seats = request.getSeats();
+            validateSeatAvailability(request.getScreeningId(), seats);
+        }
 
-        Reservation reservation = buildReservation(user, screening, request);
+        Reservation reservation = pendingReservation(user, screening, seats.size(), confirmationCodeGenerator.next());
         Reservation savedReservation = reservationRepository.save(reservation);
 
-        List<ReservedSeat> reservedSeats = createReservedSeats(savedReservation, request.getSeats());
+        List<ReservedSeat> reservedSeats = reservedSeats(savedReservation, seats);
         reservedSeatRepository.saveAll(reservedSeats);
         savedReservation.setReservedSeats(reservedSeats);
 
-        screeningService.reserveSeats(request.getScreeningId(), request.getSeats().size());
+        screeningService.reserveSeats(request.getScreeningId(), seats.size());
+        moviePopularityRanking.recordSeatsSold(screening, seats.size());
+        outboxService.record(ReservationEvent.Type.CREATED, savedReservation);
 
-        log.info("Reservation created with ID: {} and confirmation code: {}",
-                savedReservation.getId(), savedReservation.getConfirmationCode());
+        // Stały komunikat z polami zamiast sformatowanego tekstu - wartości serializuje dopiero wątek appendera
+        log.atInfo().setMessage("Reservation created")
+                .addKeyValue("reservationId", savedReservation.getId())
+                .addKeyValue("confirmationCode", savedReservation.getConfirmationCode())
+                .log();
 
         return savedReservation;
     }
 
+    private ReservationBatchWriter.Booking prepareBooking(ReservationCreateRequest request) {
+        getUserOrThrow(request.getUserId());
+        getScreeningOrThrow(request.getScreeningId());
+        // Wstępne sprawdzenie - ostatecznie o miejscu decyduje unikalny indeks przy zapisie grupy
+        validateSeatAvailability(request.getScreeningId(), request.getSeats());
+
+        return new ReservationBatchWriter.Booking(request.getUserId(), request.getScreeningId(), request.getSeats());
+    }
+
     public Optional<Reservation> findById(Long id) {
         return reservationRepository.findById(id);
     }
 
     public Optional<Reservation> findByConfirmationCode(String confirmationCode) {
-        return reservationRepository.findByConfirmationCode(confirmationCode);
+        // Kody w nowym formacie przyjmujemy bez względu na wielkość liter i pomyłki O/0, I/1
+        String normalized = ConfirmationCodeGenerator.normalize(confirmationCode);
+        return reservationRepository.findByConfirmationCode(
+                ConfirmationCodeGenerator.isWellFormed(normalized) ? normalized : confirmationCode);
     }
 
     public List<Reservation> findByUserId(Long userId) {
@@ -94,8 +159,14 @@ public class ReservationService {
         return reservationRepository.findUserReservationsWithDetails(userId);
     }
 
-    @Transactional
+    // Przejścia stanu ponawiane po konflikcie wersji - każda próba we własnej transakcji
+    @Transactional(propagation = Propagation.SUPPORTS)
     public Reservation confirmReservation(Long reservationId) {
+        return optimisticLockRetry.execute("confirm",
+                () -> transactionTemplate.execute(status -> applyConfirmation(reservationId)));
+    }
+
+    private Reservation applyConfirmation(Long reservationId) {
         Reservation reservation = reservationRepository.findById(reservationId)
                 .orElseThrow(() -> new ReservationNotFoundException("Reservation not found with ID: " + reservationId));
 
@@ -104,13 +175,25 @@ public class ReservationService {
         }
 
         reservation.setStatus(Reservation.ReservationStatus.CONFIRMED);
+        outboxService.record(ReservationEvent.Type.CONFIRMED, reservation);
 
-        log.info("Reservation {} confirmed", reservationId);
+        log.atInfo().setMessage("Reservation confirmed").addKeyValue("reservationId", reservationId).log();
         return reservationRepository.save(reservation);
     }
 
-    @Transactional
+    @Transactional(propagation = Propagation.SUPPORTS)
     public Reservation cancelReservation(Long reservationId) {
+        // Seans potrzebny do wyboru blokady - krótki odczyt, połączenie wraca do puli przed czekaniem na blokadę
+        Long screeningId = transactionTemplate.execute(status -> reservationRepository.findScreeningIdById(reservationId))
+                .orElseThrow(() -> new ReservationNotFoundException("Reservation not found with ID: " + reservationId));
+        return optimisticLockRetry.execute("cancel", () -> {
+            try (ScreeningLockManager.Releasable ignored = screeningLockManager.lock(screeningId)) {
+                return transactionTemplate.execute(status -> applyCancellation(reservationId));
+            }
+        });
+    }
+
+    private Reservation applyCancellation(Long reservationId) {
         Reservation reservation = reservationRepository.findById(reservationId)
                 .orElseThrow(() -> new ReservationNotFoundException("Reservation not found with ID: " + reservationId));
 
@@ -118,17 +201,18 @@ public class ReservationService {
             throw new InvalidReservationStateException("Reservation is already cancelled");
         }
 
-        if (canCancelReservation(reservation)) {
-            reservation.setStatus(Reservation.ReservationStatus.CANCELLED);
-
-            screeningService.reserveSeats(reservation.getScreening().getId(),
-                    -reservation.getReservedSeats().size());
-
-            log.info("Reservation {} cancelled", reservationId);
-        } else {
+        if (!canCancelReservation(reservation)) {
             throw new ReservationCancellationException("Cannot cancel reservation - screening too soon");
         }
 
+        reservation.setStatus(Reservation.ReservationStatus.CANCELLED);
+
+        screeningService.reserveSeats(reservation.getScreening().getId(),
+                -reservation.getReservedSeats().size());
+        moviePopularityRanking.recordSeatsSold(reservation.getScreening(), -reservation.getReservedSeats().size());
+        outboxService.record(ReservationEvent.Type.CANCELLED, reservation);
+
+        log.atInfo().setMessage("Reservation cancelled").addKeyValue("reservationId", reservationId).log();
         return reservationRepository.save(reservation);
     }
 
@@ -153,13 +237,43 @@ public class ReservationService {
             throw new InvalidReservationDataException("Screening ID cannot be null");
         }
 
+        if (isBestAvailableRequest(request)) {
+            if (request.getQuantity() < 1 || request.getQuantity() > MAX_GROUP_SEATS) {
+                throw new InvalidReservationDataException(
+                        "Quantity must be between 1 and " + MAX_GROUP_SEATS);
+            }
+            return;
+        }
+
         if (request.getSeats() == null || request.getSeats().isEmpty()) {
             throw new InvalidReservationDataException("At least one seat must be selected");
         }
 
-        if (request.getSeats().size() > 10) {
-            throw new InvalidReservationDataException("Cannot reserve more than 10 seats at once");
+        if (request.getQuantity() != null) {
+            throw new InvalidReservationDataException("Provide either explicit seats or a quantity, not both");
         }
+
+        if (request.getSeats().size() > MAX_SEATS_PER_RESERVATION) {
+            throw new InvalidReservationDataException("Cannot reserve more than " + MAX_SEATS_PER_RESERVATION + " seats at once");
+        }
+    }
+
+    private boolean isBestAvailableRequest(ReservationCreateRequest request) {
+        return request.getQuantity() != null && (request.getSeats() == null || request.getSeats().isEmpty());
+    }
+
+    private List<SeatRequest> allocateBestAvailableSeats(Screening screening, int quantity) {
+        CinemaHall hall = screening.getHall();
+        if (hall == null || hall.getRows() == null || hall.getSeatsPerRow() == null) {
+            throw new InvalidReservationDataException("Screening hall has no seat layout");
+        }
+
+        boolean[] occupied = SeatAllocator.occupancyGrid(hall.getRows(), hall.getSeatsPerRow(),
+                reservedSeatRepository.findSeatCoordinatesForScreening(screening.getId()));
+
+        return seatAllocator.findBestBlock(hall.getRows(), hall.getSeatsPerRow(), occupied, quantity)
+                .orElseThrow(() -> new SeatNotAvailableException(
+                        String.format("No block of %d adjacent seats is available", quantity)));
     }
 
     private User getUserOrThrow(Long userId) {
@@ -184,24 +298,26 @@ public class ReservationService {
         }
     }
 
-    private Reservation buildReservation(User user, Screening screening, ReservationCreateRequest request) {
-        BigDecimal totalPrice = screening.getPrice().multiply(BigDecimal.valueOf(request.getSeats().size()));
+    static Reservation pendingReservation(User user, Screening screening, int seatCount, String confirmationCode) {
+        BigDecimal totalPrice = screening.getPrice().multiply(BigDecimal.valueOf(seatCount));
 
         Reservation reservation = new Reservation();
         reservation.setUser(user);
         reservation.setScreening(screening);
         reservation.setTotalPrice(totalPrice);
         reservation.setStatus(Reservation.ReservationStatus.PENDING);
+        reservation.setConfirmationCode(confirmationCode);
 
         return reservation;
     }
 
-    private List<ReservedSeat> createReservedSeats(Reservation reservation, List<SeatRequest> seats) {
+    static List<ReservedSeat> reservedSeats(Reservation reservation, List<SeatRequest> seats) {
         return seats.stream()
                 .map(seat -> {
                     ReservedSeat reservedSeat = new ReservedSeat();
                     reservedSeat.setReservation(reservation);
                     reservedSeat.setScreening(reservation.getScreening());
+                    reservedSeat.setScreeningStart(reservation.getScreening().getStartTime());
                     reservedSeat.setRowNumber(seat.getRowNumber());
                     reservedSeat.setSeatNumber(seat.getSeatNumber());
                     return reservedSeat;
@@ -0,0 +1,132 @@
+package com.cinema.reservation.service;
+
+import com.cinema.reservation.exception.ScreeningBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Serializes bookings for the same screening inside this JVM, before they reach PostgreSQL.
+ * Screening ids are hashed onto a fixed array of lock stripes, so different screenings (almost always)
+ * proceed in parallel. Callers take the lock before they open the transaction and close the handle after
+ * it has committed or rolled back: a thread waiting for a busy screening then holds no pooled connection,
+ * and the next booking never reads seat state that is not committed yet. Taken inside a transaction, the
+ * lock is likewise held until completion.
+ */
+@Component
+@Slf4j
+public class ScreeningLockManager {
+
+    private static final Releasable NO_OP = () -> { };
+
+    private final boolean enabled;
+    private final Duration waitTimeout;
+    private final ReentrantLock[] stripes;
+    private final int stripeMask;
+
+    private final Timer waitTimer;
+    private final Counter timeoutCounter;
+
+    public ScreeningLockManager(MeterRegistry meterRegistry,
+                                @Value("${cinema.booking.lock.enabled:true}") boolean enabled,
+                                @Value("${cinema.booking.lock.stripes:256}") int stripeCount,
+                                @Value("${cinema.booking.lock.fair:false}") boolean fair,
+                                @Value("${cinema.booking.lock.wait-timeout:PT2S}") Duration waitTimeout) {
+        this.enabled = enabled;
+        this.waitTimeout = waitTimeout;
+
+        // Liczba pasków zaokrąglona w górę do potęgi dwójki - indeks to zwykła maska bitowa
+        int size = Integer.highestOneBit(Math.max(1, stripeCount - 1)) << 1;
+        this.stripes = new ReentrantLock[size];
+        for (int i = 0; i < size; i++) {
+            stripes[i] = new ReentrantLock(fair);
+        }
+        this.stripeMask = size - 1;
+
+        this.waitTimer = Timer.builder("cinema.booking.lock.wait")
+                .description("Time spent waiting for the per-screening booking lock")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.timeoutCounter = Counter.builder("cinema.booking.lock.timeouts")
+                .description("Bookings rejected because the screening lock was not acquired in time")
+                .register(meterRegistry);
+        Gauge.builder("cinema.booking.lock.queue.depth", this, ScreeningLockManager::queueDepth)
+                .description("Threads currently waiting for any screening lock")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Locks the stripe for the given screening. Within an active transaction the lock is released
+     * after completion and the returned handle is a no-op; otherwise closing the handle releases it.
+     */
+    public Releasable lock(Long screeningId) {
+        if (!enabled || screeningId == null) {
+            return NO_OP;
+        }
+
+        ReentrantLock lock = stripeFor(screeningId);
+        acquire(lock, screeningId);
+
+        // Tylko prawdziwa transakcja - pusty zakres SUPPORTS zwalnia blokadę przy zamknięciu uchwytu
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    lock.unlock();
+                }
+            });
+            return NO_OP;
+        }
+
+        return lock::unlock;
+    }
+
+    public int queueDepth() {
+        int depth = 0;
+        for (ReentrantLock stripe : stripes) {
+            depth += stripe.getQueueLength();
+        }
+        return depth;
+    }
+
+    private void acquire(ReentrantLock lock, Long screeningId) {
+        long start = System.nanoTime();
+        boolean acquired;
+        try {
+            acquired = lock.tryLock(waitTimeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new ScreeningBusyException("Interrupted while waiting for screening " + screeningId);
+        } finally {
+            waitTimer.record(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+        }
+
+        if (!acquired) {
+            timeoutCounter.increment();
+            log.warn("Booking lock for screening {} not acquired within {}", screeningId, waitTimeout);
+            throw new ScreeningBusyException("Screening " + screeningId + " is busy, please retry");
+        }
+    }
+
+    private ReentrantLock stripeFor(Long screeningId) {
+        long hash = screeningId * 0x9E3779B97F4A7C15L;
+        return stripes[(int) (hash ^ (hash >>> 32)) & stripeMask];
+    }
+
+    @FunctionalInterface
+    public interface Releasable extends AutoCloseable {
+        @Override
+        void close();
+    }
+}
@@ -1,6 +1,9 @@
 package com.cinema.reservation.service;
 
+import com.cinema.reservation.dto.ScreeningAvailability;
 import com.cinema.reservation.dto.ScreeningCreateRequest;
+import com.cinema.reservation.dto.ScreeningSearchCriteria;
+import com.cinema.reservation.dto.ScreeningSearchRow;
 import com.cinema.reservation.entity.CinemaHall;
 import com.cinema.reservation.entity.Movie;
 import com.cinema.reservation.entity.Screening;
@@ -12,6 +15,8 @@ import com.cinema.reservation.repository.MovieRepository;
 import com.cinema.reservation.repository.ScreeningRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
@@ -28,6 +33,8 @@ public class ScreeningService {
     private final ScreeningRepository screeningRepository;
     private final MovieRepository movieRepository;
     private final CinemaHallRepository cinemaHallRepository;
+    private final MoviePopularityRanking moviePopularityRanking;
+    private final CatalogVersions catalogVersions;
 
     public Screening createScreeningFromRequest(ScreeningCreateRequest request) {
         Movie movie = movieRepository.findById(request.getMovieId())
@@ -47,43 +54,77 @@ public class ScreeningService {
         checkForConflicts(screening);
 
         Screening savedScreening = screeningRepository.save(screening);
-        log.info("Screening created with ID: {}", savedScreening.getId());
+        moviePopularityRanking.recordScreening(savedScreening);
+        catalogVersions.bump(CatalogVersions.Aggregate.SCREENINGS);
+        log.atInfo().setMessage("Screening created").addKeyValue("screeningId", savedScreening.getId()).log();
 
         return savedScreening;
     }
 
+    @Transactional(readOnly = true)
     public Optional<Screening> findById(Long id) {
         return screeningRepository.findById(id);
     }
 
+    public Optional<Screening> findByIdForUpdate(Long id) {
+        return screeningRepository.findByIdForUpdate(id);
+    }
+
+    @Transactional(readOnly = true)
     public List<Screening> findAll() {
         return screeningRepository.findAll();
     }
 
+    @Transactional(readOnly = true)
     public List<Screening> findByMovieId(Long movieId) {
         return screeningRepository.findByMovieId(movieId);
     }
 
+    @Transactional(readOnly = true)
     public List<Screening> findByHallId(Long hallId) {
         return screeningRepository.findByHallId(hallId);
     }
 
-    public List<Screening> findAvailableScreenings() {
-        return screeningRepository.findAvailableScreenings(LocalDateTime.now());
+    @Transactional(readOnly = true)
+    public List<Screening> findUpcomingScreenings() {
+        return screeningRepository.findUpcomingScreenings(LocalDateTime.now());
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<ScreeningAvailability> findAvailability(Long screeningId) {
+        return screeningRepository.findAvailableSeatsById(screeningId)
+                .map(seats -> new ScreeningAvailability(screeningId, seats));
     }
 
+    @Transactional(readOnly = true)
     public List<Screening> findByDate(LocalDateTime date) {
         return screeningRepository.findByDate(date);
     }
 
+    @Transactional(readOnly = true)
     public List<Screening> findUpcomingScreeningsForMovie(Long movieId) {
         return screeningRepository.findUpcomingScreeningsForMovie(movieId);
     }
 
+    @Transactional(readOnly = true)
     public List<Screening> findScreeningsWithAvailableSeats(Integer requiredSeats) {
         return screeningRepository.findScreeningsWithAvailableSeats(requiredSeats);
     }
 
+    @Transactional(readOnly = true)
+    public Page<ScreeningSearchRow> search(ScreeningSearchCriteria criteria, Pageable pageable) {
+        if (criteria.getMaxPrice() != null && criteria.getMaxPrice().signum() <= 0) {
+            throw new InvalidScreeningDataException("Max price must be positive");
+        }
+
+        if (criteria.getMinSeats() != null && criteria.getMinSeats() < 1) {
+            throw new InvalidScreeningDataException("Min seats must be at least 1");
+        }
+
+        return screeningRepository.search(criteria, LocalDateTime.now(), pageable);
+    }
+
+    @Transactional(readOnly = true)
     public boolean hasAvailableSeats(Long screeningId, Integer requiredSeats) {
         Optional<Screening> screeningOpt = screeningRepository.findById(screeningId);
 
@@ -100,9 +141,13 @@ public class ScreeningService {
         }
 
         screening.reserveSeats(seatsToReserve);
+        // Bez podbijania wersji SCREENINGS - ta opisuje harmonogram, a liczby miejsc nie ma w cache'owanych odpowiedziach
         screeningRepository.save(screening);
 
-        log.info("Reserved {} seats for screening ID: {}", seatsToReserve, screeningId);
+        log.atDebug().setMessage("Seats reserved")
+                .addKeyValue("screeningId", screeningId)
+                .addKeyValue("seats", seatsToReserve)
+                .log();
         return true;
     }
 
@@ -119,7 +164,10 @@ public class ScreeningService {
         existingScreening.setEndTime(screeningUpdates.getEndTime());
         existingScreening.setPrice(screeningUpdates.getPrice());
 
-        return screeningRepository.save(existingScreening);
+        Screening savedScreening = screeningRepository.save(existingScreening);
+        moviePopularityRanking.recordScreening(savedScreening);
+        catalogVersions.bump(CatalogVersions.Aggregate.SCREENINGS);
+        return savedScreening;
     }
 
     public void deleteScreening(Long id) {
@@ -128,10 +176,12 @@ public class ScreeningService {
         }
 
         screeningRepository.deleteById(id);
-        log.info("Screening deleted with ID: {}", id);
+        moviePopularityRanking.recordScreeningRemoved(id);
+        catalogVersions.bump(CatalogVersions.Aggregate.SCREENINGS);
+        log.atInfo().setMessage("Screening deleted").addKeyValue("screeningId", id).log();
     }
 
-    private void validateScreening(Screening screening) {
+    static void validateScreening(Screening screening) {
         if (screening.getStartTime() == null) {
             throw new InvalidScreeningDataException("Start time cannot be null");
         }
@@ -0,0 +1,89 @@
+package com.cinema.reservation.service;
+
+import com.cinema.reservation.dto.SeatRequest;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * "Best available N seats together" allocation over a screening's occupancy grid.
+ * Every contiguous free block in every row is scored by horizontal centrality and distance from the preferred
+ * row (about two thirds back from the screen); the lowest score wins. The scan is a single sliding-window pass
+ * over rows x seatsPerRow using only primitives - nothing is allocated until the winning block is returned.
+ */
+@Component
+public class SeatAllocator {
+
+    private static final double PREFERRED_ROW_RATIO = 0.66;
+    private static final double CENTRALITY_WEIGHT = 1.0;
+    private static final double ROW_WEIGHT = 0.8;
+
+    /**
+     * @param occupied row-major grid, index {@code (row - 1) * seatsPerRow + (seat - 1)}
+     */
+    public Optional<List<SeatRequest>> findBestBlock(int rows, int seatsPerRow, boolean[] occupied, int quantity) {
+        if (quantity <= 0 || quantity > seatsPerRow || occupied.length < rows * seatsPerRow) {
+            return Optional.empty();
+        }
+
+        double rowCenter = (seatsPerRow + 1) / 2.0;
+        double preferredRow = Math.max(1.0, Math.round(rows * PREFERRED_ROW_RATIO));
+        double halfBlock = (quantity - 1) / 2.0;
+
+        int bestRow = -1;
+        int bestFirstSeat = -1;
+        double bestScore = Double.MAX_VALUE;
+
+        for (int row = 1; row <= rows; row++) {
+            double rowPenalty = ROW_WEIGHT * Math.abs(row - preferredRow) / rows;
+            if (rowPenalty >= bestScore) {
+                continue;
+            }
+
+            int rowOffset = (row - 1) * seatsPerRow;
+            int freeRun = 0;
+            for (int seat = 1; seat <= seatsPerRow; seat++) {
+                if (occupied[rowOffset + seat - 1]) {
+                    freeRun = 0;
+                    continue;
+                }
+                if (++freeRun < quantity) {
+                    continue;
+                }
+
+                int firstSeat = seat - quantity + 1;
+                double blockCenter = firstSeat + halfBlock;
+                double score = rowPenalty + CENTRALITY_WEIGHT * Math.abs(blockCenter - rowCenter) / seatsPerRow;
+                if (score < bestScore) {
+                    bestScore = score;
+                    bestRow = row;
+                    bestFirstSeat = firstSeat;
+                }
+            }
+        }
+
+        if (bestRow < 0) {
+            return Optional.empty();
+        }
+
+        List<SeatRequest> seats = new ArrayList<>(quantity);
+        for (int i = 0; i < quantity; i++) {
+            seats.add(new SeatRequest(bestRow, bestFirstSeat + i));
+        }
+        return Optional.of(seats);
+    }
+
+    public static boolean[] occupancyGrid(int rows, int seatsPerRow, List<Object[]> reservedSeats) {
+        boolean[] occupied = new boolean[rows * seatsPerRow];
+        for (Object[] seat : reservedSeats) {
+            int row = ((Number) seat[0]).intValue();
+            int seatNumber = ((Number) seat[1]).intValue();
+            if (row >= 1 && row <= rows && seatNumber >= 1 && seatNumber <= seatsPerRow) {
+                occupied[(row - 1) * seatsPerRow + seatNumber - 1] = true;
+            }
+        }
+        return occupied;
+    }
+}
@@ -38,7 +38,7 @@ public class UserService {
      * Factory Pattern + Template Method - tworzenie różnych typów użytkowników
      */
     public User createUser(UserCreateRequest request) {
-        log.info("Creating new user with email: {}", request.getEmail());
+        log.atDebug().setMessage("Creating user").addKeyValue("userType", request.getUserType()).log();
 
         // Business rule validation
         validateUserCreation(request);
@@ -50,7 +50,7 @@ public class UserService {
         user = processUserCreation(user);
 
         User savedUser = userRepository.save(user);
-        log.info("User created successfully with ID: {}", savedUser.getId());
+        log.atInfo().setMessage("User created").addKeyValue("userId", savedUser.getId()).log();
 
         return savedUser;
     }
@@ -65,10 +65,10 @@ public class UserService {
 
         // Polimorfizm - różne zachowanie dla różnych typów
         if (user instanceof AdminUser admin) {
-            log.info("Processing admin user creation for department: {}", admin.getDepartment());
+            log.atDebug().setMessage("Processing admin user creation").addKeyValue("department", admin.getDepartment()).log();
             // Dodatkowa logika dla adminów
         } else if (user instanceof RegularUser regular) {
-            log.info("Processing regular user creation");
+            log.debug("Processing regular user creation");
             // Dodatkowa logika dla zwykłych użytkowników
         }
 
@@ -188,7 +188,7 @@ public class UserService {
         }
 
         // W przyszłości można dodać pole 'active' do User entity
-        log.info("User {} deactivated", userId);
+        log.atInfo().setMessage("User deactivated").addKeyValue("userId", userId).log();
     }
 
     /**
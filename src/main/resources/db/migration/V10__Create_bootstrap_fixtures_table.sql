@@ -0,0 +1,6 @@
+-- One row per fixture file loaded by BootstrapDataService; inserting it is the claim that makes the load run once
+CREATE TABLE bootstrap_fixtures (
+                                    name VARCHAR(255) PRIMARY KEY,
+                                    checksum VARCHAR(64) NOT NULL,
+                                    loaded_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
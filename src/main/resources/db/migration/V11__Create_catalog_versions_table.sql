@@ -0,0 +1,8 @@
+-- Shared change counters behind the catalog ETags (CatalogVersions); an aggregate's version is the sum of its stripes
+CREATE TABLE catalog_versions (
+                                  aggregate VARCHAR(20) NOT NULL,
+                                  stripe INTEGER NOT NULL,
+                                  version BIGINT NOT NULL DEFAULT 0,
+                                  updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                                  PRIMARY KEY (aggregate, stripe)
+);
@@ -0,0 +1,29 @@
+-- Global uniqueness of confirmation codes. Since V7 the unique index on the partitioned reservations table has to
+-- include created_at, so it only rejects a duplicate within the same created_at value. This table is not
+-- partitioned: every code ever issued gets a row here in the transaction that writes the reservation (trigger
+-- below, so JPA and the batch writer's plain JDBC are both covered). Rows are never deleted - a code stays
+-- retired after its reservation is cancelled, archived or detached with an old partition.
+CREATE TABLE reservation_codes (
+                                   confirmation_code VARCHAR(50) PRIMARY KEY,
+                                   issued_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Istniejące kody; duplikat (możliwy od V7) zatrzymuje migrację, zamiast zostać po cichu zaakceptowany
+INSERT INTO reservation_codes (confirmation_code, issued_at)
+SELECT confirmation_code, created_at
+FROM reservations
+WHERE confirmation_code IS NOT NULL;
+
+CREATE FUNCTION reservations_issue_code() RETURNS trigger AS $$
+BEGIN
+    IF NEW.confirmation_code IS NOT NULL
+        AND (TG_OP = 'INSERT' OR NEW.confirmation_code IS DISTINCT FROM OLD.confirmation_code) THEN
+        INSERT INTO reservation_codes (confirmation_code, issued_at) VALUES (NEW.confirmation_code, NEW.created_at);
+    END IF;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_reservations_issue_code
+    AFTER INSERT OR UPDATE OF confirmation_code ON reservations
+    FOR EACH ROW EXECUTE FUNCTION reservations_issue_code();
@@ -0,0 +1,8 @@
+-- Dead letters: events that failed delivery cinema.outbox.max-attempts times, or whose payload cannot be read.
+-- They stay in the table for analysis and are no longer picked up by the relay.
+ALTER TABLE outbox_events ADD COLUMN failed_at TIMESTAMP;
+ALTER TABLE outbox_events ADD COLUMN last_error VARCHAR(500);
+
+DROP INDEX idx_outbox_events_unpublished;
+CREATE INDEX idx_outbox_events_pending ON outbox_events(id) WHERE published_at IS NULL AND failed_at IS NULL;
+CREATE INDEX idx_outbox_events_failed ON outbox_events(failed_at) WHERE failed_at IS NOT NULL;
@@ -0,0 +1,4 @@
+-- Confirmation codes are globally unique (reservation_codes, V12), so the archive can enforce it too:
+-- a lookup by code returns at most one archived reservation instead of an arbitrary one of several.
+DROP INDEX archive.idx_archive_reservations_code;
+CREATE UNIQUE INDEX idx_archive_reservations_code ON archive.reservations(confirmation_code);
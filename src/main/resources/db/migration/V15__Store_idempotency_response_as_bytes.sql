@@ -0,0 +1,3 @@
+-- Odpowiedź zapisywana bajt w bajt - CBOR i Smile nie są poprawnym UTF-8, TEXT psuł je przy powtórce
+ALTER TABLE idempotency_keys
+    ALTER COLUMN response_body TYPE BYTEA USING convert_to(response_body, 'UTF8');
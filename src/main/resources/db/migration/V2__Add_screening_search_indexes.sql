@@ -0,0 +1,7 @@
+-- Composite indexes backing the multi-criteria screening search
+-- (all start_time filters are ranges, so the leading equality column + start_time covers them)
+CREATE INDEX idx_screenings_hall_start_time ON screenings(hall_id, start_time);
+CREATE INDEX idx_screenings_movie_start_time ON screenings(movie_id, start_time);
+CREATE INDEX idx_screenings_available_seats ON screenings(available_seats);
+CREATE INDEX idx_cinemas_city_lower ON cinemas(LOWER(city));
+CREATE INDEX idx_cinema_halls_cinema ON cinema_halls(cinema_id);
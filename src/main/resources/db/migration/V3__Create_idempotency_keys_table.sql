@@ -0,0 +1,13 @@
+-- Shared idempotency store for POST /api/reservations (used when several app nodes run behind a load balancer)
+CREATE TABLE idempotency_keys (
+                                  idempotency_key VARCHAR(320) PRIMARY KEY,
+                                  fingerprint VARCHAR(64) NOT NULL,
+                                  status VARCHAR(20) NOT NULL,
+                                  response_status INTEGER,
+                                  response_content_type VARCHAR(255),
+                                  response_body TEXT,
+                                  created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                                  expires_at TIMESTAMP NOT NULL
+);
+
+CREATE INDEX idx_idempotency_keys_expires_at ON idempotency_keys(expires_at);
@@ -0,0 +1,10 @@
+-- Stare kody (RES + timestamp + random) mogły się powtórzyć - duplikaty dostają sufiks z id przed założeniem indeksu
+UPDATE reservations r
+SET confirmation_code = r.confirmation_code || '-' || r.id
+WHERE r.confirmation_code IS NOT NULL
+  AND EXISTS (SELECT 1
+              FROM reservations other
+              WHERE other.confirmation_code = r.confirmation_code
+                AND other.id < r.id);
+
+CREATE UNIQUE INDEX ux_reservations_confirmation_code ON reservations(confirmation_code);
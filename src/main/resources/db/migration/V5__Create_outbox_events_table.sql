@@ -0,0 +1,14 @@
+-- Transactional outbox: reservation events written in the same transaction as the state change
+CREATE TABLE outbox_events (
+                               id BIGSERIAL PRIMARY KEY,
+                               aggregate_id BIGINT NOT NULL,
+                               event_type VARCHAR(50) NOT NULL,
+                               payload TEXT NOT NULL,
+                               created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                               published_at TIMESTAMP,
+                               attempts INTEGER NOT NULL DEFAULT 0
+);
+
+-- Relay skanuje tylko nieopublikowane zdarzenia - indeks częściowy pozostaje mały
+CREATE INDEX idx_outbox_events_unpublished ON outbox_events(id) WHERE published_at IS NULL;
+CREATE INDEX idx_outbox_events_published_at ON outbox_events(published_at);
@@ -0,0 +1,3 @@
+-- Optimistic locking for reservation state transitions and the screening seat counter
+ALTER TABLE reservations ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE screenings ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
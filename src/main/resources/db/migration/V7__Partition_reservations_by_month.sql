@@ -0,0 +1,115 @@
+-- Monthly range partitioning: reservations by created_at, reserved_seats by screening start time.
+-- Unique constraints on a partitioned table must contain the partition key, hence:
+--   * reservations PK (id, created_at) - reserved_seats can no longer reference it with a foreign key,
+--     ON DELETE CASCADE is replaced by a trigger;
+--   * reserved_seats keeps a copy of screenings.start_time (screening_start); the seat constraint becomes
+--     (screening_id, row_number, seat_number, screening_start), which is equivalent because the start time
+--     is a function of screening_id (kept in sync by a trigger when a screening is rescheduled).
+-- New monthly partitions are pre-created by ReservationPartitionMaintenance; old ones are detached to "archive".
+
+CREATE SCHEMA IF NOT EXISTS archive;
+
+CREATE TABLE reservations_new (
+                                  id BIGINT NOT NULL DEFAULT nextval('reservations_id_seq'),
+                                  user_id BIGINT NOT NULL,
+                                  screening_id BIGINT NOT NULL,
+                                  total_price DECIMAL(10,2) NOT NULL,
+                                  status VARCHAR(50) NOT NULL DEFAULT 'PENDING',
+                                  created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+                                  updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP,
+                                  confirmation_code VARCHAR(50),
+                                  version BIGINT NOT NULL DEFAULT 0,
+                                  CONSTRAINT pk_reservations PRIMARY KEY (id, created_at),
+                                  CONSTRAINT fk_reservations_user FOREIGN KEY (user_id) REFERENCES users(id) ON DELETE CASCADE,
+                                  CONSTRAINT fk_reservations_screening FOREIGN KEY (screening_id) REFERENCES screenings(id) ON DELETE CASCADE
+) PARTITION BY RANGE (created_at);
+
+CREATE TABLE reserved_seats_new (
+                                    id BIGINT NOT NULL DEFAULT nextval('reserved_seats_id_seq'),
+                                    reservation_id BIGINT NOT NULL,
+                                    screening_id BIGINT NOT NULL,
+                                    row_number INTEGER NOT NULL,
+                                    seat_number INTEGER NOT NULL,
+                                    screening_start TIMESTAMP NOT NULL,
+                                    CONSTRAINT pk_reserved_seats PRIMARY KEY (id, screening_start),
+                                    CONSTRAINT ux_reserved_seats_seat UNIQUE (screening_id, row_number, seat_number, screening_start),
+                                    CONSTRAINT fk_reserved_seats_screening FOREIGN KEY (screening_id) REFERENCES screenings(id) ON DELETE CASCADE
+) PARTITION BY RANGE (screening_start);
+
+-- Partycje od najstarszego miesiąca z danymi do 3 miesięcy w przód + DEFAULT na wszystko poza zakresem
+DO $$
+DECLARE
+    spec RECORD;
+    part_month DATE;
+    last_month DATE := date_trunc('month', CURRENT_DATE) + INTERVAL '3 months';
+BEGIN
+    FOR spec IN
+        SELECT * FROM (VALUES
+            ('reservations', (SELECT MIN(created_at) FROM reservations)),
+            ('reserved_seats', (SELECT MIN(sc.start_time)
+                                FROM reserved_seats rs JOIN screenings sc ON sc.id = rs.screening_id))
+        ) AS t(parent, oldest)
+    LOOP
+        part_month := date_trunc('month', LEAST(COALESCE(spec.oldest, CURRENT_TIMESTAMP), CURRENT_TIMESTAMP));
+        WHILE part_month <= last_month LOOP
+            EXECUTE format('CREATE TABLE %I PARTITION OF %I FOR VALUES FROM (%L) TO (%L)',
+                           spec.parent || '_p' || to_char(part_month, 'YYYY_MM'), spec.parent || '_new',
+                           part_month, (part_month + INTERVAL '1 month')::DATE);
+            part_month := part_month + INTERVAL '1 month';
+        END LOOP;
+        EXECUTE format('CREATE TABLE %I PARTITION OF %I DEFAULT', spec.parent || '_default', spec.parent || '_new');
+    END LOOP;
+END $$;
+
+INSERT INTO reservations_new (id, user_id, screening_id, total_price, status, created_at, updated_at,
+                              confirmation_code, version)
+SELECT id, user_id, screening_id, total_price, status, COALESCE(created_at, updated_at, CURRENT_TIMESTAMP),
+       updated_at, confirmation_code, version
+FROM reservations;
+
+INSERT INTO reserved_seats_new (id, reservation_id, screening_id, row_number, seat_number, screening_start)
+SELECT rs.id, rs.reservation_id, rs.screening_id, rs.row_number, rs.seat_number, sc.start_time
+FROM reserved_seats rs
+         JOIN screenings sc ON sc.id = rs.screening_id;
+
+-- Sekwencje BIGSERIAL przechodzą na nowe tabele, inaczej DROP usunąłby je razem ze starymi
+ALTER SEQUENCE reservations_id_seq OWNED BY reservations_new.id;
+ALTER SEQUENCE reserved_seats_id_seq OWNED BY reserved_seats_new.id;
+
+DROP TABLE reserved_seats;
+DROP TABLE reservations;
+
+ALTER TABLE reservations_new RENAME TO reservations;
+ALTER TABLE reserved_seats_new RENAME TO reserved_seats;
+
+CREATE INDEX idx_reservations_user ON reservations(user_id);
+CREATE INDEX idx_reservations_screening ON reservations(screening_id);
+CREATE INDEX idx_reservations_status ON reservations(status);
+-- Kody są unikalne z konstrukcji (ConfirmationCodeGenerator); indeks z kluczem partycjonowania służy wyszukiwaniu
+CREATE UNIQUE INDEX ux_reservations_confirmation_code ON reservations(confirmation_code, created_at);
+-- Zastępuje indeks z klucza obcego - używany przez kaskadowe usuwanie miejsc i findByReservationId
+CREATE INDEX idx_reserved_seats_reservation ON reserved_seats(reservation_id);
+
+CREATE FUNCTION reservations_delete_seats() RETURNS trigger AS $$
+BEGIN
+    DELETE FROM reserved_seats WHERE reservation_id = OLD.id;
+    RETURN OLD;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_reservations_delete_seats
+    AFTER DELETE ON reservations
+    FOR EACH ROW EXECUTE FUNCTION reservations_delete_seats();
+
+CREATE FUNCTION screenings_sync_seat_start() RETURNS trigger AS $$
+BEGIN
+    UPDATE reserved_seats SET screening_start = NEW.start_time WHERE screening_id = NEW.id;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_screenings_sync_seat_start
+    AFTER UPDATE OF start_time ON screenings
+    FOR EACH ROW
+    WHEN (OLD.start_time IS DISTINCT FROM NEW.start_time)
+    EXECUTE FUNCTION screenings_sync_seat_start();
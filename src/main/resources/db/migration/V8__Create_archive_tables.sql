@@ -0,0 +1,42 @@
+-- Cold storage for finished screenings, moved in batches by ReservationArchiveService.
+-- No foreign keys: users, movies and halls may be deleted long after their screenings were archived.
+CREATE SCHEMA IF NOT EXISTS archive;
+
+CREATE TABLE archive.screenings (
+                                    id BIGINT PRIMARY KEY,
+                                    movie_id BIGINT NOT NULL,
+                                    hall_id BIGINT NOT NULL,
+                                    start_time TIMESTAMP NOT NULL,
+                                    end_time TIMESTAMP NOT NULL,
+                                    price DECIMAL(10,2) NOT NULL,
+                                    available_seats INTEGER,
+                                    created_at TIMESTAMP,
+                                    archived_at TIMESTAMP NOT NULL
+);
+
+CREATE TABLE archive.reservations (
+                                      id BIGINT PRIMARY KEY,
+                                      user_id BIGINT NOT NULL,
+                                      screening_id BIGINT NOT NULL,
+                                      total_price DECIMAL(10,2) NOT NULL,
+                                      status VARCHAR(50) NOT NULL,
+                                      created_at TIMESTAMP NOT NULL,
+                                      updated_at TIMESTAMP,
+                                      confirmation_code VARCHAR(50),
+                                      archived_at TIMESTAMP NOT NULL
+);
+
+CREATE TABLE archive.reserved_seats (
+                                        id BIGINT PRIMARY KEY,
+                                        reservation_id BIGINT NOT NULL,
+                                        screening_id BIGINT NOT NULL,
+                                        row_number INTEGER NOT NULL,
+                                        seat_number INTEGER NOT NULL,
+                                        screening_start TIMESTAMP NOT NULL
+);
+
+-- Odczyty historyczne: po kodzie potwierdzenia, po użytkowniku i miejsca danej rezerwacji
+CREATE INDEX idx_archive_reservations_code ON archive.reservations(confirmation_code);
+CREATE INDEX idx_archive_reservations_user ON archive.reservations(user_id);
+CREATE INDEX idx_archive_reserved_seats_reservation ON archive.reserved_seats(reservation_id);
+CREATE INDEX idx_archive_screenings_end_time ON archive.screenings(end_time);
@@ -0,0 +1,41 @@
+-- Indexes for every repository query without one (checked by QueryPlanIntegrationTest).
+-- reserved_seats(reservation_id) and reservations(confirmation_code) already come from V7.
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+-- reservations: statystyki i wygaszanie filtrują po statusie i zakresie created_at, historia użytkownika sortuje po created_at
+DROP INDEX idx_reservations_status;
+CREATE INDEX idx_reservations_status_created_at ON reservations(status, created_at);
+CREATE INDEX idx_reservations_created_at ON reservations(created_at);
+DROP INDEX idx_reservations_user;
+CREATE INDEX idx_reservations_user_created_at ON reservations(user_id, created_at);
+
+-- screenings: wykrywanie kolizji (hall_id = ? AND start_time <= ? AND end_time >= ?) w całości z indeksu;
+-- indeksy po samym hall_id / movie_id są prefiksami indeksów złożonych
+DROP INDEX idx_screenings_hall_start_time;
+CREATE INDEX idx_screenings_hall_start_end ON screenings(hall_id, start_time, end_time);
+DROP INDEX idx_screenings_hall;
+DROP INDEX idx_screenings_movie;
+-- archiwizacja wybiera zakończone seanse po end_time
+CREATE INDEX idx_screenings_end_time ON screenings(end_time);
+
+-- cinemas: findByCity porównuje dokładnie (LOWER(city) z V2 służy wyszukiwarce seansów)
+CREATE INDEX idx_cinemas_city ON cinemas(city);
+CREATE INDEX idx_cinemas_name ON cinemas(name);
+CREATE INDEX idx_cinemas_name_trgm ON cinemas USING gin (UPPER(name) gin_trgm_ops);
+
+-- cinema_halls
+DROP INDEX idx_cinema_halls_cinema;
+CREATE INDEX idx_cinema_halls_cinema_type ON cinema_halls(cinema_id, hall_type);
+CREATE INDEX idx_cinema_halls_type ON cinema_halls(hall_type);
+CREATE INDEX idx_cinema_halls_total_seats ON cinema_halls(total_seats);
+
+-- movies: ...ContainingIgnoreCase generuje UPPER(col) LIKE UPPER('%x%') - wymaga indeksu trigramowego
+CREATE INDEX idx_movies_genre ON movies(genre);
+CREATE INDEX idx_movies_rating ON movies(rating);
+CREATE INDEX idx_movies_release_date ON movies(release_date);
+CREATE INDEX idx_movies_duration ON movies(duration_minutes);
+CREATE INDEX idx_movies_title_trgm ON movies USING gin (UPPER(title) gin_trgm_ops);
+CREATE INDEX idx_movies_director_trgm ON movies USING gin (UPPER(director) gin_trgm_ops);
+
+-- users
+CREATE INDEX idx_users_created_at ON users(created_at);
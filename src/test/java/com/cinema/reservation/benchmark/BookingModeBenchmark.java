@@ -0,0 +1,203 @@
+package com.cinema.reservation.benchmark;
+
+import com.cinema.reservation.dto.ReservationCreateRequest;
+import com.cinema.reservation.dto.SeatRequest;
+import com.cinema.reservation.entity.Cinema;
+import com.cinema.reservation.entity.CinemaHall;
+import com.cinema.reservation.entity.Movie;
+import com.cinema.reservation.entity.RegularUser;
+import com.cinema.reservation.entity.Screening;
+import com.cinema.reservation.repository.CinemaHallRepository;
+import com.cinema.reservation.repository.CinemaRepository;
+import com.cinema.reservation.repository.MovieRepository;
+import com.cinema.reservation.repository.ReservationRepository;
+import com.cinema.reservation.repository.ReservedSeatRepository;
+import com.cinema.reservation.repository.ScreeningRepository;
+import com.cinema.reservation.repository.UserRepository;
+import com.cinema.reservation.service.ReservationService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * On-sale burst against PostgreSQL: many clients booking 2-seat pairs on a handful of screenings.
+ * Not part of the regular build (subclasses require -Dbenchmark=true); run both modes with
+ * {@code mvn test -Dbenchmark=true -Dtest='*BookingBenchmark' -Dsurefire.failIfNoSpecifiedTests=false}.
+ */
+@SpringBootTest
+@Testcontainers
+abstract class BookingModeBenchmark {
+
+    private static final int CLIENTS = 32;
+    private static final int SCREENINGS = 4;
+    private static final int ROWS = 20;
+    private static final int SEATS_PER_ROW = 26;
+    private static final int WARMUP_ROUNDS = 1;
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15")
+            .withDatabaseName("cinema_benchmark")
+            .withUsername("test_user")
+            .withPassword("test_password");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "create-drop");
+        registry.add("spring.flyway.enabled", () -> "false");
+        registry.add("spring.jpa.show-sql", () -> "false");
+        registry.add("logging.level.com.cinema.reservation", () -> "WARN");
+    }
+
+    @Autowired
+    private ReservationService reservationService;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private MovieRepository movieRepository;
+
+    @Autowired
+    private CinemaRepository cinemaRepository;
+
+    @Autowired
+    private CinemaHallRepository cinemaHallRepository;
+
+    @Autowired
+    private ScreeningRepository screeningRepository;
+
+    @Autowired
+    private ReservationRepository reservationRepository;
+
+    @Autowired
+    private ReservedSeatRepository reservedSeatRepository;
+
+    protected abstract String mode();
+
+    @Test
+    void onSaleBurst() throws Exception {
+        for (int round = 0; round < WARMUP_ROUNDS; round++) {
+            runRound(false);
+        }
+        runRound(true);
+    }
+
+    private void runRound(boolean report) throws Exception {
+        reservedSeatRepository.deleteAllInBatch();
+        reservationRepository.deleteAllInBatch();
+        screeningRepository.deleteAllInBatch();
+
+        RegularUser user = userRepository.findAll().stream()
+                .filter(RegularUser.class::isInstance).map(RegularUser.class::cast).findFirst()
+                .orElseGet(() -> userRepository.save(RegularUser.builder()
+                        .email("benchmark-" + System.nanoTime() + "@cinema.com")
+                        .password("x").firstName("Bench").lastName("Mark").phoneNumber("123456789").build()));
+        CinemaHall hall = hall();
+
+        List<ReservationCreateRequest> requests = new ArrayList<>();
+        for (int s = 0; s < SCREENINGS; s++) {
+            Screening screening = screening(hall, s);
+            for (int row = 1; row <= ROWS; row++) {
+                for (int seat = 1; seat < SEATS_PER_ROW; seat += 2) {
+                    requests.add(new ReservationCreateRequest(user.getId(), screening.getId(),
+                            List.of(new SeatRequest(row, seat), new SeatRequest(row, seat + 1))));
+                }
+            }
+        }
+
+        long[] latencies = new long[requests.size()];
+        ExecutorService clients = Executors.newFixedThreadPool(CLIENTS);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<?>> futures = new ArrayList<>();
+        for (int i = 0; i < requests.size(); i++) {
+            int index = i;
+            futures.add(clients.submit(() -> {
+                start.await();
+                long began = System.nanoTime();
+                reservationService.createReservation(requests.get(index));
+                latencies[index] = System.nanoTime() - began;
+                return null;
+            }));
+        }
+
+        long began = System.nanoTime();
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(2, TimeUnit.MINUTES);
+        }
+        long elapsed = System.nanoTime() - began;
+        clients.shutdown();
+
+        assertEquals(requests.size(), reservationRepository.count());
+        assertEquals(requests.size() * 2L, reservedSeatRepository.count());
+
+        if (report) {
+            Arrays.sort(latencies);
+            System.out.printf("%-12s %5d bookings, %3d clients: %8.0f bookings/s, p50 %6.2f ms, p99 %6.2f ms%n",
+                    mode(), requests.size(), CLIENTS,
+                    requests.size() / (elapsed / 1e9),
+                    latencies[latencies.length / 2] / 1e6,
+                    latencies[(int) (latencies.length * 0.99)] / 1e6);
+        }
+    }
+
+    private CinemaHall hall() {
+        return cinemaHallRepository.findAll().stream().findFirst().orElseGet(() -> {
+            Cinema cinema = new Cinema();
+            cinema.setName("Benchmark Cinema");
+            cinema.setAddress("1 Benchmark Street");
+            cinema.setCity("Test City");
+            cinemaRepository.save(cinema);
+
+            CinemaHall hall = new CinemaHall();
+            hall.setName("Hall 1");
+            hall.setRows(ROWS);
+            hall.setSeatsPerRow(SEATS_PER_ROW);
+            hall.setTotalSeats(ROWS * SEATS_PER_ROW);
+            hall.setHallType(CinemaHall.HallType.STANDARD);
+            hall.setCinema(cinema);
+            return cinemaHallRepository.save(hall);
+        });
+    }
+
+    private Screening screening(CinemaHall hall, int index) {
+        Movie movie = movieRepository.findAll().stream().findFirst().orElseGet(() -> {
+            Movie created = new Movie();
+            created.setTitle("Premiere");
+            created.setDurationMinutes(120);
+            created.setGenre(Movie.Genre.ACTION);
+            created.setDirector("Benchmark Director");
+            return movieRepository.save(created);
+        });
+
+        Screening screening = new Screening();
+        screening.setMovie(movie);
+        screening.setHall(hall);
+        screening.setStartTime(LocalDateTime.now().plusDays(1).plusHours(index * 3L));
+        screening.setEndTime(LocalDateTime.now().plusDays(1).plusHours(index * 3L + 2));
+        screening.setPrice(new BigDecimal("25.00"));
+        screening.setAvailableSeats(ROWS * SEATS_PER_ROW);
+        return screeningRepository.save(screening);
+    }
+}
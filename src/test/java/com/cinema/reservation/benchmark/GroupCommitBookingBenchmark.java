@@ -0,0 +1,18 @@
+package com.cinema.reservation.benchmark;
+
+import com.cinema.reservation.service.BookingEngine;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.test.context.TestPropertySource;
+
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@TestPropertySource(properties = {
+        "cinema.booking.engine.mode=" + BookingEngine.MODE_SYNCHRONOUS,
+        "cinema.booking.group-commit.enabled=true"
+})
+class GroupCommitBookingBenchmark extends BookingModeBenchmark {
+
+    @Override
+    protected String mode() {
+        return "group-commit";
+    }
+}
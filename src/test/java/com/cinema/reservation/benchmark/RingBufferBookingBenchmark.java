@@ -0,0 +1,15 @@
+package com.cinema.reservation.benchmark;
+
+import com.cinema.reservation.service.BookingEngine;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.test.context.TestPropertySource;
+
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@TestPropertySource(properties = "cinema.booking.engine.mode=" + BookingEngine.MODE_RING_BUFFER)
+class RingBufferBookingBenchmark extends BookingModeBenchmark {
+
+    @Override
+    protected String mode() {
+        return BookingEngine.MODE_RING_BUFFER;
+    }
+}
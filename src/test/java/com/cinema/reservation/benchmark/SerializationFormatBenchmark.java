@@ -0,0 +1,131 @@
+package com.cinema.reservation.benchmark;
+
+import com.cinema.reservation.entity.Movie;
+import com.cinema.reservation.entity.Screening;
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Payload size (raw and gzipped) and serialization CPU of a full schedule in JSON, CBOR and Smile,
+ * with mappers configured like the application's ones. Runs without a database; not part of the
+ * regular build:
+ * {@code mvn test -Dbenchmark=true -Dtest=SerializationFormatBenchmark -Dsurefire.failIfNoSpecifiedTests=false}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+class SerializationFormatBenchmark {
+
+    private static final int MOVIES = 200;
+    private static final int SCREENINGS = 5_000;
+    private static final int WARMUP_ITERATIONS = 200;
+    private static final int MEASURED_ITERATIONS = 500;
+
+    @Test
+    void compareFormats() throws Exception {
+        Map<String, ObjectMapper> mappers = new LinkedHashMap<>();
+        mappers.put("json", mapper(new JsonFactory()));
+        mappers.put("cbor", mapper(new CBORFactory()));
+        mappers.put("smile", mapper(new SmileFactory()));
+
+        Map<String, Object> payloads = new LinkedHashMap<>();
+        List<Movie> movies = movies();
+        payloads.put("movies", movies);
+        payloads.put("screenings", screenings(movies));
+
+        System.out.printf("%-11s %-6s %10s %10s %12s%n", "payload", "format", "bytes", "gzip", "us/serialize");
+        for (Map.Entry<String, Object> payload : payloads.entrySet()) {
+            long jsonBytes = 0;
+            for (Map.Entry<String, ObjectMapper> mapper : mappers.entrySet()) {
+                byte[] bytes = mapper.getValue().writeValueAsBytes(payload.getValue());
+                double micros = serializationMicros(mapper.getValue(), payload.getValue());
+                System.out.printf("%-11s %-6s %10d %10d %12.1f%n",
+                        payload.getKey(), mapper.getKey(), bytes.length, gzip(bytes).length, micros);
+                if (mapper.getKey().equals("json")) {
+                    jsonBytes = bytes.length;
+                } else {
+                    assertTrue(bytes.length < jsonBytes, mapper.getKey() + " should be smaller than JSON");
+                }
+            }
+        }
+    }
+
+    private static ObjectMapper mapper(JsonFactory factory) {
+        // Jak mapper Boota: daty jako tekst ISO, fail-on-empty-beans=false z application.properties
+        return new Jackson2ObjectMapperBuilder().factory(factory)
+                .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS, SerializationFeature.FAIL_ON_EMPTY_BEANS)
+                .build();
+    }
+
+    private static double serializationMicros(ObjectMapper mapper, Object payload) throws IOException {
+        for (int i = 0; i < WARMUP_ITERATIONS; i++) {
+            mapper.writeValueAsBytes(payload);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < MEASURED_ITERATIONS; i++) {
+            mapper.writeValueAsBytes(payload);
+        }
+        return (System.nanoTime() - start) / 1_000.0 / MEASURED_ITERATIONS;
+    }
+
+    private static byte[] gzip(byte[] bytes) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(bytes);
+        }
+        return out.toByteArray();
+    }
+
+    private static List<Movie> movies() {
+        List<Movie> movies = new ArrayList<>();
+        Movie.Genre[] genres = Movie.Genre.values();
+        for (long id = 1; id <= MOVIES; id++) {
+            Movie movie = new Movie();
+            movie.setId(id);
+            movie.setTitle("Movie title number " + id);
+            movie.setDescription("A reasonably long synopsis of movie " + id + " that the schedule pages show under the poster.");
+            movie.setDurationMinutes(90 + (int) (id % 60));
+            movie.setGenre(genres[(int) (id % genres.length)]);
+            movie.setDirector("Director " + (id % 40));
+            movie.setPosterUrl("https://cdn.example.com/posters/" + id + ".jpg");
+            movie.setRating(5 + (id % 50) / 10.0);
+            movie.setReleaseDate(LocalDateTime.of(2024, 1, 1, 0, 0).plusDays(id));
+            movie.setCreatedAt(LocalDateTime.of(2024, 6, 1, 12, 0));
+            movies.add(movie);
+        }
+        return movies;
+    }
+
+    private static List<Screening> screenings(List<Movie> movies) {
+        List<Screening> screenings = new ArrayList<>();
+        LocalDateTime start = LocalDateTime.of(2025, 3, 1, 10, 0);
+        for (long id = 1; id <= SCREENINGS; id++) {
+            Screening screening = new Screening();
+            screening.setId(id);
+            screening.setMovie(movies.get((int) (id % movies.size())));
+            screening.setStartTime(start.plusMinutes(id * 15));
+            screening.setEndTime(start.plusMinutes(id * 15 + 120));
+            screening.setPrice(new BigDecimal("25.00").add(BigDecimal.valueOf(id % 4 * 5)));
+            screening.setAvailableSeats((int) (id % 180));
+            screening.setCreatedAt(LocalDateTime.of(2025, 2, 1, 9, 0));
+            screenings.add(screening);
+        }
+        return screenings;
+    }
+}
@@ -0,0 +1,94 @@
+package com.cinema.reservation.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ConnectionBorrowTrackerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private DataSource target;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        meterRegistry = new SimpleMeterRegistry();
+        target = mock(DataSource.class);
+        when(target.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+    }
+
+    @AfterEach
+    void tearDown() {
+        ConnectionBorrowTracker.clearCurrentEndpoint();
+    }
+
+    @Test
+    void closingConnection_RecordsHoldTimePerEndpoint() throws Exception {
+        ConnectionBorrowTracker tracker = new ConnectionBorrowTracker(meterRegistry, Duration.ofSeconds(10), true);
+        TrackingDataSource dataSource = new TrackingDataSource(target, tracker);
+
+        ConnectionBorrowTracker.setCurrentEndpoint("ReservationController.createReservation");
+        Connection connection = dataSource.getConnection();
+        ConnectionBorrowTracker.clearCurrentEndpoint();
+        Connection background = dataSource.getConnection();
+
+        List<ConnectionBorrowTracker.Borrower> borrowers = tracker.borrowers();
+        assertEquals(List.of("ReservationController.createReservation", ConnectionBorrowTracker.BACKGROUND),
+                borrowers.stream().map(ConnectionBorrowTracker.Borrower::endpoint).toList());
+        // Stos zaczyna się od wywołującego, nie od ramek trackera
+        assertTrue(borrowers.get(0).stackTrace().get(0).contains(getClass().getSimpleName()));
+
+        connection.close();
+        connection.close();
+        background.close();
+
+        assertTrue(tracker.borrowers().isEmpty());
+        assertEquals(1, meterRegistry.get("cinema.db.connection.hold")
+                .tag("endpoint", "ReservationController.createReservation").timer().count());
+        assertEquals(1, meterRegistry.get("cinema.db.connection.hold")
+                .tag("endpoint", ConnectionBorrowTracker.BACKGROUND).timer().count());
+    }
+
+    @Test
+    void detectLeaks_ReportsEachLongHoldOnce() throws Exception {
+        ConnectionBorrowTracker tracker = new ConnectionBorrowTracker(meterRegistry, Duration.ofNanos(1), false);
+        TrackingDataSource dataSource = new TrackingDataSource(target, tracker);
+
+        ConnectionBorrowTracker.setCurrentEndpoint("CinemaController.getAllCinemas");
+        Connection connection = dataSource.getConnection();
+        Thread.sleep(2);
+
+        tracker.detectLeaks();
+        tracker.detectLeaks();
+
+        assertEquals(1.0, meterRegistry.get("cinema.db.connection.leaks")
+                .tag("endpoint", "CinemaController.getAllCinemas").counter().count());
+        assertTrue(tracker.borrowers().get(0).stackTrace().isEmpty());
+        connection.close();
+    }
+
+    @Test
+    void trackedConnection_DelegatesToPooledConnection() throws Exception {
+        Connection pooled = mock(Connection.class);
+        when(target.getConnection()).thenReturn(pooled);
+        TrackingDataSource dataSource = new TrackingDataSource(target,
+                new ConnectionBorrowTracker(meterRegistry, Duration.ZERO, false));
+
+        Connection connection = dataSource.getConnection();
+        connection.setAutoCommit(false);
+        connection.close();
+
+        verify(pooled).setAutoCommit(false);
+        verify(pooled).close();
+        assertEquals(connection, connection);
+        assertNotEquals(connection, pooled);
+    }
+}
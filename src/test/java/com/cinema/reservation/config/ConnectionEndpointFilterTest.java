@@ -0,0 +1,96 @@
+package com.cinema.reservation.config;
+
+import com.cinema.reservation.controller.MovieController;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ConnectionEndpointFilterTest {
+
+    private final ConnectionEndpointFilter filter = new ConnectionEndpointFilter();
+    private final WebConfig.ConnectionEndpointInterceptor interceptor = new WebConfig.ConnectionEndpointInterceptor();
+
+    @Test
+    void request_FilterTagsBeforeHandlerAndInterceptorNarrowsToControllerMethod() throws Exception {
+        ConnectionBorrowTracker tracker = new ConnectionBorrowTracker(new SimpleMeterRegistry(), Duration.ofSeconds(10), false);
+        DataSource target = mock(DataSource.class);
+        when(target.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+        TrackingDataSource dataSource = new TrackingDataSource(target, tracker);
+        List<Connection> held = new ArrayList<>();
+        HandlerMethod handler = new HandlerMethod(mock(MovieController.class),
+                MovieController.class.getMethod("getAllMovies"));
+
+        perform((request, response) -> {
+            // Połączenie wzięte przez filtr przed wyborem handlera
+            held.add(connection(dataSource));
+            interceptor.preHandle(request, response, handler);
+            held.add(connection(dataSource));
+        });
+
+        assertEquals(List.of(ConnectionBorrowTracker.REQUEST, "MovieController.getAllMovies"),
+                tracker.borrowers().stream().map(ConnectionBorrowTracker.Borrower::endpoint).toList());
+        assertFalse(ConnectionBorrowTracker.isInRequest());
+        for (Connection connection : held) {
+            connection.close();
+        }
+    }
+
+    @Test
+    void failingRequest_TagStillCleared() {
+        assertThrows(ServletException.class, () -> perform((request, response) -> {
+            throw new ServletException("boom");
+        }));
+
+        assertFalse(ConnectionBorrowTracker.isInRequest());
+    }
+
+    @Test
+    void interceptorWithoutFilter_SetsNothing() throws Exception {
+        HandlerMethod handler = new HandlerMethod(mock(MovieController.class),
+                MovieController.class.getMethod("getAllMovies"));
+
+        interceptor.preHandle(new MockHttpServletRequest(), new MockHttpServletResponse(), handler);
+
+        assertFalse(ConnectionBorrowTracker.isInRequest());
+    }
+
+    private void perform(Handler handler) throws Exception {
+        filter.doFilter(new MockHttpServletRequest("GET", "/api/movies"), new MockHttpServletResponse(),
+                new MockFilterChain(new HttpServlet() {
+                    @Override
+                    protected void service(HttpServletRequest req, HttpServletResponse resp) throws ServletException {
+                        handler.handle(req, resp);
+                    }
+                }));
+    }
+
+    private static Connection connection(DataSource dataSource) throws ServletException {
+        try {
+            return dataSource.getConnection();
+        } catch (SQLException e) {
+            throw new ServletException(e);
+        }
+    }
+
+    @FunctionalInterface
+    private interface Handler {
+        void handle(HttpServletRequest request, HttpServletResponse response) throws ServletException;
+    }
+}
@@ -0,0 +1,56 @@
+package com.cinema.reservation.config;
+
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.Test;
+import org.slf4j.MDC;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CorrelationIdFilterTest {
+
+    private final CorrelationIdFilter filter = new CorrelationIdFilter();
+    private final AtomicReference<String> seenByController = new AtomicReference<>();
+
+    @Test
+    void headerValue_PutInMdcAndEchoed() throws Exception {
+        MockHttpServletResponse response = perform("checkout-42.retry_1");
+
+        assertEquals("checkout-42.retry_1", seenByController.get());
+        assertEquals("checkout-42.retry_1", response.getHeader(CorrelationIdFilter.CORRELATION_ID_HEADER));
+        assertNull(MDC.get(CorrelationIdFilter.MDC_KEY));
+    }
+
+    @Test
+    void missingOrUnsafeHeader_NewIdGenerated() throws Exception {
+        MockHttpServletResponse missing = perform(null);
+        String generated = seenByController.get();
+        MockHttpServletResponse unsafe = perform("forged\nERROR line");
+
+        assertNotNull(generated);
+        assertEquals(generated, missing.getHeader(CorrelationIdFilter.CORRELATION_ID_HEADER));
+        assertNotEquals("forged\nERROR line", seenByController.get());
+        assertNotEquals(generated, unsafe.getHeader(CorrelationIdFilter.CORRELATION_ID_HEADER));
+    }
+
+    private MockHttpServletResponse perform(String correlationId) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/movies");
+        if (correlationId != null) {
+            request.addHeader(CorrelationIdFilter.CORRELATION_ID_HEADER, correlationId);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request, response, new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) {
+                seenByController.set(MDC.get(CorrelationIdFilter.MDC_KEY));
+            }
+        }));
+        return response;
+    }
+}
@@ -0,0 +1,77 @@
+package com.cinema.reservation.config;
+
+import com.cinema.reservation.entity.HibernateCacheRegions;
+import com.github.benmanes.caffeine.jcache.configuration.CaffeineConfiguration;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.hibernate.cache.jcache.ConfigSettings;
+import org.hibernate.cfg.AvailableSettings;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+
+import javax.cache.CacheManager;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.OptionalLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HibernateCacheConfigTest {
+
+    private final HibernateCacheConfig config = new HibernateCacheConfig();
+
+    @Test
+    void regionConfiguration_DefaultsAndOverrides() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("cinema.cache.regions.movies.max-entries", "42")
+                .withProperty("cinema.cache.regions.movies.time-to-live", "5m")
+                .withProperty("cinema.cache.regions.cinemas.time-to-live", "0s");
+
+        CaffeineConfiguration<Object, Object> movies = HibernateCacheConfig.regionConfiguration(HibernateCacheRegions.MOVIES, environment);
+        assertEquals(OptionalLong.of(42), movies.getMaximumSize());
+        assertEquals(OptionalLong.of(Duration.ofMinutes(5).toNanos()), movies.getExpireAfterWrite());
+
+        CaffeineConfiguration<Object, Object> halls = HibernateCacheConfig.regionConfiguration(HibernateCacheRegions.CINEMA_HALLS, environment);
+        assertEquals(OptionalLong.of(2_000), halls.getMaximumSize());
+        assertEquals(OptionalLong.of(HibernateCacheConfig.DEFAULT_TIME_TO_LIVE.toNanos()), halls.getExpireAfterWrite());
+
+        // TTL 0 = bez wygasania
+        CaffeineConfiguration<Object, Object> cinemas = HibernateCacheConfig.regionConfiguration(HibernateCacheRegions.CINEMAS, environment);
+        assertEquals(OptionalLong.empty(), cinemas.getExpireAfterWrite());
+    }
+
+    @Test
+    void regionConfiguration_UpdateTimestampsAreNeverEvicted() {
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("cinema.cache.regions." + HibernateCacheRegions.UPDATE_TIMESTAMPS + ".max-entries", "1");
+
+        CaffeineConfiguration<Object, Object> timestamps =
+                HibernateCacheConfig.regionConfiguration(HibernateCacheRegions.UPDATE_TIMESTAMPS, environment);
+
+        assertEquals(OptionalLong.empty(), timestamps.getMaximumSize());
+        assertEquals(OptionalLong.empty(), timestamps.getExpireAfterWrite());
+    }
+
+    @Test
+    void hibernateCacheManager_CreatesEveryRegionAndHandsItToHibernate() {
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        CacheManager first = config.hibernateCacheManager(new MockEnvironment(), meterRegistry);
+        CacheManager second = config.hibernateCacheManager(new MockEnvironment(), new SimpleMeterRegistry());
+        try {
+            HibernateCacheRegions.ALL.forEach(region -> assertNotNull(first.getCache(region), region));
+            assertEquals(HibernateCacheRegions.ALL.size(), meterRegistry.find("cinema.cache.region.size").gauges().size());
+            // Dwa konteksty nie dzielą regionów
+            first.getCache(HibernateCacheRegions.MOVIES).put(1L, "cached");
+            assertNull(second.getCache(HibernateCacheRegions.MOVIES).get(1L));
+
+            Map<String, Object> properties = new HashMap<>();
+            config.secondLevelCacheCustomizer(first).customize(properties);
+            assertSame(first, properties.get(ConfigSettings.CACHE_MANAGER));
+            assertEquals(true, properties.get(AvailableSettings.USE_QUERY_CACHE));
+            assertEquals("fail", properties.get(ConfigSettings.MISSING_CACHE_STRATEGY));
+        } finally {
+            first.close();
+            second.close();
+        }
+    }
+}
@@ -0,0 +1,224 @@
+package com.cinema.reservation.config;
+
+import com.cinema.reservation.service.CatalogVersions;
+import com.cinema.reservation.service.CatalogVersions.Aggregate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import org.springframework.web.method.HandlerMethod;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class HttpCacheInterceptorTest {
+
+    private final Map<Aggregate, Long> committed = new EnumMap<>(Aggregate.class);
+    private final Map<Aggregate, Long> modified = new EnumMap<>(Aggregate.class);
+    private CatalogVersions catalogVersions;
+    private PlatformTransactionManager transactionManager;
+    private PrecomputedJsonCache jsonCache;
+    private HttpCacheInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        for (Aggregate aggregate : Aggregate.values()) {
+            committed.put(aggregate, 1L);
+            modified.put(aggregate, System.currentTimeMillis());
+        }
+        catalogVersions = mock(CatalogVersions.class);
+        when(catalogVersions.read()).thenAnswer(invocation ->
+                new CatalogVersions.Versions(Map.copyOf(committed), Map.copyOf(modified)));
+        transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+        doAnswer(invocation -> {
+            ((SimpleTransactionStatus) invocation.getArgument(0)).setCompleted();
+            return null;
+        }).when(transactionManager).commit(any());
+        MockEnvironment environment = new MockEnvironment()
+                .withProperty("cinema.http-cache.policies.movies.max-age", "5m")
+                .withProperty("cinema.http-cache.policies.movies.s-max-age", "1h")
+                .withProperty("cinema.http-cache.policies.movies.stale-while-revalidate", "30s")
+                .withProperty("cinema.http-cache.policies.screenings.max-age", "0s");
+        jsonCache = new PrecomputedJsonCache(new SimpleMeterRegistry(), 1024);
+        interceptor = new HttpCacheInterceptor(catalogVersions, transactionManager, environment, Duration.ofMinutes(1), jsonCache);
+    }
+
+    @Test
+    void matchingIfNoneMatch_NotModifiedWithoutCallingHandler() throws Exception {
+        MockHttpServletResponse first = new MockHttpServletResponse();
+        assertTrue(interceptor.preHandle(get(null), first, handler("movies")));
+        String etag = first.getHeader(HttpHeaders.ETAG);
+        assertNotNull(etag);
+        assertTrue(etag.startsWith("W/\""), etag);
+        assertNotNull(first.getHeader(HttpHeaders.LAST_MODIFIED));
+        assertEquals("max-age=300, public, s-maxage=3600, stale-while-revalidate=30",
+                first.getHeader(HttpHeaders.CACHE_CONTROL));
+
+        MockHttpServletResponse revalidated = new MockHttpServletResponse();
+        assertFalse(interceptor.preHandle(get(etag), revalidated, handler("movies")));
+        assertEquals(304, revalidated.getStatus());
+    }
+
+    @Test
+    void versionsReadInTransactionThatStaysOpenForHandlerUntilItReturns() throws Exception {
+        MockHttpServletRequest request = get(null);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertTrue(interceptor.preHandle(request, response, handler("movies")));
+
+        InOrder inOrder = inOrder(transactionManager, catalogVersions);
+        ArgumentCaptor<TransactionDefinition> definition = ArgumentCaptor.forClass(TransactionDefinition.class);
+        inOrder.verify(transactionManager).getTransaction(definition.capture());
+        inOrder.verify(catalogVersions).read();
+        assertTrue(definition.getValue().isReadOnly());
+        assertEquals(TransactionDefinition.ISOLATION_REPEATABLE_READ, definition.getValue().getIsolationLevel());
+        verify(transactionManager, never()).commit(any());
+
+        // Handler zwrócił odpowiedź bez treści - połączenie wraca do puli przed zakończeniem żądania
+        interceptor.postHandle(request, response, handler("movies"), null);
+        verify(transactionManager).commit(any());
+        interceptor.afterCompletion(request, response, handler("movies"), null);
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void notModifiedEndsTransactionAndRollbackOnlyIsRolledBack() throws Exception {
+        String etag = etag(handler("movies"));
+        clearInvocations(transactionManager);
+
+        assertFalse(interceptor.preHandle(get(etag), new MockHttpServletResponse(), handler("movies")));
+        verify(transactionManager).commit(any());
+
+        MockHttpServletRequest request = get(null);
+        interceptor.preHandle(request, new MockHttpServletResponse(), handler("movies"));
+        TransactionStatus status = (TransactionStatus) request.getAttribute(HttpCacheInterceptor.TRANSACTION_ATTRIBUTE);
+        status.setRollbackOnly();
+        interceptor.afterCompletion(request, new MockHttpServletResponse(), handler("movies"), new IllegalStateException());
+        verify(transactionManager).rollback(status);
+    }
+
+    @Test
+    void bump_ChangesOnlyTagsOfThatAggregate() throws Exception {
+        String movies = etag(handler("movies"));
+        String screenings = etag(handler("screenings"));
+
+        committed.merge(Aggregate.SCREENINGS, 1L, Long::sum);
+
+        assertEquals(movies, etag(handler("movies")));
+        assertNotEquals(screenings, etag(handler("screenings")));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        assertTrue(interceptor.preHandle(get(screenings), response, handler("screenings")));
+        assertEquals(200, response.getStatus());
+        assertEquals("no-cache, public", response.getHeader(HttpHeaders.CACHE_CONTROL));
+    }
+
+    @Test
+    void binaryRepresentation_HasOwnTag() throws Exception {
+        String json = etag(handler("movies"));
+        MockHttpServletRequest request = get(null);
+        request.addHeader(HttpHeaders.ACCEPT, "application/cbor, application/json;q=0.5");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        interceptor.preHandle(request, response, handler("movies"));
+
+        assertNotEquals(json, response.getHeader(HttpHeaders.ETAG));
+        assertTrue(response.getHeader(HttpHeaders.ETAG).endsWith("-cbor\""));
+        assertEquals(HttpHeaders.ACCEPT, response.getHeader(HttpHeaders.VARY));
+    }
+
+    @Test
+    void precomputedJson_MissLeavesTagForAdviceThenHitWritesStoredBytes() throws Exception {
+        MockHttpServletRequest miss = get(null);
+        assertTrue(interceptor.preHandle(miss, new MockHttpServletResponse(), handler("catalog")));
+        String etag = (String) miss.getAttribute(HttpCacheInterceptor.ETAG_ATTRIBUTE);
+        String endpoint = (String) miss.getAttribute(HttpCacheInterceptor.ENDPOINT_ATTRIBUTE);
+        assertEquals("Endpoints.catalog", endpoint);
+        jsonCache.put(endpoint, etag, "[{\"id\":1}]".getBytes(StandardCharsets.UTF_8));
+
+        MockHttpServletResponse hit = new MockHttpServletResponse();
+        assertFalse(interceptor.preHandle(get(null), hit, handler("catalog")));
+        assertEquals(200, hit.getStatus());
+        assertEquals(MediaType.APPLICATION_JSON_VALUE, hit.getContentType());
+        assertEquals("[{\"id\":1}]", hit.getContentAsString());
+        assertEquals(etag, hit.getHeader(HttpHeaders.ETAG));
+
+        committed.merge(Aggregate.MOVIES, 1L, Long::sum);
+        MockHttpServletRequest stale = get(null);
+        assertTrue(interceptor.preHandle(stale, new MockHttpServletResponse(), handler("catalog")));
+        assertNotEquals(etag, stale.getAttribute(HttpCacheInterceptor.ETAG_ATTRIBUTE));
+    }
+
+    @Test
+    void precomputedJson_NotUsedForBinaryRepresentationOrUnmarkedEndpoint() throws Exception {
+        MockHttpServletRequest cbor = get(null);
+        cbor.addHeader(HttpHeaders.ACCEPT, "application/cbor");
+        assertTrue(interceptor.preHandle(cbor, new MockHttpServletResponse(), handler("catalog")));
+        assertNull(cbor.getAttribute(HttpCacheInterceptor.ETAG_ATTRIBUTE));
+
+        MockHttpServletRequest unmarked = get(null);
+        assertTrue(interceptor.preHandle(unmarked, new MockHttpServletResponse(), handler("movies")));
+        assertNull(unmarked.getAttribute(HttpCacheInterceptor.ETAG_ATTRIBUTE));
+    }
+
+    @Test
+    void unannotatedOrNonGetRequest_Untouched() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        assertTrue(interceptor.preHandle(get(null), response, handler("popular")));
+        assertTrue(interceptor.preHandle(new MockHttpServletRequest("PUT", "/api/movies/1"), response, handler("movies")));
+        assertTrue(response.getHeaderNames().isEmpty());
+        verifyNoInteractions(transactionManager, catalogVersions);
+    }
+
+    private String etag(HandlerMethod handler) throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        interceptor.preHandle(get(null), response, handler);
+        return response.getHeader(HttpHeaders.ETAG);
+    }
+
+    private static MockHttpServletRequest get(String ifNoneMatch) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/catalog");
+        if (ifNoneMatch != null) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return request;
+    }
+
+    private static HandlerMethod handler(String method) throws NoSuchMethodException {
+        return new HandlerMethod(new Endpoints(), Endpoints.class.getMethod(method));
+    }
+
+    static class Endpoints {
+
+        @HttpCached(value = Aggregate.MOVIES, policy = "movies")
+        public void movies() {
+        }
+
+        @HttpCached(value = {Aggregate.SCREENINGS, Aggregate.MOVIES}, policy = "screenings", timeDependent = true)
+        public void screenings() {
+        }
+
+        @HttpCached(value = Aggregate.MOVIES, policy = "movies", precomputedJson = true)
+        public void catalog() {
+        }
+
+        public void popular() {
+        }
+    }
+}
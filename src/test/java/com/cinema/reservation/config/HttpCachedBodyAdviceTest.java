@@ -0,0 +1,177 @@
+package com.cinema.reservation.config;
+
+import com.cinema.reservation.service.CatalogVersions.Aggregate;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.autoconfigure.http.HttpMessageConverters;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.cbor.MappingJackson2CborHttpMessageConverter;
+import org.springframework.http.converter.json.MappingJackson2HttpMessageConverter;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.http.server.ServletServerHttpResponse;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+class HttpCachedBodyAdviceTest {
+
+    private static final String ENDPOINT = "Endpoints.catalog";
+    private static final String ETAG = "W/\"3\"";
+
+    private final List<String> events = new ArrayList<>();
+    private PrecomputedJsonCache jsonCache;
+    private PlatformTransactionManager transactionManager;
+    private HttpCachedBodyAdvice advice;
+
+    @BeforeEach
+    void setUp() {
+        jsonCache = new PrecomputedJsonCache(new SimpleMeterRegistry(), 1024);
+        transactionManager = mock(PlatformTransactionManager.class);
+        doAnswer(invocation -> {
+            ((SimpleTransactionStatus) invocation.getArgument(0)).setCompleted();
+            events.add("commit");
+            return null;
+        }).when(transactionManager).commit(any());
+        doAnswer(invocation -> {
+            ((SimpleTransactionStatus) invocation.getArgument(0)).setCompleted();
+            events.add("rollback");
+            return null;
+        }).when(transactionManager).rollback(any());
+        HttpMessageConverters converters = new HttpMessageConverters(false, List.of(
+                new MappingJackson2HttpMessageConverter(new ObjectMapper()),
+                new MappingJackson2CborHttpMessageConverter(new CBORMapper())));
+        StaticListableBeanFactory beans = new StaticListableBeanFactory(Map.of("jsonCache", jsonCache,
+                "messageConverters", converters, "transactionManager", transactionManager));
+        advice = new HttpCachedBodyAdvice(beans.getBeanProvider(PrecomputedJsonCache.class),
+                beans.getBeanProvider(HttpMessageConverters.class), beans.getBeanProvider(PlatformTransactionManager.class));
+    }
+
+    @Test
+    void bodyBuiltInOpenSnapshot_StoredUnderItsTagAndWritten() throws Exception {
+        SimpleTransactionStatus snapshot = new SimpleTransactionStatus();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        Object written = write(request(snapshot), response, MappingJackson2HttpMessageConverter.class,
+                MediaType.APPLICATION_JSON);
+
+        assertNull(written);
+        assertEquals("[1,2]", response.getContentAsString());
+        assertEquals(5, response.getContentLength());
+        assertArrayEquals("[1,2]".getBytes(), jsonCache.get(ENDPOINT, ETAG));
+        assertTrue(snapshot.isCompleted());
+    }
+
+    @Test
+    void snapshotEndsAfterSerializationAndBeforeTheWrite() throws Exception {
+        SimpleTransactionStatus snapshot = new SimpleTransactionStatus();
+        MockHttpServletResponse response = new MockHttpServletResponse() {
+            @Override
+            public void flushBuffer() {
+                events.add("write");
+            }
+        };
+        // Getter odpalany przez Jacksona - tu zamiast leniwej kolekcji, która musi się wczytać w migawce
+        Object body = new Object() {
+            public String getHalls() {
+                events.add(snapshot.isCompleted() ? "serialized after end" : "serialized in snapshot");
+                return "Sala 1";
+            }
+        };
+
+        write(body, request(snapshot), response, MappingJackson2HttpMessageConverter.class, MediaType.APPLICATION_JSON);
+
+        assertEquals(List.of("serialized in snapshot", "commit", "write"), events);
+        verify(transactionManager, never()).rollback(any());
+    }
+
+    @Test
+    void binaryRepresentation_WrittenAndSnapshotEndedButNotStored() throws Exception {
+        SimpleTransactionStatus snapshot = new SimpleTransactionStatus();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertNull(write(request(snapshot), response, MappingJackson2CborHttpMessageConverter.class,
+                MediaType.APPLICATION_CBOR));
+
+        assertEquals(List.of(1, 2), new CBORMapper().readValue(response.getContentAsByteArray(), List.class));
+        assertEquals(MediaType.APPLICATION_CBOR_VALUE, response.getHeader(HttpHeaders.CONTENT_TYPE));
+        assertEquals(List.of("commit"), events);
+        assertNull(jsonCache.get(ENDPOINT, ETAG));
+    }
+
+    @Test
+    void rollbackOnlySnapshot_WrittenButNotStored() throws Exception {
+        SimpleTransactionStatus rollbackOnly = new SimpleTransactionStatus();
+        rollbackOnly.setRollbackOnly();
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        assertNull(write(request(rollbackOnly), response, MappingJackson2HttpMessageConverter.class,
+                MediaType.APPLICATION_JSON));
+
+        assertEquals("[1,2]", response.getContentAsString());
+        assertEquals(List.of("rollback"), events);
+        assertNull(jsonCache.get(ENDPOINT, ETAG));
+    }
+
+    @Test
+    void noOpenSnapshot_BodyPassedThroughToConverter() throws Exception {
+        SimpleTransactionStatus completed = new SimpleTransactionStatus();
+        completed.setCompleted();
+
+        assertEquals(List.of(1, 2), write(request(completed), new MockHttpServletResponse(),
+                MappingJackson2HttpMessageConverter.class, MediaType.APPLICATION_JSON));
+        assertEquals(List.of(1, 2), write(request(null), new MockHttpServletResponse(),
+                MappingJackson2HttpMessageConverter.class, MediaType.APPLICATION_JSON));
+        assertNull(jsonCache.get(ENDPOINT, ETAG));
+        verifyNoInteractions(transactionManager);
+    }
+
+    private Object write(MockHttpServletRequest request, MockHttpServletResponse response,
+                         Class<? extends HttpMessageConverter<?>> converterType, MediaType contentType) throws Exception {
+        return write(List.of(1, 2), request, response, converterType, contentType);
+    }
+
+    private Object write(Object body, MockHttpServletRequest request, MockHttpServletResponse response,
+                         Class<? extends HttpMessageConverter<?>> converterType, MediaType contentType) throws Exception {
+        MethodParameter returnType = new MethodParameter(Endpoints.class.getMethod("catalog"), -1);
+        assertTrue(advice.supports(returnType, converterType));
+        ServletServerHttpResponse serverResponse = new ServletServerHttpResponse(response);
+        Object written = advice.beforeBodyWrite(body, returnType, contentType, converterType,
+                new ServletServerHttpRequest(request), serverResponse);
+        serverResponse.flush();
+        return written;
+    }
+
+    private static MockHttpServletRequest request(SimpleTransactionStatus snapshot) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/catalog");
+        request.setAttribute(HttpCacheInterceptor.ETAG_ATTRIBUTE, ETAG);
+        request.setAttribute(HttpCacheInterceptor.ENDPOINT_ATTRIBUTE, ENDPOINT);
+        if (snapshot != null) {
+            request.setAttribute(HttpCacheInterceptor.TRANSACTION_ATTRIBUTE, snapshot);
+        }
+        return request;
+    }
+
+    static class Endpoints {
+
+        @HttpCached(value = Aggregate.MOVIES, policy = "movies", precomputedJson = true)
+        public Object catalog() {
+            return List.of(1, 2);
+        }
+    }
+}
@@ -0,0 +1,139 @@
+package com.cinema.reservation.config;
+
+import com.cinema.reservation.repository.IdempotencyRecordRepository;
+import com.cinema.reservation.service.IdempotencyService;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
+import jakarta.servlet.http.HttpServlet;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class IdempotencyFilterTest {
+
+    private IdempotencyFilter filter;
+    private AtomicInteger controllerCalls;
+
+    @BeforeEach
+    void setUp() {
+        IdempotencyService service = new IdempotencyService(mock(IdempotencyRecordRepository.class),
+                Duration.ofHours(1), Duration.ofMinutes(1), 100, false);
+        filter = new IdempotencyFilter(service);
+        controllerCalls = new AtomicInteger();
+    }
+
+    @Test
+    void retryWithSameKey_ReplaysOriginalResponse() throws Exception {
+        MockHttpServletResponse first = perform("key-1", "{\"screeningId\":1}", HttpServletResponse.SC_CREATED);
+        MockHttpServletResponse retry = perform("key-1", "{\"screeningId\":1}", HttpServletResponse.SC_CREATED);
+
+        assertEquals(1, controllerCalls.get());
+        assertEquals(201, retry.getStatus());
+        assertEquals(first.getContentAsString(), retry.getContentAsString());
+        assertEquals("true", retry.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+    }
+
+    @Test
+    void retryWithCborAccept_ReplaysBinaryBodyUnchanged() throws Exception {
+        byte[] cbor = new CBORMapper().writeValueAsBytes(Map.of("id", 1, "totalPrice", 64.5));
+        MockHttpServletResponse first = performBinary("key-1", cbor);
+        MockHttpServletResponse retry = performBinary("key-1", cbor);
+
+        assertEquals(1, controllerCalls.get());
+        assertEquals("true", retry.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertEquals("application/cbor", retry.getContentType());
+        assertArrayEquals(cbor, first.getContentAsByteArray());
+        assertArrayEquals(cbor, retry.getContentAsByteArray());
+    }
+
+    @Test
+    void sameKeyDifferentBody_ReturnsUnprocessableEntity() throws Exception {
+        perform("key-1", "{\"screeningId\":1}", HttpServletResponse.SC_CREATED);
+        MockHttpServletResponse response = perform("key-1", "{\"screeningId\":2}", HttpServletResponse.SC_CREATED);
+
+        assertEquals(422, response.getStatus());
+        assertEquals(1, controllerCalls.get());
+    }
+
+    @Test
+    void serverError_IsNotStored() throws Exception {
+        perform("key-1", "{}", HttpServletResponse.SC_INTERNAL_SERVER_ERROR);
+        MockHttpServletResponse retry = perform("key-1", "{}", HttpServletResponse.SC_CREATED);
+
+        assertEquals(2, controllerCalls.get());
+        assertEquals(201, retry.getStatus());
+    }
+
+    @Test
+    void requestWithoutKey_IsNotFiltered() throws Exception {
+        perform(null, "{}", HttpServletResponse.SC_CREATED);
+        perform(null, "{}", HttpServletResponse.SC_CREATED);
+
+        assertEquals(2, controllerCalls.get());
+    }
+
+    @Test
+    void blankKey_ReturnsBadRequest() throws Exception {
+        MockHttpServletResponse response = perform("  ", "{}", HttpServletResponse.SC_CREATED);
+
+        assertEquals(400, response.getStatus());
+        assertEquals(0, controllerCalls.get());
+    }
+
+    private MockHttpServletResponse perform(String key, String body, int status) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/reservations");
+        request.setContent(body.getBytes(StandardCharsets.UTF_8));
+        if (key != null) {
+            request.addHeader(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, key);
+        }
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        MockFilterChain chain = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                // Kontroler musi nadal móc odczytać body
+                String requestBody = new String(req.getInputStream().readAllBytes(), StandardCharsets.UTF_8);
+                resp.setStatus(status);
+                resp.setContentType("application/json");
+                resp.getWriter().write("{\"call\":" + controllerCalls.incrementAndGet() + ",\"echo\":" + requestBody + "}");
+            }
+        });
+
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+
+    private MockHttpServletResponse performBinary(String key, byte[] responseBody) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/api/reservations");
+        request.setContent("{\"screeningId\":1}".getBytes(StandardCharsets.UTF_8));
+        request.addHeader(IdempotencyFilter.IDEMPOTENCY_KEY_HEADER, key);
+        request.addHeader(HttpHeaders.ACCEPT, "application/cbor");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        MockFilterChain chain = new MockFilterChain(new HttpServlet() {
+            @Override
+            protected void service(HttpServletRequest req, HttpServletResponse resp) throws IOException {
+                controllerCalls.incrementAndGet();
+                resp.setStatus(HttpServletResponse.SC_CREATED);
+                resp.setContentType(req.getHeader(HttpHeaders.ACCEPT));
+                resp.getOutputStream().write(responseBody);
+            }
+        });
+
+        filter.doFilter(request, response, chain);
+        return response;
+    }
+}
@@ -0,0 +1,78 @@
+package com.cinema.reservation.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.LoggerContext;
+import ch.qos.logback.classic.spi.LoggingEvent;
+import ch.qos.logback.core.spi.FilterReply;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class LoggerRateLimitFilterTest {
+
+    private static final String RESERVATIONS = "com.cinema.reservation.service.ReservationService";
+    private static final String SCREENINGS = "com.cinema.reservation.service.ScreeningService";
+
+    private final LoggerContext context = new LoggerContext();
+
+    @Test
+    void infoEvents_LimitedPerLoggerAndSecond() {
+        LoggerRateLimitFilter filter = filter(2, "");
+        long suppressedBefore = LoggerRateLimitFilter.suppressedCount();
+
+        assertEquals(FilterReply.NEUTRAL, filter.decide(event(RESERVATIONS, Level.INFO, 1_000)));
+        assertEquals(FilterReply.NEUTRAL, filter.decide(event(RESERVATIONS, Level.INFO, 1_100)));
+        assertEquals(FilterReply.DENY, filter.decide(event(RESERVATIONS, Level.INFO, 1_200)));
+        // Inny logger ma własne okno
+        assertEquals(FilterReply.NEUTRAL, filter.decide(event(SCREENINGS, Level.INFO, 1_300)));
+        // Ostrzeżenia nie są limitowane
+        assertEquals(FilterReply.NEUTRAL, filter.decide(event(RESERVATIONS, Level.WARN, 1_400)));
+        // Nowa sekunda - nowe okno
+        assertEquals(FilterReply.NEUTRAL, filter.decide(event(RESERVATIONS, Level.INFO, 2_000)));
+
+        assertEquals(suppressedBefore + 1, LoggerRateLimitFilter.suppressedCount());
+    }
+
+    @Test
+    void overrides_LongestPrefixWins() {
+        LoggerRateLimitFilter filter = filter(1, "com.cinema.reservation=0, com.cinema.reservation.service.ScreeningService=2");
+
+        for (int i = 0; i < 5; i++) {
+            assertEquals(FilterReply.NEUTRAL, filter.decide(event(RESERVATIONS, Level.DEBUG, 1_000)));
+        }
+        assertEquals(FilterReply.NEUTRAL, filter.decide(event(SCREENINGS, Level.DEBUG, 1_000)));
+        assertEquals(FilterReply.NEUTRAL, filter.decide(event(SCREENINGS, Level.DEBUG, 1_000)));
+        assertEquals(FilterReply.DENY, filter.decide(event(SCREENINGS, Level.DEBUG, 1_000)));
+        // Prefiks musi kończyć się na granicy pakietu
+        assertEquals(FilterReply.NEUTRAL, filter.decide(event("com.cinema.reservationsX", Level.DEBUG, 1_000)));
+        assertEquals(FilterReply.DENY, filter.decide(event("com.cinema.reservationsX", Level.DEBUG, 1_000)));
+    }
+
+    @Test
+    void invalidOverride_ReportedAndIgnored() {
+        LoggerRateLimitFilter filter = filter(1, "org.hibernate=lots");
+
+        assertTrue(filter.isStarted());
+        assertFalse(context.getStatusManager().getCopyOfStatusList().isEmpty());
+        assertEquals(FilterReply.NEUTRAL, filter.decide(event("org.hibernate.SQL", Level.INFO, 1_000)));
+        assertEquals(FilterReply.DENY, filter.decide(event("org.hibernate.SQL", Level.INFO, 1_000)));
+    }
+
+    private LoggerRateLimitFilter filter(int eventsPerSecond, String overrides) {
+        LoggerRateLimitFilter filter = new LoggerRateLimitFilter();
+        filter.setContext(context);
+        filter.setEventsPerSecond(eventsPerSecond);
+        filter.setOverrides(overrides);
+        filter.start();
+        return filter;
+    }
+
+    private LoggingEvent event(String loggerName, Level level, long timestamp) {
+        LoggingEvent event = new LoggingEvent();
+        event.setLoggerName(loggerName);
+        event.setLevel(level);
+        event.setMessage("message");
+        event.setTimeStamp(timestamp);
+        return event;
+    }
+}
@@ -0,0 +1,34 @@
+package com.cinema.reservation.config;
+
+import com.cinema.reservation.dto.BootstrapFixtures;
+import com.cinema.reservation.dto.ReservationEvent;
+import com.cinema.reservation.entity.AdminUser;
+import com.cinema.reservation.entity.RegularUser;
+import net.ttddyy.dsproxy.proxy.ProxyJdbcObject;
+import org.junit.jupiter.api.Test;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.predicate.RuntimeHintsPredicates;
+
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class NativeHintsConfigTest {
+
+    private final RuntimeHints hints = new RuntimeHints();
+
+    @Test
+    void registersUserSubclassesAndJdbcProxies() {
+        new NativeHintsConfig.Hints().registerHints(hints, getClass().getClassLoader());
+
+        assertTrue(RuntimeHintsPredicates.reflection().onType(RegularUser.class).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(AdminUser.class).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(ReservationEvent.class).test(hints));
+        assertTrue(RuntimeHintsPredicates.reflection().onType(BootstrapFixtures.ScreeningFixture.class).test(hints));
+        assertTrue(RuntimeHintsPredicates.proxies().forInterfaces(Connection.class).test(hints));
+        assertTrue(RuntimeHintsPredicates.proxies().forInterfaces(ProxyJdbcObject.class, PreparedStatement.class).test(hints));
+        assertTrue(RuntimeHintsPredicates.proxies().forInterfaces(ProxyJdbcObject.class, ResultSet.class).test(hints));
+    }
+}
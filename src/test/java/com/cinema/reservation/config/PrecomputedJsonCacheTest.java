@@ -0,0 +1,51 @@
+package com.cinema.reservation.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PrecomputedJsonCacheTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private PrecomputedJsonCache cache;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new PrecomputedJsonCache(meterRegistry, 16);
+    }
+
+    @Test
+    void get_OnlyForTagTheEntryWasBuiltFor() {
+        byte[] json = bytes("[1,2,3]");
+        cache.put("MovieController.getAllMovies", "W/\"a-1\"", json);
+
+        assertSame(json, cache.get("MovieController.getAllMovies", "W/\"a-1\""));
+        assertNull(cache.get("MovieController.getAllMovies", "W/\"a-2\""));
+        assertNull(cache.get("CinemaController.getAllCinemas", "W/\"a-1\""));
+        assertEquals(1.0, meterRegistry.get("cinema.http.json-cache.requests").tag("result", "hit").counter().count());
+        assertEquals(2.0, meterRegistry.get("cinema.http.json-cache.requests").tag("result", "miss").counter().count());
+        assertEquals(7.0, meterRegistry.get("cinema.http.json-cache.bytes").gauge().value());
+    }
+
+    @Test
+    void put_NewTagReplacesEntryAndOversizedOneDropsIt() {
+        cache.put("ScreeningController.getUpcomingScreenings", "W/\"a-1\"", bytes("[]"));
+        cache.put("ScreeningController.getUpcomingScreenings", "W/\"a-2\"", bytes("[1]"));
+        assertNull(cache.get("ScreeningController.getUpcomingScreenings", "W/\"a-1\""));
+        assertNotNull(cache.get("ScreeningController.getUpcomingScreenings", "W/\"a-2\""));
+
+        cache.put("ScreeningController.getUpcomingScreenings", "W/\"a-3\"", bytes("[1,2,3,4,5,6,7,8,9]"));
+        assertNull(cache.get("ScreeningController.getUpcomingScreenings", "W/\"a-2\""));
+        assertNull(cache.get("ScreeningController.getUpcomingScreenings", "W/\"a-3\""));
+        assertEquals(0.0, meterRegistry.get("cinema.http.json-cache.bytes").gauge().value());
+    }
+
+    private static byte[] bytes(String json) {
+        return json.getBytes(StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,87 @@
+package com.cinema.reservation.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Two independent PostgreSQL containers stand in for primary and replica - told apart by database name.
+ * A standalone server reports pg_is_in_recovery() = false, so the lag query returns 0 for it.
+ */
+@Testcontainers
+class ReplicaRoutingDataSourceIntegrationTest {
+
+    @Container
+    static PostgreSQLContainer<?> primaryDb = new PostgreSQLContainer<>("postgres:15")
+            .withDatabaseName("cinema_primary");
+
+    @Container
+    static PostgreSQLContainer<?> replicaDb = new PostgreSQLContainer<>("postgres:15")
+            .withDatabaseName("cinema_replica");
+
+    private ReplicaRoutingDataSource routing;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @BeforeEach
+    void setUp() {
+        DriverManagerDataSource primary = dataSource(primaryDb);
+        routing = new ReplicaRoutingDataSource(primary, Map.of("replica-0", dataSource(replicaDb)),
+                Duration.ofSeconds(5));
+        routing.afterPropertiesSet();
+
+        LazyConnectionDataSourceProxy proxy = new LazyConnectionDataSourceProxy(primary);
+        proxy.setReadOnlyDataSource(routing);
+
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(proxy);
+        jdbcTemplate = new JdbcTemplate(proxy);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        if (!replicaDb.isRunning()) {
+            replicaDb.start();
+        }
+    }
+
+    @Test
+    void readOnlyTransaction_GoesToReplica_ReadWriteToPrimary() {
+        assertEquals(0.0, ReplicaRoutingDataSource.measureLagSeconds(dataSource(replicaDb)));
+        assertEquals("cinema_replica", currentDatabase(readOnly));
+        assertEquals("cinema_primary", currentDatabase(readWrite));
+    }
+
+    @Test
+    void unreachableReplica_ReadsFallBackToPrimary() {
+        replicaDb.stop();
+        routing.checkReplicas();
+
+        assertTrue(routing.healthyReplicas().isEmpty());
+        assertEquals("cinema_primary", currentDatabase(readOnly));
+    }
+
+    private String currentDatabase(TransactionTemplate template) {
+        return template.execute(status -> jdbcTemplate.queryForObject("SELECT current_database()", String.class));
+    }
+
+    private static DriverManagerDataSource dataSource(PostgreSQLContainer<?> container) {
+        return new DriverManagerDataSource(container.getJdbcUrl(), container.getUsername(), container.getPassword());
+    }
+}
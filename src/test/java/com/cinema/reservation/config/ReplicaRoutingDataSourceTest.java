@@ -0,0 +1,105 @@
+package com.cinema.reservation.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ReplicaRoutingDataSourceTest {
+
+    private DataSource primary;
+    private DataSource replicaA;
+    private DataSource replicaB;
+    private Map<DataSource, Double> lags;
+    private ReplicaRoutingDataSource routing;
+    private final Map<Connection, DataSource> connections = new HashMap<>();
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        primary = dataSource();
+        replicaA = dataSource();
+        replicaB = dataSource();
+        lags = new HashMap<>(Map.of(replicaA, 0.0, replicaB, 0.5));
+
+        Map<String, DataSource> replicas = new LinkedHashMap<>();
+        replicas.put("replica-0", replicaA);
+        replicas.put("replica-1", replicaB);
+        routing = new ReplicaRoutingDataSource(primary, replicas, Duration.ofSeconds(2), dataSource -> {
+            Double lag = lags.get(dataSource);
+            if (lag == null) {
+                throw new IllegalStateException("connection refused");
+            }
+            return lag;
+        });
+        routing.afterPropertiesSet();
+    }
+
+    @Test
+    void healthyReplicas_AreUsedRoundRobin() throws SQLException {
+        assertEquals(List.of("replica-0", "replica-1"), routing.healthyReplicas());
+        assertSame(replicaA, target());
+        assertSame(replicaB, target());
+        assertSame(replicaA, target());
+    }
+
+    @Test
+    void laggingReplica_IsSkippedUntilItCatchesUp() throws SQLException {
+        lags.put(replicaB, 30.0);
+        routing.checkReplicas();
+
+        assertEquals(List.of("replica-0"), routing.healthyReplicas());
+        assertSame(replicaA, target());
+        assertSame(replicaA, target());
+
+        lags.put(replicaB, 0.0);
+        routing.checkReplicas();
+        assertEquals(2, routing.healthyReplicas().size());
+    }
+
+    @Test
+    void noHealthyReplica_FallsBackToPrimary() throws SQLException {
+        lags.put(replicaA, 10.0);
+        lags.remove(replicaB);
+        routing.checkReplicas();
+
+        assertTrue(routing.healthyReplicas().isEmpty());
+        assertSame(primary, target());
+    }
+
+    @Test
+    void metrics_ExposeLagAndHealthyCount() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        routing.bindMetrics(registry);
+        lags.remove(replicaA);
+        routing.checkReplicas();
+
+        assertEquals(1.0, registry.get("cinema.datasource.replica.healthy").gauge().value());
+        assertEquals(0.5, registry.get("cinema.datasource.replica.lag").tag("replica", "replica-1").gauge().value());
+        assertTrue(Double.isNaN(registry.get("cinema.datasource.replica.lag").tag("replica", "replica-0").gauge().value()));
+    }
+
+    private DataSource target() throws SQLException {
+        Connection connection = routing.getConnection();
+        return connections.get(connection);
+    }
+
+    private DataSource dataSource() throws SQLException {
+        DataSource dataSource = mock(DataSource.class);
+        Connection connection = mock(Connection.class);
+        when(dataSource.getConnection()).thenReturn(connection);
+        connections.put(connection, dataSource);
+        return dataSource;
+    }
+}
@@ -0,0 +1,128 @@
+package com.cinema.reservation.config;
+
+import ch.qos.logback.classic.Level;
+import ch.qos.logback.classic.Logger;
+import ch.qos.logback.classic.spi.ILoggingEvent;
+import ch.qos.logback.core.read.ListAppender;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.slf4j.LoggerFactory;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SlowQueryLoggerTest {
+
+    private final Logger sqlLogger = (Logger) LoggerFactory.getLogger("com.cinema.reservation.sql");
+    private final ListAppender<ILoggingEvent> appender = new ListAppender<>();
+    private JdbcDataSource h2;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        appender.start();
+        sqlLogger.addAppender(appender);
+        h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:slow-query-" + System.nanoTime() + ";DB_CLOSE_DELAY=-1");
+        try (Connection connection = h2.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("CREATE TABLE seats (id INT PRIMARY KEY, label VARCHAR(100))");
+            statement.execute("CREATE TABLE users (id INT PRIMARY KEY, password VARCHAR(100))");
+            statement.execute("CREATE ALIAS SLEEP FOR \"java.lang.Thread.sleep(long)\"");
+        }
+    }
+
+    @AfterEach
+    void tearDown() {
+        sqlLogger.detachAppender(appender);
+    }
+
+    @Test
+    void fastStatements_NotLoggedWithoutSampling() throws Exception {
+        DataSource dataSource = proxied(new SlowQueryLogger(Duration.ofSeconds(5), 0, 64, List.of()));
+
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.executeUpdate("INSERT INTO seats VALUES (1, 'A1')");
+            try (ResultSet rs = statement.executeQuery("SELECT * FROM seats")) {
+                while (rs.next()) {
+                    rs.getInt(1);
+                }
+            }
+        }
+
+        assertTrue(appender.list.isEmpty());
+    }
+
+    @Test
+    void slowStatement_LoggedAsWarning() throws Exception {
+        DataSource dataSource = proxied(new SlowQueryLogger(Duration.ofMillis(20), 0, 64, List.of()));
+
+        try (Connection connection = dataSource.getConnection(); Statement statement = connection.createStatement()) {
+            statement.execute("CALL SLEEP(40)");
+        }
+
+        assertEquals(1, appender.list.size());
+        assertEquals(Level.WARN, appender.list.get(0).getLevel());
+        assertTrue(appender.list.get(0).getFormattedMessage().contains("CALL SLEEP(40)"));
+    }
+
+    @Test
+    void sampledQuery_LoggedOnCloseWithRowsAndParameters() throws Exception {
+        DataSource dataSource = proxied(new SlowQueryLogger(Duration.ofSeconds(5), 1.0, 8, List.of()));
+
+        try (Connection connection = dataSource.getConnection()) {
+            try (PreparedStatement insert = connection.prepareStatement("INSERT INTO seats VALUES (?, ?)")) {
+                for (int id = 1; id <= 3; id++) {
+                    insert.setInt(1, id);
+                    insert.setString(2, "a rather long seat label " + id);
+                    insert.addBatch();
+                }
+                insert.executeBatch();
+            }
+            try (PreparedStatement select = connection.prepareStatement("SELECT * FROM seats WHERE id >= ?")) {
+                select.setInt(1, 2);
+                try (ResultSet rs = select.executeQuery()) {
+                    while (rs.next()) {
+                        rs.getString(2);
+                    }
+                }
+            }
+        }
+
+        List<String> messages = appender.list.stream().map(ILoggingEvent::getFormattedMessage).toList();
+        assertEquals(2, messages.size());
+        assertTrue(messages.get(0).contains("rows=3"), messages.get(0));
+        assertTrue(messages.get(0).contains("[1=1, 2=a rather...] (+2 more in batch)"), messages.get(0));
+        assertTrue(messages.get(1).contains("rows=2"), messages.get(1));
+        assertTrue(messages.get(1).endsWith("[1=2]"), messages.get(1));
+        assertEquals(Level.INFO, appender.list.get(1).getLevel());
+    }
+
+    @Test
+    void redactedTable_ParametersHidden() throws Exception {
+        DataSource dataSource = proxied(new SlowQueryLogger(Duration.ofSeconds(5), 1.0, 64, List.of("users")));
+
+        try (Connection connection = dataSource.getConnection();
+             PreparedStatement insert = connection.prepareStatement("INSERT INTO users VALUES (?, ?)")) {
+            insert.setInt(1, 1);
+            insert.setString(2, "$2a$10$secret");
+            insert.executeUpdate();
+        }
+
+        String message = appender.list.get(0).getFormattedMessage();
+        assertTrue(message.endsWith("[redacted]"), message);
+        assertFalse(message.contains("secret"));
+    }
+
+    private DataSource proxied(SlowQueryLogger logger) {
+        return ProxyDataSourceBuilder.create(h2).listener(logger).proxyResultSet().methodListener(logger).build();
+    }
+}
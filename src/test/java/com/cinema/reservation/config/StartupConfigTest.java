@@ -0,0 +1,53 @@
+package com.cinema.reservation.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StartupConfigTest {
+
+    @Test
+    void enabled_MarksOnlyEndpointsAndNonCriticalPackagesLazy() {
+        DefaultListableBeanFactory beanFactory = beanFactory();
+
+        new StartupConfig.NonCriticalLazyInitPostProcessor(true, List.of("java.util.")).postProcessBeanFactory(beanFactory);
+
+        assertTrue(beanFactory.getBeanDefinition("statsEndpoint").isLazyInit());
+        assertTrue(beanFactory.getBeanDefinition("docs").isLazyInit());
+        assertFalse(beanFactory.getBeanDefinition("service").isLazyInit());
+    }
+
+    @Test
+    void disabled_LeavesContextEager() {
+        DefaultListableBeanFactory beanFactory = beanFactory();
+
+        new StartupConfig.NonCriticalLazyInitPostProcessor(false, List.of("java.util.")).postProcessBeanFactory(beanFactory);
+
+        for (String beanName : beanFactory.getBeanDefinitionNames()) {
+            assertFalse(beanFactory.getBeanDefinition(beanName).isLazyInit(), beanName);
+        }
+    }
+
+    private static DefaultListableBeanFactory beanFactory() {
+        DefaultListableBeanFactory beanFactory = new DefaultListableBeanFactory();
+        beanFactory.registerBeanDefinition("statsEndpoint", new RootBeanDefinition(StatsEndpoint.class));
+        beanFactory.registerBeanDefinition("docs", new RootBeanDefinition(java.util.ArrayList.class));
+        beanFactory.registerBeanDefinition("service", new RootBeanDefinition(Object.class));
+        return beanFactory;
+    }
+
+    @Endpoint(id = "stats")
+    static class StatsEndpoint {
+
+        @ReadOperation
+        public String stats() {
+            return "ok";
+        }
+    }
+}
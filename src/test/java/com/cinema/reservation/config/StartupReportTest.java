@@ -0,0 +1,74 @@
+package com.cinema.reservation.config;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.info.BuildProperties;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.web.context.support.ServletRequestHandledEvent;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class StartupReportTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final StartupReport report = new StartupReport(
+            new StaticListableBeanFactory().getBeanProvider(BuildProperties.class), new MockEnvironment(), meterRegistry, 2);
+
+    @Test
+    void slowestBeans_LongestInstantiationsFirst() throws Exception {
+        BufferingApplicationStartup startup = new BufferingApplicationStartup(16);
+        startup.startRecording();
+        instantiate(startup, "fast", 1);
+        instantiate(startup, "slow", 30);
+        instantiate(startup, "medium", 15);
+        startup.start("spring.context.refresh").end();
+
+        String slowest = report.slowestBeans(startup.getBufferedTimeline());
+
+        assertTrue(slowest.startsWith("slow="), slowest);
+        assertTrue(slowest.contains(", medium="), slowest);
+        assertFalse(slowest.contains("fast"), slowest);
+    }
+
+    @Test
+    void firstRequest_RecordedOnce() {
+        assertTrue(Double.isNaN(gauge()));
+
+        report.firstRequest(handled("/api/movies"));
+        double first = gauge();
+        report.firstRequest(handled("/api/cinemas"));
+
+        assertTrue(first > 0);
+        assertEquals(first, gauge());
+    }
+
+    @Test
+    void residentMemory_ReadFromProcOnLinux() {
+        double rss = meterRegistry.get("cinema.process.resident-memory").gauge().value();
+
+        if (System.getProperty("os.name").startsWith("Linux")) {
+            assertTrue(rss > 0, String.valueOf(rss));
+        } else {
+            assertTrue(Double.isNaN(rss));
+        }
+    }
+
+    private double gauge() {
+        return meterRegistry.get("cinema.startup.first-request").timeGauge().value(TimeUnit.MILLISECONDS);
+    }
+
+    private static void instantiate(BufferingApplicationStartup startup, String beanName, long millis) throws InterruptedException {
+        StartupStep step = startup.start("spring.beans.instantiate").tag("beanName", beanName);
+        Thread.sleep(millis);
+        step.end();
+    }
+
+    private static ServletRequestHandledEvent handled(String url) {
+        return new ServletRequestHandledEvent(new Object(), url, "127.0.0.1", "GET", "dispatcherServlet", null, null, 5);
+    }
+}
@@ -5,6 +5,7 @@ import com.cinema.reservation.entity.Movie;
 import com.cinema.reservation.entity.RegularUser;
 import com.cinema.reservation.repository.MovieRepository;
 import com.cinema.reservation.repository.UserRepository;
+import com.cinema.reservation.service.MovieService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -59,6 +60,9 @@ class MovieControllerIntegrationTest {
     @Autowired
     private MovieRepository movieRepository;
 
+    @Autowired
+    private MovieService movieService;
+
     @Autowired
     private PasswordEncoder passwordEncoder;
 
@@ -107,6 +111,8 @@ class MovieControllerIntegrationTest {
         testMovie.setReleaseDate(LocalDateTime.now().plusDays(30));
 
         movieRepository.save(testMovie);
+        // Zapis przez repozytorium omija indeks wyszukiwania - /search czyta tylko z niego
+        movieService.rebuildSearchIndex();
     }
 
     // ========== PUBLIC ENDPOINTS (No Auth Required) ==========
@@ -1,10 +1,14 @@
 package com.cinema.reservation.controller;
 
+import com.cinema.reservation.config.HttpCodecConfig;
 import com.cinema.reservation.config.SecurityConfig;
+import com.cinema.reservation.dto.MovieSuggestion;
 import com.cinema.reservation.entity.Movie;
 import com.cinema.reservation.security.CustomUserDetailsService;
 import com.cinema.reservation.service.MovieService;
+import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.databind.CBORMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -21,6 +25,8 @@ import java.util.List;
 import java.util.Optional;
 
 import static org.hamcrest.Matchers.*;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
@@ -29,7 +35,7 @@ import static org.springframework.test.web.servlet.request.MockMvcRequestBuilder
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(controllers = MovieController.class)
-@Import(SecurityConfig.class)
+@Import({SecurityConfig.class, HttpCodecConfig.class})
 class MovieControllerTest {
 
     @Autowired
@@ -100,6 +106,35 @@ class MovieControllerTest {
         verify(movieService).findById(1L);
     }
 
+    @Test
+    @WithMockUser
+    void getMovieById_CborAccepted_ReturnsBinaryRepresentation() throws Exception {
+        when(movieService.findById(1L)).thenReturn(Optional.of(testMovie));
+
+        byte[] body = mockMvc.perform(get("/api/movies/1").accept(MediaType.APPLICATION_CBOR))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_CBOR))
+                .andReturn().getResponse().getContentAsByteArray();
+
+        JsonNode movie = new CBORMapper().readTree(body);
+        assertEquals("Test Movie", movie.get("title").asText());
+        // Daty jak w JSON-ie - ten sam builder Boota
+        assertTrue(movie.get("releaseDate").isTextual());
+    }
+
+    @Test
+    @WithMockUser
+    void getAllMovies_SmileAccepted_JsonStillDefault() throws Exception {
+        when(movieService.findAll()).thenReturn(List.of(testMovie));
+
+        mockMvc.perform(get("/api/movies").accept(HttpCodecConfig.APPLICATION_SMILE))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(HttpCodecConfig.APPLICATION_SMILE));
+        mockMvc.perform(get("/api/movies").accept(MediaType.ALL))
+                .andExpect(status().isOk())
+                .andExpect(content().contentType(MediaType.APPLICATION_JSON));
+    }
+
     @Test
     @WithMockUser
     void getMovieById_NonExistingMovie_ReturnsNotFound() throws Exception {
@@ -241,6 +276,37 @@ class MovieControllerTest {
         verify(movieService).searchByTitle("Test");
     }
 
+    @Test
+    void fullTextSearch_WithoutAuthentication_ReturnsRankedMovies() throws Exception {
+        when(movieService.search("nolan", 20)).thenReturn(List.of(testMovie2, testMovie));
+
+        mockMvc.perform(get("/api/movies/search/full-text").param("q", "nolan"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].title", is("Another Movie")));
+
+        verify(movieService).search("nolan", 20);
+    }
+
+    @Test
+    void typeahead_ReturnsSuggestions() throws Exception {
+        MovieSuggestion suggestion = MovieSuggestion.builder()
+                .id(1L)
+                .title("Test Movie")
+                .director("Test Director")
+                .score(3.0)
+                .build();
+        when(movieService.typeahead("tes", 5)).thenReturn(List.of(suggestion));
+
+        mockMvc.perform(get("/api/movies/typeahead").param("q", "tes").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(1)))
+                .andExpect(jsonPath("$[0].id", is(1)))
+                .andExpect(jsonPath("$[0].title", is("Test Movie")));
+
+        verify(movieService).typeahead("tes", 5);
+    }
+
     @Test
     @WithMockUser
     void getMoviesByGenre_ReturnsMoviesOfGenre() throws Exception {
@@ -253,6 +319,18 @@ class MovieControllerTest {
         verify(movieService).findByGenre(Movie.Genre.ACTION);
     }
 
+    @Test
+    void getPopularMovies_ReturnsRankedMovies() throws Exception {
+        when(movieService.findMostPopularMovies(3)).thenReturn(List.of(testMovie2, testMovie));
+
+        mockMvc.perform(get("/api/movies/popular").param("limit", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$", hasSize(2)))
+                .andExpect(jsonPath("$[0].title", is("Another Movie")));
+
+        verify(movieService).findMostPopularMovies(3);
+    }
+
     @Test
     void getAllMovies_WithoutAuthentication_ReturnsOk() throws Exception {
         // Bez logowania lista jest publiczna
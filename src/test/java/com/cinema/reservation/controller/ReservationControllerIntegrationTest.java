@@ -4,6 +4,7 @@ import com.cinema.reservation.dto.ReservationCreateRequest;
 import com.cinema.reservation.dto.SeatRequest;
 import com.cinema.reservation.entity.*;
 import com.cinema.reservation.repository.*;
+import com.cinema.reservation.service.ConfirmationCodeGenerator;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -57,6 +58,9 @@ class ReservationControllerIntegrationTest {
     @Autowired
     private UserRepository userRepository;
 
+    @Autowired
+    private ConfirmationCodeGenerator confirmationCodeGenerator;
+
     @Autowired
     private MovieRepository movieRepository;
 
@@ -181,7 +185,7 @@ class ReservationControllerIntegrationTest {
         testReservation.setScreening(testScreening);
         testReservation.setTotalPrice(new BigDecimal("31.00"));
         testReservation.setStatus(Reservation.ReservationStatus.PENDING);
-        // Don't set confirmationCode - let system generate it
+        testReservation.setConfirmationCode(confirmationCodeGenerator.next());
         reservationRepository.save(testReservation);
     }
 
@@ -1,10 +1,12 @@
 package com.cinema.reservation.controller;
 
 import com.cinema.reservation.config.SecurityConfig;
+import com.cinema.reservation.dto.ArchivedReservation;
 import com.cinema.reservation.dto.ReservationCreateRequest;
 import com.cinema.reservation.dto.SeatRequest;
 import com.cinema.reservation.entity.Reservation;
 import com.cinema.reservation.security.CustomUserDetailsService;
+import com.cinema.reservation.service.ReservationArchiveService;
 import com.cinema.reservation.service.ReservationService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -37,6 +39,7 @@ class ReservationControllerTest {
     @Autowired private ObjectMapper objectMapper;
 
     @MockitoBean private ReservationService reservationService;
+    @MockitoBean private ReservationArchiveService reservationArchiveService;
     @MockitoBean @SuppressWarnings("unused") private CustomUserDetailsService customUserDetailsService;
 
     private Reservation reservation;
@@ -141,6 +144,29 @@ class ReservationControllerTest {
                 .andExpect(status().isNotFound());
     }
 
+    @Test
+    @WithMockUser
+    void getArchivedReservationByCode_Existing_ReturnsArchivedReservation() throws Exception {
+        when(reservationArchiveService.findByConfirmationCode("code123"))
+                .thenReturn(Optional.of(ArchivedReservation.builder()
+                        .id(7L).confirmationCode("code123").seats(List.of("A1", "A2")).build()));
+
+        mockMvc.perform(get("/api/reservations/archive/confirmation/code123"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id", is(7)))
+                .andExpect(jsonPath("$.seats", hasSize(2)));
+    }
+
+    @Test
+    @WithMockUser
+    void getArchivedReservationByCode_NonExisting_ReturnsNotFound() throws Exception {
+        when(reservationArchiveService.findByConfirmationCode("none"))
+                .thenReturn(Optional.empty());
+
+        mockMvc.perform(get("/api/reservations/archive/confirmation/none"))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     @WithMockUser
     void getUserReservations_ReturnsList() throws Exception {
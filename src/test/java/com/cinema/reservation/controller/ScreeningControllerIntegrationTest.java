@@ -10,6 +10,7 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.crypto.password.PasswordEncoder;
 import org.springframework.test.context.DynamicPropertyRegistry;
@@ -206,10 +207,25 @@ class ScreeningControllerIntegrationTest {
                 .andExpect(content().contentType(MediaType.APPLICATION_JSON))
                 .andExpect(jsonPath("$.id", is(upcomingScreening.getId().intValue())))
                 // USUNIĘTO: .andExpect(jsonPath("$.movie.title", is("Test Movie")))
-                .andExpect(jsonPath("$.availableSeats", is(80)))
+                .andExpect(jsonPath("$.availableSeats").doesNotExist())
                 .andExpect(jsonPath("$.price", is(15.5)));
     }
 
+    @Test
+    void shouldGetScreeningAvailabilityWithoutAuthentication() throws Exception {
+        mockMvc.perform(get("/api/screenings/" + upcomingScreening.getId() + "/availability"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(HttpHeaders.ETAG))
+                .andExpect(jsonPath("$.screeningId", is(upcomingScreening.getId().intValue())))
+                .andExpect(jsonPath("$.availableSeats", is(80)));
+    }
+
+    @Test
+    void shouldReturn404ForAvailabilityOfNonExistentScreening() throws Exception {
+        mockMvc.perform(get("/api/screenings/999/availability"))
+                .andExpect(status().isNotFound());
+    }
+
     @Test
     void shouldReturn404ForNonExistentScreening() throws Exception {
         mockMvc.perform(get("/api/screenings/999"))
@@ -245,16 +261,17 @@ class ScreeningControllerIntegrationTest {
     void shouldGetUpcomingScreeningsWithoutAuth() throws Exception {
         mockMvc.perform(get("/api/screenings/upcoming"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$", hasSize(greaterThanOrEqualTo(1)))) // Accept 1 or more upcoming screenings
-                .andExpect(jsonPath("$[*].availableSeats", everyItem(greaterThanOrEqualTo(0))));
+                // Wyprzedany seans też jest w harmonogramie - miejsca sprawdza się przez /availability
+                .andExpect(jsonPath("$[*].id", containsInAnyOrder(upcomingScreening.getId().intValue(),
+                        fullScreening.getId().intValue())));
     }
 
     @Test
     void shouldGetAvailableScreeningsWithDefaultMinSeats() throws Exception {
         mockMvc.perform(get("/api/screenings/available"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$", hasSize(greaterThanOrEqualTo(1)))) // Should exclude fullScreening (0 seats)
-                .andExpect(jsonPath("$[*].availableSeats", everyItem(greaterThan(0))));
+                .andExpect(jsonPath("$", hasSize(greaterThanOrEqualTo(1))))
+                .andExpect(jsonPath("$[*].id", not(hasItem(fullScreening.getId().intValue()))));
     }
 
     @Test
@@ -262,8 +279,7 @@ class ScreeningControllerIntegrationTest {
         mockMvc.perform(get("/api/screenings/available")
                         .param("minSeats", "50"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$", hasSize(greaterThanOrEqualTo(1)))) // Should include screenings with 50+ seats
-                .andExpect(jsonPath("$[*].availableSeats", everyItem(greaterThanOrEqualTo(50))));
+                .andExpect(jsonPath("$[*].id", contains(upcomingScreening.getId().intValue())));
     }
 
     @Test
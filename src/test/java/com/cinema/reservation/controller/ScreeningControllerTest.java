@@ -1,7 +1,13 @@
 package com.cinema.reservation.controller;
 
 import com.cinema.reservation.config.SecurityConfig;
+import com.cinema.reservation.dto.ScreeningAvailability;
 import com.cinema.reservation.dto.ScreeningCreateRequest;
+import com.cinema.reservation.dto.ScreeningSearchCriteria;
+import com.cinema.reservation.dto.ScreeningSearchRow;
+import com.cinema.reservation.entity.CinemaHall;
+import com.cinema.reservation.entity.Movie;
+import com.cinema.reservation.exception.InvalidScreeningDataException;
 import com.cinema.reservation.entity.Screening;
 import com.cinema.reservation.security.CustomUserDetailsService;
 import com.cinema.reservation.service.ScreeningService;
@@ -12,12 +18,16 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
 import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
@@ -25,6 +35,7 @@ import java.util.Optional;
 
 import static org.hamcrest.Matchers.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
@@ -108,13 +119,23 @@ class ScreeningControllerTest {
 
     @Test
     void getUpcomingScreenings_ReturnsList() throws Exception {
-        when(screeningService.findAvailableScreenings()).thenReturn(Arrays.asList(screening1));
+        when(screeningService.findUpcomingScreenings()).thenReturn(Arrays.asList(screening1));
 
         mockMvc.perform(get("/api/screenings/upcoming"))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$", hasSize(1)));
 
-        verify(screeningService).findAvailableScreenings();
+        verify(screeningService).findUpcomingScreenings();
+    }
+
+    @Test
+    void getScreeningAvailability_ReturnsSeatCount() throws Exception {
+        when(screeningService.findAvailability(1L)).thenReturn(Optional.of(new ScreeningAvailability(1L, 42)));
+
+        mockMvc.perform(get("/api/screenings/1/availability"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.screeningId", is(1)))
+                .andExpect(jsonPath("$.availableSeats", is(42)));
     }
 
     @Test
@@ -268,4 +289,44 @@ class ScreeningControllerTest {
         mockMvc.perform(delete("/api/screenings/99").with(csrf()))
                 .andExpect(status().isNotFound());
     }
-}
\ No newline at end of file
+
+    @Test
+    void searchScreenings_WithoutAuth_ReturnsPagedRows() throws Exception {
+        ScreeningSearchRow row = new ScreeningSearchRow(10L, 1L, "Dune", Movie.Genre.SCI_FI, 1L, "Cinema City",
+                "Warszawa", 3L, "IMAX 1", CinemaHall.HallType.IMAX,
+                LocalDateTime.now().plusDays(1), LocalDateTime.now().plusDays(1).plusHours(3),
+                new BigDecimal("35.00"), 42);
+        when(screeningService.search(any(ScreeningSearchCriteria.class), any(Pageable.class)))
+                .thenReturn(new PageImpl<>(List.of(row), PageRequest.of(0, 5), 1));
+
+        mockMvc.perform(get("/api/screenings/search")
+                        .param("city", "Warszawa")
+                        .param("date", LocalDate.now().plusDays(1).toString())
+                        .param("hallType", "IMAX")
+                        .param("genre", "SCI_FI")
+                        .param("maxPrice", "40")
+                        .param("minSeats", "2")
+                        .param("size", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content", hasSize(1)))
+                .andExpect(jsonPath("$.content[0].screeningId", is(10)))
+                .andExpect(jsonPath("$.content[0].hallType", is("IMAX")))
+                .andExpect(jsonPath("$.page.totalElements", is(1)));
+
+        verify(screeningService).search(
+                argThat(criteria -> "Warszawa".equals(criteria.getCity())
+                        && criteria.getHallType() == CinemaHall.HallType.IMAX
+                        && criteria.getMinSeats() == 2
+                        && criteria.getDate() != null),
+                eq(PageRequest.of(0, 5)));
+    }
+
+    @Test
+    void searchScreenings_InvalidCriteria_ReturnsBadRequest() throws Exception {
+        when(screeningService.search(any(ScreeningSearchCriteria.class), any(Pageable.class)))
+                .thenThrow(new InvalidScreeningDataException("Max price must be positive"));
+
+        mockMvc.perform(get("/api/screenings/search").param("maxPrice", "-1"))
+                .andExpect(status().isBadRequest());
+    }
+}
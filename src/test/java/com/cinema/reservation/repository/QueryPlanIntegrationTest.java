@@ -0,0 +1,236 @@
+package com.cinema.reservation.repository;
+
+import com.cinema.reservation.dto.ScreeningSearchCriteria;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.AnnotatedBeanDefinition;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.ClassPathScanningCandidateComponentProvider;
+import org.springframework.core.type.filter.AssignableTypeFilter;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.repository.Repository;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.context.jdbc.Sql;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
+import java.sql.ResultSet;
+import java.sql.Statement;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs every query method declared in the repository package against the Flyway schema on PostgreSQL with a
+ * seeded dataset, records the SQL Hibernate issues and EXPLAINs its generic plan with sequential scans disabled.
+ * A query fails when its plan still has a Seq Scan, or an index scan without an index condition that filters
+ * rows - the planner's fallback when no index matches the predicate.
+ */
+@SpringBootTest
+@Testcontainers
+@Sql(scripts = "/db/query-plan-seed.sql", executionPhase = Sql.ExecutionPhase.BEFORE_TEST_CLASS)
+class QueryPlanIntegrationTest {
+
+    private static final String REPOSITORY_PACKAGE = QueryPlanIntegrationTest.class.getPackageName();
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15")
+            .withDatabaseName("cinema_test")
+            .withUsername("test_user")
+            .withPassword("test_password");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.flyway.enabled", () -> "true");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "validate");
+        registry.add("spring.jpa.show-sql", () -> "false");
+        registry.add("spring.jpa.properties.hibernate.session_factory.statement_inspector",
+                RecordingStatementInspector.class::getName);
+        registry.add("cinema.outbox.relay.enabled", () -> "false");
+    }
+
+    @Autowired
+    private ApplicationContext context;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    static Stream<Arguments> repositoryQueries() {
+        ClassPathScanningCandidateComponentProvider scanner = new ClassPathScanningCandidateComponentProvider(false) {
+            @Override
+            protected boolean isCandidateComponent(AnnotatedBeanDefinition beanDefinition) {
+                return beanDefinition.getMetadata().isInterface();
+            }
+        };
+        scanner.addIncludeFilter(new AssignableTypeFilter(Repository.class));
+
+        List<Arguments> queries = new ArrayList<>();
+        scanner.findCandidateComponents(REPOSITORY_PACKAGE).stream()
+                .map(definition -> loadClass(definition.getBeanClassName()))
+                .sorted(Comparator.comparing(Class::getSimpleName))
+                .forEach(repository -> Arrays.stream(repository.getMethods())
+                        // Tylko metody zadeklarowane w naszym pakiecie (też fragmenty), bez CRUD z Spring Data
+                        .filter(method -> method.getDeclaringClass().getPackageName().equals(REPOSITORY_PACKAGE))
+                        .filter(method -> !Modifier.isStatic(method.getModifiers()))
+                        .sorted(Comparator.comparing(Method::toGenericString))
+                        .forEach(method -> queries.add(Arguments.of(
+                                repository.getSimpleName() + "." + method.getName()
+                                        + Arrays.toString(method.getParameterTypes()).replace("class ", ""),
+                                repository, method))));
+        return queries.stream();
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("repositoryQueries")
+    void repositoryQuery_UsesIndexes(String name, Class<?> repositoryType, Method method) {
+        Object repository = context.getBean(repositoryType);
+        Object[] arguments = Arrays.stream(method.getParameterTypes()).map(QueryPlanIntegrationTest::sampleValue).toArray();
+
+        RecordingStatementInspector.start();
+        List<String> statements;
+        try {
+            // Metody @Modifying też tylko planujemy - zmiany wycofujemy, żeby nie psuć danych kolejnym testom
+            new TransactionTemplate(transactionManager).executeWithoutResult(status -> {
+                try {
+                    method.invoke(repository, arguments);
+                } catch (ReflectiveOperationException e) {
+                    throw new IllegalStateException(name + " failed", e);
+                }
+                status.setRollbackOnly();
+            });
+        } finally {
+            statements = RecordingStatementInspector.stop();
+        }
+
+        assertFalse(statements.isEmpty(), name + " issued no SQL");
+        for (String sql : statements) {
+            List<String> violations = new ArrayList<>();
+            collectViolations(explain(sql).get(0).get("Plan"), violations);
+            assertTrue(violations.isEmpty(), name + " scans without an index: " + violations + "\n" + sql);
+        }
+    }
+
+    private JsonNode explain(String sql) {
+        PreparedSql prepared = numberParameters(sql);
+        String plan = jdbcTemplate.execute((ConnectionCallback<String>) connection -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("SET enable_seqscan = off");
+                statement.execute("SET plan_cache_mode = force_generic_plan");
+                statement.execute("PREPARE plan_check AS " + prepared.sql());
+                try (ResultSet rs = statement.executeQuery("EXPLAIN (FORMAT JSON) EXECUTE plan_check"
+                        + (prepared.parameters() > 0
+                        ? "(" + String.join(", ", Collections.nCopies(prepared.parameters(), "NULL")) + ")" : ""))) {
+                    rs.next();
+                    return rs.getString(1);
+                } finally {
+                    statement.execute("DEALLOCATE plan_check");
+                    statement.execute("RESET plan_cache_mode");
+                    statement.execute("RESET enable_seqscan");
+                }
+            }
+        });
+        try {
+            return objectMapper.readTree(plan);
+        } catch (Exception e) {
+            throw new IllegalStateException("Unreadable plan: " + plan, e);
+        }
+    }
+
+    private static void collectViolations(JsonNode plan, List<String> violations) {
+        String type = plan.path("Node Type").asText();
+        String relation = plan.path("Relation Name").asText();
+        if ("Seq Scan".equals(type)) {
+            violations.add("Seq Scan on " + relation);
+        } else if (("Index Scan".equals(type) || "Index Only Scan".equals(type))
+                && !plan.has("Index Cond") && plan.has("Filter")) {
+            violations.add("full " + type + " on " + relation + " filtering " + plan.get("Filter").asText());
+        }
+        plan.path("Plans").forEach(child -> collectViolations(child, violations));
+    }
+
+    // JDBC "?" -> "$n" dla PREPARE; znaki zapytania w literałach zostają nietknięte
+    static PreparedSql numberParameters(String sql) {
+        StringBuilder numbered = new StringBuilder(sql.length() + 16);
+        boolean inLiteral = false;
+        int parameters = 0;
+        for (char c : sql.toCharArray()) {
+            if (c == '\'') {
+                inLiteral = !inLiteral;
+            }
+            if (c == '?' && !inLiteral) {
+                numbered.append('$').append(++parameters);
+            } else {
+                numbered.append(c);
+            }
+        }
+        return new PreparedSql(numbered.toString(), parameters);
+    }
+
+    private static Object sampleValue(Class<?> type) {
+        if (type == Long.class || type == long.class) {
+            return 1L;
+        }
+        if (type == Integer.class || type == int.class) {
+            return 2;
+        }
+        if (type == Double.class || type == double.class) {
+            return 7.5;
+        }
+        if (type == String.class) {
+            return "cinema";
+        }
+        if (type == LocalDateTime.class) {
+            return LocalDateTime.now().minusDays(1);
+        }
+        if (type == Pageable.class) {
+            // Druga strona - Spring Data wykona też zapytanie COUNT
+            return PageRequest.of(1, 10);
+        }
+        if (type == ScreeningSearchCriteria.class) {
+            return ScreeningSearchCriteria.builder().city("Krakow").minSeats(1).build();
+        }
+        if (type.isEnum()) {
+            return type.getEnumConstants()[0];
+        }
+        throw new IllegalArgumentException("No sample value for " + type.getName());
+    }
+
+    private static Class<?> loadClass(String className) {
+        try {
+            return Class.forName(className);
+        } catch (ClassNotFoundException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    record PreparedSql(String sql, int parameters) {
+    }
+}
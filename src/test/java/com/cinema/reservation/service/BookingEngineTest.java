@@ -0,0 +1,186 @@
+package com.cinema.reservation.service;
+
+import com.cinema.reservation.dto.ReservationCreateRequest;
+import com.cinema.reservation.dto.SeatRequest;
+import com.cinema.reservation.entity.Reservation;
+import com.cinema.reservation.exception.InvalidReservationDataException;
+import com.cinema.reservation.exception.ScreeningBusyException;
+import com.cinema.reservation.exception.ScreeningNotFoundException;
+import com.cinema.reservation.exception.SeatNotAvailableException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class BookingEngineTest {
+
+    private ReservationBatchWriter batchWriter;
+    private BookingEngine engine;
+
+    @BeforeEach
+    void setUp() {
+        batchWriter = mock(ReservationBatchWriter.class);
+        when(batchWriter.loadSeatMap(1L))
+                .thenReturn(Optional.of(new ReservationBatchWriter.SeatMap(3, 4, new boolean[12])));
+        when(batchWriter.persist(anyList())).thenAnswer(invocation -> {
+            List<ReservationBatchWriter.Booking> bookings = invocation.getArgument(0);
+            return bookings.stream()
+                    .map(booking -> new ReservationBatchWriter.Outcome(reservationFor(booking), null))
+                    .toList();
+        });
+
+        engine = engine(BookingEngine.MODE_RING_BUFFER);
+        engine.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        engine.stop();
+    }
+
+    @Test
+    void submit_ExplicitSeats_PersistedByWriter() {
+        Reservation reservation = engine.submit(request(new SeatRequest(1, 1), new SeatRequest(1, 2)));
+
+        assertEquals(2, reservation.getTotalPrice().intValue());
+        verify(batchWriter).persist(argThat(bookings -> bookings.size() == 1
+                && bookings.get(0).seats().size() == 2 && bookings.get(0).userId().equals(7L)));
+    }
+
+    @Test
+    void submit_SeatTakenInMemory_RejectedWithoutReloading() {
+        engine.submit(request(new SeatRequest(2, 3)));
+
+        assertThrows(SeatNotAvailableException.class, () -> engine.submit(request(new SeatRequest(2, 3))));
+        verify(batchWriter, times(1)).loadSeatMap(1L);
+        verify(batchWriter, times(1)).persist(anyList());
+    }
+
+    @Test
+    void submit_WriterRejects_SeatsReleasedAndMapReloaded() {
+        when(batchWriter.persist(anyList()))
+                .thenReturn(List.of(new ReservationBatchWriter.Outcome(null, new SeatNotAvailableException("taken"))))
+                .thenAnswer(invocation -> List.of(new ReservationBatchWriter.Outcome(
+                        reservationFor(invocation.<List<ReservationBatchWriter.Booking>>getArgument(0).get(0)), null)));
+
+        assertThrows(SeatNotAvailableException.class, () -> engine.submit(request(new SeatRequest(1, 1))));
+        assertNotNull(engine.submit(request(new SeatRequest(1, 1))));
+
+        verify(batchWriter, times(2)).loadSeatMap(1L);
+    }
+
+    @Test
+    void submit_BestAvailable_AllocatedFromSeatMap() {
+        ReservationCreateRequest request = new ReservationCreateRequest(7L, 1L, null, 3);
+
+        engine.submit(request);
+
+        verify(batchWriter).persist(argThat(bookings -> bookings.get(0).seats().size() == 3
+                && bookings.get(0).seats().stream().map(SeatRequest::getRowNumber).distinct().count() == 1));
+    }
+
+    @Test
+    void submit_SeatOutsideHall_ThrowsException() {
+        assertThrows(InvalidReservationDataException.class, () -> engine.submit(request(new SeatRequest(4, 1))));
+        assertThrows(SeatNotAvailableException.class,
+                () -> engine.submit(request(new SeatRequest(1, 1), new SeatRequest(1, 1))));
+        verify(batchWriter, never()).persist(anyList());
+    }
+
+    @Test
+    void submit_UnknownScreening_ThrowsException() {
+        when(batchWriter.loadSeatMap(9L)).thenReturn(Optional.empty());
+
+        assertThrows(ScreeningNotFoundException.class,
+                () -> engine.submit(new ReservationCreateRequest(7L, 9L, List.of(new SeatRequest(1, 1)))));
+    }
+
+    @Test
+    void idleShard_ParksWithoutTimeoutAndWakesOnSubmit() throws InterruptedException {
+        Thread shard = Thread.getAllStackTraces().keySet().stream()
+                .filter(thread -> thread.getName().equals("booking-shard-0"))
+                .findFirst().orElseThrow();
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (shard.getState() != Thread.State.WAITING && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+
+        assertEquals(Thread.State.WAITING, shard.getState());
+        assertNotNull(engine.submit(request(new SeatRequest(3, 4))));
+    }
+
+    @Test
+    void submit_TimeoutWhileQueued_WithdrawnButClaimedBookingStillAwaited() throws Exception {
+        CountDownLatch writerBusy = new CountDownLatch(1);
+        CountDownLatch releaseWriter = new CountDownLatch(1);
+        when(batchWriter.persist(anyList())).thenAnswer(invocation -> {
+            writerBusy.countDown();
+            releaseWriter.await();
+            List<ReservationBatchWriter.Booking> bookings = invocation.getArgument(0);
+            return bookings.stream()
+                    .map(booking -> new ReservationBatchWriter.Outcome(reservationFor(booking), null))
+                    .toList();
+        });
+        BookingEngine impatient = new BookingEngine(batchWriter, new SeatAllocator(), new SimpleMeterRegistry(),
+                BookingEngine.MODE_RING_BUFFER, 1, 64, 16, 8, Duration.ofMillis(200));
+        impatient.start();
+        ExecutorService caller = Executors.newSingleThreadExecutor();
+        try {
+            Future<Reservation> claimed = caller.submit(() -> impatient.submit(request(new SeatRequest(1, 1))));
+            assertTrue(writerBusy.await(5, TimeUnit.SECONDS));
+
+            // Druga rezerwacja czeka w kolejce za zajętym writerem - po czasie zostaje wycofana
+            assertThrows(ScreeningBusyException.class, () -> impatient.submit(request(new SeatRequest(1, 2))));
+            Thread.sleep(300);
+            releaseWriter.countDown();
+
+            // Pierwsza była już u writera - klient dostaje wynik mimo przekroczenia czasu
+            assertNotNull(claimed.get(5, TimeUnit.SECONDS));
+            impatient.stop();
+            verify(batchWriter, times(1)).persist(anyList());
+        } finally {
+            releaseWriter.countDown();
+            caller.shutdownNow();
+            impatient.stop();
+        }
+    }
+
+    @Test
+    void synchronousMode_EngineDisabled() {
+        BookingEngine synchronous = engine(BookingEngine.MODE_SYNCHRONOUS);
+        synchronous.start();
+
+        assertFalse(synchronous.isEnabled());
+        assertThrows(IllegalStateException.class, () -> synchronous.submit(request(new SeatRequest(1, 1))));
+        assertThrows(IllegalArgumentException.class, () -> engine("disruptor"));
+    }
+
+    private BookingEngine engine(String mode) {
+        return new BookingEngine(batchWriter, new SeatAllocator(), new SimpleMeterRegistry(),
+                mode, 2, 64, 16, 8, Duration.ofSeconds(5));
+    }
+
+    private ReservationCreateRequest request(SeatRequest... seats) {
+        return new ReservationCreateRequest(7L, 1L, List.of(seats));
+    }
+
+    private Reservation reservationFor(ReservationBatchWriter.Booking booking) {
+        Reservation reservation = new Reservation();
+        reservation.setTotalPrice(BigDecimal.valueOf(booking.seats().size()));
+        return reservation;
+    }
+}
@@ -0,0 +1,79 @@
+package com.cinema.reservation.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BookingRingBufferTest {
+
+    @Test
+    void capacity_RoundedUpToPowerOfTwo() {
+        assertEquals(8, new BookingRingBuffer<Integer>(5).capacity());
+        assertEquals(8, new BookingRingBuffer<Integer>(8).capacity());
+        assertThrows(IllegalArgumentException.class, () -> new BookingRingBuffer<Integer>(1));
+    }
+
+    @Test
+    void offer_Full_RejectsUntilDrained() {
+        BookingRingBuffer<Integer> ring = new BookingRingBuffer<>(4);
+        for (int i = 0; i < 4; i++) {
+            assertTrue(ring.offer(i));
+        }
+        assertFalse(ring.offer(4));
+        assertEquals(4, ring.size());
+
+        List<Integer> drained = new ArrayList<>();
+        assertEquals(2, ring.drainTo(drained::add, 2));
+        assertTrue(ring.offer(4));
+        assertTrue(ring.offer(5));
+        assertEquals(4, ring.drainTo(drained::add, 10));
+
+        assertEquals(List.of(0, 1, 2, 3, 4, 5), drained);
+        assertTrue(ring.isEmpty());
+    }
+
+    @Test
+    void offer_ConcurrentProducers_EveryElementDeliveredOnce() throws Exception {
+        int producers = 4;
+        int perProducer = 20_000;
+        BookingRingBuffer<Integer> ring = new BookingRingBuffer<>(256);
+        ExecutorService executor = Executors.newFixedThreadPool(producers);
+        CountDownLatch start = new CountDownLatch(1);
+
+        try {
+            for (int p = 0; p < producers; p++) {
+                int base = p * perProducer;
+                executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < perProducer; i++) {
+                        while (!ring.offer(base + i)) {
+                            Thread.onSpinWait();
+                        }
+                    }
+                    return null;
+                });
+            }
+            start.countDown();
+
+            Set<Integer> seen = new HashSet<>();
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(20);
+            while (seen.size() < producers * perProducer && System.nanoTime() < deadline) {
+                ring.drainTo(value -> assertTrue(seen.add(value), "duplicate " + value), 64);
+            }
+
+            assertEquals(producers * perProducer, seen.size());
+            assertTrue(ring.isEmpty());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
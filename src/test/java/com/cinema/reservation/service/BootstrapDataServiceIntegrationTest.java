@@ -0,0 +1,141 @@
+package com.cinema.reservation.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ByteArrayResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Fixture and default-account loading against the Flyway schema: the upserts and the bootstrap_fixtures
+ * claim are PostgreSQL SQL, so a second run over the same data has to be a no-op on a real database.
+ */
+@SpringBootTest
+@Testcontainers
+class BootstrapDataServiceIntegrationTest {
+
+    private static final String FIXTURES = """
+            {
+              "cinemas": [
+                {"name": "Luna", "address": "Marszałkowska 28", "halls": [
+                  {"name": "Sala 1", "rows": 10, "seatsPerRow": 12, "hallType": "STANDARD"},
+                  {"name": "IMAX", "rows": 15, "seatsPerRow": 20, "hallType": "IMAX"}]},
+                {"name": "Pod Baranami", "address": "Rynek Główny 27", "halls": [
+                  {"name": "Sala 1", "rows": 8, "seatsPerRow": 10}]}
+              ],
+              "movies": [
+                {"title": "Diuna", "durationMinutes": 155, "genre": "SCI_FI", "director": "Denis Villeneuve"}
+              ],
+              "screenings": [
+                {"movie": "Diuna", "cinema": "Luna", "hall": "IMAX", "startTime": "2030-01-10T18:00:00", "price": 32.00},
+                {"movie": "Diuna", "cinema": "Pod Baranami", "hall": "Sala 1", "startTime": "2030-01-11T17:30:00", "price": 24.50}
+              ]
+            }
+            """;
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15")
+            .withDatabaseName("cinema_test")
+            .withUsername("test_user")
+            .withPassword("test_password");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.flyway.enabled", () -> "true");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+        registry.add("cinema.bootstrap.enabled", () -> "false");
+        registry.add("cinema.bootstrap.fixtures.batch-size", () -> "2");
+        registry.add("cinema.outbox.relay.enabled", () -> "false");
+        registry.add("cinema.partitions.maintenance.enabled", () -> "false");
+    }
+
+    @Autowired
+    private BootstrapDataService bootstrapDataService;
+
+    @Autowired
+    private MovieService movieService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("TRUNCATE bootstrap_fixtures, screenings, cinema_halls, cinemas, movies, users CASCADE");
+    }
+
+    @Test
+    void loadFixtures_LoadedTwice_RowsWrittenOnceWithResolvedReferences() {
+        assertEquals(2, bootstrapDataService.loadFixtures(fixtures("staging.json", FIXTURES)));
+        assertEquals(0, bootstrapDataService.loadFixtures(fixtures("staging.json", FIXTURES)));
+
+        assertEquals(2, count("cinemas"));
+        assertEquals(3, count("cinema_halls"));
+        assertEquals(1, count("movies"));
+        assertEquals(2, count("screenings"));
+        assertEquals(1, count("bootstrap_fixtures"));
+
+        // Seans wskazuje salę i film po nazwach - tu sprawdzane już jako klucze obce
+        Map<String, Object> imax = jdbcTemplate.queryForMap("SELECT s.end_time, s.available_seats, m.title "
+                + "FROM screenings s JOIN cinema_halls h ON h.id = s.hall_id JOIN cinemas c ON c.id = h.cinema_id "
+                + "JOIN movies m ON m.id = s.movie_id WHERE c.name = 'Luna' AND h.name = 'IMAX'");
+        assertEquals(Timestamp.valueOf(LocalDateTime.of(2030, 1, 10, 20, 35)), imax.get("end_time"));
+        assertEquals(300, imax.get("available_seats"));
+        assertEquals("Diuna", imax.get("title"));
+
+        assertEquals(1, movieService.search("Diuna", 5).size());
+    }
+
+    @Test
+    void loadFixtures_InvalidFile_NothingWritten() {
+        String broken = FIXTURES.replace("\"hall\": \"IMAX\"", "\"hall\": \"Sala 7\"");
+
+        assertThrows(IllegalArgumentException.class,
+                () -> bootstrapDataService.loadFixtures(fixtures("broken.json", broken)));
+
+        assertEquals(0, count("cinemas"));
+        assertEquals(0, count("movies"));
+        assertEquals(0, count("bootstrap_fixtures"));
+    }
+
+    @Test
+    void createDefaultUsers_RunTwice_AccountsCreatedOnce() {
+        assertEquals(BootstrapDataService.DEFAULT_USERS.size(), bootstrapDataService.createDefaultUsers());
+        String adminPassword = jdbcTemplate.queryForObject(
+                "SELECT password FROM users WHERE email = 'admin@cinema.com'", String.class);
+
+        assertEquals(0, bootstrapDataService.createDefaultUsers());
+
+        assertEquals(BootstrapDataService.DEFAULT_USERS.size(), count("users"));
+        assertEquals(adminPassword, jdbcTemplate.queryForObject(
+                "SELECT password FROM users WHERE email = 'admin@cinema.com'", String.class));
+    }
+
+    private int count(String table) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + table, Integer.class);
+    }
+
+    private static ByteArrayResource fixtures(String name, String json) {
+        return new ByteArrayResource(json.getBytes(StandardCharsets.UTF_8), name) {
+            @Override
+            public String getFilename() {
+                return name;
+            }
+        };
+    }
+}
@@ -0,0 +1,73 @@
+package com.cinema.reservation.service;
+
+import com.cinema.reservation.dto.BootstrapFixtures;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Fixture validation only - loading and idempotency run against PostgreSQL in
+ * {@link BootstrapDataServiceIntegrationTest}.
+ */
+class BootstrapDataServiceTest {
+
+    private static final String FIXTURES = """
+            {
+              "cinemas": [
+                {"name": "Luna", "address": "Marszałkowska 28", "halls": [
+                  {"name": "Sala 1", "rows": 10, "seatsPerRow": 12, "hallType": "STANDARD"},
+                  {"name": "IMAX", "rows": 15, "seatsPerRow": 20, "hallType": "IMAX"}]},
+                {"name": "Pod Baranami", "address": "Rynek Główny 27", "halls": [
+                  {"name": "Sala 1", "rows": 8, "seatsPerRow": 10}]}
+              ],
+              "movies": [
+                {"title": "Diuna", "durationMinutes": 155, "genre": "SCI_FI", "director": "Denis Villeneuve"}
+              ],
+              "screenings": [
+                {"movie": "Diuna", "cinema": "Luna", "hall": "IMAX", "startTime": "2030-01-10T18:00:00", "price": 32.00},
+                {"movie": "Diuna", "cinema": "Pod Baranami", "hall": "Sala 1", "startTime": "2030-01-11T17:30:00", "price": 24.50}
+              ]
+            }
+            """;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+
+    @Test
+    void validate_ValidFile_Accepted() throws Exception {
+        BootstrapFixtures fixtures = objectMapper.readValue(FIXTURES, BootstrapFixtures.class);
+
+        assertDoesNotThrow(() -> BootstrapDataService.validate(fixtures, "fixtures"));
+    }
+
+    @Test
+    void validate_InvalidFile_AllProblemsReportedWithTheirPlace() throws Exception {
+        BootstrapFixtures fixtures = objectMapper.readValue(FIXTURES
+                .replace("\"hall\": \"IMAX\"", "\"hall\": \"Sala 7\"")
+                .replace("\"durationMinutes\": 155, ", "")
+                .replace("\"seatsPerRow\": 10}", "\"seatsPerRow\": 0}"), BootstrapFixtures.class);
+
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> BootstrapDataService.validate(fixtures, "fixtures"));
+
+        assertTrue(error.getMessage().contains("cinemas[1].halls[0] 'Pod Baranami/Sala 1': Total seats must be positive"),
+                error.getMessage());
+        assertTrue(error.getMessage().contains("movies[0] 'Diuna': Movie duration must be positive"), error.getMessage());
+        assertTrue(error.getMessage().contains("in Luna/Sala 7 at 2030-01-10T18:00): hall not in the file"),
+                error.getMessage());
+    }
+
+    @Test
+    void validate_OverlappingScreeningsInOneHall_Rejected() throws Exception {
+        BootstrapFixtures fixtures = objectMapper.readValue(FIXTURES
+                .replace("\"startTime\": \"2030-01-11T17:30:00\"", "\"startTime\": \"2030-01-10T20:00:00\"")
+                .replace("\"cinema\": \"Pod Baranami\", \"hall\": \"Sala 1\"", "\"cinema\": \"Luna\", \"hall\": \"IMAX\""),
+                BootstrapFixtures.class);
+
+        IllegalArgumentException error = assertThrows(IllegalArgumentException.class,
+                () -> BootstrapDataService.validate(fixtures, "fixtures"));
+
+        assertTrue(error.getMessage().contains("screenings[1] ('Diuna' in Luna/IMAX at 2030-01-10T20:00): overlaps "
+                + "screenings[0]"), error.getMessage());
+    }
+}
@@ -0,0 +1,76 @@
+package com.cinema.reservation.service;
+
+import com.cinema.reservation.entity.Cinema;
+import com.cinema.reservation.entity.CinemaHall;
+import com.cinema.reservation.entity.Movie;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.Cache;
+import org.hibernate.SessionFactory;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.Map;
+
+import static org.mockito.Mockito.*;
+
+class CatalogSyncTest {
+
+    private final CatalogVersions catalogVersions = mock(CatalogVersions.class);
+    private final MovieService movieService = mock(MovieService.class);
+    private final EntityManagerFactory entityManagerFactory = mock(EntityManagerFactory.class);
+    private final Cache cache = mock(Cache.class);
+    private final CatalogSync catalogSync = new CatalogSync(catalogVersions, movieService, entityManagerFactory);
+
+    @BeforeEach
+    void setUp() {
+        SessionFactory sessionFactory = mock(SessionFactory.class);
+        when(entityManagerFactory.unwrap(SessionFactory.class)).thenReturn(sessionFactory);
+        when(sessionFactory.getCache()).thenReturn(cache);
+    }
+
+    @Test
+    void sync_RebuildsSearchIndexOnlyWhenMoviesVersionChanged() {
+        when(catalogVersions.read()).thenReturn(versions(3, 2, 7), versions(3, 2, 8), versions(4, 2, 9));
+
+        catalogSync.sync();
+        catalogSync.sync();
+        verify(movieService, times(1)).rebuildSearchIndex();
+        verify(cache, times(1)).evictEntityData(Movie.class);
+
+        catalogSync.sync();
+        verify(movieService, times(2)).rebuildSearchIndex();
+        verify(cache, times(2)).evictEntityData(Movie.class);
+    }
+
+    @Test
+    void sync_CinemasChangedElsewhere_EvictsCinemaRegionsAndQueryCacheOnly() {
+        when(catalogVersions.read()).thenReturn(versions(3, 2, 7), versions(3, 5, 7));
+        catalogSync.sync();
+        clearInvocations(cache, movieService);
+
+        catalogSync.sync();
+
+        verify(cache).evictEntityData(Cinema.class);
+        verify(cache).evictEntityData(CinemaHall.class);
+        verify(cache).evictCollectionData(Cinema.class.getName() + ".halls");
+        verify(cache).evictQueryRegions();
+        verify(cache, never()).evictEntityData(Movie.class);
+        verifyNoInteractions(movieService);
+    }
+
+    @Test
+    void sync_NothingChanged_LeavesCacheAlone() {
+        when(catalogVersions.read()).thenReturn(versions(3, 2, 7), versions(3, 2, 7));
+        catalogSync.sync();
+        clearInvocations(cache, entityManagerFactory);
+
+        catalogSync.sync();
+
+        verifyNoInteractions(cache, entityManagerFactory);
+    }
+
+    private static CatalogVersions.Versions versions(long movies, long cinemas, long screenings) {
+        return new CatalogVersions.Versions(Map.of(CatalogVersions.Aggregate.MOVIES, movies,
+                CatalogVersions.Aggregate.CINEMAS, cinemas, CatalogVersions.Aggregate.SCREENINGS, screenings), Map.of());
+    }
+}
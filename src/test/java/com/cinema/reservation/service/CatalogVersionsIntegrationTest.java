@@ -0,0 +1,133 @@
+package com.cinema.reservation.service;
+
+import com.cinema.reservation.service.CatalogVersions.Aggregate;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * A second CatalogVersions over the same table stands in for another application node.
+ */
+@SpringBootTest
+@Testcontainers
+class CatalogVersionsIntegrationTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15")
+            .withDatabaseName("cinema_test")
+            .withUsername("test_user")
+            .withPassword("test_password");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "create-drop");
+        registry.add("spring.flyway.enabled", () -> "false");
+    }
+
+    @Autowired
+    private CatalogVersions catalogVersions;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM catalog_versions");
+        transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Test
+    void committedBumpVisibleToOtherNode_RolledBackBumpNot() {
+        CatalogVersions otherNode = new CatalogVersions(jdbcTemplate);
+
+        transactionTemplate.executeWithoutResult(status -> catalogVersions.bump(Aggregate.MOVIES));
+        transactionTemplate.executeWithoutResult(status -> {
+            catalogVersions.bump(Aggregate.MOVIES);
+            status.setRollbackOnly();
+        });
+
+        CatalogVersions.Versions versions = otherNode.read();
+        assertEquals(1, versions.version(Aggregate.MOVIES));
+        assertTrue(versions.lastModified(Aggregate.MOVIES) > 0);
+        assertEquals(0, versions.version(Aggregate.CINEMAS));
+    }
+
+    @Test
+    void snapshotReader_KeepsVersionItStartedWith() {
+        catalogVersions.bump(Aggregate.SCREENINGS);
+        TransactionTemplate snapshot = new TransactionTemplate(transactionManager);
+        snapshot.setReadOnly(true);
+        snapshot.setIsolationLevel(TransactionDefinition.ISOLATION_REPEATABLE_READ);
+
+        long[] seen = snapshot.execute(status -> {
+            long before = catalogVersions.read().version(Aggregate.SCREENINGS);
+            transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+            transactionTemplate.executeWithoutResult(inner -> catalogVersions.bump(Aggregate.SCREENINGS));
+            return new long[]{before, catalogVersions.read().version(Aggregate.SCREENINGS)};
+        });
+
+        assertEquals(1, seen[0]);
+        assertEquals(1, seen[1]);
+        assertEquals(2, catalogVersions.read().version(Aggregate.SCREENINGS));
+    }
+
+    @Test
+    void concurrentBumps_NoneLost() throws Exception {
+        int threads = 8;
+        int bumpsPerThread = 25;
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                results.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < bumpsPerThread; i++) {
+                        transactionTemplate.executeWithoutResult(status -> {
+                            catalogVersions.bump(Aggregate.SCREENINGS);
+                            catalogVersions.bump(Aggregate.MOVIES);
+                        });
+                    }
+                    return null;
+                }));
+            }
+            start.countDown();
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+
+        CatalogVersions.Versions versions = catalogVersions.read();
+        assertEquals(threads * bumpsPerThread, versions.version(Aggregate.SCREENINGS));
+        assertEquals(threads * bumpsPerThread, versions.version(Aggregate.MOVIES));
+    }
+}
@@ -0,0 +1,90 @@
+package com.cinema.reservation.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.ResultSet;
+import java.sql.Timestamp;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class CatalogVersionsTest {
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final CatalogVersions catalogVersions = new CatalogVersions(jdbcTemplate);
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void bumpOutsideTransaction_WrittenImmediately() {
+        catalogVersions.bump(CatalogVersions.Aggregate.MOVIES);
+
+        verify(jdbcTemplate).update(startsWith("INSERT INTO catalog_versions"), eq("MOVIES"), anyInt(), any(Timestamp.class));
+    }
+
+    @Test
+    void bumpInTransaction_WrittenOnceBeforeCommitInFixedOrderOnOneStripe() {
+        TransactionSynchronizationManager.initSynchronization();
+        catalogVersions.bump(CatalogVersions.Aggregate.SCREENINGS);
+        catalogVersions.bump(CatalogVersions.Aggregate.MOVIES);
+        catalogVersions.bump(CatalogVersions.Aggregate.SCREENINGS);
+        verifyNoInteractions(jdbcTemplate);
+        assertEquals(1, TransactionSynchronizationManager.getSynchronizations().size());
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(s -> s.beforeCommit(false));
+
+        InOrder inOrder = inOrder(jdbcTemplate);
+        inOrder.verify(jdbcTemplate).update(anyString(), eq("MOVIES"), anyInt(), any(Timestamp.class));
+        inOrder.verify(jdbcTemplate).update(anyString(), eq("SCREENINGS"), anyInt(), any(Timestamp.class));
+        verify(jdbcTemplate, times(2)).update(anyString(), anyString(), anyInt(), any(Timestamp.class));
+    }
+
+    @Test
+    void bumpInRolledBackTransaction_NeverWritten() {
+        TransactionSynchronizationManager.initSynchronization();
+        catalogVersions.bump(CatalogVersions.Aggregate.CINEMAS);
+
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(s -> s.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void read_SumsStripesPerAggregateAndSkipsUnknownNames() throws Exception {
+        doAnswer(invocation -> {
+            RowCallbackHandler handler = invocation.getArgument(1);
+            handler.processRow(row("MOVIES", 7, 1_000));
+            handler.processRow(row("RETIRED", 3, 2_000));
+            return null;
+        }).when(jdbcTemplate).query(startsWith("SELECT aggregate, SUM(version)"), any(RowCallbackHandler.class));
+
+        CatalogVersions.Versions versions = catalogVersions.read();
+
+        assertEquals(7, versions.version(CatalogVersions.Aggregate.MOVIES));
+        assertEquals(1_000, versions.lastModified(CatalogVersions.Aggregate.MOVIES));
+        assertEquals(0, versions.version(CatalogVersions.Aggregate.CINEMAS));
+        assertEquals(0, versions.lastModified(CatalogVersions.Aggregate.CINEMAS));
+        assertEquals(1, versions.versions().size());
+    }
+
+    private static ResultSet row(String aggregate, long version, long updatedAt) throws Exception {
+        ResultSet rs = mock(ResultSet.class);
+        when(rs.getString("aggregate")).thenReturn(aggregate);
+        when(rs.getLong("version")).thenReturn(version);
+        when(rs.getTimestamp("updated_at")).thenReturn(new Timestamp(updatedAt));
+        return rs;
+    }
+}
@@ -32,6 +32,9 @@ class CinemaServiceTest {
     @Mock
     private CinemaHallRepository cinemaHallRepository;
 
+    @Mock
+    private CatalogVersions catalogVersions;
+
     @InjectMocks
     private CinemaService cinemaService;
 
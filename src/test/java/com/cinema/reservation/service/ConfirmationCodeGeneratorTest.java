@@ -0,0 +1,104 @@
+package com.cinema.reservation.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConfirmationCodeGeneratorTest {
+
+    private final ConfirmationCodeGenerator generator = new ConfirmationCodeGenerator(7, "test-secret");
+
+    @Test
+    void next_ProducesWellFormedCodes() {
+        String code = generator.next();
+
+        assertEquals(ConfirmationCodeGenerator.CODE_LENGTH, code.length());
+        assertTrue(code.matches("[0-9A-HJKMNP-TV-Z]{13}[0-9A-HJKMNP-TV-Z*~$=U]"));
+        assertTrue(ConfirmationCodeGenerator.isWellFormed(code));
+    }
+
+    @Test
+    void next_IsUniqueUnderConcurrency() throws Exception {
+        Set<String> codes = ConcurrentHashMap.newKeySet();
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                futures.add(executor.submit(() -> {
+                    for (int i = 0; i < 20_000; i++) {
+                        codes.add(generator.next());
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertEquals(160_000, codes.size());
+    }
+
+    @Test
+    void next_ConsecutiveCodesDoNotShareStructure() {
+        String first = generator.next();
+        String second = generator.next();
+
+        // Po permutacji kolejne kody różnią się na wielu pozycjach, nie tylko na końcu
+        int differences = 0;
+        for (int i = 0; i < first.length(); i++) {
+            if (first.charAt(i) != second.charAt(i)) {
+                differences++;
+            }
+        }
+        assertTrue(differences > 4);
+    }
+
+    @Test
+    void differentSecrets_ProduceDifferentCodes() {
+        Set<String> codes = new HashSet<>();
+        codes.add(new ConfirmationCodeGenerator(1, "a").next());
+        codes.add(new ConfirmationCodeGenerator(1, "b").next());
+
+        assertEquals(2, codes.size());
+    }
+
+    @Test
+    void isWellFormed_RejectsTyposAndWrongLength() {
+        String code = generator.next();
+        char replacement = code.charAt(5) == '2' ? '3' : '2';
+        String mistyped = code.substring(0, 5) + replacement + code.substring(6);
+
+        assertFalse(ConfirmationCodeGenerator.isWellFormed(mistyped));
+        assertFalse(ConfirmationCodeGenerator.isWellFormed(code.substring(1)));
+        assertFalse(ConfirmationCodeGenerator.isWellFormed(null));
+        assertFalse(ConfirmationCodeGenerator.isWellFormed("RES1700000000000123"));
+    }
+
+    @Test
+    void normalize_MapsAmbiguousCharacters() {
+        assertEquals("0A11", ConfirmationCodeGenerator.normalize(" oaIl "));
+    }
+
+    @Test
+    void constructor_InvalidNodeId_ThrowsException() {
+        assertThrows(IllegalArgumentException.class, () -> new ConfirmationCodeGenerator(1024, "x"));
+    }
+
+    @Test
+    void constructor_MissingNodeIdOrSecret_FailsInsteadOfRandomDefault() {
+        assertThrows(IllegalArgumentException.class, () -> new ConfirmationCodeGenerator(-1, "secret"));
+        assertThrows(IllegalArgumentException.class, () -> new ConfirmationCodeGenerator(3, ""));
+        assertThrows(IllegalArgumentException.class, () -> new ConfirmationCodeGenerator(3, "  "));
+    }
+}
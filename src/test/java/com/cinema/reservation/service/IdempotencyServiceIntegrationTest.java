@@ -0,0 +1,154 @@
+package com.cinema.reservation.service;
+
+import com.cinema.reservation.entity.IdempotencyRecord;
+import com.cinema.reservation.repository.IdempotencyRecordRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Several service instances over one idempotency_keys table stand in for several application nodes, each
+ * with its own local store.
+ */
+@SpringBootTest
+@Testcontainers
+class IdempotencyServiceIntegrationTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15")
+            .withDatabaseName("cinema_test")
+            .withUsername("test_user")
+            .withPassword("test_password");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "create-drop");
+        registry.add("spring.flyway.enabled", () -> "false");
+    }
+
+    private static final int NODES = 8;
+
+    @Autowired
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    @BeforeEach
+    void setUp() {
+        idempotencyRecordRepository.deleteAll();
+    }
+
+    private IdempotencyService node() {
+        return new IdempotencyService(idempotencyRecordRepository, Duration.ofHours(1), Duration.ofMinutes(1), 100, true);
+    }
+
+    @Test
+    void concurrentClaimsOnDifferentNodes_ExactlyOneWins() throws Exception {
+        List<IdempotencyService> nodes = new ArrayList<>();
+        for (int i = 0; i < NODES; i++) {
+            nodes.add(node());
+        }
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(NODES);
+        try {
+            List<Future<IdempotencyService.Outcome>> outcomes = new ArrayList<>();
+            for (IdempotencyService node : nodes) {
+                outcomes.add(executor.submit(() -> {
+                    start.await();
+                    return node.claim("user:key-1", "fp").outcome();
+                }));
+            }
+            start.countDown();
+
+            int claimed = 0;
+            for (Future<IdempotencyService.Outcome> outcome : outcomes) {
+                IdempotencyService.Outcome result = outcome.get();
+                if (result == IdempotencyService.Outcome.CLAIMED) {
+                    claimed++;
+                } else {
+                    assertEquals(IdempotencyService.Outcome.IN_PROGRESS, result);
+                }
+            }
+            assertEquals(1, claimed);
+            assertEquals(1, idempotencyRecordRepository.count());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void completedOnOneNode_ReplayedOnAnother() {
+        IdempotencyService first = node();
+        IdempotencyService second = node();
+
+        assertEquals(IdempotencyService.Outcome.CLAIMED, first.claim("user:key-1", "fp").outcome());
+        first.complete("user:key-1", "fp", 201, "application/json", "{\"id\":1}".getBytes());
+
+        IdempotencyService.Claim replay = second.claim("user:key-1", "fp");
+        assertEquals(IdempotencyService.Outcome.REPLAY, replay.outcome());
+        assertArrayEquals("{\"id\":1}".getBytes(), replay.record().getResponseBody());
+    }
+
+    @Test
+    void binaryResponse_ReplayedByteForByteOnAnotherNode() {
+        IdempotencyService first = node();
+        IdempotencyService second = node();
+        // Mapa CBOR {"id": 1} - 0xA1 nie jest poprawnym UTF-8
+        byte[] cbor = {(byte) 0xA1, 0x62, 0x69, 0x64, 0x01};
+
+        first.claim("user:key-1", "fp");
+        first.complete("user:key-1", "fp", 201, "application/cbor", cbor);
+
+        IdempotencyService.Claim replay = second.claim("user:key-1", "fp");
+        assertEquals(IdempotencyService.Outcome.REPLAY, replay.outcome());
+        assertEquals("application/cbor", replay.record().getResponseContentType());
+        assertArrayEquals(cbor, replay.record().getResponseBody());
+    }
+
+    @Test
+    void inProgressRowOfCrashedNode_TakenOverAfterLeaseNotTtl() {
+        LocalDateTime claimedAt = LocalDateTime.now().minusMinutes(2);
+        idempotencyRecordRepository.save(new IdempotencyRecord("user:key-1", "fp", IdempotencyRecord.Status.IN_PROGRESS,
+                null, null, null, claimedAt, claimedAt.plusMinutes(1)));
+        IdempotencyService node = node();
+
+        assertEquals(IdempotencyService.Outcome.CLAIMED, node.claim("user:key-1", "fp").outcome());
+        LocalDateTime leaseEnd = idempotencyRecordRepository.findById("user:key-1").orElseThrow().getExpiresAt();
+        assertTrue(leaseEnd.isBefore(LocalDateTime.now().plusMinutes(2)), leaseEnd.toString());
+
+        node.complete("user:key-1", "fp", 201, "application/json", "{}".getBytes());
+        LocalDateTime completedUntil = idempotencyRecordRepository.findById("user:key-1").orElseThrow().getExpiresAt();
+        assertTrue(completedUntil.isAfter(LocalDateTime.now().plusMinutes(50)), completedUntil.toString());
+    }
+
+    @Test
+    void expiredRow_IsTakenOverByNextClaim() {
+        LocalDateTime past = LocalDateTime.now().minusHours(2);
+        idempotencyRecordRepository.save(new IdempotencyRecord("user:key-1", "old", IdempotencyRecord.Status.COMPLETED,
+                201, "application/json", "{}".getBytes(), past, past.plusHours(1)));
+        IdempotencyService node = node();
+
+        assertEquals(IdempotencyService.Outcome.CLAIMED, node.claim("user:key-1", "fp").outcome());
+        IdempotencyRecord record = idempotencyRecordRepository.findById("user:key-1").orElseThrow();
+        assertEquals(IdempotencyRecord.Status.IN_PROGRESS, record.getStatus());
+        assertNull(record.getResponseBody());
+    }
+}
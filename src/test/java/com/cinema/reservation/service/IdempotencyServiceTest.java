@@ -0,0 +1,200 @@
+package com.cinema.reservation.service;
+
+import com.cinema.reservation.entity.IdempotencyRecord;
+import com.cinema.reservation.repository.IdempotencyRecordRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceTest {
+
+    @Mock
+    private IdempotencyRecordRepository idempotencyRecordRepository;
+
+    private IdempotencyService localService(int maxEntries) {
+        return new IdempotencyService(idempotencyRecordRepository, Duration.ofHours(1), Duration.ofMinutes(1), maxEntries, false);
+    }
+
+    private IdempotencyService sharedService() {
+        return new IdempotencyService(idempotencyRecordRepository, Duration.ofHours(1), Duration.ofMinutes(1), 100, true);
+    }
+
+    @Test
+    void claim_NewKey_IsClaimedWithoutDatabase() {
+        IdempotencyService service = localService(100);
+
+        IdempotencyService.Claim claim = service.claim("user:key-1", "fp");
+
+        assertEquals(IdempotencyService.Outcome.CLAIMED, claim.outcome());
+        verifyNoInteractions(idempotencyRecordRepository);
+    }
+
+    @Test
+    void claim_WhileInProgress_ReturnsInProgress() {
+        IdempotencyService service = localService(100);
+        service.claim("user:key-1", "fp");
+
+        assertEquals(IdempotencyService.Outcome.IN_PROGRESS, service.claim("user:key-1", "fp").outcome());
+    }
+
+    @Test
+    void claim_AfterComplete_ReplaysStoredResponse() {
+        IdempotencyService service = localService(100);
+        service.claim("user:key-1", "fp");
+        service.complete("user:key-1", "fp", 201, "application/json", "{\"id\":1}".getBytes(StandardCharsets.UTF_8));
+
+        IdempotencyService.Claim claim = service.claim("user:key-1", "fp");
+
+        assertEquals(IdempotencyService.Outcome.REPLAY, claim.outcome());
+        assertEquals(201, claim.record().getResponseStatus());
+        assertArrayEquals("{\"id\":1}".getBytes(StandardCharsets.UTF_8), claim.record().getResponseBody());
+    }
+
+    @Test
+    void claim_DifferentFingerprint_ReturnsMismatch() {
+        IdempotencyService service = localService(100);
+        service.claim("user:key-1", "fp");
+
+        assertEquals(IdempotencyService.Outcome.FINGERPRINT_MISMATCH, service.claim("user:key-1", "other").outcome());
+    }
+
+    @Test
+    void release_AllowsRetryToRunAgain() {
+        IdempotencyService service = localService(100);
+        service.claim("user:key-1", "fp");
+
+        service.release("user:key-1");
+
+        assertEquals(IdempotencyService.Outcome.CLAIMED, service.claim("user:key-1", "fp").outcome());
+    }
+
+    @Test
+    void localStore_IsBounded() {
+        IdempotencyService service = localService(2);
+        claimAndComplete(service, "k1");
+        claimAndComplete(service, "k2");
+        service.claim("k3", "fp");
+
+        // k1 został wypchnięty z LRU, więc można go zająć ponownie
+        assertEquals(IdempotencyService.Outcome.CLAIMED, service.claim("k1", "fp").outcome());
+    }
+
+    @Test
+    void localStore_NeverEvictsInProgressEntries() {
+        IdempotencyService service = localService(2);
+        service.claim("k1", "fp");
+        claimAndComplete(service, "k2");
+        service.claim("k3", "fp");
+        service.claim("k4", "fp");
+
+        // Przepełnienie wypycha tylko zakończone wpisy - trwające żądania dalej blokują ponowienia
+        assertEquals(IdempotencyService.Outcome.IN_PROGRESS, service.claim("k1", "fp").outcome());
+        assertEquals(IdempotencyService.Outcome.IN_PROGRESS, service.claim("k3", "fp").outcome());
+        assertEquals(IdempotencyService.Outcome.CLAIMED, service.claim("k2", "fp").outcome());
+    }
+
+    @Test
+    void claim_SharedStore_ClaimsForLeaseAndCompleteExtendsToTtl() {
+        IdempotencyService service = sharedService();
+        when(idempotencyRecordRepository.claim(eq("user:key-1"), eq("fp"), any(), any())).thenReturn(1);
+
+        service.claim("user:key-1", "fp");
+        service.complete("user:key-1", "fp", 201, "application/json", new byte[0]);
+
+        ArgumentCaptor<LocalDateTime> now = ArgumentCaptor.forClass(LocalDateTime.class);
+        ArgumentCaptor<LocalDateTime> leaseEnd = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(idempotencyRecordRepository).claim(eq("user:key-1"), eq("fp"), now.capture(), leaseEnd.capture());
+        assertEquals(Duration.ofMinutes(1), Duration.between(now.getValue(), leaseEnd.getValue()));
+        verify(idempotencyRecordRepository).save(argThat(record ->
+                Duration.between(record.getCreatedAt(), record.getExpiresAt()).equals(Duration.ofHours(1))));
+    }
+
+    @Test
+    void claim_SharedStore_ReplaysResponseFromOtherNode() {
+        IdempotencyService service = sharedService();
+        IdempotencyRecord stored = new IdempotencyRecord("user:key-1", "fp", IdempotencyRecord.Status.COMPLETED,
+                201, "application/json", new byte[0], LocalDateTime.now(), LocalDateTime.now().plusHours(1));
+        when(idempotencyRecordRepository.claim(eq("user:key-1"), eq("fp"), any(), any())).thenReturn(0);
+        when(idempotencyRecordRepository.findById("user:key-1")).thenReturn(Optional.of(stored));
+
+        IdempotencyService.Claim claim = service.claim("user:key-1", "fp");
+
+        assertEquals(IdempotencyService.Outcome.REPLAY, claim.outcome());
+    }
+
+    @Test
+    void claim_SharedStore_InsertedRowMeansClaimed() {
+        IdempotencyService service = sharedService();
+        when(idempotencyRecordRepository.claim(eq("user:key-1"), eq("fp"), any(), any())).thenReturn(1);
+
+        assertEquals(IdempotencyService.Outcome.CLAIMED, service.claim("user:key-1", "fp").outcome());
+        verify(idempotencyRecordRepository, never()).findById(any());
+    }
+
+    @Test
+    void claim_SharedStore_KeyHeldByOtherNodeReturnsInProgress() {
+        IdempotencyService service = sharedService();
+        IdempotencyRecord inProgress = new IdempotencyRecord("user:key-1", "fp", IdempotencyRecord.Status.IN_PROGRESS,
+                null, null, null, LocalDateTime.now(), LocalDateTime.now().plusHours(1));
+        when(idempotencyRecordRepository.claim(eq("user:key-1"), eq("fp"), any(), any())).thenReturn(0);
+        when(idempotencyRecordRepository.findById("user:key-1")).thenReturn(Optional.of(inProgress));
+
+        assertEquals(IdempotencyService.Outcome.IN_PROGRESS, service.claim("user:key-1", "fp").outcome());
+        // Nie zostaje w lokalnym magazynie - po zakończeniu na innym węźle trzeba go odczytać ponownie
+        when(idempotencyRecordRepository.claim(eq("user:key-1"), eq("fp"), any(), any())).thenReturn(1);
+        assertEquals(IdempotencyService.Outcome.CLAIMED, service.claim("user:key-1", "fp").outcome());
+    }
+
+    @Test
+    void scopedKey_HasFixedLengthAndDependsOnPrincipal() {
+        IdempotencyService service = localService(100);
+
+        String longKey = service.scopedKey("a".repeat(255) + "@cinema.com", "k".repeat(255));
+
+        assertEquals(64, longKey.length());
+        assertNotEquals(service.scopedKey("alice", "key-1"), service.scopedKey("bob", "key-1"));
+        assertEquals(service.scopedKey("alice", "key-1"), service.scopedKey("alice", "key-1"));
+    }
+
+    @Test
+    void complete_SharedStore_PersistsResponse() {
+        IdempotencyService service = sharedService();
+
+        service.complete("user:key-1", "fp", 201, "application/json", new byte[0]);
+
+        verify(idempotencyRecordRepository).save(argThat(record ->
+                record.getStatus() == IdempotencyRecord.Status.COMPLETED && record.getResponseStatus() == 201));
+    }
+
+    private static void claimAndComplete(IdempotencyService service, String key) {
+        service.claim(key, "fp");
+        service.complete(key, "fp", 201, "application/json", new byte[0]);
+    }
+
+    @Test
+    void fingerprint_DependsOnBody() {
+        IdempotencyService service = localService(100);
+
+        String first = service.fingerprint("POST", "/api/reservations", "{\"a\":1}".getBytes(StandardCharsets.UTF_8));
+        String same = service.fingerprint("POST", "/api/reservations", "{\"a\":1}".getBytes(StandardCharsets.UTF_8));
+        String other = service.fingerprint("POST", "/api/reservations", "{\"a\":2}".getBytes(StandardCharsets.UTF_8));
+
+        assertEquals(first, same);
+        assertNotEquals(first, other);
+        assertEquals(64, first.length());
+    }
+}
@@ -0,0 +1,185 @@
+package com.cinema.reservation.service;
+
+import com.cinema.reservation.entity.Movie;
+import com.cinema.reservation.entity.Screening;
+import com.cinema.reservation.repository.ScreeningRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class MoviePopularityRankingTest {
+
+    private static final LocalDateTime TOMORROW = LocalDateTime.now().plusDays(1);
+
+    @Mock
+    private ScreeningRepository screeningRepository;
+
+    private MoviePopularityRanking ranking;
+
+    @BeforeEach
+    void setUp() {
+        ranking = new MoviePopularityRanking(screeningRepository, 2, 10);
+    }
+
+    @Test
+    void refresh_RanksBySeatsSoldAndScreenings() {
+        // Given - movie 1: 2*10 + 5, movie 2: 1*10 + 40, movie 3: 1*10 + 0
+        when(screeningRepository.aggregateUpcomingPopularity(any(LocalDateTime.class))).thenReturn(List.of(
+                row(11L, 1L, 2L),
+                row(12L, 1L, 3L),
+                row(21L, 2L, 40L),
+                row(31L, 3L, 0L)));
+
+        // When
+        ranking.refresh();
+
+        // Then - only top 2 are kept
+        assertEquals(List.of(2L, 1L), ranking.topMovieIds(10));
+        assertEquals(List.of(2L), ranking.topMovieIds(1));
+    }
+
+    @Test
+    void recordSeatsSold_ReordersRankingWithoutDatabase() {
+        // Given
+        when(screeningRepository.aggregateUpcomingPopularity(any(LocalDateTime.class))).thenReturn(List.of(
+                row(11L, 1L, 10L),
+                row(21L, 2L, 5L)));
+        ranking.refresh();
+
+        // When
+        ranking.recordSeatsSold(screening(21L, 2L, TOMORROW), 6);
+
+        // Then
+        assertEquals(List.of(2L, 1L), ranking.topMovieIds(2));
+        verify(screeningRepository, times(1)).aggregateUpcomingPopularity(any());
+    }
+
+    @Test
+    void recordSeatsSold_CancellationLowersScore() {
+        // Given
+        Screening first = screening(11L, 1L, TOMORROW);
+        Screening second = screening(21L, 2L, TOMORROW);
+        ranking.recordScreening(first);
+        ranking.recordScreening(second);
+        ranking.recordSeatsSold(first, 3);
+
+        // When
+        ranking.recordSeatsSold(first, -3);
+        ranking.recordSeatsSold(second, 1);
+
+        // Then
+        assertEquals(List.of(2L, 1L), ranking.topMovieIds(2));
+    }
+
+    @Test
+    void recordSeatsSold_InTransaction_AppliedOnlyAfterCommit() {
+        // Given
+        when(screeningRepository.aggregateUpcomingPopularity(any(LocalDateTime.class))).thenReturn(List.of(
+                row(11L, 1L, 10L),
+                row(21L, 2L, 5L)));
+        ranking.refresh();
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            // When
+            ranking.recordSeatsSold(screening(21L, 2L, TOMORROW), 6);
+
+            // Then - niezatwierdzona rezerwacja nie zmienia rankingu
+            assertEquals(List.of(1L, 2L), ranking.topMovieIds(2));
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            assertEquals(List.of(2L, 1L), ranking.topMovieIds(2));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void refresh_ChangesCommittedDuringAggregateRead_ReplayedOntoRebuiltScores() {
+        // Given - w trakcie odczytu agregatu ktoś kupuje 30 miejsc na seans filmu 2, którego odczyt nie widzi
+        Screening second = screening(21L, 2L, TOMORROW);
+        when(screeningRepository.aggregateUpcomingPopularity(any(LocalDateTime.class))).thenAnswer(invocation -> {
+            ranking.recordSeatsSold(second, 30);
+            return List.of(row(11L, 1L, 10L), row(21L, 2L, 5L));
+        });
+
+        // When
+        ranking.refresh();
+
+        // Then - 10 + 35 dla filmu 2, a nie 10 + 5 z samego agregatu
+        assertEquals(List.of(2L, 1L), ranking.topMovieIds(2));
+        when(screeningRepository.aggregateUpcomingPopularity(any(LocalDateTime.class))).thenReturn(List.of(
+                row(11L, 1L, 10L), row(21L, 2L, 35L)));
+        ranking.refresh();
+        assertEquals(List.of(2L, 1L), ranking.topMovieIds(2));
+    }
+
+    @Test
+    void recordScreeningRemoved_DeletedScreeningNoLongerCounts() {
+        // Given - movie 1: two screenings, movie 2: one screening with more sales
+        ranking.recordScreening(screening(11L, 1L, TOMORROW));
+        ranking.recordScreening(screening(12L, 1L, TOMORROW));
+        ranking.recordSeatsSold(screening(21L, 2L, TOMORROW), 5);
+        assertEquals(List.of(1L, 2L), ranking.topMovieIds(2));
+
+        // When
+        ranking.recordScreeningRemoved(12L);
+
+        // Then
+        assertEquals(List.of(2L, 1L), ranking.topMovieIds(2));
+    }
+
+    @Test
+    void recordScreening_Rescheduled_KeepsSeatsSoldAndCountsOnce() {
+        // Given
+        Screening screening = screening(11L, 1L, TOMORROW);
+        ranking.recordScreening(screening);
+        ranking.recordSeatsSold(screening, 4);
+        ranking.recordScreening(screening(21L, 2L, TOMORROW));
+        ranking.recordSeatsSold(screening(21L, 2L, TOMORROW), 6);
+
+        // When
+        ranking.recordScreening(screening(11L, 1L, TOMORROW.plusHours(2)));
+
+        // Then - movie 1: 10 + 4, movie 2: 10 + 6
+        assertEquals(List.of(2L, 1L), ranking.topMovieIds(2));
+    }
+
+    @Test
+    void topMovieIds_ScreeningThatStarted_DropsOutWithItsSeats() throws Exception {
+        // Given
+        ranking.recordSeatsSold(screening(11L, 1L, LocalDateTime.now().plusNanos(50_000_000)), 40);
+        ranking.recordScreening(screening(21L, 2L, TOMORROW));
+        assertEquals(List.of(1L, 2L), ranking.topMovieIds(2));
+
+        // When
+        Thread.sleep(100);
+
+        // Then
+        assertEquals(List.of(2L), ranking.topMovieIds(2));
+    }
+
+    private static Object[] row(Long screeningId, Long movieId, long seatsSold) {
+        return new Object[]{screeningId, movieId, TOMORROW, seatsSold};
+    }
+
+    private static Screening screening(Long screeningId, Long movieId, LocalDateTime startTime) {
+        Movie movie = new Movie();
+        movie.setId(movieId);
+        Screening screening = new Screening();
+        screening.setId(screeningId);
+        screening.setMovie(movie);
+        screening.setStartTime(startTime);
+        return screening;
+    }
+}
@@ -0,0 +1,151 @@
+package com.cinema.reservation.service;
+
+import com.cinema.reservation.dto.MovieSuggestion;
+import com.cinema.reservation.entity.Movie;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class MovieSearchIndexTest {
+
+    private MovieSearchIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new MovieSearchIndex();
+        index.rebuild(List.of(
+                movie(1L, "Interstellar", "Christopher Nolan", "Explorers travel through a wormhole", 8.6),
+                movie(2L, "Inception", "Christopher Nolan", "A thief who steals corporate secrets", 8.8),
+                movie(3L, "Dune", "Denis Villeneuve", "Paul Atreides and the interstellar spice trade", 8.0),
+                movie(4L, "Pan Tadeusz", "Andrzej Wajda", "Ostatni zajazd na Litwie", 7.2)
+        ));
+    }
+
+    @Test
+    void search_ExactTitle_RanksTitleAboveDescription() {
+        List<MovieSuggestion> result = index.search("interstellar", 10);
+
+        assertEquals(2, result.size());
+        assertEquals(1L, result.get(0).getId());
+        assertEquals(3L, result.get(1).getId());
+    }
+
+    @Test
+    void search_Prefix_MatchesWhileTyping() {
+        List<MovieSuggestion> result = index.search("inc", 10);
+
+        assertEquals(1, result.size());
+        assertEquals("Inception", result.get(0).getTitle());
+    }
+
+    @Test
+    void search_Typo_MatchesWithinEditDistance() {
+        List<MovieSuggestion> result = index.search("incpetion", 10);
+
+        assertEquals(1, result.size());
+        assertEquals(2L, result.get(0).getId());
+    }
+
+    @Test
+    void search_MultipleTokens_RequiresAllToMatch() {
+        List<MovieSuggestion> result = index.search("nolan thief", 10);
+
+        assertEquals(1, result.size());
+        assertEquals(2L, result.get(0).getId());
+    }
+
+    @Test
+    void search_Director_TiesBrokenByRating() {
+        List<MovieSuggestion> result = index.search("Nolan", 10);
+
+        assertEquals(2, result.size());
+        assertEquals(2L, result.get(0).getId());
+        assertEquals(1L, result.get(1).getId());
+    }
+
+    @Test
+    void search_Diacritics_AreIgnored() {
+        List<MovieSuggestion> result = index.search("Andrzej Wajdą", 10);
+
+        assertEquals(1, result.size());
+        assertEquals(4L, result.get(0).getId());
+    }
+
+    @Test
+    void search_RespectsLimit() {
+        assertEquals(1, index.search("christopher", 1).size());
+        assertTrue(index.search("christopher", 0).isEmpty());
+        assertTrue(index.search("   ", 10).isEmpty());
+    }
+
+    @Test
+    void search_RestrictedToField_IgnoresOtherFields() {
+        List<MovieSuggestion> result = index.search("interstellar", 10, MovieSearchIndex.TITLE);
+
+        assertEquals(1, result.size());
+        assertEquals(1L, result.get(0).getId());
+        assertTrue(index.search("nolan", 10, MovieSearchIndex.TITLE).isEmpty());
+        assertEquals(2, index.search("nolan", 10, MovieSearchIndex.DIRECTOR).size());
+    }
+
+    @Test
+    void index_UpdatedMovie_ReplacesOldTerms() {
+        index.index(movie(2L, "Tenet", "Christopher Nolan", "Time inversion", 7.3));
+
+        assertTrue(index.search("inception", 10).isEmpty());
+        assertEquals(2L, index.search("tenet", 10).get(0).getId());
+        assertEquals(4, index.size());
+    }
+
+    @Test
+    void remove_DeletedMovie_NoLongerFound() {
+        index.remove(3L);
+
+        assertTrue(index.search("dune", 10).isEmpty());
+        assertEquals(3, index.size());
+    }
+
+    @Test
+    void search_DuringRebuild_SeesWholeIndex() throws Exception {
+        List<Movie> catalog = List.of(
+                movie(1L, "Interstellar", "Christopher Nolan", "Explorers travel through a wormhole", 8.6),
+                movie(3L, "Dune", "Denis Villeneuve", "Paul Atreides and the interstellar spice trade", 8.0));
+        AtomicBoolean done = new AtomicBoolean();
+        Thread rebuilder = new Thread(() -> {
+            for (int i = 0; i < 2_000; i++) {
+                index.rebuild(catalog);
+            }
+            done.set(true);
+        });
+        rebuilder.start();
+
+        // Przy czyszczeniu map w miejscu wyszukiwanie trafiało na pusty lub połowiczny indeks
+        while (!done.get()) {
+            assertEquals(2, index.search("interstellar", 10).size());
+        }
+        rebuilder.join();
+    }
+
+    @Test
+    void withinEditDistance_HandlesTranspositionsAndBounds() {
+        assertTrue(MovieSearchIndex.withinEditDistance("dnue", "dune", 1));
+        assertTrue(MovieSearchIndex.withinEditDistance("nolen", "nolan", 1));
+        assertFalse(MovieSearchIndex.withinEditDistance("nolxx", "nolan", 1));
+        assertFalse(MovieSearchIndex.withinEditDistance("abc", "abcdef", 2));
+    }
+
+    private Movie movie(Long id, String title, String director, String description, Double rating) {
+        Movie movie = new Movie();
+        movie.setId(id);
+        movie.setTitle(title);
+        movie.setDirector(director);
+        movie.setDescription(description);
+        movie.setDurationMinutes(120);
+        movie.setRating(rating);
+        return movie;
+    }
+}
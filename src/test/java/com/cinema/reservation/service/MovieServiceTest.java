@@ -1,5 +1,6 @@
 package com.cinema.reservation.service;
 
+import com.cinema.reservation.dto.MovieSuggestion;
 import com.cinema.reservation.entity.Movie;
 import com.cinema.reservation.exception.InvalidMovieDataException;
 import com.cinema.reservation.exception.MovieNotFoundException;
@@ -10,6 +11,8 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
 import java.time.LocalDateTime;
 import java.util.Arrays;
@@ -26,6 +29,15 @@ class MovieServiceTest {
     @Mock
     private MovieRepository movieRepository;
 
+    @Mock
+    private MovieSearchIndex movieSearchIndex;
+
+    @Mock
+    private MoviePopularityRanking moviePopularityRanking;
+
+    @Mock
+    private CatalogVersions catalogVersions;
+
     @InjectMocks
     private MovieService movieService;
 
@@ -142,8 +154,9 @@ class MovieServiceTest {
     @Test
     void searchByTitle_ReturnsMatchingMovies() {
         // Given
-        when(movieRepository.findByTitleContainingIgnoreCase("Test"))
-                .thenReturn(Arrays.asList(testMovie));
+        when(movieSearchIndex.search("Test", 100, MovieSearchIndex.TITLE))
+                .thenReturn(List.of(MovieSuggestion.builder().id(1L).score(3.0).build()));
+        when(movieRepository.findAllById(List.of(1L))).thenReturn(List.of(testMovie));
 
         // When
         List<Movie> result = movieService.searchByTitle("Test");
@@ -153,6 +166,93 @@ class MovieServiceTest {
         assertTrue(result.get(0).getTitle().contains("Test"));
     }
 
+    @Test
+    void searchByDirector_SearchesDirectorFieldOnly() {
+        // Given
+        when(movieSearchIndex.search("Nolan", 100, MovieSearchIndex.DIRECTOR)).thenReturn(List.of());
+
+        // When
+        List<Movie> result = movieService.searchByDirector("Nolan");
+
+        // Then
+        assertTrue(result.isEmpty());
+        verify(movieSearchIndex).search("Nolan", 100, MovieSearchIndex.DIRECTOR);
+    }
+
+    @Test
+    void search_ReturnsMoviesInIndexRankOrder() {
+        // Given
+        Movie secondMovie = new Movie();
+        secondMovie.setId(2L);
+        secondMovie.setTitle("Test Movie 2");
+        when(movieSearchIndex.search("test", 10)).thenReturn(List.of(
+                MovieSuggestion.builder().id(2L).score(3.0).build(),
+                MovieSuggestion.builder().id(1L).score(1.0).build()));
+        when(movieRepository.findAllById(List.of(2L, 1L))).thenReturn(List.of(testMovie, secondMovie));
+
+        // When
+        List<Movie> result = movieService.search("test", 10);
+
+        // Then
+        assertEquals(2, result.size());
+        assertEquals(2L, result.get(0).getId());
+        assertEquals(1L, result.get(1).getId());
+    }
+
+    @Test
+    void search_NoHits_SkipsDatabase() {
+        // Given
+        when(movieSearchIndex.search("zzz", 10)).thenReturn(List.of());
+
+        // When
+        List<Movie> result = movieService.search("zzz", 10);
+
+        // Then
+        assertTrue(result.isEmpty());
+        verify(movieRepository, never()).findAllById(any());
+    }
+
+    @Test
+    void typeahead_CapsLimit() {
+        // Given
+        when(movieSearchIndex.search("te", 100)).thenReturn(List.of());
+
+        // When
+        movieService.typeahead("te", 5000);
+
+        // Then
+        verify(movieSearchIndex).search("te", 100);
+        verifyNoInteractions(movieRepository);
+    }
+
+    @Test
+    void rebuildSearchIndex_IndexesAllMovies() {
+        // Given
+        when(movieRepository.findAll()).thenReturn(List.of(testMovie));
+
+        // When
+        movieService.rebuildSearchIndex();
+
+        // Then
+        verify(movieSearchIndex).rebuild(List.of(testMovie));
+    }
+
+    @Test
+    void findMostPopularMovies_ReadsFromRanking() {
+        // Given
+        Movie secondMovie = new Movie();
+        secondMovie.setId(2L);
+        when(moviePopularityRanking.topMovieIds(5)).thenReturn(List.of(2L, 1L));
+        when(movieRepository.findAllById(List.of(2L, 1L))).thenReturn(List.of(testMovie, secondMovie));
+
+        // When
+        List<Movie> result = movieService.findMostPopularMovies(5);
+
+        // Then
+        assertEquals(List.of(secondMovie, testMovie), result);
+        verify(movieRepository, never()).findMostPopularMovies();
+    }
+
     @Test
     void updateMovie_ExistingMovie_Success() {
         // Given
@@ -176,6 +276,23 @@ class MovieServiceTest {
         assertNotNull(result);
         assertEquals("Updated Title", testMovie.getTitle());
         verify(movieRepository).save(testMovie);
+        verify(movieSearchIndex).index(testMovie);
+    }
+
+    @Test
+    void updateMovie_InTransaction_IndexUpdatedOnlyAfterCommit() {
+        when(movieRepository.findById(1L)).thenReturn(Optional.of(testMovie));
+        when(movieRepository.save(any(Movie.class))).thenReturn(testMovie);
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            movieService.updateMovie(1L, testMovie);
+            verifyNoInteractions(movieSearchIndex);
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+            verify(movieSearchIndex).index(testMovie);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
     }
 
     @Test
@@ -198,6 +315,8 @@ class MovieServiceTest {
 
         // Then
         verify(movieRepository).deleteById(1L);
+        verify(movieSearchIndex).remove(1L);
+        verify(catalogVersions).bump(CatalogVersions.Aggregate.MOVIES);
     }
 
     @Test
@@ -209,5 +328,6 @@ class MovieServiceTest {
         assertThrows(MovieNotFoundException.class,
                 () -> movieService.deleteMovie(99L));
         verify(movieRepository, never()).deleteById(any());
+        verify(catalogVersions, never()).bump(any());
     }
 }
\ No newline at end of file
@@ -0,0 +1,100 @@
+package com.cinema.reservation.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OptimisticLockRetryTest {
+
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @AfterEach
+    void tearDown() {
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+
+    @Test
+    void execute_ConflictThenSuccess_RecoveredAndCounted() {
+        OptimisticLockRetry retry = retry(4, 20);
+        AtomicInteger calls = new AtomicInteger();
+
+        String result = retry.execute("confirm", () -> {
+            if (calls.incrementAndGet() < 3) {
+                throw conflict();
+            }
+            return "ok";
+        });
+
+        assertEquals("ok", result);
+        assertEquals(3, calls.get());
+        assertEquals(2.0, meterRegistry.counter("cinema.optimistic.retries", "operation", "confirm").count());
+        assertEquals(1.0, meterRegistry.counter("cinema.optimistic.conflicts",
+                "operation", "confirm", "outcome", "recovered").count());
+    }
+
+    @Test
+    void execute_AlwaysConflicting_ExhaustedAfterMaxAttempts() {
+        OptimisticLockRetry retry = retry(3, 20);
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> retry.execute("cancel", () -> {
+            calls.incrementAndGet();
+            throw conflict();
+        }));
+
+        assertEquals(3, calls.get());
+        assertEquals(1.0, meterRegistry.counter("cinema.optimistic.conflicts",
+                "operation", "cancel", "outcome", "exhausted").count());
+    }
+
+    @Test
+    void execute_BudgetSpent_StopsRetrying() {
+        OptimisticLockRetry retry = retry(10, 2);
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> retry.execute("confirm", () -> {
+            calls.incrementAndGet();
+            throw conflict();
+        }));
+
+        // Pełny kubełek to 2 żetony - trzecia powtórka już się nie mieści
+        assertEquals(3, calls.get());
+        assertEquals(1.0, meterRegistry.counter("cinema.optimistic.conflicts",
+                "operation", "confirm", "outcome", "budget_exhausted").count());
+    }
+
+    @Test
+    void execute_InsideOuterTransaction_RunsOnce() {
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+        AtomicInteger calls = new AtomicInteger();
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> retry(4, 20).execute("confirm", () -> {
+            calls.incrementAndGet();
+            throw conflict();
+        }));
+
+        assertEquals(1, calls.get());
+    }
+
+    private OptimisticLockRetry retry(int maxAttempts, int budgetCapacity) {
+        return new OptimisticLockRetry(meterRegistry, maxAttempts, Duration.ofMillis(1), Duration.ofMillis(2),
+                0.2, budgetCapacity);
+    }
+
+    private static ObjectOptimisticLockingFailureException conflict() {
+        return new ObjectOptimisticLockingFailureException(Object.class, 1L);
+    }
+}
@@ -0,0 +1,179 @@
+package com.cinema.reservation.service;
+
+import com.cinema.reservation.dto.ReservationEvent;
+import com.cinema.reservation.entity.OutboxEvent;
+import com.cinema.reservation.repository.OutboxEventRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Pageable;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private OutboxService outboxService;
+    private final List<List<ReservationEvent>> delivered = new ArrayList<>();
+
+    @BeforeEach
+    void setUp() {
+        ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        outboxService = new OutboxService(mock(JdbcTemplate.class), objectMapper);
+    }
+
+    @Test
+    void relayBatch_DeliversInOrderAndMarksPublished() {
+        OutboxEvent first = row(1L, ReservationEvent.Type.CREATED);
+        OutboxEvent second = row(2L, ReservationEvent.Type.CANCELLED);
+        when(outboxEventRepository.findUnpublishedForUpdate(any(Pageable.class))).thenReturn(List.of(first, second));
+
+        int published = relay(delivered::add).relayBatch();
+
+        assertEquals(2, published);
+        assertEquals(1, delivered.size());
+        assertEquals(List.of(1L, 2L), delivered.get(0).stream().map(ReservationEvent::getEventId).toList());
+        assertEquals(ReservationEvent.Type.CANCELLED, delivered.get(0).get(1).getType());
+        assertEquals(new BigDecimal("31.00"), delivered.get(0).get(0).getTotalPrice());
+        assertNotNull(first.getPublishedAt());
+        assertNotNull(second.getPublishedAt());
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void relayBatch_SubscriberFails_LeftForRedelivery() {
+        OutboxEvent event = row(1L, ReservationEvent.Type.CONFIRMED);
+        when(outboxEventRepository.findUnpublishedForUpdate(any(Pageable.class))).thenReturn(List.of(event));
+
+        int published = relay(events -> {
+            throw new IllegalStateException("mail server down");
+        }).relayBatch();
+
+        assertEquals(0, published);
+        assertNull(event.getPublishedAt());
+        assertEquals(1, event.getAttempts());
+    }
+
+    @Test
+    void relayBatch_MalformedPayload_SkippedWithoutBlockingQueue() {
+        OutboxEvent broken = new OutboxEvent(1L, 10L, "CREATED", "{not json", LocalDateTime.now(), null, 0, null, null);
+        OutboxEvent valid = row(2L, ReservationEvent.Type.CREATED);
+        when(outboxEventRepository.findUnpublishedForUpdate(any(Pageable.class))).thenReturn(List.of(broken, valid));
+
+        assertEquals(1, relay(delivered::add).relayBatch());
+        assertEquals(1, delivered.get(0).size());
+        assertNull(broken.getPublishedAt());
+        assertNotNull(broken.getFailedAt());
+        assertTrue(broken.getLastError().startsWith("Malformed payload"));
+    }
+
+    @Test
+    void relayBatch_PoisonEvent_IsolatedByBisectionNeighboursPublished() {
+        List<OutboxEvent> rows = new ArrayList<>();
+        for (long id = 1; id <= 5; id++) {
+            rows.add(row(id, ReservationEvent.Type.CREATED));
+        }
+        when(outboxEventRepository.findUnpublishedForUpdate(any(Pageable.class))).thenReturn(rows);
+
+        int published = relay(events -> {
+            if (events.stream().anyMatch(event -> event.getEventId() == 3L)) {
+                throw new IllegalStateException("subscriber cannot handle event 3");
+            }
+            delivered.add(events);
+        }).relayBatch();
+
+        assertEquals(4, published);
+        assertEquals(List.of(1L, 2L, 4L, 5L), delivered.stream().flatMap(List::stream).map(ReservationEvent::getEventId).toList());
+        assertNull(rows.get(2).getPublishedAt());
+        assertEquals(1, rows.get(2).getAttempts());
+        assertNull(rows.get(2).getFailedAt());
+        rows.stream().filter(row -> row.getId() != 3L).forEach(row -> assertNotNull(row.getPublishedAt()));
+    }
+
+    @Test
+    void relayBatch_LaterEventOfFailedReservation_WaitsBehindIt() {
+        OutboxEvent created = row(1L, ReservationEvent.Type.CREATED);
+        OutboxEvent other = row(2L, ReservationEvent.Type.CREATED);
+        OutboxEvent confirmed = row(3L, ReservationEvent.Type.CONFIRMED);
+        confirmed.setAggregateId(created.getAggregateId());
+        when(outboxEventRepository.findUnpublishedForUpdate(any(Pageable.class)))
+                .thenReturn(List.of(created, other, confirmed));
+
+        int published = relay(events -> {
+            if (events.stream().anyMatch(event -> event.getEventId() == 1L)) {
+                throw new IllegalStateException("down for reservation 11");
+            }
+            delivered.add(events);
+        }).relayBatch();
+
+        assertEquals(1, published);
+        assertNotNull(other.getPublishedAt());
+        assertNull(confirmed.getPublishedAt());
+        assertEquals(0, confirmed.getAttempts());
+    }
+
+    @Test
+    void relayBatch_MaxAttemptsReached_DeadLetteredNotPublished() {
+        OutboxEvent event = row(1L, ReservationEvent.Type.CONFIRMED);
+        event.setAttempts(2);
+        when(outboxEventRepository.findUnpublishedForUpdate(any(Pageable.class))).thenReturn(List.of(event));
+
+        relay(events -> {
+            throw new IllegalStateException("mail server down");
+        }).relayBatch();
+
+        assertEquals(3, event.getAttempts());
+        assertNull(event.getPublishedAt());
+        assertNotNull(event.getFailedAt());
+        assertTrue(event.getLastError().contains("mail server down"));
+    }
+
+    @Test
+    void relay_Disabled_DoesNotPoll() {
+        new OutboxRelay(outboxEventRepository, outboxService, List.of(), transactionManager,
+                false, 10, 3, Duration.ofDays(7)).relay();
+
+        verifyNoInteractions(outboxEventRepository);
+    }
+
+    private OutboxRelay relay(ReservationEventSubscriber subscriber) {
+        return new OutboxRelay(outboxEventRepository, outboxService, List.of(subscriber), transactionManager,
+                true, 10, 3, Duration.ofDays(7));
+    }
+
+    private OutboxEvent row(Long id, ReservationEvent.Type type) {
+        ReservationEvent event = ReservationEvent.builder()
+                .type(type)
+                .reservationId(10L + id)
+                .screeningId(1L)
+                .totalPrice(new BigDecimal("31.00"))
+                .occurredAt(LocalDateTime.now())
+                .build();
+        try {
+            String payload = new ObjectMapper().registerModule(new JavaTimeModule()).writeValueAsString(event);
+            return new OutboxEvent(id, event.getReservationId(), type.name(), payload, LocalDateTime.now(), null, 0, null, null);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
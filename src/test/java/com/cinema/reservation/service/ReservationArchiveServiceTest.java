@@ -0,0 +1,147 @@
+package com.cinema.reservation.service;
+
+import com.cinema.reservation.dto.ArchivedReservation;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.dao.IncorrectResultSizeDataAccessException;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReservationArchiveServiceTest {
+
+    @Mock
+    private NamedParameterJdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private SimpleMeterRegistry meterRegistry;
+    private ReservationArchiveService archiveService;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        archiveService = new ReservationArchiveService(jdbcTemplate, transactionManager, meterRegistry,
+                mock(CatalogVersions.class), true, Duration.ofDays(90), 2, Duration.ofMinutes(5));
+    }
+
+    @Test
+    void archiveBatch_CopiesThenDeletesInOneTransaction() {
+        when(jdbcTemplate.queryForList(contains("FOR UPDATE SKIP LOCKED"), anyMap(), eq(Long.class)))
+                .thenReturn(List.of(10L, 11L));
+        when(jdbcTemplate.update(anyString(), anyMap())).thenAnswer(invocation -> {
+            String sql = invocation.getArgument(0);
+            return sql.startsWith("INSERT INTO archive.reservations") ? 3
+                    : sql.startsWith("INSERT INTO archive.reserved_seats") ? 5 : 2;
+        });
+
+        assertEquals(2, archiveService.archiveBatch());
+
+        InOrder order = inOrder(jdbcTemplate, transactionManager);
+        order.verify(jdbcTemplate).update(contains("INSERT INTO archive.screenings"), anyMap());
+        order.verify(jdbcTemplate).update(contains("INSERT INTO archive.reservations"), anyMap());
+        order.verify(jdbcTemplate).update(contains("INSERT INTO archive.reserved_seats"), anyMap());
+        order.verify(jdbcTemplate).update(startsWith("DELETE FROM reserved_seats"), anyMap());
+        order.verify(jdbcTemplate).update(startsWith("DELETE FROM reservations"), anyMap());
+        order.verify(jdbcTemplate).update(startsWith("DELETE FROM screenings"), anyMap());
+        order.verify(transactionManager).commit(any());
+
+        assertEquals(3.0, meterRegistry.get("cinema.archive.rows").tag("table", "reservations").counter().count());
+        assertEquals(5.0, meterRegistry.get("cinema.archive.rows").tag("table", "reserved_seats").counter().count());
+    }
+
+    @Test
+    void archive_FullBatches_ContinueUntilBacklogDrained() {
+        when(jdbcTemplate.queryForObject(contains("information_schema"), anyMap(), eq(Integer.class))).thenReturn(1);
+        when(jdbcTemplate.queryForList(contains("FOR UPDATE SKIP LOCKED"), anyMap(), eq(Long.class)))
+                .thenReturn(List.of(1L, 2L), List.of(3L, 4L), List.of(5L));
+
+        archiveService.archive();
+
+        verify(jdbcTemplate, times(3)).queryForList(contains("FOR UPDATE SKIP LOCKED"), anyMap(), eq(Long.class));
+        verify(transactionManager, times(3)).commit(any());
+        assertEquals(5.0, meterRegistry.get("cinema.archive.rows").tag("table", "screenings").counter().count());
+    }
+
+    @Test
+    void archive_NoArchiveSchema_DoesNothingUntilRecheck() {
+        when(jdbcTemplate.queryForObject(contains("information_schema"), anyMap(), eq(Integer.class))).thenReturn(0);
+
+        archiveService.archive();
+
+        assertEquals(Optional.empty(), archiveService.findByConfirmationCode("ABC"));
+        verify(jdbcTemplate, times(1)).queryForObject(anyString(), anyMap(), eq(Integer.class));
+        verifyNoMoreInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void isArchiveAvailable_SchemaCreatedLater_PickedUpOnRecheck() {
+        ReservationArchiveService recheckingService = new ReservationArchiveService(jdbcTemplate, transactionManager,
+                meterRegistry, mock(CatalogVersions.class), true, Duration.ofDays(90), 2, Duration.ZERO);
+        when(jdbcTemplate.queryForObject(contains("information_schema"), anyMap(), eq(Integer.class)))
+                .thenReturn(0, 1);
+
+        assertFalse(recheckingService.isArchiveAvailable());
+        assertTrue(recheckingService.isArchiveAvailable());
+        assertTrue(recheckingService.isArchiveAvailable());
+        verify(jdbcTemplate, times(2)).queryForObject(anyString(), anyMap(), eq(Integer.class));
+    }
+
+    @Test
+    void isArchiveAvailable_DatabaseError_PropagatesAndIsNotCached() {
+        when(jdbcTemplate.queryForObject(contains("information_schema"), anyMap(), eq(Integer.class)))
+                .thenThrow(new DataAccessResourceFailureException("connection refused"))
+                .thenReturn(1);
+
+        assertThrows(DataAccessResourceFailureException.class, () -> archiveService.isArchiveAvailable());
+        assertTrue(archiveService.isArchiveAvailable());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void findByConfirmationCode_LoadsReservationWithSeats() {
+        when(jdbcTemplate.queryForObject(contains("information_schema"), anyMap(), eq(Integer.class))).thenReturn(1);
+        when(jdbcTemplate.query(contains("FROM archive.reservations"), anyMap(), any(RowMapper.class)))
+                .thenReturn(List.of(ArchivedReservation.builder().id(42L).confirmationCode("legacy-1").build()));
+        when(jdbcTemplate.query(contains("FROM archive.reserved_seats"), anyMap(), any(RowMapper.class)))
+                .thenReturn(List.of("A1", "A2"));
+
+        ArchivedReservation reservation = archiveService.findByConfirmationCode("legacy-1").orElseThrow();
+
+        assertEquals(List.of("A1", "A2"), reservation.getSeats());
+        ArgumentCaptor<Map<String, ?>> params = ArgumentCaptor.forClass(Map.class);
+        verify(jdbcTemplate).query(contains("FROM archive.reserved_seats"), params.capture(), any(RowMapper.class));
+        assertEquals(42L, params.getValue().get("id"));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void findByConfirmationCode_SeveralArchivedRows_FailsInsteadOfPickingOne() {
+        when(jdbcTemplate.queryForObject(contains("information_schema"), anyMap(), eq(Integer.class))).thenReturn(1);
+        when(jdbcTemplate.query(contains("FROM archive.reservations"), anyMap(), any(RowMapper.class)))
+                .thenReturn(List.of(ArchivedReservation.builder().id(42L).build(),
+                        ArchivedReservation.builder().id(43L).build()));
+
+        assertThrows(IncorrectResultSizeDataAccessException.class,
+                () -> archiveService.findByConfirmationCode("legacy-1"));
+        verify(jdbcTemplate, never()).query(contains("FROM archive.reserved_seats"), anyMap(), any(RowMapper.class));
+    }
+}
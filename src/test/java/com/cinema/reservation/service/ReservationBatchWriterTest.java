@@ -0,0 +1,219 @@
+package com.cinema.reservation.service;
+
+import com.cinema.reservation.dto.ReservationEvent;
+import com.cinema.reservation.dto.SeatRequest;
+import com.cinema.reservation.entity.Movie;
+import com.cinema.reservation.entity.RegularUser;
+import com.cinema.reservation.entity.Reservation;
+import com.cinema.reservation.entity.Screening;
+import com.cinema.reservation.entity.User;
+import com.cinema.reservation.exception.SeatNotAvailableException;
+import com.cinema.reservation.exception.UserNotFoundException;
+import com.cinema.reservation.repository.ReservedSeatRepository;
+import com.cinema.reservation.repository.ScreeningRepository;
+import com.cinema.reservation.repository.UserRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.BatchPreparedStatementSetter;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.jdbc.support.KeyHolder;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReservationBatchWriterTest {
+
+    @Mock
+    private ReservedSeatRepository reservedSeatRepository;
+
+    @Mock
+    private ScreeningRepository screeningRepository;
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private ConfirmationCodeGenerator confirmationCodeGenerator;
+
+    @Mock
+    private MoviePopularityRanking moviePopularityRanking;
+
+    @Mock
+    private OutboxService outboxService;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private ReservationBatchWriter writer;
+    private final List<String> executedBatches = new ArrayList<>();
+    private final AtomicLong ids = new AtomicLong(100);
+
+    @BeforeEach
+    void setUp() throws Exception {
+        writer = new ReservationBatchWriter(reservedSeatRepository, screeningRepository, userRepository,
+                confirmationCodeGenerator, moviePopularityRanking, outboxService, jdbcTemplate,
+                transactionManager);
+
+        Movie movie = new Movie();
+        movie.setId(5L);
+        Screening screening = new Screening();
+        screening.setId(1L);
+        screening.setMovie(movie);
+        screening.setPrice(new BigDecimal("20.00"));
+        screening.setAvailableSeats(3);
+        User user = RegularUser.builder().id(7L).build();
+
+        lenient().when(userRepository.findAllById(any())).thenAnswer(invocation ->
+                contains(invocation.getArgument(0), 7L) ? List.of(user) : List.of());
+        lenient().when(screeningRepository.findAllById(any())).thenReturn(List.of(screening));
+        lenient().when(screeningRepository.decrementAvailableSeats(anyLong(), anyInt())).thenReturn(1);
+        lenient().when(jdbcTemplate.batchUpdate(any(PreparedStatementCreator.class),
+                any(BatchPreparedStatementSetter.class), any(KeyHolder.class))).thenAnswer(invocation -> {
+            BatchPreparedStatementSetter setter = invocation.getArgument(1);
+            KeyHolder keyHolder = invocation.getArgument(2);
+            String sql = sqlOf(invocation.getArgument(0));
+            executedBatches.add(sql.substring(0, sql.indexOf('(')).trim() + " x" + setter.getBatchSize());
+            for (int i = 0; i < setter.getBatchSize(); i++) {
+                keyHolder.getKeyList().add(Map.of("id", ids.incrementAndGet()));
+            }
+            return new int[setter.getBatchSize()];
+        });
+    }
+
+    @Test
+    void persist_Batch_OneTransactionWithJdbcBatches() {
+        List<ReservationBatchWriter.Outcome> outcomes = writer.persist(List.of(
+                booking(7L, new SeatRequest(1, 1), new SeatRequest(1, 2)),
+                booking(7L, new SeatRequest(2, 1))));
+
+        Reservation first = outcomes.get(0).reservation();
+        assertEquals(new BigDecimal("40.00"), first.getTotalPrice());
+        assertEquals(101L, first.getId());
+        assertEquals(2, first.getReservedSeats().size());
+        assertNotNull(first.getReservedSeats().get(0).getId());
+        assertEquals(102L, outcomes.get(1).reservation().getId());
+
+        assertEquals(List.of("INSERT INTO reservations x2", "INSERT INTO reserved_seats x3"), executedBatches);
+        verify(transactionManager, times(1)).commit(any());
+        verify(screeningRepository).decrementAvailableSeats(1L, 3);
+        verify(moviePopularityRanking).recordSeatsSold(argThat(screening -> screening.getId() == 1L), eq(2));
+        verify(moviePopularityRanking).recordSeatsSold(argThat(screening -> screening.getId() == 1L), eq(1));
+        verify(outboxService).recordAll(eq(ReservationEvent.Type.CREATED), argThat(reservations -> reservations.size() == 2));
+    }
+
+    @Test
+    void persist_MissingUser_FailsOnlyThatBooking() {
+        List<ReservationBatchWriter.Outcome> outcomes = writer.persist(List.of(
+                booking(8L, new SeatRequest(1, 1)),
+                booking(7L, new SeatRequest(1, 2))));
+
+        assertInstanceOf(UserNotFoundException.class, outcomes.get(0).error());
+        assertNotNull(outcomes.get(1).reservation());
+        verify(screeningRepository).decrementAvailableSeats(1L, 1);
+    }
+
+    @Test
+    void persist_SameSeatTwiceInBatch_SecondBookingRejected() {
+        List<ReservationBatchWriter.Outcome> outcomes = writer.persist(List.of(
+                booking(7L, new SeatRequest(4, 4)),
+                booking(7L, new SeatRequest(4, 5), new SeatRequest(4, 4))));
+
+        assertNotNull(outcomes.get(0).reservation());
+        assertInstanceOf(SeatNotAvailableException.class, outcomes.get(1).error());
+        assertEquals(List.of("INSERT INTO reservations x1", "INSERT INTO reserved_seats x1"), executedBatches);
+    }
+
+    @Test
+    void persist_MoreSeatsThanLeft_LaterBookingRejectedWhileAccumulating() {
+        List<ReservationBatchWriter.Outcome> outcomes = writer.persist(List.of(
+                booking(7L, new SeatRequest(1, 1), new SeatRequest(1, 2)),
+                booking(7L, new SeatRequest(2, 1), new SeatRequest(2, 2)),
+                booking(7L, new SeatRequest(3, 1))));
+
+        assertNotNull(outcomes.get(0).reservation());
+        assertInstanceOf(SeatNotAvailableException.class, outcomes.get(1).error());
+        assertNotNull(outcomes.get(2).reservation());
+        verify(screeningRepository).decrementAvailableSeats(1L, 3);
+    }
+
+    @Test
+    void persist_GuardedDecrementUpdatesNothing_ScreeningBookingsFailWithoutInserts() {
+        when(screeningRepository.decrementAvailableSeats(1L, 2)).thenReturn(0);
+
+        List<ReservationBatchWriter.Outcome> outcomes = writer.persist(List.of(
+                booking(7L, new SeatRequest(1, 1)),
+                booking(7L, new SeatRequest(1, 2))));
+
+        outcomes.forEach(outcome -> assertInstanceOf(SeatNotAvailableException.class, outcome.error()));
+        assertTrue(executedBatches.isEmpty());
+        verifyNoInteractions(outboxService, moviePopularityRanking);
+    }
+
+    @Test
+    void persist_ConstraintViolation_RetriesOneByOne() {
+        when(jdbcTemplate.batchUpdate(any(PreparedStatementCreator.class),
+                any(BatchPreparedStatementSetter.class), any(KeyHolder.class)))
+                .thenThrow(new DataIntegrityViolationException("duplicate key"))
+                .thenAnswer(invocation -> {
+                    invocation.<KeyHolder>getArgument(2).getKeyList().add(Map.of("id", ids.incrementAndGet()));
+                    return new int[1];
+                })
+                .thenAnswer(invocation -> {
+                    invocation.<KeyHolder>getArgument(2).getKeyList().add(Map.of("id", ids.incrementAndGet()));
+                    return new int[1];
+                })
+                .thenThrow(new DataIntegrityViolationException("duplicate key"));
+
+        List<ReservationBatchWriter.Outcome> outcomes = writer.persist(List.of(
+                booking(7L, new SeatRequest(1, 1)),
+                booking(7L, new SeatRequest(3, 3))));
+
+        assertNotNull(outcomes.get(0).reservation());
+        assertInstanceOf(SeatNotAvailableException.class, outcomes.get(1).error());
+        verify(transactionManager, times(3)).getTransaction(any());
+        verify(moviePopularityRanking, times(1)).recordSeatsSold(any(), eq(1));
+    }
+
+    private ReservationBatchWriter.Booking booking(Long userId, SeatRequest... seats) {
+        return new ReservationBatchWriter.Booking(userId, 1L, List.of(seats));
+    }
+
+    private static boolean contains(Iterable<Long> values, Long value) {
+        for (Long candidate : values) {
+            if (candidate.equals(value)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String sqlOf(PreparedStatementCreator creator) throws Exception {
+        Connection connection = mock(Connection.class);
+        List<String> sql = new ArrayList<>();
+        when(connection.prepareStatement(anyString(), any(String[].class))).thenAnswer(invocation -> {
+            sql.add(invocation.getArgument(0));
+            return mock(PreparedStatement.class);
+        });
+        creator.createPreparedStatement(connection);
+        return sql.get(0);
+    }
+}
@@ -0,0 +1,53 @@
+package com.cinema.reservation.service;
+
+import com.cinema.reservation.dto.ReservationEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReservationEventMetricsTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ReservationEventMetrics metrics = new ReservationEventMetrics(meterRegistry);
+
+    @Test
+    void redeliveredEvents_CountedOnce() {
+        List<ReservationEvent> batch = List.of(event(1L, ReservationEvent.Type.CREATED),
+                event(2L, ReservationEvent.Type.CREATED), event(3L, ReservationEvent.Type.CANCELLED));
+
+        metrics.onEvents(batch);
+        // Po bisekcji relay ponawia część tej samej paczki
+        metrics.onEvents(batch.subList(0, 2));
+
+        assertEquals(2.0, count(ReservationEvent.Type.CREATED));
+        assertEquals(1.0, count(ReservationEvent.Type.CANCELLED));
+    }
+
+    @Test
+    void redeliveryOutsideWindow_CountedAgain() {
+        metrics.onEvents(List.of(event(1L, ReservationEvent.Type.CONFIRMED)));
+        List<ReservationEvent> newer = new ArrayList<>();
+        for (long id = 2; id <= ReservationEventMetrics.DEDUPLICATION_WINDOW + 1; id++) {
+            newer.add(event(id, ReservationEvent.Type.CREATED));
+        }
+        metrics.onEvents(newer);
+
+        metrics.onEvents(List.of(event(1L, ReservationEvent.Type.CONFIRMED)));
+
+        assertEquals(2.0, count(ReservationEvent.Type.CONFIRMED));
+    }
+
+    private double count(ReservationEvent.Type type) {
+        return meterRegistry.get("cinema.reservation.events").tag("type", type.name()).counter().count();
+    }
+
+    private static ReservationEvent event(Long id, ReservationEvent.Type type) {
+        ReservationEvent event = ReservationEvent.builder().type(type).reservationId(100L + id).build();
+        event.setEventId(id);
+        return event;
+    }
+}
@@ -0,0 +1,176 @@
+package com.cinema.reservation.service;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataAccessResourceFailureException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+class ReservationPartitionMaintenanceTest {
+
+    private static final YearMonth NOW = YearMonth.of(2026, 10);
+
+    private FakeJdbcTemplate jdbcTemplate;
+    private SimpleMeterRegistry meterRegistry;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate = new FakeJdbcTemplate();
+        meterRegistry = new SimpleMeterRegistry();
+    }
+
+    @Test
+    void maintain_CreatesMissingUpcomingPartitions() {
+        jdbcTemplate.existing.addAll(Set.of("reservations_p2026_10", "reserved_seats_p2026_10",
+                "reservations_p2026_11", "reserved_seats_p2026_11"));
+
+        maintenance(2, 0).maintain(NOW);
+
+        assertEquals(List.of(
+                "CREATE TABLE reservations_p2026_12 PARTITION OF reservations FOR VALUES FROM ('2026-12-01') TO ('2027-01-01')",
+                "CREATE TABLE reserved_seats_p2026_12 PARTITION OF reserved_seats FOR VALUES FROM ('2026-12-01') TO ('2027-01-01')"
+        ), jdbcTemplate.executed);
+        assertEquals(1.0, meterRegistry.get("cinema.partitions.created").tag("table", "reservations").counter().count());
+    }
+
+    @Test
+    void maintain_RowsAlreadyInDefault_AreMovedIntoNewPartition() {
+        jdbcTemplate.partitioned.remove("reserved_seats");
+        jdbcTemplate.existing.add("reservations_p2026_11");
+        jdbcTemplate.defaultHasRows = true;
+
+        maintenance(1, 0).maintain(NOW);
+
+        assertEquals(List.of(
+                "ALTER TABLE reservations DETACH PARTITION reservations_default",
+                "CREATE TABLE reservations_p2026_10 PARTITION OF reservations FOR VALUES FROM ('2026-10-01') TO ('2026-11-01')",
+                "DELETE FROM reservation_codes WHERE confirmation_code IN (SELECT confirmation_code FROM reservations_default "
+                        + "WHERE created_at >= '2026-10-01' AND created_at < '2026-11-01')",
+                "INSERT INTO reservations SELECT * FROM reservations_default WHERE created_at >= '2026-10-01' AND created_at < '2026-11-01'",
+                "DELETE FROM reservations_default WHERE created_at >= '2026-10-01' AND created_at < '2026-11-01'",
+                "ALTER TABLE reservations ATTACH PARTITION reservations_default DEFAULT"
+        ), jdbcTemplate.executed);
+    }
+
+    @Test
+    void maintain_DetachesPartitionsOutsideRetentionIntoArchive() {
+        jdbcTemplate.partitioned.remove("reserved_seats");
+        jdbcTemplate.existing.add("reservations_p2026_10");
+        jdbcTemplate.existing.add("reservations_p2026_11");
+        jdbcTemplate.children = List.of("reservations_default", "reservations_p2025_09",
+                "reservations_p2025_10", "reservations_p2026_10");
+
+        maintenance(1, 12).maintain(NOW);
+
+        assertEquals(List.of(
+                "DELETE FROM reservation_codes WHERE confirmation_code IN (SELECT confirmation_code FROM reservations_p2025_09)",
+                "ALTER TABLE reservations DETACH PARTITION reservations_p2025_09",
+                "ALTER TABLE reservations_p2025_09 SET SCHEMA archive"
+        ), jdbcTemplate.executed);
+        assertEquals(1.0, meterRegistry.get("cinema.partitions.detached").counter().count());
+    }
+
+    @Test
+    void maintain_NotPartitionedOrNotPostgres_DoesNothing() {
+        jdbcTemplate.partitioned.clear();
+        maintenance(3, 12).maintain(NOW);
+        assertTrue(jdbcTemplate.executed.isEmpty());
+
+        jdbcTemplate.failCatalogQueries = true;
+        maintenance(3, 12).maintain(NOW);
+        assertTrue(jdbcTemplate.executed.isEmpty());
+    }
+
+    @Test
+    void partitionMonth_ParsesOnlyOwnMonthlyPartitions() {
+        assertEquals(YearMonth.of(2025, 1), ReservationPartitionMaintenance.partitionMonth("reservations", "reservations_p2025_01"));
+        assertNull(ReservationPartitionMaintenance.partitionMonth("reservations", "reservations_default"));
+        assertNull(ReservationPartitionMaintenance.partitionMonth("reserved", "reserved_seats_p2025_01"));
+        assertEquals("reserved_seats_p2027_03", ReservationPartitionMaintenance.partitionName("reserved_seats", YearMonth.of(2027, 3)));
+        assertNull(ReservationPartitionMaintenance.partitionMonth("reservations", "reservations_p2025_01; DROP TABLE users"));
+    }
+
+    @Test
+    void partitionName_OnlyForMaintainedTables() {
+        assertThrows(IllegalArgumentException.class,
+                () -> ReservationPartitionMaintenance.partitionName("users; --", YearMonth.of(2027, 3)));
+        assertThrows(IllegalArgumentException.class, () -> ReservationPartitionMaintenance.identifier("Reservations\""));
+    }
+
+    @Test
+    void maintain_DetachUsesNameRegeneratedFromMonth() {
+        jdbcTemplate.partitioned.remove("reserved_seats");
+        jdbcTemplate.existing.addAll(Set.of("reservations_p2026_10", "reservations_p2026_11"));
+        jdbcTemplate.children = List.of("reservations_p2025_09", "reservations_p2025_09 CASCADE; --");
+
+        maintenance(1, 12).maintain(NOW);
+
+        assertEquals(List.of(
+                "DELETE FROM reservation_codes WHERE confirmation_code IN (SELECT confirmation_code FROM reservations_p2025_09)",
+                "ALTER TABLE reservations DETACH PARTITION reservations_p2025_09",
+                "ALTER TABLE reservations_p2025_09 SET SCHEMA archive"
+        ), jdbcTemplate.executed);
+    }
+
+    private ReservationPartitionMaintenance maintenance(int monthsAhead, int retentionMonths) {
+        return new ReservationPartitionMaintenance(jdbcTemplate, mock(PlatformTransactionManager.class),
+                meterRegistry, true, monthsAhead, retentionMonths);
+    }
+
+    /**
+     * Answers the catalog queries from in-memory state and records DDL/DML instead of running it.
+     */
+    private static class FakeJdbcTemplate extends JdbcTemplate {
+
+        final Set<String> partitioned = new HashSet<>(ReservationPartitionMaintenance.PARTITION_KEYS.keySet());
+        final Set<String> existing = new HashSet<>();
+        final List<String> executed = new ArrayList<>();
+        List<String> children = List.of();
+        boolean defaultHasRows;
+        boolean failCatalogQueries;
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> T queryForObject(String sql, Class<T> requiredType, Object... args) {
+            if (failCatalogQueries) {
+                throw new DataAccessResourceFailureException("no pg_catalog here");
+            }
+            if (sql.contains("pg_partitioned_table")) {
+                return (T) Boolean.valueOf(partitioned.contains((String) args[0]));
+            }
+            if (sql.contains("to_regclass")) {
+                return (T) Boolean.valueOf(existing.contains((String) args[0]));
+            }
+            if (sql.contains("_default WHERE")) {
+                return (T) Boolean.valueOf(defaultHasRows);
+            }
+            throw new IllegalStateException("Unexpected query: " + sql);
+        }
+
+        @Override
+        public <T> T queryForObject(String sql, Class<T> requiredType) {
+            return queryForObject(sql, requiredType, new Object[0]);
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public <T> List<T> queryForList(String sql, Class<T> elementType, Object... args) {
+            return (List<T>) children;
+        }
+
+        @Override
+        public void execute(String sql) {
+            executed.add(sql);
+        }
+    }
+}
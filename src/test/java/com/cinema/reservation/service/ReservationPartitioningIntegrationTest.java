@@ -0,0 +1,183 @@
+package com.cinema.reservation.service;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * The partitioned reservations schema from the Flyway migrations: what the dropped foreign key and unique index
+ * used to guarantee must still hold across partitions.
+ */
+@SpringBootTest
+@Testcontainers
+class ReservationPartitioningIntegrationTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:15")
+            .withDatabaseName("cinema_test")
+            .withUsername("test_user")
+            .withPassword("test_password");
+
+    @DynamicPropertySource
+    static void configureProperties(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", postgres::getJdbcUrl);
+        registry.add("spring.datasource.username", postgres::getUsername);
+        registry.add("spring.datasource.password", postgres::getPassword);
+        registry.add("spring.flyway.enabled", () -> "true");
+        registry.add("spring.jpa.hibernate.ddl-auto", () -> "none");
+        registry.add("cinema.outbox.relay.enabled", () -> "false");
+        registry.add("cinema.partitions.maintenance.enabled", () -> "false");
+    }
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private ReservationPartitionMaintenance partitionMaintenance;
+
+    @Autowired
+    private ReservationArchiveService archiveService;
+
+    private long userId;
+    private long hallId;
+    private long movieId;
+
+    @BeforeEach
+    void setUp() {
+        jdbcTemplate.update("DELETE FROM archive.reservations");
+        jdbcTemplate.update("DELETE FROM reservations");
+        jdbcTemplate.update("DELETE FROM reservation_codes");
+        jdbcTemplate.update("DELETE FROM screenings");
+        userId = id("INSERT INTO users (user_type, email, password, first_name, last_name) "
+                + "VALUES ('REGULAR', 'p' || nextval('users_id_seq') || '@cinema.com', 'x', 'Jan', 'Kowalski') RETURNING id");
+        movieId = id("INSERT INTO movies (title, duration_minutes, director) VALUES ('Diuna', 155, 'Villeneuve') RETURNING id");
+        long cinemaId = id("INSERT INTO cinemas (name, address) VALUES ('Luna', 'Marszałkowska 28') RETURNING id");
+        hallId = id("INSERT INTO cinema_halls (name, total_seats, rows, seats_per_row, cinema_id) "
+                + "VALUES ('Sala 1', 100, 10, 10, " + cinemaId + ") RETURNING id");
+    }
+
+    @Test
+    void deletingReservation_RemovesItsSeatsFromOtherPartitions() {
+        long nextMonths = reservationWithSeats(screening(LocalDateTime.now().plusMonths(2)), "CODE-A");
+        long farFuture = reservationWithSeats(screening(LocalDateTime.of(2099, 6, 1, 18, 0)), "CODE-B");
+        List<String> partitions = jdbcTemplate.queryForList(
+                "SELECT DISTINCT tableoid::regclass::text FROM reserved_seats ORDER BY 1", String.class);
+        assertEquals(2, partitions.size());
+        assertTrue(partitions.contains("reserved_seats_default"), partitions.toString());
+
+        jdbcTemplate.update("DELETE FROM reservations WHERE id IN (?, ?)", nextMonths, farFuture);
+
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM reserved_seats", Integer.class));
+    }
+
+    @Test
+    void confirmationCode_UniqueAcrossPartitionsAndNeverReissued() {
+        long screening = screening(LocalDateTime.now().plusDays(3));
+        long first = reservation(screening, "CODE-X", LocalDateTime.now());
+
+        assertThrows(DataIntegrityViolationException.class,
+                () -> reservation(screening, "CODE-X", LocalDateTime.now().minusMonths(2)));
+
+        jdbcTemplate.update("DELETE FROM reservations WHERE id = ?", first);
+        assertThrows(DataIntegrityViolationException.class,
+                () -> reservation(screening, "CODE-X", LocalDateTime.now()));
+        reservation(screening, "CODE-Y", LocalDateTime.now());
+        assertEquals(2, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM reservation_codes", Integer.class));
+    }
+
+    @Test
+    void archive_MovesFinishedScreeningAndKeepsCodeUnique() {
+        reservationWithSeats(screening(LocalDateTime.now().minusDays(120)), "CODE-OLD");
+
+        assertTrue(archiveService.archiveBatch() >= 1);
+
+        assertEquals(List.of("A1", "A2"), archiveService.findByConfirmationCode("CODE-OLD").orElseThrow().getSeats());
+        // Kod przeszedł do archiwum - tam pilnuje go unikalny indeks, reservation_codes trzyma tylko żywe rezerwacje
+        assertEquals(0, codes("CODE-OLD"));
+        assertThrows(DataIntegrityViolationException.class, () -> jdbcTemplate.update(
+                "INSERT INTO archive.reservations (id, user_id, screening_id, total_price, status, created_at, "
+                        + "confirmation_code, archived_at) VALUES (-1, ?, -1, 1.00, 'CONFIRMED', now(), 'CODE-OLD', now())",
+                userId));
+    }
+
+    @Test
+    void maintenance_DetachedPartitionRetiresItsCodes() {
+        YearMonth old = YearMonth.now().minusMonths(30);
+        long screening = screening(LocalDateTime.now().plusDays(1));
+        reservation(screening, "CODE-DEFAULT", old.atDay(15).atTime(12, 0));
+        reservation(screening, "CODE-KEPT", LocalDateTime.now());
+
+        // Partycja starego miesiąca powstaje, gdy jego wiersze leżą już w DEFAULT - przeniesienie nie dubluje kodu
+        partitionMaintenance.maintain(old);
+        assertEquals(1, codes("CODE-DEFAULT"));
+
+        partitionMaintenance.maintain(YearMonth.now());
+
+        assertEquals(0, codes("CODE-DEFAULT"));
+        assertEquals(1, codes("CODE-KEPT"));
+        assertEquals(Boolean.TRUE, jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL", Boolean.class,
+                "archive." + ReservationPartitionMaintenance.partitionName("reservations", old)));
+    }
+
+    @Test
+    void maintenance_CreatesPartitionsNamedFromMonth() {
+        YearMonth month = YearMonth.now().plusMonths(6);
+
+        partitionMaintenance.maintain(month);
+
+        for (String table : ReservationPartitionMaintenance.PARTITION_KEYS.keySet()) {
+            String partition = ReservationPartitionMaintenance.partitionName(table, month);
+            assertEquals(Boolean.TRUE, jdbcTemplate.queryForObject("SELECT to_regclass(?) IS NOT NULL",
+                    Boolean.class, partition), partition);
+        }
+    }
+
+    private long screening(LocalDateTime start) {
+        return id("INSERT INTO screenings (movie_id, hall_id, start_time, end_time, price, available_seats) "
+                + "VALUES (?, ?, ?, ?, 25.00, 100) RETURNING id", movieId, hallId,
+                Timestamp.valueOf(start), Timestamp.valueOf(start.plusHours(3)));
+    }
+
+    private long reservationWithSeats(long screeningId, String code) {
+        long reservationId = reservation(screeningId, code, LocalDateTime.now());
+        Timestamp start = jdbcTemplate.queryForObject("SELECT start_time FROM screenings WHERE id = ?",
+                Timestamp.class, screeningId);
+        for (int seat = 1; seat <= 2; seat++) {
+            jdbcTemplate.update("INSERT INTO reserved_seats (reservation_id, screening_id, row_number, seat_number, "
+                    + "screening_start) VALUES (?, ?, 1, ?, ?)", reservationId, screeningId, seat, start);
+        }
+        return reservationId;
+    }
+
+    private long reservation(long screeningId, String code, LocalDateTime createdAt) {
+        return id("INSERT INTO reservations (user_id, screening_id, total_price, status, created_at, confirmation_code) "
+                + "VALUES (?, ?, 50.00, 'CONFIRMED', ?, ?) RETURNING id", userId, screeningId,
+                Timestamp.valueOf(createdAt), code);
+    }
+
+    private int codes(String code) {
+        return jdbcTemplate.queryForObject("SELECT COUNT(*) FROM reservation_codes WHERE confirmation_code = ?",
+                Integer.class, code);
+    }
+
+    private long id(String sql, Object... args) {
+        Long id = jdbcTemplate.queryForObject(sql, Long.class, args);
+        assertNotNull(id);
+        return id;
+    }
+}
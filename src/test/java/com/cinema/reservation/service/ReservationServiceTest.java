@@ -1,28 +1,38 @@
 package com.cinema.reservation.service;
 
 import com.cinema.reservation.dto.ReservationCreateRequest;
+import com.cinema.reservation.dto.ReservationEvent;
 import com.cinema.reservation.dto.ReservationStatistics;
 import com.cinema.reservation.dto.SeatRequest;
 import com.cinema.reservation.entity.*;
 import com.cinema.reservation.exception.*;
 import com.cinema.reservation.repository.ReservationRepository;
 import com.cinema.reservation.repository.ReservedSeatRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageImpl;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.time.Duration;
 import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.*;
@@ -43,6 +53,36 @@ class ReservationServiceTest {
     @Mock
     private UserService userService;
 
+    @Mock
+    private MoviePopularityRanking moviePopularityRanking;
+
+    @Mock
+    private ConfirmationCodeGenerator confirmationCodeGenerator;
+
+    @Spy
+    private SeatAllocator seatAllocator = new SeatAllocator();
+
+    @Mock
+    private ScreeningLockManager screeningLockManager;
+
+    @Mock
+    private BookingEngine bookingEngine;
+
+    @Mock
+    private ReservationGroupCommitter reservationGroupCommitter;
+
+    @Mock
+    private OutboxService outboxService;
+
+    @Spy
+    private OptimisticLockRetry optimisticLockRetry = new OptimisticLockRetry(new SimpleMeterRegistry(),
+            3, Duration.ZERO, Duration.ZERO, 0.2, 20);
+
+    private final PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+
+    @Spy
+    private TransactionTemplate transactionTemplate = new TransactionTemplate(transactionManager);
+
     @InjectMocks
     private ReservationService reservationService;
 
@@ -131,6 +171,172 @@ class ReservationServiceTest {
         verify(reservationRepository).save(any(Reservation.class));
         verify(reservedSeatRepository).saveAll(anyList());
         verify(screeningService).reserveSeats(1L, 2);
+        verify(outboxService).record(ReservationEvent.Type.CREATED, testReservation);
+    }
+
+    @Test
+    void createReservation_WaitingForScreeningLock_HoldsNoConnection() throws Exception {
+        when(userService.findById(1L)).thenReturn(Optional.of(testUser));
+        when(screeningService.findById(1L)).thenReturn(Optional.of(testScreening));
+        when(reservationRepository.save(any(Reservation.class))).thenReturn(testReservation);
+        CountDownLatch waiting = new CountDownLatch(1);
+        CountDownLatch released = new CountDownLatch(1);
+        when(screeningLockManager.lock(1L)).thenAnswer(invocation -> {
+            waiting.countDown();
+            released.await();
+            return (ScreeningLockManager.Releasable) () -> { };
+        });
+
+        CompletableFuture<Reservation> result = CompletableFuture.supplyAsync(
+                () -> reservationService.createReservation(reservationRequest));
+        assertTrue(waiting.await(5, TimeUnit.SECONDS));
+
+        // Połączenie z puli przychodzi z transakcją - czekający na blokadę nie może jej mieć
+        verifyNoInteractions(transactionManager, userService, screeningService, reservationRepository);
+
+        released.countDown();
+        assertEquals(testReservation, result.get(5, TimeUnit.SECONDS));
+        verify(transactionManager).getTransaction(any());
+        verify(transactionManager).commit(any());
+    }
+
+    @Test
+    void cancelReservation_WaitingForScreeningLock_HoldsNoConnection() throws Exception {
+        testReservation.setStatus(Reservation.ReservationStatus.CONFIRMED);
+        testReservation.setReservedSeats(Arrays.asList(new ReservedSeat(), new ReservedSeat()));
+        when(reservationRepository.findScreeningIdById(1L)).thenReturn(Optional.of(1L));
+        when(reservationRepository.findById(1L)).thenReturn(Optional.of(testReservation));
+        when(reservationRepository.save(any(Reservation.class))).thenReturn(testReservation);
+        CountDownLatch waiting = new CountDownLatch(1);
+        CountDownLatch released = new CountDownLatch(1);
+        when(screeningLockManager.lock(1L)).thenAnswer(invocation -> {
+            waiting.countDown();
+            released.await();
+            return (ScreeningLockManager.Releasable) () -> { };
+        });
+
+        CompletableFuture<Reservation> result = CompletableFuture.supplyAsync(
+                () -> reservationService.cancelReservation(1L));
+        assertTrue(waiting.await(5, TimeUnit.SECONDS));
+
+        // Odczyt seansu zamknął już swoją transakcję, właściwa jeszcze się nie zaczęła
+        verify(transactionManager, times(1)).getTransaction(any());
+        verify(transactionManager, times(1)).commit(any());
+        verify(reservationRepository, never()).findById(anyLong());
+
+        released.countDown();
+        assertEquals(Reservation.ReservationStatus.CANCELLED, result.get(5, TimeUnit.SECONDS).getStatus());
+        verify(transactionManager, times(2)).commit(any());
+    }
+
+    @Test
+    void createReservation_RingBufferMode_DelegatesToBookingEngine() {
+        // Given
+        when(bookingEngine.isEnabled()).thenReturn(true);
+        when(bookingEngine.submit(reservationRequest)).thenReturn(testReservation);
+
+        // When
+        Reservation result = reservationService.createReservation(reservationRequest);
+
+        // Then
+        assertSame(testReservation, result);
+        verifyNoInteractions(userService, screeningService, reservationRepository, screeningLockManager);
+    }
+
+    @Test
+    void createReservation_GroupCommit_ChecksSeatsAndQueuesBooking() {
+        // Given
+        when(reservationGroupCommitter.isEnabled()).thenReturn(true);
+        when(userService.findById(1L)).thenReturn(Optional.of(testUser));
+        when(screeningService.findById(1L)).thenReturn(Optional.of(testScreening));
+        when(reservationGroupCommitter.submit(any())).thenReturn(testReservation);
+
+        // When
+        Reservation result = reservationService.createReservation(reservationRequest);
+
+        // Then
+        assertSame(testReservation, result);
+        verify(reservationGroupCommitter).submit(new ReservationBatchWriter.Booking(1L, 1L, reservationRequest.getSeats()));
+        verify(reservedSeatRepository, times(2)).existsByScreeningIdAndRowNumberAndSeatNumber(anyLong(), anyInt(), anyInt());
+        verify(reservationRepository, never()).save(any());
+    }
+
+    @Test
+    void createReservation_GroupCommitSeatTaken_ThrowsBeforeQueueing() {
+        // Given
+        when(reservationGroupCommitter.isEnabled()).thenReturn(true);
+        when(userService.findById(1L)).thenReturn(Optional.of(testUser));
+        when(screeningService.findById(1L)).thenReturn(Optional.of(testScreening));
+        when(reservedSeatRepository.existsByScreeningIdAndRowNumberAndSeatNumber(1L, 1, 5)).thenReturn(true);
+
+        // When & Then
+        assertThrows(SeatNotAvailableException.class, () -> reservationService.createReservation(reservationRequest));
+        verify(reservationGroupCommitter, never()).submit(any());
+    }
+
+    @Test
+    void createReservation_BestAvailable_AllocatesContiguousBlockUnderLock() {
+        // Given
+        testHall.setRows(5);
+        testHall.setSeatsPerRow(8);
+        reservationRequest.setSeats(null);
+        reservationRequest.setQuantity(3);
+        when(userService.findById(1L)).thenReturn(Optional.of(testUser));
+        when(screeningService.findByIdForUpdate(1L)).thenReturn(Optional.of(testScreening));
+        when(reservedSeatRepository.findSeatCoordinatesForScreening(1L))
+                .thenReturn(List.<Object[]>of(new Object[]{3, 4}, new Object[]{3, 5}));
+        when(reservationRepository.save(any(Reservation.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        Reservation result = reservationService.createReservation(reservationRequest);
+
+        // Then
+        assertEquals(3, result.getReservedSeats().size());
+        assertEquals(new BigDecimal("150.00"), result.getTotalPrice());
+        int row = result.getReservedSeats().get(0).getRowNumber();
+        assertTrue(result.getReservedSeats().stream().allMatch(seat -> seat.getRowNumber() == row));
+        verify(screeningService, never()).findById(anyLong());
+        verify(reservedSeatRepository, never()).existsByScreeningIdAndRowNumberAndSeatNumber(anyLong(), anyInt(), anyInt());
+        verify(screeningService).reserveSeats(1L, 3);
+    }
+
+    @Test
+    void createReservation_BestAvailableNoBlock_ThrowsException() {
+        // Given
+        testHall.setRows(1);
+        testHall.setSeatsPerRow(3);
+        reservationRequest.setSeats(null);
+        reservationRequest.setQuantity(2);
+        when(userService.findById(1L)).thenReturn(Optional.of(testUser));
+        when(screeningService.findByIdForUpdate(1L)).thenReturn(Optional.of(testScreening));
+        when(reservedSeatRepository.findSeatCoordinatesForScreening(1L))
+                .thenReturn(List.<Object[]>of(new Object[]{1, 2}));
+
+        // When & Then
+        assertThrows(SeatNotAvailableException.class,
+                () -> reservationService.createReservation(reservationRequest));
+        verify(reservationRepository, never()).save(any());
+    }
+
+    @Test
+    void createReservation_InvalidQuantity_ThrowsException() {
+        // Given
+        reservationRequest.setSeats(null);
+        reservationRequest.setQuantity(21);
+
+        // When & Then
+        assertThrows(InvalidReservationDataException.class,
+                () -> reservationService.createReservation(reservationRequest));
+    }
+
+    @Test
+    void createReservation_SeatsAndQuantity_ThrowsException() {
+        // Given
+        reservationRequest.setQuantity(2);
+
+        // When & Then
+        assertThrows(InvalidReservationDataException.class,
+                () -> reservationService.createReservation(reservationRequest));
     }
 
     @Test
@@ -233,6 +439,36 @@ class ReservationServiceTest {
         assertEquals(testReservation, result.get());
     }
 
+    @Test
+    void findByConfirmationCode_GeneratedCodeWithTypos_IsNormalized() {
+        // Given
+        String code = new ConfirmationCodeGenerator(1, "secret").next();
+        String typed = code.toLowerCase().replace('0', 'o').replace('1', 'l');
+        when(reservationRepository.findByConfirmationCode(code)).thenReturn(Optional.of(testReservation));
+
+        // When
+        Optional<Reservation> result = reservationService.findByConfirmationCode(typed);
+
+        // Then
+        assertTrue(result.isPresent());
+        verify(reservationRepository).findByConfirmationCode(code);
+    }
+
+    @Test
+    void createReservation_AssignsGeneratedConfirmationCode() {
+        // Given
+        when(userService.findById(1L)).thenReturn(Optional.of(testUser));
+        when(screeningService.findById(1L)).thenReturn(Optional.of(testScreening));
+        when(confirmationCodeGenerator.next()).thenReturn("0ABCDEFGHJKMN5");
+        when(reservationRepository.save(any(Reservation.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        // When
+        Reservation result = reservationService.createReservation(reservationRequest);
+
+        // Then
+        assertEquals("0ABCDEFGHJKMN5", result.getConfirmationCode());
+    }
+
     @Test
     void findByConfirmationCode_ExistingReservation_ReturnsReservation() {
         // Given
@@ -290,6 +526,38 @@ class ReservationServiceTest {
         // Then
         assertEquals(Reservation.ReservationStatus.CONFIRMED, result.getStatus());
         verify(reservationRepository).save(testReservation);
+        verify(outboxService).record(ReservationEvent.Type.CONFIRMED, testReservation);
+    }
+
+    @Test
+    void confirmReservation_RacingCancellation_RetriedAndSeesNewState() {
+        // Given - pierwszy zapis przegrywa z równoległym anulowaniem
+        Reservation cancelled = new Reservation();
+        cancelled.setId(1L);
+        cancelled.setStatus(Reservation.ReservationStatus.CANCELLED);
+        testReservation.setStatus(Reservation.ReservationStatus.PENDING);
+        when(reservationRepository.findById(1L)).thenReturn(Optional.of(testReservation), Optional.of(cancelled));
+        when(reservationRepository.save(any(Reservation.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Reservation.class, 1L));
+
+        // When & Then
+        assertThrows(InvalidReservationStateException.class, () -> reservationService.confirmReservation(1L));
+        verify(reservationRepository, times(2)).findById(1L);
+    }
+
+    @Test
+    void confirmReservation_PersistentConflict_GivesUpAfterMaxAttempts() {
+        // Given
+        when(reservationRepository.findById(1L)).thenAnswer(invocation -> {
+            testReservation.setStatus(Reservation.ReservationStatus.PENDING);
+            return Optional.of(testReservation);
+        });
+        when(reservationRepository.save(any(Reservation.class)))
+                .thenThrow(new ObjectOptimisticLockingFailureException(Reservation.class, 1L));
+
+        // When & Then
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> reservationService.confirmReservation(1L));
+        verify(reservationRepository, times(3)).save(any(Reservation.class));
     }
 
     @Test
@@ -320,6 +588,7 @@ class ReservationServiceTest {
         testReservation.setReservedSeats(Arrays.asList(new ReservedSeat(), new ReservedSeat()));
         testScreening.setStartTime(LocalDateTime.now().plusDays(1)); // More than 2 hours away
 
+        when(reservationRepository.findScreeningIdById(1L)).thenReturn(Optional.of(1L));
         when(reservationRepository.findById(1L)).thenReturn(Optional.of(testReservation));
         when(reservationRepository.save(any(Reservation.class))).thenReturn(testReservation);
         when(screeningService.reserveSeats(1L, -2)).thenReturn(true);
@@ -331,12 +600,14 @@ class ReservationServiceTest {
         assertEquals(Reservation.ReservationStatus.CANCELLED, result.getStatus());
         verify(screeningService).reserveSeats(1L, -2);
         verify(reservationRepository).save(testReservation);
+        verify(outboxService).record(ReservationEvent.Type.CANCELLED, testReservation);
     }
 
     @Test
     void cancelReservation_AlreadyCancelled_ThrowsException() {
         // Given
         testReservation.setStatus(Reservation.ReservationStatus.CANCELLED);
+        when(reservationRepository.findScreeningIdById(1L)).thenReturn(Optional.of(1L));
         when(reservationRepository.findById(1L)).thenReturn(Optional.of(testReservation));
 
         // When & Then
@@ -350,6 +621,7 @@ class ReservationServiceTest {
         testReservation.setStatus(Reservation.ReservationStatus.CONFIRMED);
         testScreening.setStartTime(LocalDateTime.now().plusHours(1)); // Less than 2 hours away
 
+        when(reservationRepository.findScreeningIdById(1L)).thenReturn(Optional.of(1L));
         when(reservationRepository.findById(1L)).thenReturn(Optional.of(testReservation));
 
         // When & Then
@@ -0,0 +1,123 @@
+package com.cinema.reservation.service;
+
+import com.cinema.reservation.exception.ScreeningBusyException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ScreeningLockManagerTest {
+
+    private SimpleMeterRegistry meterRegistry;
+    private ScreeningLockManager lockManager;
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        lockManager = new ScreeningLockManager(meterRegistry, true, 16, false, Duration.ofMillis(100));
+        executor = Executors.newSingleThreadExecutor();
+    }
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+    }
+
+    @Test
+    void lock_SameScreeningHeldElsewhere_TimesOut() throws Exception {
+        try (ScreeningLockManager.Releasable ignored = lockManager.lock(1L)) {
+            CompletableFuture<Void> other = CompletableFuture.runAsync(() -> lockManager.lock(1L).close(), executor);
+
+            Exception e = assertThrows(Exception.class, () -> other.get(5, TimeUnit.SECONDS));
+            assertInstanceOf(ScreeningBusyException.class, e.getCause());
+        }
+
+        assertEquals(1.0, meterRegistry.counter("cinema.booking.lock.timeouts").count());
+        assertEquals(2, meterRegistry.timer("cinema.booking.lock.wait").count());
+    }
+
+    @Test
+    void lock_ReleasedOnClose_OtherThreadProceeds() throws Exception {
+        lockManager.lock(1L).close();
+
+        CompletableFuture.runAsync(() -> lockManager.lock(1L).close(), executor).get(5, TimeUnit.SECONDS);
+
+        assertEquals(0.0, meterRegistry.counter("cinema.booking.lock.timeouts").count());
+    }
+
+    @Test
+    void lock_InsideTransaction_HeldUntilCompletion() throws Exception {
+        TransactionSynchronizationManager.initSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(true);
+
+        lockManager.lock(7L).close();
+        CompletableFuture<Void> blocked = CompletableFuture.runAsync(() -> lockManager.lock(7L).close(), executor);
+        assertThrows(Exception.class, () -> blocked.get(5, TimeUnit.SECONDS));
+
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            synchronization.afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+        }
+        TransactionSynchronizationManager.clearSynchronization();
+        TransactionSynchronizationManager.setActualTransactionActive(false);
+
+        CompletableFuture.runAsync(() -> lockManager.lock(7L).close(), executor).get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    void lock_SynchronizationWithoutTransaction_ReleasedOnClose() throws Exception {
+        // Zakres @Transactional(SUPPORTS) bez transakcji - blokada bierze się przed transakcją i zwalnia po niej
+        TransactionSynchronizationManager.initSynchronization();
+
+        lockManager.lock(7L).close();
+
+        CompletableFuture.runAsync(() -> lockManager.lock(7L).close(), executor).get(5, TimeUnit.SECONDS);
+        assertTrue(TransactionSynchronizationManager.getSynchronizations().isEmpty());
+    }
+
+    @Test
+    void queueDepth_ReportsWaitingThreads() throws Exception {
+        ScreeningLockManager patient = new ScreeningLockManager(meterRegistry, true, 16, true, Duration.ofSeconds(5));
+        ScreeningLockManager.Releasable held = patient.lock(3L);
+        CompletableFuture<Void> queued = CompletableFuture.runAsync(() -> patient.lock(3L).close(), executor);
+
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (patient.queueDepth() == 0 && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        assertEquals(1, patient.queueDepth());
+
+        held.close();
+        queued.get(5, TimeUnit.SECONDS);
+        assertEquals(0, patient.queueDepth());
+    }
+
+    @Test
+    void lock_Disabled_NeverBlocks() throws Exception {
+        ScreeningLockManager disabled = new ScreeningLockManager(meterRegistry, false, 16, false, Duration.ofMillis(10));
+
+        try (ScreeningLockManager.Releasable ignored = disabled.lock(1L)) {
+            CompletableFuture.runAsync(() -> disabled.lock(1L).close(), executor).get(5, TimeUnit.SECONDS);
+        }
+    }
+
+    @Test
+    void lock_NullScreening_IsNoOp() {
+        assertDoesNotThrow(() -> lockManager.lock(null).close());
+        assertEquals(0, meterRegistry.timer("cinema.booking.lock.wait").count());
+    }
+}
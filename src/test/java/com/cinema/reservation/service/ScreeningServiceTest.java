@@ -1,6 +1,8 @@
 package com.cinema.reservation.service;
 
 import com.cinema.reservation.dto.ScreeningCreateRequest;
+import com.cinema.reservation.dto.ScreeningSearchCriteria;
+import com.cinema.reservation.dto.ScreeningSearchRow;
 import com.cinema.reservation.entity.CinemaHall;
 import com.cinema.reservation.entity.Movie;
 import com.cinema.reservation.entity.Screening;
@@ -16,6 +18,9 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
@@ -25,6 +30,7 @@ import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -39,6 +45,12 @@ class ScreeningServiceTest {
     @Mock
     private CinemaHallRepository cinemaHallRepository;
 
+    @Mock
+    private MoviePopularityRanking moviePopularityRanking;
+
+    @Mock
+    private CatalogVersions catalogVersions;
+
     @InjectMocks
     private ScreeningService screeningService;
 
@@ -104,6 +116,8 @@ class ScreeningServiceTest {
         assertTrue(result);
         assertEquals(95, testScreening.getAvailableSeats());
         verify(screeningRepository).save(testScreening);
+        // Rezerwacja nie zmienia harmonogramu - ETagi seansów zostają ważne
+        verify(catalogVersions, never()).bump(any());
     }
 
     @Test
@@ -113,12 +127,51 @@ class ScreeningServiceTest {
         boolean result = screeningService.reserveSeats(1L, 5);
         assertFalse(result);
         verify(screeningRepository, never()).save(any());
+        verify(catalogVersions, never()).bump(any());
     }
 
     @Test
     void deleteScreening_ExistingScreening_Success() {
         when(screeningRepository.existsById(1L)).thenReturn(true);
         assertDoesNotThrow(() -> screeningService.deleteScreening(1L));
+        verify(moviePopularityRanking).recordScreeningRemoved(1L);
         verify(screeningRepository).deleteById(1L);
     }
+
+    @Test
+    void search_ValidCriteria_DelegatesToRepository() {
+        ScreeningSearchCriteria criteria = ScreeningSearchCriteria.builder()
+                .city("Warszawa")
+                .hallType(CinemaHall.HallType.IMAX)
+                .minSeats(2)
+                .build();
+        PageRequest pageRequest = PageRequest.of(0, 20);
+        Page<ScreeningSearchRow> page = new PageImpl<>(List.of(new ScreeningSearchRow()), pageRequest, 1);
+        when(screeningRepository.search(eq(criteria), any(LocalDateTime.class), eq(pageRequest))).thenReturn(page);
+
+        Page<ScreeningSearchRow> result = screeningService.search(criteria, pageRequest);
+
+        assertEquals(1, result.getTotalElements());
+    }
+
+    @Test
+    void search_NonPositiveMaxPrice_ThrowsException() {
+        ScreeningSearchCriteria criteria = ScreeningSearchCriteria.builder()
+                .maxPrice(BigDecimal.ZERO)
+                .build();
+
+        assertThrows(InvalidScreeningDataException.class,
+                () -> screeningService.search(criteria, PageRequest.of(0, 20)));
+        verify(screeningRepository, never()).search(any(), any(), any());
+    }
+
+    @Test
+    void search_InvalidMinSeats_ThrowsException() {
+        ScreeningSearchCriteria criteria = ScreeningSearchCriteria.builder()
+                .minSeats(0)
+                .build();
+
+        assertThrows(InvalidScreeningDataException.class,
+                () -> screeningService.search(criteria, PageRequest.of(0, 20)));
+    }
 }
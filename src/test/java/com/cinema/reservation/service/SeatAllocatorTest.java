@@ -0,0 +1,78 @@
+package com.cinema.reservation.service;
+
+import com.cinema.reservation.dto.SeatRequest;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SeatAllocatorTest {
+
+    private final SeatAllocator allocator = new SeatAllocator();
+
+    @Test
+    void findBestBlock_EmptyHall_PicksCentralSeatsInPreferredRow() {
+        boolean[] occupied = new boolean[10 * 12];
+
+        List<SeatRequest> seats = allocator.findBestBlock(10, 12, occupied, 4).orElseThrow();
+
+        assertEquals(4, seats.size());
+        assertTrue(seats.stream().allMatch(seat -> seat.getRowNumber() == 7));
+        assertEquals(List.of(5, 6, 7, 8), seats.stream().map(SeatRequest::getSeatNumber).toList());
+    }
+
+    @Test
+    void findBestBlock_CenterTaken_ShiftsToNearestContiguousBlock() {
+        boolean[] occupied = SeatAllocator.occupancyGrid(10, 12, List.of(
+                new Object[]{7, 6}, new Object[]{7, 7}));
+
+        List<SeatRequest> seats = allocator.findBestBlock(10, 12, occupied, 4).orElseThrow();
+
+        // Blok musi być ciągły i omijać zajęte miejsca
+        int row = seats.get(0).getRowNumber();
+        for (int i = 0; i < seats.size(); i++) {
+            assertEquals(row, seats.get(i).getRowNumber());
+            assertEquals(seats.get(0).getSeatNumber() + i, seats.get(i).getSeatNumber());
+            assertFalse(occupied[(row - 1) * 12 + seats.get(i).getSeatNumber() - 1]);
+        }
+    }
+
+    @Test
+    void findBestBlock_FragmentedRows_SkipsRowsWithoutLongEnoughRun() {
+        boolean[] occupied = new boolean[3 * 5];
+        // Rząd 2 (preferowany) ma tylko pojedyncze wolne miejsca
+        occupied[5 + 1] = true;
+        occupied[5 + 3] = true;
+
+        List<SeatRequest> seats = allocator.findBestBlock(3, 5, occupied, 3).orElseThrow();
+
+        assertNotEquals(2, seats.get(0).getRowNumber());
+    }
+
+    @Test
+    void findBestBlock_NoContiguousBlock_ReturnsEmpty() {
+        boolean[] occupied = new boolean[2 * 4];
+        occupied[1] = true;
+        occupied[4 + 2] = true;
+
+        Optional<List<SeatRequest>> seats = allocator.findBestBlock(2, 4, occupied, 3);
+
+        assertTrue(seats.isEmpty());
+    }
+
+    @Test
+    void findBestBlock_QuantityWiderThanRow_ReturnsEmpty() {
+        assertTrue(allocator.findBestBlock(5, 8, new boolean[40], 9).isEmpty());
+        assertTrue(allocator.findBestBlock(5, 8, new boolean[40], 0).isEmpty());
+    }
+
+    @Test
+    void occupancyGrid_IgnoresSeatsOutsideLayout() {
+        boolean[] occupied = SeatAllocator.occupancyGrid(2, 2, List.of(
+                new Object[]{1, 1}, new Object[]{3, 1}, new Object[]{2, 5}));
+
+        assertArrayEquals(new boolean[]{true, false, false, false}, occupied);
+    }
+}
@@ -0,0 +1,90 @@
+package com.cinema.reservation.smoke;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.client.RestClient;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * End-to-end booking against a running instance - the native executable or the JVM jar - backed by a real
+ * PostgreSQL (e.g. the database from docker-compose). Sets up a cinema, hall, movie and screening as the
+ * default admin, registers a user, books two seats and then prints the startup and memory figures of the
+ * instance, so the same run gives the native-vs-JVM comparison. Not part of the regular build:
+ * {@code mvn test -Dsmoke.base-url=http://localhost:8080 -Dtest=ReservationSmokeTest -Dsurefire.failIfNoSpecifiedTests=false}.
+ */
+@EnabledIfSystemProperty(named = "smoke.base-url", matches = ".+")
+class ReservationSmokeTest {
+
+    private final String baseUrl = System.getProperty("smoke.base-url");
+    private final RestClient admin = client(System.getProperty("smoke.admin-user", "admin@cinema.com"),
+            System.getProperty("smoke.admin-password", "admin1234!"));
+
+    @Test
+    void bookReservation() {
+        long cinemaId = post(admin, "/api/cinemas", Map.of("name", "Smoke Cinema", "address", "Testowa 1", "city", "Kraków"));
+        long hallId = post(admin, "/api/cinemas/" + cinemaId + "/halls",
+                Map.of("name", "Sala 1", "totalSeats", 20, "rows", 2, "seatsPerRow", 10, "hallType", "STANDARD"));
+        long movieId = post(admin, "/api/movies",
+                Map.of("title", "Smoke Test", "director", "Smoke", "durationMinutes", 100, "genre", "DRAMA"));
+        // Losowy termin - kolejne przebiegi na tej samej bazie nie kolidują z wcześniejszymi seansami
+        LocalDateTime start = LocalDateTime.now().plusDays(30).plusMinutes(ThreadLocalRandom.current().nextInt(500_000))
+                .truncatedTo(ChronoUnit.MINUTES);
+        long screeningId = post(admin, "/api/screenings", Map.of("movieId", movieId, "hallId", hallId,
+                "startTime", start.toString(), "endTime", start.plusMinutes(120).toString(), "price", "25.00"));
+
+        String email = "smoke-" + System.nanoTime() + "@cinema.com";
+        long userId = post(RestClient.create(baseUrl), "/api/users/register", Map.of("userType", "REGULAR",
+                "email", email, "password", "Smoke1234!", "firstName", "Smoke", "lastName", "Test",
+                "phoneNumber", "+48123456789"));
+        RestClient user = client(email, "Smoke1234!");
+
+        ResponseEntity<JsonNode> created = user.post().uri("/api/reservations")
+                .body(Map.of("userId", userId, "screeningId", screeningId,
+                        "seats", List.of(Map.of("rowNumber", 1, "seatNumber", 1), Map.of("rowNumber", 1, "seatNumber", 2))))
+                .retrieve().toEntity(JsonNode.class);
+        assertEquals(HttpStatus.CREATED, created.getStatusCode());
+        JsonNode reservation = created.getBody();
+        assertNotNull(reservation);
+        assertEquals(2, reservation.path("reservedSeats").size());
+        assertFalse(reservation.path("confirmationCode").asText().isEmpty());
+
+        JsonNode fetched = user.get().uri("/api/reservations/{id}", reservation.path("id").asLong())
+                .retrieve().body(JsonNode.class);
+        assertEquals(reservation.path("confirmationCode").asText(), fetched.path("confirmationCode").asText());
+        assertEquals(18, admin.get().uri("/api/screenings/{id}/availability", screeningId).retrieve().body(JsonNode.class)
+                .path("availableSeats").asInt());
+
+        System.out.printf("smoke %s: ready %.0f ms, first request %.0f ms, RSS %.0f MB%n", baseUrl,
+                metric("application.ready.time") * 1000, metric("cinema.startup.first-request") * 1000,
+                metric("cinema.process.resident-memory") / (1024 * 1024));
+    }
+
+    private long post(RestClient client, String uri, Map<String, ?> body) {
+        JsonNode created = client.post().uri(uri).body(body).retrieve().body(JsonNode.class);
+        assertNotNull(created, uri);
+        return created.path("id").asLong();
+    }
+
+    private double metric(String name) {
+        JsonNode metric = admin.get().uri("/actuator/metrics/{name}", name).retrieve().body(JsonNode.class);
+        return metric.path("measurements").path(0).path("value").asDouble(Double.NaN);
+    }
+
+    private RestClient client(String username, String password) {
+        return RestClient.builder().baseUrl(baseUrl)
+                .defaultHeaders(headers -> headers.setBasicAuth(username, password))
+                .defaultHeader(HttpHeaders.ACCEPT, "application/json")
+                .build();
+    }
+}
@@ -0,0 +1,55 @@
+-- Dataset for QueryPlanIntegrationTest. Ids are derived from MAX(id), because DataInitializer inserts users first.
+INSERT INTO users (user_type, email, password, first_name, last_name, phone_number, created_at, updated_at)
+SELECT CASE WHEN g % 100 = 0 THEN 'ADMIN' ELSE 'REGULAR' END,
+       'plan-user-' || g || '@cinema.test', 'secret', 'First' || g, 'Last' || g, '600000000',
+       now() - g * INTERVAL '1 hour', now()
+FROM generate_series(1, 2000) AS g;
+
+INSERT INTO movies (title, description, duration_minutes, genre, director, rating, release_date, created_at)
+SELECT 'Movie ' || g, 'Description of movie ' || g, 80 + g % 100,
+       (ARRAY['ACTION', 'COMEDY', 'DRAMA', 'HORROR', 'ROMANCE', 'SCI_FI', 'THRILLER', 'DOCUMENTARY', 'ANIMATION', 'FANTASY'])[1 + g % 10],
+       'Director ' || g % 150, (g % 100) / 10.0, now() - g * INTERVAL '1 day', now()
+FROM generate_series(1, 500) AS g;
+
+INSERT INTO cinemas (name, address, city, phone_number)
+SELECT 'Cinema ' || g, 'Street ' || g,
+       (ARRAY['Warszawa', 'Krakow', 'Gdansk', 'Wroclaw', 'Poznan', 'Lodz'])[1 + g % 6], '220000000'
+FROM generate_series(1, 60) AS g;
+
+INSERT INTO cinema_halls (name, total_seats, rows, seats_per_row, hall_type, cinema_id)
+SELECT 'Hall ' || g, 10 * (5 + g % 10), 10, 5 + g % 10,
+       (ARRAY['STANDARD', 'IMAX', 'VIP', 'DOLBY_ATMOS'])[1 + g % 4], c.max_id - 59 + g % 60
+FROM generate_series(1, 240) AS g, (SELECT MAX(id) AS max_id FROM cinemas) AS c;
+
+INSERT INTO screenings (movie_id, hall_id, start_time, end_time, price, available_seats, created_at, version)
+SELECT m.max_id - 499 + g % 500, h.max_id - 239 + g % 240,
+       date_trunc('hour', now()) - INTERVAL '120 days' + g * INTERVAL '30 minutes',
+       date_trunc('hour', now()) - INTERVAL '120 days' + g * INTERVAL '30 minutes' + INTERVAL '2 hours',
+       25.00, g % 80, now(), 0
+FROM generate_series(1, 20000) AS g,
+     (SELECT MAX(id) AS max_id FROM movies) AS m,
+     (SELECT MAX(id) AS max_id FROM cinema_halls) AS h;
+
+INSERT INTO reservations (user_id, screening_id, total_price, status, created_at, updated_at, confirmation_code, version)
+SELECT u.max_id - 1999 + g % 2000, s.max_id - 19999 + g, 50.00,
+       (ARRAY['PENDING', 'CONFIRMED', 'CANCELLED', 'EXPIRED'])[1 + g % 4],
+       now() - g * INTERVAL '25 minutes', now(), 'PLAN' || lpad(g::text, 10, '0'), 0
+FROM generate_series(1, 10000) AS g,
+     (SELECT MAX(id) AS max_id FROM users) AS u,
+     (SELECT MAX(id) AS max_id FROM screenings) AS s;
+
+INSERT INTO reserved_seats (reservation_id, screening_id, row_number, seat_number, screening_start)
+SELECT r.id, r.screening_id, 1, 1, s.start_time
+FROM reservations r
+         JOIN screenings s ON s.id = r.screening_id
+WHERE r.confirmation_code LIKE 'PLAN%';
+
+INSERT INTO idempotency_keys (idempotency_key, fingerprint, status, created_at, expires_at)
+SELECT 'plan-key-' || g, 'fingerprint', 'COMPLETED', now(), now() + g * INTERVAL '1 minute'
+FROM generate_series(1, 500) AS g;
+
+INSERT INTO outbox_events (aggregate_id, event_type, payload, created_at, published_at)
+SELECT g, 'CREATED', '{}', now(), CASE WHEN g % 10 = 0 THEN NULL ELSE now() END
+FROM generate_series(1, 2000) AS g;
+
+ANALYZE;